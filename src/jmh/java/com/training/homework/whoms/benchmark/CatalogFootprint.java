@@ -0,0 +1,42 @@
+package com.training.homework.whoms.benchmark;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.service.ColumnarWarehouseDtoData;
+import com.training.homework.whoms.service.WarehouseDtoData;
+import com.training.homework.whoms.service.WarehouseDtoDataImpl;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Prints the heap retained by the row-oriented and columnar in-memory stores for the same catalog.
+ *
+ * <p>Sizes are measured with JOL over the whole object graph reachable from each store, indexes
+ * included. Run with {@code ./gradlew catalogFootprint}, optionally passing catalog sizes with
+ * {@code -PfootprintSizes=100000,1000000}.
+ */
+public final class CatalogFootprint {
+
+    private CatalogFootprint() {
+    }
+
+    public static void main(final String[] args) {
+        final String sizes = args.length > 0 ? args[0] : "100000,1000000";
+        System.out.printf("%12s %16s %16s %10s%n", "warehouses", "memory (bytes)", "columnar (bytes)", "ratio");
+        for (final String size : sizes.split(",")) {
+            final int catalogSize = Integer.parseInt(size.trim());
+            final List<Warehouse> catalog = new ArrayList<>(catalogSize);
+            for (int i = 0; i < catalogSize; i++) {
+                catalog.add(WarehouseFixtures.ingestedWarehouse(i));
+            }
+            final long memory = retained(new WarehouseDtoDataImpl(), catalog);
+            final long columnar = retained(new ColumnarWarehouseDtoData(), catalog);
+            System.out.printf("%12d %16d %16d %10.2f%n", catalogSize, memory, columnar, (double) memory / columnar);
+        }
+    }
+
+    private static long retained(final WarehouseDtoData warehouseDtoData, final List<Warehouse> catalog) {
+        warehouseDtoData.saveAll(catalog);
+        return GraphLayout.parseInstance(warehouseDtoData).totalSize();
+    }
+}
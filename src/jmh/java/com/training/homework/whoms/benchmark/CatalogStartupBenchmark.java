@@ -0,0 +1,92 @@
+package com.training.homework.whoms.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.training.homework.whoms.config.SnapshotFileProperties;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.service.MappedWarehouseDtoData;
+import com.training.homework.whoms.service.WarehouseDtoData;
+import com.training.homework.whoms.service.WarehouseDtoDataImpl;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Time until a freshly created store can answer its first read.
+ *
+ * <p>{@code mapSnapshot} opens the memory-mapped snapshot a previous process wrote, as a restarted
+ * node on the same host would, with the file in the page cache. {@code rebuildFromJson} parses a
+ * JSON export of the catalog and loads it into the in-memory store, standing in for rebuilding
+ * from an external source; {@code rebuildFromList} loads already parsed records, the lower bound
+ * for any rebuild.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CatalogStartupBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    private Path directory;
+    private SnapshotFileProperties snapshotProperties;
+    private List<Warehouse> catalog;
+    private byte[] catalogJson;
+    private ObjectReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        catalog = List.copyOf(WarehouseFixtures.catalog(catalogSize));
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        catalogJson = objectMapper.writeValueAsBytes(catalog);
+        reader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Warehouse.class));
+
+        directory = Files.createTempDirectory("whoms-startup");
+        snapshotProperties = new SnapshotFileProperties(directory.resolve("catalog.snapshot"), Duration.ofMinutes(1));
+        new MappedWarehouseDtoData(snapshotProperties).saveAll(catalog);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int mapSnapshot() {
+        return firstRead(new MappedWarehouseDtoData(snapshotProperties));
+    }
+
+    @Benchmark
+    public int rebuildFromJson() throws IOException {
+        final WarehouseDtoDataImpl warehouseDtoData = new WarehouseDtoDataImpl();
+        warehouseDtoData.saveAll(reader.<List<Warehouse>>readValue(catalogJson));
+        return firstRead(warehouseDtoData);
+    }
+
+    @Benchmark
+    public int rebuildFromList() {
+        final WarehouseDtoDataImpl warehouseDtoData = new WarehouseDtoDataImpl();
+        warehouseDtoData.saveAll(catalog);
+        return firstRead(warehouseDtoData);
+    }
+
+    private static int firstRead(final WarehouseDtoData warehouseDtoData) {
+        return warehouseDtoData.findWarehouse("Warehouse 0").map(Warehouse::loadingDocks).orElseThrow()
+                + warehouseDtoData.getWarehouseCount();
+    }
+}
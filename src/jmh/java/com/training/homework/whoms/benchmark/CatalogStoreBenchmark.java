@@ -0,0 +1,72 @@
+package com.training.homework.whoms.benchmark;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSort;
+import com.training.homework.whoms.service.ColumnarWarehouseDtoData;
+import com.training.homework.whoms.service.WarehouseDtoData;
+import com.training.homework.whoms.service.WarehouseDtoDataImpl;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Read paths of the row-oriented and columnar in-memory stores over the same catalog.
+ *
+ * <p>Run with {@code -PjmhIncludes=CatalogStore}; the {@code gc.alloc.rate.norm} column shows how
+ * many bytes each read allocates. Retained heap per store is reported by {@link CatalogFootprint}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogStoreBenchmark {
+
+    private static final WarehouseQuery STATE_BY_SIZE =
+            new WarehouseQuery("TX", null, null, null, null, WarehouseSort.SQUARE_FOOTAGE_DESC, null, 50);
+    private static final WarehouseQuery MINIMUMS_ONLY =
+            new WarehouseQuery(null, null, null, 400_000, 40, WarehouseSort.LOADING_DOCKS_DESC, null, 50);
+
+    @Param({"memory", "columnar"})
+    private String store;
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    private WarehouseDtoData warehouseDtoData;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<Warehouse> catalog = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            catalog.add(WarehouseFixtures.ingestedWarehouse(i));
+        }
+        warehouseDtoData = "columnar".equals(store) ? new ColumnarWarehouseDtoData() : new WarehouseDtoDataImpl();
+        warehouseDtoData.saveAll(catalog);
+    }
+
+    @Benchmark
+    public WarehousePage filterByStateSortedBySize() {
+        return warehouseDtoData.findWarehouses(STATE_BY_SIZE);
+    }
+
+    @Benchmark
+    public WarehousePage filterByMinimums() {
+        return warehouseDtoData.findWarehouses(MINIMUMS_ONLY);
+    }
+
+    @Benchmark
+    public void scanAllWarehouses(final Blackhole blackhole) {
+        warehouseDtoData.forEachWarehouse(blackhole::consume);
+    }
+}
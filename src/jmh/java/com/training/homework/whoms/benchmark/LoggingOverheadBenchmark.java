@@ -0,0 +1,137 @@
+package com.training.homework.whoms.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.training.homework.whoms.config.AuditProperties;
+import com.training.homework.whoms.config.WorkerThreads;
+import com.training.homework.whoms.dto.SpaceRequestState;
+import com.training.homework.whoms.dto.SpaceRequestStatus;
+import com.training.homework.whoms.service.SpaceRequestAuditEvent;
+import com.training.homework.whoms.service.SpaceRequestAuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Cost to the calling thread of the logging done while serving a request.
+ *
+ * <p>{@code syncAppender} formats and writes a line on the caller, as the plain console appender
+ * does; {@code asyncAppender} only hands the event to logback's {@link AsyncAppender} ring buffer,
+ * as {@code logback-spring.xml} configures it. {@code disabledDebug} is a parameterized debug call
+ * with the level off, the cost of the per-request lines that are now at debug. {@code auditInline}
+ * serializes and logs a space request audit event on the caller; {@code auditEnqueue} is what
+ * {@link SpaceRequestAuditLog} leaves on the caller. Both appenders write to a discarding stream,
+ * so the numbers show formatting and handoff rather than disk speed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingOverheadBenchmark {
+
+    private static final SpaceRequestStatus STATUS = new SpaceRequestStatus("3f0c6b1e-7a52-4d8e-9c1a-2b5e8d4f6a70",
+            "Newark Logistics Hub", 25000, 2, SpaceRequestState.ACCEPTED, null);
+
+    private final LoggerContext context = new LoggerContext();
+
+    private Logger syncLogger;
+    private Logger asyncLogger;
+    private ObjectWriter auditWriter;
+    private SpaceRequestAuditLog auditLog;
+
+    @Setup
+    public void setUp() {
+        syncLogger = context.getLogger("benchmark.sync");
+        syncLogger.setLevel(Level.INFO);
+        syncLogger.setAdditive(false);
+        syncLogger.addAppender(discardingAppender("SYNC"));
+
+        final AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(discardingAppender("ASYNC_TARGET"));
+        async.start();
+        asyncLogger = context.getLogger("benchmark.async");
+        asyncLogger.setLevel(Level.INFO);
+        asyncLogger.setAdditive(false);
+        asyncLogger.addAppender(async);
+
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        auditWriter = objectMapper.writerFor(SpaceRequestAuditEvent.class);
+
+        // The writer thread still drains the buffer but skips writing
+        ((Logger) LoggerFactory.getLogger("whoms.audit")).setLevel(Level.OFF);
+        auditLog = new SpaceRequestAuditLog(new AuditProperties(true, 8192), WorkerThreads.platform(),
+                objectMapper, new SimpleMeterRegistry());
+        auditLog.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        auditLog.stop();
+        context.stop();
+    }
+
+    @Benchmark
+    public void syncAppender() {
+        syncLogger.info("Queued warehouse space request {} for warehouse: {}", STATUS.requestId(), STATUS.warehouseName());
+    }
+
+    @Benchmark
+    public void asyncAppender() {
+        asyncLogger.info("Queued warehouse space request {} for warehouse: {}", STATUS.requestId(), STATUS.warehouseName());
+    }
+
+    @Benchmark
+    public void disabledDebug() {
+        syncLogger.debug("Queued warehouse space request {} for warehouse: {}", STATUS.requestId(), STATUS.warehouseName());
+    }
+
+    @Benchmark
+    public void auditInline() throws JsonProcessingException {
+        syncLogger.info(auditWriter.writeValueAsString(
+                SpaceRequestAuditEvent.of(SpaceRequestAuditEvent.Type.DECIDED, STATUS, null)));
+    }
+
+    @Benchmark
+    public void auditEnqueue() {
+        auditLog.onSpaceRequestEvent(SpaceRequestAuditEvent.of(SpaceRequestAuditEvent.Type.DECIDED, STATUS, null));
+    }
+
+    private Appender<ILoggingEvent> discardingAppender(final String name) {
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        final OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
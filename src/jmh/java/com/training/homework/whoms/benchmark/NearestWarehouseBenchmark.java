@@ -0,0 +1,128 @@
+package com.training.homework.whoms.benchmark;
+
+import com.training.homework.whoms.config.GeoProperties;
+import com.training.homework.whoms.dto.NearbyWarehouse;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.service.GeoPoint;
+import com.training.homework.whoms.service.NearestWarehouseService;
+import com.training.homework.whoms.service.PostalCodeCentroids;
+import com.training.homework.whoms.service.WarehouseDtoDataImpl;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.ByteArrayResource;
+
+/**
+ * Nearest-warehouse search through the spatial index against a linear haversine scan.
+ *
+ * <p>Warehouses are spread over synthetic five-digit postal codes with random continental US
+ * centroids, so the index sees a realistic spread rather than the handful of fixture locations.
+ * The {@code filtered} variants add a loading dock minimum that only a tenth of the catalog meets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NearestWarehouseBenchmark {
+
+    private static final int POSTAL_CODES = 50_000;
+    private static final int K = 10;
+    private static final int MIN_DOCKS = 40;
+
+    @Param({"1000", "100000"})
+    private int catalogSize;
+
+    private NearestWarehouseService nearestWarehouseService;
+    private PostalCodeCentroids postalCodeCentroids;
+    private List<Warehouse> catalog;
+    private String[] origins;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(7);
+        final StringBuilder csv = new StringBuilder("postal_code,latitude,longitude\n");
+        for (int i = 0; i < POSTAL_CODES; i++) {
+            csv.append(postalCode(i)).append(',')
+                    .append(String.format(Locale.ROOT, "%.4f,%.4f", 25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57))
+                    .append('\n');
+        }
+        final GeoProperties properties = new GeoProperties(new ByteArrayResource(csv.toString().getBytes(StandardCharsets.UTF_8)), 0);
+        postalCodeCentroids = new PostalCodeCentroids(properties);
+
+        catalog = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            final Warehouse fixture = WarehouseFixtures.warehouse(i);
+            catalog.add(new Warehouse(fixture.name(), fixture.address(), fixture.city(), fixture.state(),
+                    postalCode(random.nextInt(POSTAL_CODES)), fixture.warehousePhone(), fixture.squareFootage(), random.nextInt(44)));
+        }
+        final WarehouseDtoDataImpl warehouseDtoData = new WarehouseDtoDataImpl();
+        warehouseDtoData.saveAll(catalog);
+        nearestWarehouseService = new NearestWarehouseService(warehouseDtoData, postalCodeCentroids, properties);
+
+        origins = new String[1024];
+        for (int i = 0; i < origins.length; i++) {
+            origins[i] = postalCode(random.nextInt(POSTAL_CODES));
+        }
+        nearestWarehouseService.findNearest(origins[0], K, null, null);
+    }
+
+    @Benchmark
+    public List<NearbyWarehouse> indexed() {
+        return nearestWarehouseService.findNearest(nextOrigin(), K, null, null);
+    }
+
+    @Benchmark
+    public List<NearbyWarehouse> indexedFiltered() {
+        return nearestWarehouseService.findNearest(nextOrigin(), K, MIN_DOCKS, null);
+    }
+
+    @Benchmark
+    public List<Warehouse> linearScan() {
+        return scan(nextOrigin(), Integer.MIN_VALUE);
+    }
+
+    @Benchmark
+    public List<Warehouse> linearScanFiltered() {
+        return scan(nextOrigin(), MIN_DOCKS);
+    }
+
+    private List<Warehouse> scan(final String postalCode, final int minDocks) {
+        final GeoPoint origin = postalCodeCentroids.locate(postalCode).orElseThrow();
+        return catalog.stream()
+                .filter(warehouse -> warehouse.loadingDocks() >= minDocks)
+                .sorted(Comparator.comparingDouble(warehouse ->
+                        haversineKm(origin, postalCodeCentroids.locate(warehouse.postalCode()).orElseThrow())))
+                .limit(K)
+                .toList();
+    }
+
+    private String nextOrigin() {
+        return origins[next++ & (origins.length - 1)];
+    }
+
+    private static String postalCode(final int i) {
+        return String.valueOf(10_000 + i);
+    }
+
+    private static double haversineKm(final GeoPoint from, final GeoPoint to) {
+        final double deltaLatitude = Math.toRadians(to.latitude() - from.latitude());
+        final double deltaLongitude = Math.toRadians(to.longitude() - from.longitude());
+        final double a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                + Math.cos(Math.toRadians(from.latitude())) * Math.cos(Math.toRadians(to.latitude()))
+                * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * 6371.0088 * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,71 @@
+package com.training.homework.whoms.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.training.homework.whoms.dto.Warehouse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Deserialization of a {@code POST /whoms/v1/warehouse/request-space} body.
+ *
+ * <p>{@code objectReader} is the Jackson cost alone; {@code messageConverter} goes through the
+ * same {@link MappingJackson2HttpMessageConverter} Spring MVC uses for {@code @RequestBody}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpaceRequestDeserializationBenchmark {
+
+    private static final byte[] REQUEST_BODY = """
+            {"name":"Newark Logistics Hub","squareFootage":25000,"loadingDocks":2}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private ObjectReader reader;
+    private MappingJackson2HttpMessageConverter converter;
+    private HttpHeaders headers;
+
+    @Setup
+    public void setUp() {
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = objectMapper.readerFor(Warehouse.class);
+        converter = new MappingJackson2HttpMessageConverter(objectMapper);
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public Warehouse objectReader() throws IOException {
+        return reader.readValue(REQUEST_BODY);
+    }
+
+    @Benchmark
+    public Object messageConverter() throws IOException {
+        return converter.read(Warehouse.class, new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(REQUEST_BODY);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package com.training.homework.whoms.benchmark;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.service.WarehouseDtoDataImpl;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of handing the warehouse catalog to callers.
+ *
+ * <p>{@code getAllWarehouses} measures the in-memory store end to end. The remaining benchmarks
+ * isolate the defensive copy: {@code List.copyOf} of an already immutable list returns the same
+ * instance, while copying a mutable list is linear in the catalog size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WarehouseDtoDataBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int catalogSize;
+
+    private WarehouseDtoDataImpl warehouseDtoData;
+    private List<Warehouse> mutableCatalog;
+    private List<Warehouse> immutableCatalog;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mutableCatalog = new ArrayList<>(WarehouseFixtures.catalog(catalogSize));
+        immutableCatalog = List.copyOf(mutableCatalog);
+        warehouseDtoData = new WarehouseDtoDataImpl();
+        warehouseDtoData.saveAll(mutableCatalog);
+    }
+
+    @Benchmark
+    public List<Warehouse> getAllWarehouses() {
+        return warehouseDtoData.getAllWarehouses();
+    }
+
+    @Benchmark
+    public List<Warehouse> copyOfMutableCatalog() {
+        return List.copyOf(mutableCatalog);
+    }
+
+    @Benchmark
+    public List<Warehouse> copyOfImmutableCatalog() {
+        return List.copyOf(immutableCatalog);
+    }
+
+    @Benchmark
+    public List<Warehouse> withoutCopy() {
+        return immutableCatalog;
+    }
+}
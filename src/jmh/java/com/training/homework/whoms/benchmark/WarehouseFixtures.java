@@ -0,0 +1,78 @@
+package com.training.homework.whoms.benchmark;
+
+import com.training.homework.whoms.dto.Warehouse;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic warehouse catalogs of arbitrary size for benchmarks.
+ */
+final class WarehouseFixtures {
+
+    private static final String[][] LOCATIONS = {
+            {"Columbus", "OH", "43215"},
+            {"Newark", "NJ", "07102"},
+            {"Sioux Falls", "SD", "57104"},
+            {"Reno", "NV", "89502"},
+            {"Memphis", "TN", "38118"},
+            {"Dallas", "TX", "75247"},
+            {"Ontario", "CA", "91761"},
+            {"Savannah", "GA", "31408"}
+    };
+
+    private WarehouseFixtures() {
+    }
+
+    /**
+     * Builds a catalog of uniquely named warehouses spread over a fixed set of locations.
+     *
+     * @param size number of warehouses
+     * @return the catalog, in generation order
+     */
+    static List<Warehouse> catalog(final int size) {
+        final List<Warehouse> warehouses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            warehouses.add(warehouse(i));
+        }
+        return warehouses;
+    }
+
+    /**
+     * Builds the warehouse at a given position of a generated catalog.
+     *
+     * @param i position in the catalog
+     * @return the warehouse
+     */
+    static Warehouse warehouse(final int i) {
+        final String[] location = LOCATIONS[i % LOCATIONS.length];
+        return new Warehouse(
+                "Warehouse " + i,
+                (100 + i % 9900) + " Freight Avenue",
+                location[0],
+                location[1],
+                location[2],
+                "(555) 555-" + String.format("%04d", i % 10000),
+                50000 + (i * 7919) % 450000,
+                4 + i % 40);
+    }
+
+    /**
+     * Builds the warehouse at a given position the way a parsed request would hold it, with its
+     * own copy of every string instead of the shared fixture constants.
+     *
+     * @param i position in the catalog
+     * @return the warehouse
+     */
+    static Warehouse ingestedWarehouse(final int i) {
+        final Warehouse warehouse = warehouse(i);
+        return new Warehouse(
+                warehouse.name(),
+                warehouse.address(),
+                new String(warehouse.city()),
+                new String(warehouse.state()),
+                new String(warehouse.postalCode()),
+                warehouse.warehousePhone(),
+                warehouse.squareFootage(),
+                warehouse.loadingDocks());
+    }
+}
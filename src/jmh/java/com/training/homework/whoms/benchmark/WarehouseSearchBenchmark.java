@@ -0,0 +1,130 @@
+package com.training.homework.whoms.benchmark;
+
+import com.training.homework.whoms.config.SearchProperties;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehouseSearchHit;
+import com.training.homework.whoms.service.WarehouseDtoDataImpl;
+import com.training.homework.whoms.service.WarehouseSearchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Full-text warehouse search through the inverted index against a linear substring scan.
+ *
+ * <p>Names, streets and cities are drawn from word lists, so common words such as
+ * {@code distribution} match a large share of the catalog while place names match a small one,
+ * as in a real catalog. {@code prefix} searches for the start of a place name, {@code twoWords}
+ * for a place name and a street name, and {@code misspelled} for a place name with one letter
+ * replaced. Run with {@code -PjmhIncludes=WarehouseSearch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WarehouseSearchBenchmark {
+
+    private static final String[] PLACES = {
+            "Charlotte", "Charleston", "Portland", "Providence", "Albany", "Newark", "Richmond", "Jacksonville",
+            "Houston", "Sioux", "Memphis", "Dallas", "Ontario", "Savannah", "Columbus", "Reno", "Boise", "Tacoma",
+            "Spokane", "Fresno", "Stockton", "Laredo", "Joliet", "Peoria", "Akron", "Toledo", "Dayton", "Lansing",
+            "Trenton", "Camden", "Allentown", "Scranton", "Harrisburg", "Wilmington", "Durham", "Raleigh"};
+    private static final String[] KINDS = {
+            "Distribution Center", "Logistics Hub", "Fulfillment Center", "Storage Facility", "Regional Warehouse",
+            "Cold Storage", "Cross Dock", "Freight Terminal", "Depot", "Overflow"};
+    private static final String[] STREETS = {
+            "Industrial Way", "Commerce Blvd", "Freight Avenue", "Warehouse Drive", "Supply Chain Road",
+            "Logistics Lane", "Port Access Road", "Petroleum Plaza", "Prairie Commerce Way", "Harbor Road",
+            "Rail Spur Drive", "Airport Parkway", "Canal Street", "Depot Street", "Interchange Court"};
+    private static final int LIMIT = 10;
+    private static final int QUERIES = 1024;
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    private WarehouseSearchService searchService;
+    private List<Warehouse> catalog;
+    private String[] prefixQueries;
+    private String[] twoWordQueries;
+    private String[] misspelledQueries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(11);
+        catalog = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            final String place = PLACES[random.nextInt(PLACES.length)];
+            catalog.add(new Warehouse(
+                    place + " " + KINDS[random.nextInt(KINDS.length)] + " " + i,
+                    (1 + random.nextInt(9999)) + " " + STREETS[random.nextInt(STREETS.length)],
+                    PLACES[random.nextInt(PLACES.length)],
+                    "TX",
+                    "75247",
+                    null,
+                    50_000 + random.nextInt(450_000),
+                    4 + random.nextInt(40)));
+        }
+        final WarehouseDtoDataImpl warehouseDtoData = new WarehouseDtoDataImpl();
+        warehouseDtoData.saveAll(catalog);
+        searchService = new WarehouseSearchService(warehouseDtoData, new SearchProperties(0, 0));
+
+        prefixQueries = new String[QUERIES];
+        twoWordQueries = new String[QUERIES];
+        misspelledQueries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            final String place = PLACES[random.nextInt(PLACES.length)];
+            prefixQueries[i] = place.substring(0, 3 + random.nextInt(place.length() - 3));
+            twoWordQueries[i] = place + " " + STREETS[random.nextInt(STREETS.length)].split(" ")[0];
+            final int replaced = 1 + random.nextInt(place.length() - 1);
+            misspelledQueries[i] = place.substring(0, replaced) + 'x' + place.substring(replaced + 1);
+        }
+        searchService.search(prefixQueries[0], LIMIT);
+    }
+
+    @Benchmark
+    public List<WarehouseSearchHit> prefix() {
+        return searchService.search(prefixQueries[nextQuery()], LIMIT);
+    }
+
+    @Benchmark
+    public List<WarehouseSearchHit> twoWords() {
+        return searchService.search(twoWordQueries[nextQuery()], LIMIT);
+    }
+
+    @Benchmark
+    public List<WarehouseSearchHit> misspelled() {
+        return searchService.search(misspelledQueries[nextQuery()], LIMIT);
+    }
+
+    @Benchmark
+    public List<Warehouse> linearScan() {
+        final String[] words = twoWordQueries[nextQuery()].toLowerCase(Locale.ROOT).split(" ");
+        final List<Warehouse> matches = new ArrayList<>(LIMIT);
+        for (final Warehouse warehouse : catalog) {
+            final String text = (warehouse.name() + " " + warehouse.address() + " " + warehouse.city()).toLowerCase(Locale.ROOT);
+            boolean all = true;
+            for (final String word : words) {
+                all &= text.contains(word);
+            }
+            if (all && matches.size() < LIMIT) {
+                matches.add(warehouse);
+            }
+        }
+        return matches;
+    }
+
+    private int nextQuery() {
+        return next++ & (QUERIES - 1);
+    }
+}
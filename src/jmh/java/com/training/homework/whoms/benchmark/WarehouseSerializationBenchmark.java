@@ -0,0 +1,60 @@
+package com.training.homework.whoms.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.training.homework.whoms.dto.Warehouse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON serialization and deserialization of the warehouse catalog.
+ *
+ * <p>The mapper is built with the same Spring defaults the application's message converters use,
+ * and the reader and writer are resolved once, as they are for a warm request path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WarehouseSerializationBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int catalogSize;
+
+    private List<Warehouse> catalog;
+    private byte[] catalogJson;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        final JavaType catalogType = objectMapper.getTypeFactory().constructCollectionType(List.class, Warehouse.class);
+        writer = objectMapper.writerFor(catalogType);
+        reader = objectMapper.readerFor(catalogType);
+        catalog = List.copyOf(WarehouseFixtures.catalog(catalogSize));
+        catalogJson = writer.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] serializeCatalog() throws IOException {
+        return writer.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public List<Warehouse> deserializeCatalog() throws IOException {
+        return reader.readValue(catalogJson);
+    }
+}
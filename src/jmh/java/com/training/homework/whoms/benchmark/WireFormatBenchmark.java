@@ -0,0 +1,96 @@
+package com.training.homework.whoms.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.training.homework.whoms.config.WireFormat;
+import com.training.homework.whoms.dto.Warehouse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoding and decoding of the warehouse catalog and a space request body as JSON, CBOR and Smile.
+ *
+ * <p>Each format uses a copy of the same Spring-built JSON mapper, as the application's message
+ * converters do, so the difference is the token format alone. Payload sizes, raw and gzipped, are
+ * printed once per trial since JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    private static final Warehouse SPACE_REQUEST =
+            new Warehouse("Newark Logistics Hub", null, null, null, null, null, 25000, 2);
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private WireFormat format;
+
+    @Param({"1000", "100000"})
+    private int catalogSize;
+
+    private List<Warehouse> catalog;
+    private byte[] encodedCatalog;
+    private byte[] encodedSpaceRequest;
+    private ObjectWriter catalogWriter;
+    private ObjectReader catalogReader;
+    private ObjectWriter warehouseWriter;
+    private ObjectReader warehouseReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final ObjectMapper objectMapper = format.mapperFrom(Jackson2ObjectMapperBuilder.json().build());
+        final JavaType catalogType = objectMapper.getTypeFactory().constructCollectionType(List.class, Warehouse.class);
+        catalogWriter = objectMapper.writerFor(catalogType);
+        catalogReader = objectMapper.readerFor(catalogType);
+        warehouseWriter = objectMapper.writerFor(Warehouse.class);
+        warehouseReader = objectMapper.readerFor(Warehouse.class);
+        catalog = List.copyOf(WarehouseFixtures.catalog(catalogSize));
+        encodedCatalog = catalogWriter.writeValueAsBytes(catalog);
+        encodedSpaceRequest = warehouseWriter.writeValueAsBytes(SPACE_REQUEST);
+        System.out.printf("%n%s: %,d warehouses encode to %,d bytes (%,d gzipped), a space request to %d bytes%n",
+                format, catalogSize, encodedCatalog.length, gzippedSize(encodedCatalog), encodedSpaceRequest.length);
+    }
+
+    @Benchmark
+    public byte[] encodeCatalog() throws IOException {
+        return catalogWriter.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public List<Warehouse> decodeCatalog() throws IOException {
+        return catalogReader.readValue(encodedCatalog);
+    }
+
+    @Benchmark
+    public byte[] encodeSpaceRequest() throws IOException {
+        return warehouseWriter.writeValueAsBytes(SPACE_REQUEST);
+    }
+
+    @Benchmark
+    public Warehouse decodeSpaceRequest() throws IOException {
+        return warehouseReader.readValue(encodedSpaceRequest);
+    }
+
+    private static int gzippedSize(final byte[] content) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(content);
+        }
+        return buffer.size();
+    }
+}
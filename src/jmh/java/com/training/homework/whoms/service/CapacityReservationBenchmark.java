@@ -0,0 +1,157 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.config.ReservationProperties;
+import com.training.homework.whoms.dto.Warehouse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Throughput of reserve-then-release against a single hot warehouse as thread count grows.
+ *
+ * <p>The {@code striped} and {@code globalLock} benchmarks run the same loop, reserving capacity
+ * and returning it straight away, on {@link CapacityLedger} and on a ledger that serializes every
+ * update on one monitor, the simplest correct alternative. Both hold enough capacity that every
+ * stripe can cover a request, so they compare contention on the ledger alone. This benchmark lives
+ * in the service package because the ledger is package-private.
+ *
+ * <p>The {@code engine} benchmark reserves through {@link CapacityReservationEngine} for scale. Each
+ * call needs a fresh request ID, so it also pays for recording and expiring one decision per
+ * request, which costs far more than the ledger update.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CapacityReservationBenchmark {
+
+    private static final int SQUARE_FOOTAGE = 100_000_000;
+    private static final int LOADING_DOCKS = 1_000_000;
+    private static final int REQUESTED_SQUARE_FOOTAGE = 1000;
+    private static final int REQUESTED_LOADING_DOCKS = 1;
+    private static final Warehouse WAREHOUSE = new Warehouse("Newark Logistics Hub", "9012 Freight Avenue", "Newark",
+            "NJ", "07102", "(973) 555-0301", SQUARE_FOOTAGE, LOADING_DOCKS);
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    private CapacityLedger stripedLedger;
+    private GlobalLockLedger globalLockLedger;
+    private CapacityReservationEngine engine;
+
+    @Setup
+    public void setUp() {
+        final ReservationProperties properties = new ReservationProperties(
+                Runtime.getRuntime().availableProcessors(), 4, Duration.ofMinutes(1), 100_000, null, 0);
+        stripedLedger = new CapacityLedger(SQUARE_FOOTAGE, LOADING_DOCKS, properties.maxStripes(),
+                properties.contentionThreshold());
+        globalLockLedger = new GlobalLockLedger(SQUARE_FOOTAGE, LOADING_DOCKS);
+        engine = new CapacityReservationEngine(properties, event -> { });
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean striped1Thread() {
+        return stripedReserveAndRelease();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean striped4Threads() {
+        return stripedReserveAndRelease();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean stripedAllThreads() {
+        return stripedReserveAndRelease();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean globalLock1Thread() {
+        return globalLockLedger.reserveAndRelease(REQUESTED_SQUARE_FOOTAGE, REQUESTED_LOADING_DOCKS);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean globalLock4Threads() {
+        return globalLockLedger.reserveAndRelease(REQUESTED_SQUARE_FOOTAGE, REQUESTED_LOADING_DOCKS);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean globalLockAllThreads() {
+        return globalLockLedger.reserveAndRelease(REQUESTED_SQUARE_FOOTAGE, REQUESTED_LOADING_DOCKS);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean engineAllThreads(final RequestIds requestIds) {
+        final String requestId = requestIds.next();
+        return engine.reserve(requestId, WAREHOUSE, REQUESTED_SQUARE_FOOTAGE, REQUESTED_LOADING_DOCKS).accepted()
+                && engine.release(requestId);
+    }
+
+    private boolean stripedReserveAndRelease() {
+        if (!stripedLedger.tryReserve(REQUESTED_SQUARE_FOOTAGE, REQUESTED_LOADING_DOCKS)) {
+            return false;
+        }
+        stripedLedger.release(REQUESTED_SQUARE_FOOTAGE, REQUESTED_LOADING_DOCKS);
+        return true;
+    }
+
+    /**
+     * Per-thread request ID source, so generating unique IDs adds no contention of its own.
+     */
+    @State(Scope.Thread)
+    public static class RequestIds {
+
+        private String prefix;
+        private long sequence;
+
+        @Setup
+        public void setUp(final CapacityReservationBenchmark benchmark) {
+            prefix = benchmark.threadIds.incrementAndGet() + "-";
+        }
+
+        String next() {
+            return prefix + sequence++;
+        }
+    }
+
+    /**
+     * Capacity ledger that serializes every reservation on one monitor.
+     */
+    private static final class GlobalLockLedger {
+
+        private long squareFootage;
+        private long loadingDocks;
+
+        GlobalLockLedger(final long squareFootage, final long loadingDocks) {
+            this.squareFootage = squareFootage;
+            this.loadingDocks = loadingDocks;
+        }
+
+        boolean reserveAndRelease(final int requestedSquareFootage, final int requestedLoadingDocks) {
+            synchronized (this) {
+                if (squareFootage < requestedSquareFootage || loadingDocks < requestedLoadingDocks) {
+                    return false;
+                }
+                squareFootage -= requestedSquareFootage;
+                loadingDocks -= requestedLoadingDocks;
+            }
+            synchronized (this) {
+                squareFootage += requestedSquareFootage;
+                loadingDocks += requestedLoadingDocks;
+            }
+            return true;
+        }
+    }
+}
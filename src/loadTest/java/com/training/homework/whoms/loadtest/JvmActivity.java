@@ -0,0 +1,38 @@
+package com.training.homework.whoms.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Cumulative garbage collection and allocation counters of this JVM at one moment.
+ *
+ * <p>The application and the load generator share the JVM, so allocation includes the generator's
+ * HTTP client as well as the service; compare runs with each other rather than reading the
+ * figures as the service's alone.
+ *
+ * @param collections garbage collections so far, across all collectors
+ * @param collectionMillis time spent in garbage collection so far
+ * @param allocatedBytes bytes allocated by all live and terminated threads so far
+ */
+record JvmActivity(long collections, long collectionMillis, long allocatedBytes) {
+
+    static JvmActivity now() {
+        long collections = 0;
+        long collectionMillis = 0;
+        for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(0, collector.getCollectionCount());
+            collectionMillis += Math.max(0, collector.getCollectionTime());
+        }
+        final long allocatedBytes = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                ? threads.getTotalThreadAllocatedBytes()
+                : -1;
+        return new JvmActivity(collections, collectionMillis, allocatedBytes);
+    }
+
+    JvmActivity since(final JvmActivity earlier) {
+        return new JvmActivity(
+                collections - earlier.collections,
+                collectionMillis - earlier.collectionMillis,
+                allocatedBytes < 0 ? -1 : allocatedBytes - earlier.allocatedBytes);
+    }
+}
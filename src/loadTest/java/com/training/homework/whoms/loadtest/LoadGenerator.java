@@ -0,0 +1,131 @@
+package com.training.homework.whoms.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator.
+ *
+ * <p>Requests are started on a fixed schedule at the configured rate, each on its own virtual
+ * thread, regardless of how many earlier requests are still running, as independent clients
+ * would. Latency is measured from a request's scheduled start rather than the moment it was sent,
+ * so when the generator itself falls behind, or requests wait for a slot under the in-flight cap,
+ * the delay is charged to the service instead of hiding it (coordinated omission).
+ */
+final class LoadGenerator {
+
+    private final HttpClient httpClient;
+    private final List<HttpRequest> reads;
+    private final List<HttpRequest> writes;
+    private final LoadSettings settings;
+
+    LoadGenerator(final HttpClient httpClient, final List<HttpRequest> reads, final List<HttpRequest> writes,
+            final LoadSettings settings) {
+        this.httpClient = httpClient;
+        this.reads = reads;
+        this.writes = writes;
+        this.settings = settings;
+    }
+
+    /**
+     * Drives the configured mix at the configured rate and records every request started.
+     *
+     * @param duration how long to start requests for
+     * @return the recorded latencies and outcomes
+     * @throws InterruptedException if interrupted while waiting for requests to finish
+     */
+    Recording run(final Duration duration) throws InterruptedException {
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.requestsPerSecond();
+        final int planned = (int) (duration.toNanos() / intervalNanos);
+        final Recording recording = new Recording(planned);
+        final Semaphore inFlight = new Semaphore(settings.maxInFlight());
+        final long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int request = 0; request < planned; request++) {
+                final long scheduled = start + request * intervalNanos;
+                final long delay = scheduled - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                inFlight.acquire();
+                final boolean write = ThreadLocalRandom.current().nextDouble() < settings.spaceRequestRatio();
+                final List<HttpRequest> choices = write ? writes : reads;
+                final HttpRequest httpRequest = choices.get(ThreadLocalRandom.current().nextInt(choices.size()));
+                executor.execute(() -> {
+                    try {
+                        final HttpResponse<Void> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+                        recording.record(System.nanoTime() - scheduled, response.statusCode() >= 400);
+                    } catch (Exception e) {
+                        recording.record(System.nanoTime() - scheduled, true);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        recording.finish(System.nanoTime() - start);
+        return recording;
+    }
+
+    /**
+     * Latencies and errors of one run. Every latency is kept, which for the rates and durations a
+     * single JVM can drive is a few megabytes at most and gives exact percentiles.
+     */
+    static final class Recording {
+
+        private final long[] latencies;
+        private final AtomicInteger recorded = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+        private long elapsedNanos;
+        private long[] sorted;
+
+        Recording(final int planned) {
+            this.latencies = new long[planned];
+        }
+
+        void record(final long latencyNanos, final boolean error) {
+            latencies[recorded.getAndIncrement()] = latencyNanos;
+            if (error) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void finish(final long elapsed) {
+            this.elapsedNanos = elapsed;
+            this.sorted = Arrays.copyOf(latencies, recorded.get());
+            Arrays.sort(sorted);
+        }
+
+        int requests() {
+            return sorted.length;
+        }
+
+        double throughput() {
+            return sorted.length / (elapsedNanos / 1e9);
+        }
+
+        double errorRate() {
+            return sorted.length == 0 ? 0 : (double) errors.get() / sorted.length;
+        }
+
+        double percentileMillis(final double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            final int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.clamp(index, 0, sorted.length - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.training.homework.whoms.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Results of a measured load test run, and their comparison against a recorded baseline.
+ *
+ * @param requests requests completed in the measured window
+ * @param throughput completed requests per second
+ * @param errorRate fraction of requests that failed or returned 4xx or 5xx
+ * @param p50Millis median latency from scheduled start
+ * @param p99Millis 99th percentile latency from scheduled start
+ * @param p999Millis 99.9th percentile latency from scheduled start
+ * @param collections garbage collections during the window
+ * @param collectionMillis time spent in garbage collection during the window
+ * @param allocatedBytesPerRequest bytes allocated in the JVM per completed request, or -1 if unavailable
+ */
+record LoadReport(
+        int requests,
+        double throughput,
+        double errorRate,
+        double p50Millis,
+        double p99Millis,
+        double p999Millis,
+        long collections,
+        long collectionMillis,
+        long allocatedBytesPerRequest
+) {
+
+    /** Errors tolerated above the baseline error rate, so a clean baseline does not fail on one timeout. */
+    private static final double ERROR_RATE_ALLOWANCE = 0.001;
+
+    static LoadReport of(final LoadGenerator.Recording recording, final JvmActivity activity) {
+        return new LoadReport(
+                recording.requests(),
+                recording.throughput(),
+                recording.errorRate(),
+                recording.percentileMillis(50),
+                recording.percentileMillis(99),
+                recording.percentileMillis(99.9),
+                activity.collections(),
+                activity.collectionMillis(),
+                activity.allocatedBytes() < 0 || recording.requests() == 0
+                        ? -1
+                        : activity.allocatedBytes() / recording.requests());
+    }
+
+    /**
+     * Lists the ways this run is worse than the baseline by more than the tolerance.
+     *
+     * <p>Throughput may fall and latencies and allocation may rise by {@code tolerance} as a
+     * fraction of the baseline; the error rate may rise by a tenth of a percent.
+     *
+     * @param baseline the recorded baseline
+     * @param tolerance fraction of the baseline a result may be worse by
+     * @return descriptions of each regression, empty if none
+     */
+    List<String> regressionsAgainst(final LoadReport baseline, final double tolerance) {
+        final List<String> regressions = new ArrayList<>();
+        if (throughput < baseline.throughput * (1 - tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "throughput %.1f/s below baseline %.1f/s", throughput, baseline.throughput));
+        }
+        if (errorRate > baseline.errorRate + ERROR_RATE_ALLOWANCE) {
+            regressions.add(String.format(Locale.ROOT, "error rate %.4f above baseline %.4f", errorRate, baseline.errorRate));
+        }
+        checkCeiling(regressions, "p50", p50Millis, baseline.p50Millis, tolerance);
+        checkCeiling(regressions, "p99", p99Millis, baseline.p99Millis, tolerance);
+        checkCeiling(regressions, "p999", p999Millis, baseline.p999Millis, tolerance);
+        if (allocatedBytesPerRequest >= 0 && baseline.allocatedBytesPerRequest >= 0
+                && allocatedBytesPerRequest > baseline.allocatedBytesPerRequest * (1 + tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "allocation %,d B/request above baseline %,d B/request",
+                    allocatedBytesPerRequest, baseline.allocatedBytesPerRequest));
+        }
+        return regressions;
+    }
+
+    String summary(final LoadSettings settings) {
+        return String.format(Locale.ROOT, """
+                Load test (%s threads, %d rps target, %d max in flight, %.0f%% space requests, %s measured)
+                  requests     %,d
+                  throughput   %.1f/s
+                  error rate   %.4f
+                  latency      p50 %.2f ms, p99 %.2f ms, p999 %.2f ms
+                  gc           %d collections, %d ms
+                  allocation   %,d B/request""",
+                settings.virtualThreads() ? "virtual" : "platform", settings.requestsPerSecond(), settings.maxInFlight(),
+                settings.spaceRequestRatio() * 100, settings.duration(),
+                requests, throughput, errorRate, p50Millis, p99Millis, p999Millis, collections, collectionMillis,
+                allocatedBytesPerRequest);
+    }
+
+    static LoadReport read(final Path file) throws IOException {
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return new LoadReport(
+                Integer.parseInt(properties.getProperty("requests")),
+                Double.parseDouble(properties.getProperty("throughput")),
+                Double.parseDouble(properties.getProperty("error-rate")),
+                Double.parseDouble(properties.getProperty("p50-millis")),
+                Double.parseDouble(properties.getProperty("p99-millis")),
+                Double.parseDouble(properties.getProperty("p999-millis")),
+                Long.parseLong(properties.getProperty("collections")),
+                Long.parseLong(properties.getProperty("collection-millis")),
+                Long.parseLong(properties.getProperty("allocated-bytes-per-request")));
+    }
+
+    void write(final Path file, final LoadSettings settings) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty("requests", Integer.toString(requests));
+        properties.setProperty("throughput", Double.toString(throughput));
+        properties.setProperty("error-rate", Double.toString(errorRate));
+        properties.setProperty("p50-millis", Double.toString(p50Millis));
+        properties.setProperty("p99-millis", Double.toString(p99Millis));
+        properties.setProperty("p999-millis", Double.toString(p999Millis));
+        properties.setProperty("collections", Long.toString(collections));
+        properties.setProperty("collection-millis", Long.toString(collectionMillis));
+        properties.setProperty("allocated-bytes-per-request", Long.toString(allocatedBytesPerRequest));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, String.format(Locale.ROOT, "Load test baseline: %d rps, %d max in flight, %.2f space requests, %s",
+                    settings.requestsPerSecond(), settings.maxInFlight(), settings.spaceRequestRatio(), settings.duration()));
+        }
+    }
+
+    private static void checkCeiling(final List<String> regressions, final String name, final double value,
+            final double baseline, final double tolerance) {
+        if (value > baseline * (1 + tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "%s latency %.2f ms above baseline %.2f ms", name, value, baseline));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.training.homework.whoms.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test settings, read from {@code whoms.load.*} system properties set by the Gradle task.
+ *
+ * @param requestsPerSecond rate requests are started at, whether or not earlier ones have completed
+ * @param warmup time driven at full rate before measuring, to let the JIT and pools settle
+ * @param duration time measured after the warmup
+ * @param maxInFlight requests allowed in flight before new ones wait, and are charged for waiting
+ * @param spaceRequestRatio fraction of requests that are space requests rather than catalog reads
+ * @param baseline file holding the recorded baseline for this thread mode
+ * @param recordBaseline whether to write this run's results to the baseline instead of checking them
+ * @param tolerance fraction results may be worse than the baseline by before the run fails
+ * @param virtualThreads whether the application handles requests on virtual threads
+ */
+record LoadSettings(
+        int requestsPerSecond,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        double spaceRequestRatio,
+        Path baseline,
+        boolean recordBaseline,
+        double tolerance,
+        boolean virtualThreads
+) {
+
+    static LoadSettings fromSystemProperties() {
+        final boolean virtualThreads = Boolean.getBoolean("spring.threads.virtual.enabled");
+        return new LoadSettings(
+                Integer.getInteger("whoms.load.rps", 200),
+                Duration.parse("PT" + System.getProperty("whoms.load.warmup", "10s")),
+                Duration.parse("PT" + System.getProperty("whoms.load.duration", "30s")),
+                Integer.getInteger("whoms.load.concurrency", 64),
+                Double.parseDouble(System.getProperty("whoms.load.space-request-ratio", "0.2")),
+                Path.of(System.getProperty("whoms.load.baseline-dir", "src/loadTest/baselines"))
+                        .resolve((virtualThreads ? "virtual" : "platform") + ".properties"),
+                Boolean.getBoolean("whoms.load.record-baseline"),
+                Double.parseDouble(System.getProperty("whoms.load.tolerance", "0.2")),
+                virtualThreads);
+    }
+}
@@ -0,0 +1,117 @@
+package com.training.homework.whoms.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.abort;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.homework.whoms.dto.Warehouse;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Drives the running service over HTTP with a mix of catalog reads and space requests, and fails
+ * if throughput, latency, error rate or allocation regress from the recorded baseline. Without a
+ * baseline for the thread model being run, the test is reported as skipped rather than passed.
+ *
+ * <p>Run with {@code ./gradlew loadTest}; see the task in {@code build.gradle} for the settings.
+ * Rate limiting is turned off so every client request reaches the service being measured.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "whoms.rate-limit.enabled=false")
+class WarehouseLoadTest {
+
+    private static final String BASE_PATH = "/whoms/v1/";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        clientExecutor.close();
+    }
+
+    @Test
+    void shouldStayWithinBaseline_whenDrivenWithMixedWorkload() throws Exception {
+        // Given
+        final LoadSettings settings = LoadSettings.fromSystemProperties();
+        final HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        final HttpRequest catalogRead = HttpRequest.newBuilder(uri("warehouses"))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .GET()
+                .build();
+        final LoadGenerator generator = new LoadGenerator(httpClient, List.of(catalogRead),
+                spaceRequests(httpClient, catalogRead), settings);
+
+        // When
+        generator.run(settings.warmup());
+        final JvmActivity before = JvmActivity.now();
+        final LoadGenerator.Recording recording = generator.run(settings.duration());
+        final LoadReport report = LoadReport.of(recording, JvmActivity.now().since(before));
+
+        // Then
+        System.out.println(report.summary(settings));
+        if (settings.recordBaseline()) {
+            report.write(settings.baseline(), settings);
+            System.out.println("Recorded baseline " + settings.baseline().toAbsolutePath());
+        } else if (Files.exists(settings.baseline())) {
+            assertThat(report.regressionsAgainst(LoadReport.read(settings.baseline()), settings.tolerance()))
+                    .as("Regressions against %s", settings.baseline())
+                    .isEmpty();
+        } else {
+            abort("No baseline at " + settings.baseline().toAbsolutePath()
+                    + ", so the regression gate is not in effect; run with -PrecordBaseline on a quiet machine"
+                    + " and commit the file to enable it");
+        }
+    }
+
+    private List<HttpRequest> spaceRequests(final HttpClient httpClient, final HttpRequest catalogRead) throws Exception {
+        final HttpResponse<byte[]> catalog = httpClient.send(catalogRead, HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(catalog.statusCode()).isEqualTo(200);
+        // Small reservations, so the catalog's capacity lasts the run and requests stay on the accept path
+        return Arrays.stream(objectMapper.readValue(catalog.body(), Warehouse[].class))
+                .map(warehouse -> new Warehouse(warehouse.name(), null, null, null, null, null, 1, 0))
+                .map(this::spaceRequest)
+                .toList();
+    }
+
+    private HttpRequest spaceRequest(final Warehouse warehouse) {
+        try {
+            return HttpRequest.newBuilder(uri("warehouse/request-space"))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(warehouse)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode space request for " + warehouse.name(), e);
+        }
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + port + BASE_PATH + path);
+    }
+}
@@ -2,8 +2,10 @@ package com.training.homework.whoms;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ManagementServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,29 @@
+package com.training.homework.whoms.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the {@link AccessLogFilter} on the {@code /whoms/v1} API when
+ * {@code whoms.access-log.enabled} is set.
+ *
+ * <p>The filter runs first so the logged time covers the whole request, including rate limiting
+ * and writing the response.
+ */
+@Configuration
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLogConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "whoms.access-log.enabled", havingValue = "true")
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(final AccessLogProperties properties) {
+        final FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(new AccessLogFilter(properties));
+        registration.addUrlPatterns("/whoms/v1/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
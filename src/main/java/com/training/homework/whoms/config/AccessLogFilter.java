@@ -0,0 +1,115 @@
+package com.training.homework.whoms.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Writes one access log line per sampled request to the {@code whoms.access} logger.
+ *
+ * <p>Server errors and requests slower than {@code whoms.access-log.slow-threshold} are always
+ * logged; other requests with probability {@code whoms.access-log.sample-rate}. The decision is
+ * made once the response is complete and before anything is formatted, so a request that is not
+ * logged costs a clock read and a random number. Logged lines are handed to the asynchronous
+ * appender configured in {@code logback-spring.xml} rather than written on the request thread.
+ * Requests that go asynchronous, such as the change feed and the export, are logged when they
+ * complete.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("whoms.access");
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final LongSupplier nanoTime;
+    private final DoubleSupplier random;
+
+    public AccessLogFilter(final AccessLogProperties properties) {
+        this(properties, System::nanoTime, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    AccessLogFilter(final AccessLogProperties properties, final LongSupplier nanoTime, final DoubleSupplier random) {
+        this.sampleRate = properties.sampleRate();
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+        this.nanoTime = nanoTime;
+        this.random = random;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final FilterChain filterChain) throws ServletException, IOException {
+        final long start = nanoTime.getAsLong();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, start));
+            } else {
+                log(request, response, start);
+            }
+        }
+    }
+
+    private void log(final HttpServletRequest request, final HttpServletResponse response, final long start) {
+        if (!accessLogger.isInfoEnabled()) {
+            return;
+        }
+        final long elapsed = nanoTime.getAsLong() - start;
+        final int status = response.getStatus();
+        if (status < HttpServletResponse.SC_INTERNAL_SERVER_ERROR && elapsed < slowThresholdNanos
+                && random.getAsDouble() >= sampleRate) {
+            return;
+        }
+        accessLogger.info("{} {} {} {}ms {}", request.getMethod(), request.getRequestURI(), status,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), request.getRemoteAddr());
+    }
+
+    /**
+     * Logs an asynchronous request once its response is complete.
+     */
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+
+        CompletionListener(final HttpServletRequest request, final HttpServletResponse response, final long start) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) {
+            log(request, response, start);
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+            // logged on completion
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+            // logged on completion
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+            // logged on completion
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.training.homework.whoms.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the sampled access log of the {@code /whoms/v1} API.
+ *
+ * @param enabled whether requests are access logged at all
+ * @param sampleRate share of ordinary requests logged, from 0 to 1
+ * @param slowThreshold requests taking at least this long are always logged, as are server errors
+ */
+@ConfigurationProperties(prefix = "whoms.access-log")
+public record AccessLogProperties(
+        boolean enabled,
+        Double sampleRate,
+        Duration slowThreshold
+) {
+
+    public AccessLogProperties {
+        sampleRate = sampleRate == null ? 0.01 : Math.clamp(sampleRate, 0.0, 1.0);
+        slowThreshold = slowThreshold == null ? Duration.ofMillis(500) : slowThreshold;
+    }
+}
@@ -0,0 +1,98 @@
+package com.training.homework.whoms.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how many requests are handled at once, adapting the limit to observed latency.
+ *
+ * <p>The limit follows additive increase, multiplicative decrease: a request that finishes within
+ * the latency threshold while the limit is at least half used raises it by {@code 1 / limit}, about
+ * one per round of requests, and a slow or failed request multiplies it by the backoff ratio. Once
+ * queueing starts to show in latency the limit drops, and requests beyond it are refused straight
+ * away instead of waiting behind the ones already in progress. Admission is one atomic increment
+ * and the limit is a double updated with compare-and-set, so there is no lock on the request path.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+
+    AdaptiveConcurrencyLimiter(final RateLimitProperties.Concurrency properties) {
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.latencyThresholdNanos = properties.latencyThreshold().toNanos();
+        this.backoffRatio = properties.backoffRatio();
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(properties.initialLimit()));
+    }
+
+    /**
+     * Admits a request if fewer than the limit are in flight.
+     *
+     * @return the number of requests in flight including this one, or -1 if it was refused
+     */
+    int tryAcquire() {
+        final int admitted = inFlight.incrementAndGet();
+        if (admitted > getLimit()) {
+            inFlight.decrementAndGet();
+            return -1;
+        }
+        return admitted;
+    }
+
+    /**
+     * Releases an admitted request without adjusting the limit, for requests whose latency says
+     * nothing about load, such as long-lived streams.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Releases an admitted request and adjusts the limit from its outcome.
+     *
+     * @param inFlightWhenAdmitted value returned by {@link #tryAcquire()}
+     * @param latencyNanos time the request took
+     * @param failed whether the request failed with a server error
+     */
+    void release(final int inFlightWhenAdmitted, final long latencyNanos, final boolean failed) {
+        inFlight.decrementAndGet();
+        while (true) {
+            final long bits = limitBits.get();
+            final double limit = Double.longBitsToDouble(bits);
+            final double next;
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                next = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlightWhenAdmitted * 2 >= limit) {
+                next = Math.min(maxLimit, limit + 1 / limit);
+            } else {
+                return;
+            }
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return requests allowed in flight
+     */
+    int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     *
+     * @return admitted requests not yet released
+     */
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
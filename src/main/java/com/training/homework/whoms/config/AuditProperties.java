@@ -0,0 +1,21 @@
+package com.training.homework.whoms.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the space request audit log. The file it is written to is set with
+ * {@code whoms.audit.file}, which {@code logback-spring.xml} reads.
+ *
+ * @param enabled whether space request audit events are written at all
+ * @param queueCapacity audit events buffered for the writer thread before new ones are dropped
+ */
+@ConfigurationProperties(prefix = "whoms.audit")
+public record AuditProperties(
+        boolean enabled,
+        int queueCapacity
+) {
+
+    public AuditProperties {
+        queueCapacity = queueCapacity <= 0 ? 8_192 : queueCapacity;
+    }
+}
@@ -0,0 +1,35 @@
+package com.training.homework.whoms.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Reads and writes CBOR and Smile with the application's Jackson settings.
+ *
+ * <p>Spring MVC adds CBOR and Smile converters of its own when the dataformats are on the
+ * classpath, but builds their mappers from Jackson defaults, so {@code spring.jackson.*} settings
+ * such as ignoring unknown properties would only apply to JSON. They are replaced by converters
+ * whose mappers are copies of the application's JSON mapper.
+ */
+@Configuration
+public class BinaryFormatConfiguration implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public BinaryFormatConfiguration(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(WireFormat.CBOR.mapperFrom(objectMapper)));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(WireFormat.SMILE.mapperFrom(objectMapper)));
+    }
+}
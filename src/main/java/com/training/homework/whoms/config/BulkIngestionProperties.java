@@ -0,0 +1,21 @@
+package com.training.homework.whoms.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for bulk warehouse ingestion.
+ *
+ * @param batchSize number of valid warehouses saved to the store per batch
+ * @param maxReportedErrors maximum number of rejected rows described in the ingestion report
+ */
+@ConfigurationProperties(prefix = "whoms.bulk-ingestion")
+public record BulkIngestionProperties(
+        int batchSize,
+        int maxReportedErrors
+) {
+
+    public BulkIngestionProperties {
+        batchSize = batchSize <= 0 ? 500 : batchSize;
+        maxReportedErrors = maxReportedErrors <= 0 ? 100 : maxReportedErrors;
+    }
+}
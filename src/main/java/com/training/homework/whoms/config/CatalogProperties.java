@@ -0,0 +1,30 @@
+package com.training.homework.whoms.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the warehouse catalog store.
+ *
+ * @param store catalog store implementation, {@code memory}, {@code columnar}, {@code mapped} or {@code jpa}
+ * @param cacheTtl how long a cached catalog is served before it is reloaded from the store
+ * @param queryCacheSize maximum number of cached query result pages
+ * @param writeBatchSize number of warehouses flushed to the store per batch
+ * @param seedOnEmpty whether an empty store is populated with the predefined warehouses at startup
+ */
+@ConfigurationProperties(prefix = "whoms.catalog")
+public record CatalogProperties(
+        String store,
+        Duration cacheTtl,
+        long queryCacheSize,
+        int writeBatchSize,
+        boolean seedOnEmpty
+) {
+
+    public CatalogProperties {
+        store = store == null ? "memory" : store;
+        cacheTtl = cacheTtl == null ? Duration.ofSeconds(30) : cacheTtl;
+        queryCacheSize = queryCacheSize <= 0 ? 1_000 : queryCacheSize;
+        writeBatchSize = writeBatchSize <= 0 ? 50 : writeBatchSize;
+    }
+}
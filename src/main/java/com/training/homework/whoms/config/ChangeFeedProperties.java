@@ -0,0 +1,34 @@
+package com.training.homework.whoms.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the warehouse change feed.
+ *
+ * @param replayCapacity number of recent changes kept for subscribers resuming from a sequence
+ * @param subscriberBufferSize distinct warehouses a subscriber may have undelivered changes for before it must resync
+ * @param heartbeatInterval how often idle subscribers are sent a comment to keep the connection open
+ * @param subscriberTimeout how long a subscription stays open before the client has to reconnect
+ * @param drainThreads threads delivering changes when virtual threads are disabled
+ * @param sendTimeout longest a single send to a client may block before the client is dropped
+ */
+@ConfigurationProperties(prefix = "whoms.changes")
+public record ChangeFeedProperties(
+        int replayCapacity,
+        int subscriberBufferSize,
+        Duration heartbeatInterval,
+        Duration subscriberTimeout,
+        int drainThreads,
+        Duration sendTimeout
+) {
+
+    public ChangeFeedProperties {
+        replayCapacity = replayCapacity <= 0 ? 10_000 : replayCapacity;
+        subscriberBufferSize = subscriberBufferSize <= 0 ? 1_000 : subscriberBufferSize;
+        heartbeatInterval = heartbeatInterval == null ? Duration.ofSeconds(15) : heartbeatInterval;
+        subscriberTimeout = subscriberTimeout == null ? Duration.ofMinutes(30) : subscriberTimeout;
+        drainThreads = drainThreads <= 0 ? Runtime.getRuntime().availableProcessors() : drainThreads;
+        sendTimeout = sendTimeout == null ? Duration.ofSeconds(10) : sendTimeout;
+    }
+}
@@ -0,0 +1,11 @@
+package com.training.homework.whoms.config;
+
+/**
+ * Thrown when a request is shed because the adaptive concurrency limit is reached.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(final String message) {
+        super(message);
+    }
+}
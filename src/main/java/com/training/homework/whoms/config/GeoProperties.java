@@ -0,0 +1,25 @@
+package com.training.homework.whoms.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Configuration for locating warehouses and answering nearest-warehouse searches.
+ *
+ * @param postalCodeCentroids CSV of {@code postal_code,latitude,longitude} rows keyed by five-digit ZIP or three-digit prefix
+ * @param maxNeighbours largest number of warehouses a nearest-warehouse search may return
+ */
+@ConfigurationProperties(prefix = "whoms.geo")
+public record GeoProperties(
+        Resource postalCodeCentroids,
+        int maxNeighbours
+) {
+
+    public GeoProperties {
+        postalCodeCentroids = postalCodeCentroids == null
+                ? new ClassPathResource("geo/postal-code-centroids.csv")
+                : postalCodeCentroids;
+        maxNeighbours = maxNeighbours <= 0 ? 100 : maxNeighbours;
+    }
+}
@@ -1,13 +1,21 @@
 package com.training.homework.whoms.config;
 
+import com.training.homework.whoms.config.WarehouseMetrics.ErrorType;
+import com.training.homework.whoms.service.IdempotencyKeyReusedException;
+import com.training.homework.whoms.service.InvalidWarehouseQueryException;
+import com.training.homework.whoms.service.SpaceRequestQueueFullException;
+import java.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 /**
  * Global exception handler for centralized error handling across all controllers.
@@ -17,6 +25,14 @@ public final class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
     private static final String GENERIC_ERROR_MESSAGE = "Our apologies for not being able to service your request at present";
+    private static final String QUEUE_FULL_RETRY_AFTER_SECONDS = "1";
+    private static final String CONCURRENCY_LIMITED_RETRY_AFTER_SECONDS = "1";
+
+    private final WarehouseMetrics warehouseMetrics;
+
+    public GlobalExceptionHandler(final WarehouseMetrics warehouseMetrics) {
+        this.warehouseMetrics = warehouseMetrics;
+    }
 
     /**
      * Handles general exceptions that are not specifically handled elsewhere.
@@ -27,6 +43,7 @@ public final class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(final Exception exception) {
         logger.error("Unexpected error occurred while processing request", exception);
+        warehouseMetrics.recordError(ErrorType.UNEXPECTED);
         
         final ErrorResponse errorResponse = new ErrorResponse(GENERIC_ERROR_MESSAGE);
         
@@ -42,6 +59,7 @@ public final class GlobalExceptionHandler {
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorResponse> handleMessageNotReadableException(final HttpMessageNotReadableException exception) {
         logger.warn("Invalid JSON in request body: {}", exception.getMessage());
+        warehouseMetrics.recordError(ErrorType.UNREADABLE_BODY);
         
         final ErrorResponse errorResponse = new ErrorResponse(GENERIC_ERROR_MESSAGE);
         
@@ -57,12 +75,111 @@ public final class GlobalExceptionHandler {
     @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
     public ResponseEntity<ErrorResponse> handleMediaTypeNotSupportedException(final HttpMediaTypeNotSupportedException exception) {
         logger.warn("Unsupported media type in request: {}", exception.getMessage());
+        warehouseMetrics.recordError(ErrorType.UNSUPPORTED_MEDIA_TYPE);
         
         final ErrorResponse errorResponse = new ErrorResponse(GENERIC_ERROR_MESSAGE);
         
         return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(errorResponse);
     }
 
+    /**
+     * Handles query parameters that are malformed or outside their allowed range.
+     *
+     * @param exception the invalid query, missing parameter or argument type mismatch exception
+     * @return ResponseEntity with generic error message and bad request status
+     */
+    @ExceptionHandler({
+            InvalidWarehouseQueryException.class,
+            MissingServletRequestParameterException.class,
+            MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ErrorResponse> handleInvalidQueryException(final Exception exception) {
+        logger.warn("Invalid query parameters in request: {}", exception.getMessage());
+        warehouseMetrics.recordError(ErrorType.INVALID_QUERY);
+        
+        final ErrorResponse errorResponse = new ErrorResponse(GENERIC_ERROR_MESSAGE);
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Handles space requests shed because the processing queue is full.
+     *
+     * @param exception the queue full exception
+     * @return ResponseEntity with generic error message, Retry-After header and service unavailable status
+     */
+    @ExceptionHandler(SpaceRequestQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleQueueFullException(final SpaceRequestQueueFullException exception) {
+        logger.warn("Shedding space request: {}", exception.getMessage());
+        warehouseMetrics.recordError(ErrorType.QUEUE_FULL);
+        
+        final ErrorResponse errorResponse = new ErrorResponse(GENERIC_ERROR_MESSAGE);
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, QUEUE_FULL_RETRY_AFTER_SECONDS)
+                .body(errorResponse);
+    }
+
+    /**
+     * Handles space requests whose idempotency key was first used with a different body.
+     *
+     * @param exception the idempotency key reused exception
+     * @return ResponseEntity with generic error message and unprocessable entity status
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(final IdempotencyKeyReusedException exception) {
+        logger.warn("Rejecting space request: {}", exception.getMessage());
+        warehouseMetrics.recordError(ErrorType.IDEMPOTENCY_KEY_REUSED);
+        
+        final ErrorResponse errorResponse = new ErrorResponse(GENERIC_ERROR_MESSAGE);
+        
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+    }
+
+    /**
+     * Handles requests refused because the client has used up its rate limit for the endpoint.
+     *
+     * <p>Logged at debug, since a client over its limit can otherwise flood the log.
+     *
+     * @param exception the rate limit exceeded exception
+     * @return ResponseEntity with generic error message, Retry-After header and too many requests status
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(final RateLimitExceededException exception) {
+        logger.debug("Rate limiting request: {}", exception.getMessage());
+        warehouseMetrics.recordError(ErrorType.RATE_LIMITED);
+        
+        final ErrorResponse errorResponse = new ErrorResponse(GENERIC_ERROR_MESSAGE);
+        
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(exception.getRetryAfter()))
+                .body(errorResponse);
+    }
+
+    /**
+     * Handles requests shed because the service is at its concurrency limit.
+     *
+     * <p>Logged at debug, since shedding happens in bursts under overload.
+     *
+     * @param exception the concurrency limit exceeded exception
+     * @return ResponseEntity with generic error message, Retry-After header and service unavailable status
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyLimitExceededException(final ConcurrencyLimitExceededException exception) {
+        logger.debug("Shedding request: {}", exception.getMessage());
+        warehouseMetrics.recordError(ErrorType.CONCURRENCY_LIMITED);
+        
+        final ErrorResponse errorResponse = new ErrorResponse(GENERIC_ERROR_MESSAGE);
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, CONCURRENCY_LIMITED_RETRY_AFTER_SECONDS)
+                .body(errorResponse);
+    }
+
+    private static String retryAfterSeconds(final Duration retryAfter) {
+        final long seconds = retryAfter.toSeconds() + (retryAfter.toNanosPart() > 0 ? 1 : 0);
+        return Long.toString(Math.max(1, seconds));
+    }
+
     /**
      * Represents a standardized error response structure.
      */
@@ -0,0 +1,55 @@
+package com.training.homework.whoms.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link RateLimitInterceptor} on the {@code /whoms/v1} API.
+ *
+ * <p>The interceptor is built whether or not rate limiting is enabled, so the concurrency gauges
+ * are always present, but it is only added to the handler chain when {@code whoms.rate-limit.enabled}
+ * is set.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfiguration implements WebMvcConfigurer {
+
+    private final RateLimitProperties properties;
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    public RateLimitConfiguration(final RateLimitProperties properties, final ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.rateLimitInterceptor = new RateLimitInterceptor(properties);
+        meterRegistry.ifAvailable(registry -> {
+            final AdaptiveConcurrencyLimiter limiter = rateLimitInterceptor.getConcurrencyLimiter();
+            Gauge.builder("whoms.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Requests the adaptive concurrency limit currently allows in flight")
+                    .register(registry);
+            Gauge.builder("whoms.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requests admitted by the concurrency limit and not yet completed")
+                    .register(registry);
+            rateLimitInterceptor.getEndpointConcurrencyLimiters().forEach((endpoint, endpointLimiter) -> {
+                Gauge.builder("whoms.concurrency.endpoint.limit", endpointLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                        .description("Requests an endpoint's own adaptive concurrency limit currently allows in flight")
+                        .tag("endpoint", endpoint)
+                        .register(registry);
+                Gauge.builder("whoms.concurrency.endpoint.in.flight", endpointLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                        .description("Requests admitted by an endpoint's own concurrency limit and not yet completed")
+                        .tag("endpoint", endpoint)
+                        .register(registry);
+            });
+        });
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        if (properties.enabled()) {
+            registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/whoms/v1/**");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.training.homework.whoms.config;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a client has used up its token bucket for an endpoint.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(final String message, final Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns how long until the client's next request would be allowed.
+     *
+     * @return time until a token is available
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
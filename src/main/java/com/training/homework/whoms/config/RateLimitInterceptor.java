@@ -0,0 +1,154 @@
+package com.training.homework.whoms.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Rate limits each client per endpoint and sheds load beyond the adaptive concurrency limit.
+ *
+ * <p>A request is first charged to the token bucket for its client and endpoint, identified by the
+ * authenticated principal, or else the remote address, and by the handler method name. The client
+ * id header is only believed when the request comes from one of the trusted proxies, since any
+ * client could otherwise escape its limit, and flood the bucket cache, by rotating the header. A client
+ * without tokens gets a {@link RateLimitExceededException} carrying how long until its next token.
+ * A request within its rate then has to be admitted by the {@link AdaptiveConcurrencyLimiter}, and
+ * is refused with a {@link ConcurrencyLimitExceededException} once the service already has as many
+ * requests in progress as it can handle without queueing. Buckets are held in a bounded Caffeine
+ * cache, so idle clients cost nothing after the idle timeout, and both checks are lock free.
+ *
+ * <p>Endpoints listed under {@code whoms.rate-limit.endpoint-concurrency}, such as bulk uploads that
+ * are slow by design, are admitted by a limiter of their own instead, so their latency never cuts
+ * the shared limit that cheap requests run under.
+ *
+ * <p>Requests completed on the request thread feed their latency and status back to the limiter that admitted them.
+ * Requests that go asynchronous, such as the change feed and catalog export, release their
+ * admission as soon as handling moves off the request thread, since a long-lived stream says
+ * nothing about load.
+ */
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMISSION_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".admission";
+    private static final int SERVER_ERROR = 500;
+
+    private final RateLimitProperties properties;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Map<String, AdaptiveConcurrencyLimiter> endpointConcurrencyLimiters;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final LongSupplier nanoTime;
+
+    public RateLimitInterceptor(final RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimitInterceptor(final RateLimitProperties properties, final LongSupplier nanoTime) {
+        this.properties = properties;
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties.concurrency());
+        this.endpointConcurrencyLimiters = properties.endpointConcurrency().entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey,
+                        entry -> new AdaptiveConcurrencyLimiter(entry.getValue())));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(properties.clientIdleTimeout())
+                .build();
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        final String endpoint = handlerMethod.getMethod().getName();
+        final String clientId = clientId(request);
+        final long now = nanoTime.getAsLong();
+        final TokenBucket bucket = buckets.get(new BucketKey(endpoint, clientId),
+                key -> new TokenBucket(properties.limitFor(endpoint), now));
+        final long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(
+                    "Client " + clientId + " exceeded its rate limit for " + endpoint, Duration.ofNanos(waitNanos));
+        }
+
+        final AdaptiveConcurrencyLimiter limiter = endpointConcurrencyLimiters.getOrDefault(endpoint, concurrencyLimiter);
+        final int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            throw new ConcurrencyLimitExceededException(
+                    "Concurrency limit of " + limiter.getLimit() + " reached, shedding " + endpoint);
+        }
+        request.setAttribute(ADMISSION_ATTRIBUTE, new Admission(limiter, now, inFlight));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response,
+            final Object handler) {
+        final Admission admission = takeAdmission(request);
+        if (admission != null) {
+            admission.limiter().release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+            final Object handler, final Exception exception) {
+        final Admission admission = takeAdmission(request);
+        if (admission != null) {
+            final boolean failed = exception != null || response.getStatus() >= SERVER_ERROR;
+            admission.limiter().release(admission.inFlight(), nanoTime.getAsLong() - admission.startNanos(), failed);
+        }
+    }
+
+    /**
+     * Returns the limiter deciding how many requests are handled at once.
+     *
+     * @return the concurrency limiter
+     */
+    AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Returns the limiters of endpoints kept apart from the shared limit.
+     *
+     * @return limiters keyed by handler method name
+     */
+    Map<String, AdaptiveConcurrencyLimiter> getEndpointConcurrencyLimiters() {
+        return endpointConcurrencyLimiters;
+    }
+
+    private String clientId(final HttpServletRequest request) {
+        if (request.getUserPrincipal() != null) {
+            return "user:" + request.getUserPrincipal().getName();
+        }
+        final String remoteAddress = request.getRemoteAddr();
+        if (!properties.clientIdHeader().isEmpty() && properties.trustedProxies().contains(remoteAddress)) {
+            final String header = request.getHeader(properties.clientIdHeader());
+            if (header != null && !header.isBlank()) {
+                return "client:" + header;
+            }
+        }
+        return "address:" + remoteAddress;
+    }
+
+    private static Admission takeAdmission(final HttpServletRequest request) {
+        final Object admission = request.getAttribute(ADMISSION_ATTRIBUTE);
+        request.removeAttribute(ADMISSION_ATTRIBUTE);
+        return (Admission) admission;
+    }
+
+    private record BucketKey(String endpoint, String clientId) {
+    }
+
+    private record Admission(AdaptiveConcurrencyLimiter limiter, long startNanos, int inFlight) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.training.homework.whoms.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for rate limiting and load shedding on the {@code /whoms/v1} API.
+ *
+ * @param enabled whether requests are rate limited and shed at all
+ * @param clientIdHeader request header identifying the client, honoured only from a trusted proxy; empty to never read it
+ * @param trustedProxies remote addresses of proxies whose client id header is believed
+ * @param maxClients maximum number of client and endpoint buckets kept in memory
+ * @param clientIdleTimeout how long an unused bucket is kept before it is dropped, and refilled if the client returns
+ * @param defaultLimit token bucket applied per client to endpoints without their own limit
+ * @param endpoints token buckets per client for individual endpoints, keyed by handler method name
+ * @param concurrency adaptive limit on requests handled at once across all clients and the endpoints without their own
+ * @param endpointConcurrency adaptive limits for endpoints kept apart from the shared one, such as slow uploads whose
+ *        latency would otherwise cut it for every cheap request, keyed by handler method name
+ */
+@ConfigurationProperties(prefix = "whoms.rate-limit")
+public record RateLimitProperties(
+        boolean enabled,
+        String clientIdHeader,
+        Set<String> trustedProxies,
+        long maxClients,
+        Duration clientIdleTimeout,
+        Limit defaultLimit,
+        Map<String, Limit> endpoints,
+        Concurrency concurrency,
+        Map<String, Concurrency> endpointConcurrency
+) {
+
+    public RateLimitProperties {
+        clientIdHeader = clientIdHeader == null ? "" : clientIdHeader.trim();
+        trustedProxies = trustedProxies == null ? Set.of() : Set.copyOf(trustedProxies);
+        maxClients = maxClients <= 0 ? 100_000 : maxClients;
+        clientIdleTimeout = clientIdleTimeout == null ? Duration.ofMinutes(10) : clientIdleTimeout;
+        defaultLimit = defaultLimit == null ? new Limit(0, 0) : defaultLimit;
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+        concurrency = concurrency == null ? new Concurrency(0, 0, 0, null, 0) : concurrency;
+        endpointConcurrency = endpointConcurrency == null ? Map.of() : Map.copyOf(endpointConcurrency);
+    }
+
+    /**
+     * Returns the token bucket configured for an endpoint, or the default one.
+     *
+     * @param endpoint handler method name
+     * @return the endpoint's limit
+     */
+    public Limit limitFor(final String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultLimit);
+    }
+
+    /**
+     * A token bucket.
+     *
+     * @param capacity largest burst of requests allowed at once
+     * @param refillPerSecond sustained requests per second
+     */
+    public record Limit(int capacity, double refillPerSecond) {
+
+        public Limit {
+            capacity = capacity <= 0 ? 100 : capacity;
+            refillPerSecond = refillPerSecond <= 0 ? 50 : refillPerSecond;
+        }
+    }
+
+    /**
+     * Additive-increase, multiplicative-decrease concurrency limit.
+     *
+     * @param initialLimit requests allowed in flight at startup
+     * @param minLimit lowest the limit is cut to
+     * @param maxLimit highest the limit grows to
+     * @param latencyThreshold request latency above which the limit is cut
+     * @param backoffRatio factor the limit is multiplied by when it is cut
+     */
+    public record Concurrency(
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            Duration latencyThreshold,
+            double backoffRatio) {
+
+        public Concurrency {
+            minLimit = minLimit <= 0 ? 10 : minLimit;
+            maxLimit = maxLimit <= 0 ? 1_000 : Math.max(maxLimit, minLimit);
+            initialLimit = initialLimit <= 0 ? 100 : Math.clamp(initialLimit, minLimit, maxLimit);
+            latencyThreshold = latencyThreshold == null ? Duration.ofMillis(500) : latencyThreshold;
+            backoffRatio = backoffRatio <= 0 || backoffRatio >= 1 ? 0.9 : backoffRatio;
+        }
+    }
+}
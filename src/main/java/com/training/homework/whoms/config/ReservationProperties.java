@@ -0,0 +1,34 @@
+package com.training.homework.whoms.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the warehouse capacity reservation engine.
+ *
+ * @param maxStripes maximum number of capacity stripes a hot warehouse is split into, rounded up to a power of two
+ * @param contentionThreshold failed compare-and-set attempts after which a warehouse ledger adds stripes
+ * @param decisionTtl how long rejected and released reservations are remembered for idempotent retries
+ * @param decisionMaximumSize maximum number of rejected and released reservations remembered
+ * @param holdTtl how long an accepted reservation holds its capacity unless released first
+ * @param holdMaximumSize maximum number of accepted reservations holding capacity, beyond which the oldest lapse
+ */
+@ConfigurationProperties(prefix = "whoms.reservations")
+public record ReservationProperties(
+        int maxStripes,
+        int contentionThreshold,
+        Duration decisionTtl,
+        long decisionMaximumSize,
+        Duration holdTtl,
+        long holdMaximumSize
+) {
+
+    public ReservationProperties {
+        maxStripes = maxStripes <= 0 ? Runtime.getRuntime().availableProcessors() : maxStripes;
+        contentionThreshold = contentionThreshold <= 0 ? 4 : contentionThreshold;
+        decisionTtl = decisionTtl == null ? Duration.ofMinutes(10) : decisionTtl;
+        decisionMaximumSize = decisionMaximumSize <= 0 ? 100_000 : decisionMaximumSize;
+        holdTtl = holdTtl == null ? Duration.ofHours(24) : holdTtl;
+        holdMaximumSize = holdMaximumSize <= 0 ? 1_000_000 : holdMaximumSize;
+    }
+}
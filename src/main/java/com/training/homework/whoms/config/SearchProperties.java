@@ -0,0 +1,21 @@
+package com.training.homework.whoms.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for full-text warehouse search.
+ *
+ * @param maxResults largest number of warehouses a search may return
+ * @param maxExpansions most index terms a partial or misspelled query word is expanded to
+ */
+@ConfigurationProperties(prefix = "whoms.search")
+public record SearchProperties(
+        int maxResults,
+        int maxExpansions
+) {
+
+    public SearchProperties {
+        maxResults = maxResults <= 0 ? 100 : maxResults;
+        maxExpansions = maxExpansions <= 0 ? 50 : maxExpansions;
+    }
+}
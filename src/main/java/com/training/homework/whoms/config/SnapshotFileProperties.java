@@ -0,0 +1,23 @@
+package com.training.homework.whoms.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the memory-mapped catalog snapshot file used by the {@code mapped} store.
+ *
+ * @param file snapshot file, shared by every process on the host that points at it
+ * @param refreshInterval how often readers check whether another process has replaced the file
+ */
+@ConfigurationProperties(prefix = "whoms.snapshot")
+public record SnapshotFileProperties(
+        Path file,
+        Duration refreshInterval
+) {
+
+    public SnapshotFileProperties {
+        file = file == null ? Path.of("data", "warehouse-catalog.snapshot") : file;
+        refreshInterval = refreshInterval == null ? Duration.ofSeconds(5) : refreshInterval;
+    }
+}
@@ -0,0 +1,43 @@
+package com.training.homework.whoms.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the asynchronous warehouse space request pipeline.
+ *
+ * @param queueCapacity maximum number of space requests waiting to be processed
+ * @param offerTimeout how long a request thread waits for queue space before the request is shed
+ * @param workers number of worker threads draining the queue
+ * @param batchSize maximum number of requests processed in one batch
+ * @param batchWindow maximum time a worker waits to fill a batch once it holds a request
+ * @param statusTtl how long a request status remains available for polling
+ * @param statusMaximumSize maximum number of request statuses retained
+ * @param idempotencyKeyTtl how long an idempotency key is remembered after its request was queued
+ * @param idempotencyKeyMaximumSize maximum number of idempotency keys remembered
+ */
+@ConfigurationProperties(prefix = "whoms.space-requests")
+public record SpaceRequestProperties(
+        int queueCapacity,
+        Duration offerTimeout,
+        int workers,
+        int batchSize,
+        Duration batchWindow,
+        Duration statusTtl,
+        long statusMaximumSize,
+        Duration idempotencyKeyTtl,
+        long idempotencyKeyMaximumSize
+) {
+
+    public SpaceRequestProperties {
+        queueCapacity = queueCapacity <= 0 ? 1_024 : queueCapacity;
+        offerTimeout = offerTimeout == null ? Duration.ofMillis(50) : offerTimeout;
+        workers = workers <= 0 ? 2 : workers;
+        batchSize = batchSize <= 0 ? 64 : batchSize;
+        batchWindow = batchWindow == null ? Duration.ofMillis(10) : batchWindow;
+        statusTtl = statusTtl == null ? Duration.ofMinutes(10) : statusTtl;
+        statusMaximumSize = statusMaximumSize <= 0 ? 100_000 : statusMaximumSize;
+        idempotencyKeyTtl = idempotencyKeyTtl == null ? Duration.ofHours(1) : idempotencyKeyTtl;
+        idempotencyKeyMaximumSize = idempotencyKeyMaximumSize <= 0 ? 100_000 : idempotencyKeyMaximumSize;
+    }
+}
@@ -0,0 +1,29 @@
+package com.training.homework.whoms.config;
+
+import com.training.homework.whoms.controller.DemoRestController;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps the warehouse request path eager when the {@code fast-startup} profile turns on lazy
+ * initialization.
+ *
+ * <p>With {@code spring.main.lazy-initialization=true} only the beans something asks for during
+ * refresh are created, so the springdoc UI, actuator endpoints and other beans a first catalog
+ * request does not touch are only built when first used. The controller and its exception handler
+ * are excluded, which creates the stores, the snapshot and the space request pipeline before the
+ * port opens, so the first request does not pay for them. An empty store is only seeded by
+ * {@link com.training.homework.whoms.service.WarehouseCatalogSeeder} on
+ * {@link org.springframework.boot.context.event.ApplicationReadyEvent}, after the port opens and
+ * before readiness is reported, so until then a request may see an empty catalog; wait for the
+ * readiness probe before routing traffic. Without lazy initialization the filter has no effect.
+ */
+@Configuration
+public class StartupConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter warehouseRequestPathExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DemoRestController.class, GlobalExceptionHandler.class);
+    }
+}
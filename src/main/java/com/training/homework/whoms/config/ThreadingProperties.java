@@ -0,0 +1,22 @@
+package com.training.homework.whoms.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for monitoring the service's virtual threads.
+ *
+ * <p>Whether the pinning monitor runs at all is {@code whoms.threads.pinning-monitor.enabled},
+ * read by its bean condition.
+ *
+ * @param pinningThreshold pinning events shorter than this are not recorded
+ */
+@ConfigurationProperties(prefix = "whoms.threads")
+public record ThreadingProperties(
+        Duration pinningThreshold
+) {
+
+    public ThreadingProperties {
+        pinningThreshold = pinningThreshold == null ? Duration.ofMillis(20) : pinningThreshold;
+    }
+}
@@ -0,0 +1,46 @@
+package com.training.homework.whoms.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket held in a single {@link AtomicLong} and updated with compare-and-set.
+ *
+ * <p>The bucket is kept in its generic cell rate algorithm form: rather than a token count and a
+ * last refill time, it stores the theoretical arrival time, the instant at which the bucket would
+ * be full again. Each request pushes that instant one emission interval ahead, and a request is
+ * refused while doing so would put it further ahead of now than the burst allows. This behaves
+ * exactly like a bucket of {@code capacity} tokens refilled at {@code refillPerSecond}, without a
+ * lock or a refill task.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    TokenBucket(final RateLimitProperties.Limit limit, final long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1L, Math.round(1_000_000_000d / limit.refillPerSecond()));
+        this.burstToleranceNanos = emissionIntervalNanos * (limit.capacity() - 1L);
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if one is available.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return zero if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    long tryAcquire(final long nowNanos) {
+        while (true) {
+            final long theoreticalArrival = theoreticalArrivalNanos.get();
+            final long from = theoreticalArrival - nowNanos > 0 ? theoreticalArrival : nowNanos;
+            final long wait = from - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(theoreticalArrival, from + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.training.homework.whoms.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Detects and reports virtual threads pinned to their carrier thread.
+ *
+ * <p>Active only when virtual threads are enabled. A JFR stream listens for
+ * {@code jdk.VirtualThreadPinned} events longer than {@code whoms.threads.pinning-threshold}, and
+ * each event is counted in {@code whoms.virtual.threads.pinned}, timed, and attributed to the
+ * top application frame of its stack. Since JDK 24 {@code synchronized} no longer pins, so what
+ * remains is mostly native frames, class initialisation and JDBC drivers that block in native
+ * code. The first occurrence of each pinning site is logged with its stack, and the sites seen so
+ * far are available from the {@code pinning} actuator endpoint.
+ */
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "whoms.threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_SITES = 100;
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Counter pinnedCount;
+    private final Timer pinnedDuration;
+    private final ConcurrentMap<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(final ThreadingProperties properties, final MeterRegistry meterRegistry) {
+        this.threshold = properties.pinningThreshold();
+        this.pinnedCount = Counter.builder("whoms.virtual.threads.pinned")
+                .description("Virtual thread pinning events longer than the threshold")
+                .register(meterRegistry);
+        this.pinnedDuration = Timer.builder("whoms.virtual.threads.pinned.duration")
+                .description("Time virtual threads spent pinned to their carrier")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the JFR stream once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        logger.info("Monitoring virtual thread pinning longer than {}", threshold);
+    }
+
+    /**
+     * Stops the JFR stream.
+     */
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    /**
+     * Returns the pinning sites seen so far, most frequent first.
+     *
+     * @return pinning counts keyed by the top application frame
+     */
+    @ReadOperation
+    public Map<String, Long> pinningSites() {
+        final Map<String, Long> report = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> site) -> site.getValue().sum()).reversed())
+                .forEach(site -> report.put(site.getKey(), site.getValue().sum()));
+        return report;
+    }
+
+    private void onPinned(final RecordedEvent event) {
+        pinnedCount.increment();
+        pinnedDuration.record(event.getDuration());
+
+        final List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        final String site = pinningSite(frames);
+        final LongAdder count = sites.get(site);
+        if (count != null) {
+            count.increment();
+            return;
+        }
+        if (sites.size() < MAX_SITES && sites.putIfAbsent(site, newCount()) == null) {
+            logger.warn("Virtual thread pinned for {} at {}{}", event.getDuration(), site, describe(frames));
+        }
+    }
+
+    private static LongAdder newCount() {
+        final LongAdder count = new LongAdder();
+        count.increment();
+        return count;
+    }
+
+    private static String pinningSite(final List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinningMonitor::frameName)
+                .filter(name -> name.startsWith("com.training."))
+                .findFirst()
+                .orElseGet(() -> frames.isEmpty() ? "unknown" : frameName(frames.get(0)));
+    }
+
+    private static String describe(final List<RecordedFrame> frames) {
+        final StringBuilder stack = new StringBuilder();
+        frames.stream().limit(LOGGED_FRAMES).forEach(frame -> stack.append(System.lineSeparator())
+                .append("\tat ").append(frameName(frame)).append(':').append(frame.getLineNumber()));
+        return stack.toString();
+    }
+
+    private static String frameName(final RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
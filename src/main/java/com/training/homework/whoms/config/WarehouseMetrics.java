@@ -0,0 +1,119 @@
+package com.training.homework.whoms.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pre-registered meters for the warehouse hot paths.
+ *
+ * <p>Every meter is registered once at startup with a fixed set of tags, so recording a
+ * measurement is a field read and an update, with no registry lookup, tag array or
+ * {@code Timer.Sample} allocated per request. Endpoint timers publish percentile histograms with
+ * bounded bucket ranges so Prometheus can aggregate p95/p99 across instances.
+ */
+@Component
+public class WarehouseMetrics {
+
+    private static final Duration MINIMUM_EXPECTED_LATENCY = Duration.ofNanos(100_000);
+    private static final Duration MAXIMUM_EXPECTED_LATENCY = Duration.ofSeconds(5);
+
+    private final Timer getWarehouses;
+    private final Timer requestWarehouseSpace;
+    private final Map<ErrorType, Counter> errors = new EnumMap<>(ErrorType.class);
+
+    public WarehouseMetrics(final MeterRegistry meterRegistry) {
+        this.getWarehouses = endpointTimer(meterRegistry, "getWarehouses");
+        this.requestWarehouseSpace = endpointTimer(meterRegistry, "requestWarehouseSpace");
+        for (final ErrorType type : ErrorType.values()) {
+            errors.put(type, Counter.builder("whoms.errors")
+                    .description("Requests answered by each GlobalExceptionHandler branch")
+                    .tag("type", type.tagValue)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Records the latency of a {@code GET /warehouses} call.
+     *
+     * @param startNanos {@link System#nanoTime()} taken when the call started
+     */
+    public void recordGetWarehouses(final long startNanos) {
+        getWarehouses.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the latency of a {@code POST /warehouse/request-space} call.
+     *
+     * @param startNanos {@link System#nanoTime()} taken when the call started
+     */
+    public void recordRequestWarehouseSpace(final long startNanos) {
+        requestWarehouseSpace.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a request answered by an exception handler.
+     *
+     * @param type the handler branch that answered the request
+     */
+    public void recordError(final ErrorType type) {
+        errors.get(type).increment();
+    }
+
+    /**
+     * Publishes a Caffeine cache's statistics and its hit ratio as a gauge.
+     *
+     * <p>The cache must be built with {@code recordStats()}.
+     *
+     * @param meterRegistry registry to publish to
+     * @param cache the cache to monitor
+     * @param cacheName value of the {@code cache} tag
+     * @param <K> cache key type
+     * @param <V> cache value type
+     */
+    public static <K, V> void monitorCache(final MeterRegistry meterRegistry, final Cache<K, V> cache, final String cacheName) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName);
+        Gauge.builder("whoms.cache.hit.ratio", cache, monitored -> monitored.stats().hitRate())
+                .description("Fraction of cache lookups served without loading")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    private static Timer endpointTimer(final MeterRegistry meterRegistry, final String endpoint) {
+        return Timer.builder("whoms.endpoint.latency")
+                .description("Time taken to handle a warehouse endpoint call")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MINIMUM_EXPECTED_LATENCY)
+                .maximumExpectedValue(MAXIMUM_EXPECTED_LATENCY)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Exception handler branches, each counted under its own {@code type} tag.
+     */
+    public enum ErrorType {
+        UNEXPECTED("unexpected"),
+        UNREADABLE_BODY("unreadable_body"),
+        UNSUPPORTED_MEDIA_TYPE("unsupported_media_type"),
+        INVALID_QUERY("invalid_query"),
+        QUEUE_FULL("queue_full"),
+        IDEMPOTENCY_KEY_REUSED("idempotency_key_reused"),
+        RATE_LIMITED("rate_limited"),
+        CONCURRENCY_LIMITED("concurrency_limited");
+
+        private final String tagValue;
+
+        ErrorType(final String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+}
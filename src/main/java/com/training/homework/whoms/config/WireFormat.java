@@ -0,0 +1,83 @@
+package com.training.homework.whoms.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.util.List;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Encodings the warehouse API can read and write.
+ *
+ * <p>CBOR and Smile carry the same data model as JSON, so every DTO is encoded by the same Jackson
+ * serializers with only the token format swapped. Both binary formats drop the quoting and
+ * escaping of JSON text and write numbers in binary, and Smile also back-references repeated
+ * field names and short strings, which suits arrays of warehouses sharing the same keys.
+ */
+public enum WireFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(MediaType.valueOf(WireFormat.APPLICATION_SMILE_VALUE));
+
+    /** Media type of Jackson's Smile format, as used by its Spring message converter. */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private final MediaType mediaType;
+
+    WireFormat(final MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Returns the media type this format is sent and received as.
+     *
+     * @return the media type
+     */
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns a mapper for this format with the same modules and settings as a JSON mapper.
+     *
+     * @param jsonMapper the application's JSON mapper
+     * @return the JSON mapper itself for {@link #JSON}, otherwise a copy writing this format
+     */
+    public ObjectMapper mapperFrom(final ObjectMapper jsonMapper) {
+        return switch (this) {
+            case JSON -> jsonMapper;
+            case CBOR -> jsonMapper.copyWith(new CBORFactory());
+            case SMILE -> jsonMapper.copyWith(new SmileFactory());
+        };
+    }
+
+    /**
+     * Picks the format the client prefers from an {@code Accept} header.
+     *
+     * @param accept media types accepted by the client, if any
+     * @return the accepted format with the highest quality, or {@link #JSON} if none is named
+     */
+    public static WireFormat negotiate(final String accept) {
+        if (accept == null) {
+            return JSON;
+        }
+        final List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        WireFormat preferred = JSON;
+        double preferredQuality = 0;
+        for (final MediaType mediaType : accepted) {
+            for (final WireFormat format : values()) {
+                if (format.mediaType.equalsTypeAndSubtype(mediaType) && mediaType.getQualityValue() > preferredQuality) {
+                    preferred = format;
+                    preferredQuality = mediaType.getQualityValue();
+                }
+            }
+        }
+        return preferred;
+    }
+}
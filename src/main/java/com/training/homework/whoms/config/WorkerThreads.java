@@ -0,0 +1,57 @@
+package com.training.homework.whoms.config;
+
+import java.util.concurrent.ThreadFactory;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates thread factories for the service's background workers.
+ *
+ * <p>Workers run on virtual threads when {@code spring.threads.virtual.enabled=true}, the same
+ * switch that moves Tomcat request handling and Spring's task executors onto virtual threads,
+ * and on named platform threads otherwise.
+ */
+@Component
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    public WorkerThreads(final Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    private WorkerThreads(final boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    /**
+     * Returns worker threads that always run on platform threads, for use outside a Spring context.
+     *
+     * @return platform worker threads
+     */
+    public static WorkerThreads platform() {
+        return new WorkerThreads(false);
+    }
+
+    /**
+     * Returns whether workers run on virtual threads.
+     *
+     * @return true if virtual threads are enabled
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Creates a factory for worker threads named with the given prefix and a sequence number.
+     *
+     * @param namePrefix thread name prefix
+     * @return the thread factory
+     */
+    public ThreadFactory newThreadFactory(final String namePrefix) {
+        return virtual
+                ? Thread.ofVirtual().name(namePrefix, 0).factory()
+                : Thread.ofPlatform().name(namePrefix, 0).factory();
+    }
+}
@@ -1,17 +1,51 @@
 package com.training.homework.whoms.controller;
 
+import com.training.homework.whoms.config.WarehouseMetrics;
+import com.training.homework.whoms.config.WireFormat;
+import com.training.homework.whoms.dto.BulkIngestionReport;
+import com.training.homework.whoms.dto.NearbyWarehouse;
+import com.training.homework.whoms.dto.SpaceRequestStatus;
 import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSearchHit;
+import com.training.homework.whoms.dto.WarehouseSort;
+import com.training.homework.whoms.dto.WarehouseStats;
+import com.training.homework.whoms.service.InvalidWarehouseQueryException;
+import com.training.homework.whoms.service.NearestWarehouseService;
+import com.training.homework.whoms.service.SpaceRequestPipeline;
+import com.training.homework.whoms.service.SpaceRequestSubmission;
+import com.training.homework.whoms.service.WarehouseChangeFeed;
+import com.training.homework.whoms.service.WarehouseCatalogSnapshot;
+import com.training.homework.whoms.service.WarehouseCatalogSnapshot.Representation;
 import com.training.homework.whoms.service.WarehouseDtoData;
+import com.training.homework.whoms.service.WarehouseExportService;
+import com.training.homework.whoms.service.WarehouseIngestionService;
+import com.training.homework.whoms.service.WarehouseSearchService;
+import com.training.homework.whoms.service.WarehouseSnapshotService;
+import com.training.homework.whoms.service.WarehouseStatsService;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * Simple REST controller for basic demo purposes.
@@ -22,44 +56,406 @@ public class DemoRestController {
 
     private static final Logger logger = LoggerFactory.getLogger(DemoRestController.class);
     
+    private static final String GZIP_ENCODING = "gzip";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int DEFAULT_NEAREST_K = 10;
+    private static final int DEFAULT_STATS_TOP = 10;
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+
     private final WarehouseDtoData warehouseDtoData;
+    private final WarehouseSnapshotService warehouseSnapshotService;
+    private final WarehouseExportService warehouseExportService;
+    private final WarehouseIngestionService warehouseIngestionService;
+    private final NearestWarehouseService nearestWarehouseService;
+    private final WarehouseSearchService warehouseSearchService;
+    private final WarehouseStatsService warehouseStatsService;
+    private final WarehouseChangeFeed warehouseChangeFeed;
+    private final SpaceRequestPipeline spaceRequestPipeline;
+    private final WarehouseMetrics warehouseMetrics;
 
-    public DemoRestController(final WarehouseDtoData warehouseDtoData) {
+    public DemoRestController(
+            final WarehouseDtoData warehouseDtoData,
+            final WarehouseSnapshotService warehouseSnapshotService,
+            final WarehouseExportService warehouseExportService,
+            final WarehouseIngestionService warehouseIngestionService,
+            final NearestWarehouseService nearestWarehouseService,
+            final WarehouseSearchService warehouseSearchService,
+            final WarehouseStatsService warehouseStatsService,
+            final WarehouseChangeFeed warehouseChangeFeed,
+            final SpaceRequestPipeline spaceRequestPipeline,
+            final WarehouseMetrics warehouseMetrics) {
         this.warehouseDtoData = warehouseDtoData;
+        this.warehouseSnapshotService = warehouseSnapshotService;
+        this.warehouseExportService = warehouseExportService;
+        this.warehouseIngestionService = warehouseIngestionService;
+        this.nearestWarehouseService = nearestWarehouseService;
+        this.warehouseSearchService = warehouseSearchService;
+        this.warehouseStatsService = warehouseStatsService;
+        this.warehouseChangeFeed = warehouseChangeFeed;
+        this.spaceRequestPipeline = spaceRequestPipeline;
+        this.warehouseMetrics = warehouseMetrics;
     }
 
     /**
      * Returns all warehouses with HTTP 200 OK status.
      *
-     * @return ResponseEntity containing list of warehouses with 200 OK status
+     * <p>The body is served from a pre-encoded catalog snapshot, as JSON, CBOR or Smile depending
+     * on the {@code Accept} header. Clients that send a matching {@code If-None-Match} header
+     * receive 304 Not Modified, and JSON clients that accept gzip receive the pre-compressed variant.
+     *
+     * @param ifNoneMatch entity tags the client already holds, if any
+     * @param accept media types accepted by the client, if any
+     * @param acceptEncoding content codings accepted by the client, if any
+     * @return ResponseEntity containing the encoded list of warehouses with 200 OK status, or 304 Not Modified
      */
-    @GetMapping("warehouses")
-    public ResponseEntity<List<Warehouse>> getWarehouses() {
+    @GetMapping(value = "warehouses", params = {
+            "!state", "!city", "!postalCode", "!minSquareFootage", "!minDocks", "!sort", "!cursor", "!limit"},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormat.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<byte[]> getWarehouses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
         logger.debug("Received request for /warehouses endpoint");
-        
-        final List<Warehouse> warehouses = warehouseDtoData.getAllWarehouses();
-        
-        logger.info("Retrieved {} warehouses for /warehouses endpoint", warehouses.size());
-        
-        return ResponseEntity.ok(warehouses);
+
+        final long start = System.nanoTime();
+        try {
+            final WarehouseCatalogSnapshot snapshot = warehouseSnapshotService.getSnapshot();
+            final WireFormat format = WireFormat.negotiate(accept);
+            final boolean gzip = format == WireFormat.JSON && acceptsGzip(acceptEncoding);
+            final Representation representation = snapshot.representation(format, gzip);
+
+            if (matchesEtag(ifNoneMatch, representation.etag())) {
+                logger.debug("Catalog version {} not modified for /warehouses endpoint", snapshot.catalogVersion());
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(representation.etag())
+                        .cacheControl(CacheControl.noCache())
+                        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
+
+            logger.debug("Retrieved {} warehouses for /warehouses endpoint", snapshot.size());
+
+            final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(format.mediaType())
+                    .eTag(representation.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+            }
+            return response.contentLength(representation.body().length).body(representation.body());
+        } finally {
+            warehouseMetrics.recordGetWarehouses(start);
+        }
+    }
+
+    /**
+     * Returns one page of warehouses matching the given filters.
+     *
+     * <p>Selected instead of {@link #getWarehouses} whenever any query parameter is present. Paging
+     * is cursor based: pass the {@code nextCursor} of a page to fetch the page after it. The page
+     * is written as JSON, CBOR or Smile depending on the {@code Accept} header.
+     *
+     * @param state exact state to match
+     * @param city exact city to match
+     * @param postalCode exact postal code to match
+     * @param minSquareFootage minimum square footage
+     * @param minDocks minimum number of loading docks
+     * @param sort field to sort by, prefixed with {@code -} for descending order
+     * @param cursor cursor from the previous page
+     * @param limit maximum number of warehouses to return
+     * @return ResponseEntity containing the page of warehouses with 200 OK status
+     */
+    @GetMapping(value = "warehouses",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormat.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<WarehousePage> queryWarehouses(
+            @RequestParam(required = false) final String state,
+            @RequestParam(required = false) final String city,
+            @RequestParam(required = false) final String postalCode,
+            @RequestParam(required = false) final Integer minSquareFootage,
+            @RequestParam(required = false) final Integer minDocks,
+            @RequestParam(required = false) final String sort,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "" + WarehouseQuery.DEFAULT_LIMIT) final int limit) {
+        logger.debug("Received query for /warehouses endpoint");
+
+        if (limit < 1 || limit > WarehouseQuery.MAX_LIMIT) {
+            throw new InvalidWarehouseQueryException("limit must be between 1 and " + WarehouseQuery.MAX_LIMIT);
+        }
+        final WarehouseSort warehouseSort = WarehouseSort.fromParameter(sort)
+                .orElseThrow(() -> new InvalidWarehouseQueryException("Unsupported sort: " + sort));
+
+        final WarehousePage page = warehouseDtoData.findWarehouses(new WarehouseQuery(
+                state, city, postalCode, minSquareFootage, minDocks, warehouseSort, cursor, limit));
+
+        logger.debug("Retrieved {} warehouses for /warehouses query", page.items().size());
+
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Returns the warehouses closest to a postal code that meet the capacity minimums.
+     *
+     * @param postalCode postal code to search from
+     * @param k maximum number of warehouses to return
+     * @param minDocks minimum number of loading docks
+     * @param minSquareFootage minimum square footage
+     * @return ResponseEntity containing up to {@code k} warehouses, nearest first, with 200 OK status
+     */
+    @GetMapping(value = "warehouses/nearest", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<List<NearbyWarehouse>> findNearestWarehouses(
+            @RequestParam final String postalCode,
+            @RequestParam(defaultValue = "" + DEFAULT_NEAREST_K) final int k,
+            @RequestParam(required = false) final Integer minDocks,
+            @RequestParam(required = false) final Integer minSquareFootage) {
+        logger.debug("Received nearest warehouse search for postal code {}", postalCode);
+
+        return ResponseEntity.ok(nearestWarehouseService.findNearest(postalCode, k, minDocks, minSquareFootage));
+    }
+
+    /**
+     * Searches warehouse names, addresses and cities.
+     *
+     * <p>Every word of the query has to match. The last word also matches words it is the start
+     * of, so partial input such as {@code Charl} finds Charlotte, and a word that matches nothing
+     * exactly also matches words within one or two typing mistakes.
+     *
+     * @param q words to search for
+     * @param limit maximum number of warehouses to return
+     * @return ResponseEntity containing up to {@code limit} warehouses, best match first, with 200 OK status
+     */
+    @GetMapping(value = "warehouses/search", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<List<WarehouseSearchHit>> searchWarehouses(
+            @RequestParam final String q,
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) final int limit) {
+        logger.debug("Received warehouse search for {}", q);
+
+        return ResponseEntity.ok(warehouseSearchService.search(q, limit));
+    }
+
+    /**
+     * Returns capacity totals grouped by state or city, a square footage histogram and the largest
+     * warehouses.
+     *
+     * <p>The totals are maintained as the catalog and reservations change, so the cost of a request
+     * depends on the number of groups rather than the size of the catalog.
+     *
+     * @param groupBy {@code state} or {@code city}
+     * @param top number of largest warehouses to include
+     * @return ResponseEntity containing the current totals with 200 OK status
+     */
+    @GetMapping(value = "warehouses/stats", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<WarehouseStats> getWarehouseStats(
+            @RequestParam(defaultValue = "state") final String groupBy,
+            @RequestParam(defaultValue = "" + DEFAULT_STATS_TOP) final int top) {
+        logger.debug("Received warehouse stats request grouped by {}", groupBy);
+
+        return ResponseEntity.ok(warehouseStatsService.getStats(groupBy, top));
+    }
+
+    /**
+     * Streams warehouse additions, updates, removals and capacity reservations as Server-Sent Events.
+     *
+     * <p>Each event carries its sequence number as the event ID. A client that reconnects with the
+     * standard {@code Last-Event-ID} header, or the {@code since} parameter, is first sent the
+     * changes it missed; one that cannot be caught up is sent a {@code RESYNC} event and should
+     * re-read the catalog.
+     *
+     * @param lastEventId sequence of the last event received, sent by SSE clients on reconnect
+     * @param since sequence to resume after, for clients that cannot set headers
+     * @return the event stream
+     */
+    @GetMapping(value = "warehouses/changes", consumes = MediaType.ALL_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamWarehouseChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) final Long lastEventId,
+            @RequestParam(required = false) final Long since) {
+        logger.debug("Received change feed subscription after {}", lastEventId != null ? lastEventId : since);
+
+        return warehouseChangeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    /**
+     * Streams the whole warehouse catalog, one record at a time.
+     *
+     * <p>Responds with newline-delimited JSON unless the client accepts {@code application/json}
+     * but not {@code application/x-ndjson}, in which case the records are streamed as one JSON
+     * array, or prefers CBOR or Smile, in which case they are streamed as one array in that
+     * format. Nothing is buffered beyond the generator, so memory use does not grow with the
+     * catalog size.
+     *
+     * @param accept media types accepted by the client, if any
+     * @return ResponseEntity whose body writes the catalog to the response with 200 OK status
+     */
+    @GetMapping(value = "warehouses/export", consumes = MediaType.ALL_VALUE,
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_CBOR_VALUE, WireFormat.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportWarehouses(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept) {
+        logger.debug("Received request for /warehouses/export endpoint");
+
+        final WireFormat format = WireFormat.negotiate(accept);
+        if (format != WireFormat.JSON) {
+            return ResponseEntity.ok()
+                    .contentType(format.mediaType())
+                    .body(outputStream -> warehouseExportService.writeArray(format, outputStream));
+        }
+        if (prefersJsonArray(accept)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(warehouseExportService::writeJsonArray);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(warehouseExportService::writeNdjson);
+    }
+
+    /**
+     * Adds or updates warehouses in the catalog from a bulk payload.
+     *
+     * <p>The body is parsed as a stream rather than bound to a list, and each row is validated on
+     * its own; invalid rows are listed in the report while valid rows are saved in batches.
+     *
+     * @param body a JSON array of warehouses, or newline-delimited JSON with one warehouse per line
+     * @return ResponseEntity containing the ingestion report with 200 OK status
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "warehouses/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkIngestionReport> ingestWarehouses(final InputStream body) throws IOException {
+        logger.debug("Received bulk ingestion request");
+
+        return ResponseEntity.ok(warehouseIngestionService.ingest(body));
+    }
+
+    /**
+     * Removes a warehouse from the catalog.
+     *
+     * @param name the warehouse name
+     * @return ResponseEntity with 204 No Content, or 404 Not Found if no warehouse has that name
+     */
+    @DeleteMapping(value = "warehouses/{name}", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<Void> removeWarehouse(@PathVariable final String name) {
+        logger.debug("Received removal of warehouse {}", name);
+
+        return warehouseDtoData.removeWarehouse(name).isPresent()
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 
     /**
      * Requests warehouse space for a given warehouse.
      *
+     * <p>The request is queued for asynchronous processing; poll the returned request ID to see
+     * whether the space was reserved. The warehouse may be sent, and the status returned, as JSON,
+     * CBOR or Smile. A client that may retry should send an {@code Idempotency-Key}: a retry with
+     * the same key and body gets the original response, marked {@code Idempotent-Replayed}, and
+     * the request is only queued once.
+     *
      * @param warehouse the warehouse DTO containing space request details
-     * @return ResponseEntity with accepted status if request is processed successfully
+     * @param idempotencyKey client-chosen key identifying the request across retries, if any
+     * @return ResponseEntity with accepted status and the pending request status
      */
-    @PostMapping("warehouse/request-space")
-    public ResponseEntity<Void> requestWarehouseSpace(@RequestBody final Warehouse warehouse) {
+    @PostMapping(value = "warehouse/request-space",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormat.APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormat.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<SpaceRequestStatus> requestWarehouseSpace(
+            @RequestBody final Warehouse warehouse,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey) {
         logger.debug("Received request for warehouse space: {}", warehouse);
-        
-        // Process the warehouse space request
-        // TODO: Additional validation and business logic would go here
-        
-        logger.info("Successfully processed warehouse space request for warehouse: {}", warehouse.name());
-        
-        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+
+        final long start = System.nanoTime();
+        try {
+            final SpaceRequestSubmission submission = idempotencyKey == null
+                    ? new SpaceRequestSubmission(spaceRequestPipeline.submit(warehouse), false)
+                    : spaceRequestPipeline.submit(warehouse, idempotencyKey);
+            final SpaceRequestStatus pending = submission.status();
+
+            if (submission.replayed()) {
+                logger.debug("Replayed warehouse space request {} for warehouse: {}", pending.requestId(), warehouse.name());
+            } else {
+                logger.debug("Queued warehouse space request {} for warehouse: {}", pending.requestId(), warehouse.name());
+            }
+
+            final ResponseEntity.BodyBuilder response = ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                            .path("/{requestId}")
+                            .buildAndExpand(pending.requestId())
+                            .toUri());
+            if (submission.replayed()) {
+                response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+            }
+            return response.body(pending);
+        } finally {
+            warehouseMetrics.recordRequestWarehouseSpace(start);
+        }
+    }
+
+    /**
+     * Returns the processing status of a warehouse space request.
+     *
+     * @param requestId the request ID returned when the space was requested
+     * @return ResponseEntity containing the request status with 200 OK status, or 404 Not Found if unknown
+     */
+    @GetMapping(value = "warehouse/request-space/{requestId}", consumes = MediaType.ALL_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormat.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<SpaceRequestStatus> getWarehouseSpaceRequest(@PathVariable final String requestId) {
+        logger.debug("Received status request for warehouse space request {}", requestId);
+
+        return ResponseEntity.of(spaceRequestPipeline.getStatus(requestId));
+    }
+
+    /**
+     * Releases the capacity held by an accepted warehouse space request.
+     *
+     * <p>Capacity that is not released is returned when the hold lapses after
+     * {@code whoms.reservations.hold-ttl}.
+     *
+     * @param requestId the request ID returned when the space was requested
+     * @return ResponseEntity containing the released request status with 200 OK status, or 404 Not Found if the
+     *         request is unknown or holds no capacity
+     */
+    @DeleteMapping(value = "warehouse/request-space/{requestId}", consumes = MediaType.ALL_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormat.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<SpaceRequestStatus> releaseWarehouseSpace(@PathVariable final String requestId) {
+        logger.debug("Received release of warehouse space request {}", requestId);
+
+        return ResponseEntity.of(spaceRequestPipeline.release(requestId));
+    }
+
+    private static boolean matchesEtag(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String tag = candidate.trim();
+            // If-None-Match uses weak comparison, so a W/ prefix still matches the strong tag
+            if ("*".equals(tag) || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean prefersJsonArray(final String accept) {
+        if (accept == null) {
+            return false;
+        }
+        final List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        return accepted.stream().anyMatch(MediaType.APPLICATION_JSON::equalsTypeAndSubtype)
+                && accepted.stream().noneMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    private static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.split(";");
+            if (GZIP_ENCODING.equalsIgnoreCase(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
 }
\ No newline at end of file
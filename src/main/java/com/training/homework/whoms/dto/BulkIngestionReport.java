@@ -0,0 +1,33 @@
+package com.training.homework.whoms.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk warehouse ingestion.
+ *
+ * @param received number of rows read from the payload
+ * @param saved number of rows saved to the store
+ * @param rejected number of rows rejected as invalid
+ * @param complete false if the payload was malformed and reading stopped before its end
+ * @param errors rejected rows, up to the configured maximum
+ * @param errorsTruncated true if more rows were rejected than are listed in {@code errors}
+ */
+public record BulkIngestionReport(
+        int received,
+        int saved,
+        int rejected,
+        boolean complete,
+        List<RowError> errors,
+        boolean errorsTruncated
+) {
+
+    /**
+     * A row that could not be ingested.
+     *
+     * @param row 1-based position of the row in the payload
+     * @param name warehouse name from the row, if it had one
+     * @param messages reasons the row was rejected
+     */
+    public record RowError(int row, String name, List<String> messages) {
+    }
+}
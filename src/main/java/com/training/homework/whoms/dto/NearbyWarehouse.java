@@ -0,0 +1,17 @@
+package com.training.homework.whoms.dto;
+
+/**
+ * A warehouse returned by a nearest-warehouse search.
+ *
+ * @param warehouse the warehouse
+ * @param latitude latitude of the warehouse's postal code centroid, in degrees
+ * @param longitude longitude of the warehouse's postal code centroid, in degrees
+ * @param distanceKm great-circle distance from the search origin, in kilometres
+ */
+public record NearbyWarehouse(
+        Warehouse warehouse,
+        double latitude,
+        double longitude,
+        double distanceKm
+) {
+}
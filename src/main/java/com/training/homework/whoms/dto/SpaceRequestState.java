@@ -0,0 +1,11 @@
+package com.training.homework.whoms.dto;
+
+/**
+ * Processing state of a warehouse space request.
+ */
+public enum SpaceRequestState {
+    PENDING,
+    ACCEPTED,
+    REJECTED,
+    RELEASED
+}
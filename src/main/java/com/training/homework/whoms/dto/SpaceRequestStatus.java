@@ -0,0 +1,33 @@
+package com.training.homework.whoms.dto;
+
+/**
+ * Status of a warehouse space request, returned when the request is accepted for processing
+ * and when it is polled.
+ *
+ * @param requestId identifier assigned to the request
+ * @param warehouseName name of the warehouse the space was requested from
+ * @param squareFootage requested square footage
+ * @param loadingDocks requested number of loading docks
+ * @param state current processing state
+ * @param reason explanation for a rejection or release, otherwise null
+ */
+public record SpaceRequestStatus(
+        String requestId,
+        String warehouseName,
+        int squareFootage,
+        int loadingDocks,
+        SpaceRequestState state,
+        String reason
+) {
+
+    /**
+     * Returns a copy of this status with a final decision.
+     *
+     * @param decision the decided state
+     * @param decisionReason explanation for a rejection or release, otherwise null
+     * @return the decided status
+     */
+    public SpaceRequestStatus decide(final SpaceRequestState decision, final String decisionReason) {
+        return new SpaceRequestStatus(requestId, warehouseName, squareFootage, loadingDocks, decision, decisionReason);
+    }
+}
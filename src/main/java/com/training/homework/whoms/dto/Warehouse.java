@@ -1,8 +1,15 @@
 package com.training.homework.whoms.dto;
 
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
 /**
  * Warehouse data transfer object representing a warehouse entity.
  *
+ * <p>The constraints describe a complete catalog entry and are checked when warehouses are
+ * ingested; space requests only carry the name and requested capacity and are not validated.
+ *
  * @param name warehouse name
  * @param address street address of the warehouse
  * @param city city where warehouse is located
@@ -13,13 +20,13 @@ package com.training.homework.whoms.dto;
  * @param loadingDocks number of loading docks available
  */
 public record Warehouse(
-        String name,
-        String address,
-        String city,
-        String state,
-        String postalCode,
-        String warehousePhone,
-        int squareFootage,
-        int loadingDocks
+        @NotBlank @Size(max = 255) String name,
+        @Size(max = 255) String address,
+        @Size(max = 255) String city,
+        @Size(max = 255) String state,
+        @Size(max = 255) String postalCode,
+        @Size(max = 255) String warehousePhone,
+        @PositiveOrZero int squareFootage,
+        @PositiveOrZero int loadingDocks
 ) {       
 }
\ No newline at end of file
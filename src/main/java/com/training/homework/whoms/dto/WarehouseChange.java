@@ -0,0 +1,47 @@
+package com.training.homework.whoms.dto;
+
+/**
+ * One entry in the warehouse change feed.
+ *
+ * @param sequence position in the feed; later changes always have a higher sequence
+ * @param type kind of change
+ * @param warehouseName name of the warehouse that changed, or null for {@link Type#RESYNC}
+ * @param warehouse the warehouse as saved, for {@link Type#ADDED} and {@link Type#UPDATED}
+ * @param reservedSquareFootage change in reserved square footage, for {@link Type#CAPACITY_CHANGED}
+ * @param reservedLoadingDocks change in reserved loading docks, for {@link Type#CAPACITY_CHANGED}
+ */
+public record WarehouseChange(
+        long sequence,
+        Type type,
+        String warehouseName,
+        Warehouse warehouse,
+        Integer reservedSquareFootage,
+        Integer reservedLoadingDocks
+) {
+
+    /**
+     * Kinds of change carried by the feed.
+     */
+    public enum Type {
+        /** A warehouse was saved under a name the catalog did not have. */
+        ADDED,
+        /** A warehouse replaced one with the same name. */
+        UPDATED,
+        /** A warehouse was removed. */
+        REMOVED,
+        /** Capacity was reserved in or released back to a warehouse. */
+        CAPACITY_CHANGED,
+        /** Earlier changes cannot be replayed; re-read the catalog and apply changes after this sequence. */
+        RESYNC
+    }
+
+    /**
+     * Returns this change with another sequence.
+     *
+     * @param newSequence the sequence to assign
+     * @return the renumbered change
+     */
+    public WarehouseChange withSequence(final long newSequence) {
+        return new WarehouseChange(newSequence, type, warehouseName, warehouse, reservedSquareFootage, reservedLoadingDocks);
+    }
+}
@@ -0,0 +1,12 @@
+package com.training.homework.whoms.dto;
+
+import java.util.List;
+
+/**
+ * A single page of warehouse query results.
+ *
+ * @param items warehouses on this page
+ * @param nextCursor cursor for the next page, or null if this is the last page
+ */
+public record WarehousePage(List<Warehouse> items, String nextCursor) {
+}
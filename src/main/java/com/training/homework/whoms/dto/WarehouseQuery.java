@@ -0,0 +1,32 @@
+package com.training.homework.whoms.dto;
+
+/**
+ * Filter, sort and paging criteria for warehouse queries.
+ *
+ * @param state exact state to match, or null for any
+ * @param city exact city to match, or null for any
+ * @param postalCode exact postal code to match, or null for any
+ * @param minSquareFootage minimum square footage, or null for no lower bound
+ * @param minLoadingDocks minimum number of loading docks, or null for no lower bound
+ * @param sort ordering of the results
+ * @param cursor opaque cursor returned by the previous page, or null for the first page
+ * @param limit maximum number of warehouses to return
+ */
+public record WarehouseQuery(
+        String state,
+        String city,
+        String postalCode,
+        Integer minSquareFootage,
+        Integer minLoadingDocks,
+        WarehouseSort sort,
+        String cursor,
+        int limit
+) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 1000;
+
+    public WarehouseQuery {
+        sort = sort == null ? WarehouseSort.CATALOG : sort;
+    }
+}
@@ -0,0 +1,13 @@
+package com.training.homework.whoms.dto;
+
+/**
+ * A warehouse returned by a full-text search.
+ *
+ * @param warehouse the warehouse
+ * @param score relevance of the warehouse to the query, higher is better; only comparable within one search
+ */
+public record WarehouseSearchHit(
+        Warehouse warehouse,
+        double score
+) {
+}
@@ -0,0 +1,51 @@
+package com.training.homework.whoms.dto;
+
+import java.util.Optional;
+
+/**
+ * Supported orderings for warehouse queries.
+ *
+ * <p>Request parameters name the field to sort by, optionally prefixed with {@code -} for
+ * descending order, for example {@code squareFootage} or {@code -loadingDocks}.
+ */
+public enum WarehouseSort {
+
+    CATALOG(null, false),
+    SQUARE_FOOTAGE_ASC("squareFootage", false),
+    SQUARE_FOOTAGE_DESC("squareFootage", true),
+    LOADING_DOCKS_ASC("loadingDocks", false),
+    LOADING_DOCKS_DESC("loadingDocks", true);
+
+    private final String field;
+    private final boolean descending;
+
+    WarehouseSort(final String field, final boolean descending) {
+        this.field = field;
+        this.descending = descending;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Resolves a sort request parameter.
+     *
+     * @param parameter the sort parameter, may be null or blank for catalog order
+     * @return the matching sort order, or empty if the parameter is not recognised
+     */
+    public static Optional<WarehouseSort> fromParameter(final String parameter) {
+        if (parameter == null || parameter.isBlank()) {
+            return Optional.of(CATALOG);
+        }
+        final String trimmed = parameter.trim();
+        final boolean descending = trimmed.startsWith("-");
+        final String requestedField = descending ? trimmed.substring(1) : trimmed;
+        for (final WarehouseSort sort : values()) {
+            if (sort.field != null && sort.field.equals(requestedField) && sort.descending == descending) {
+                return Optional.of(sort);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.training.homework.whoms.dto;
+
+import java.util.List;
+
+/**
+ * Capacity totals for the warehouse catalog.
+ *
+ * @param catalogVersion catalog version the totals reflect
+ * @param groupBy field the groups are keyed by, {@code state} or {@code city}
+ * @param warehouses number of warehouses in the catalog
+ * @param groups totals per distinct value of {@code groupBy}, ordered by key
+ * @param squareFootageHistogram number of warehouses per square footage band
+ * @param largest warehouses with the most square footage, largest first
+ */
+public record WarehouseStats(
+        long catalogVersion,
+        String groupBy,
+        int warehouses,
+        List<Group> groups,
+        List<HistogramBucket> squareFootageHistogram,
+        List<Warehouse> largest
+) {
+
+    /**
+     * Totals for the warehouses sharing one state, or one city within a state.
+     *
+     * <p>Groups are matched ignoring case and surrounding whitespace, as query filters are, and
+     * labelled with the first of their spellings in natural order.
+     *
+     * @param key the state or city, or null for warehouses without one
+     * @param state the state of the group's warehouses, or null for warehouses without one
+     * @param warehouses number of warehouses in the group
+     * @param squareFootage square footage summary
+     * @param loadingDocks loading dock summary
+     * @param reservedSquareFootage square footage held by active reservations
+     * @param reservedLoadingDocks loading docks held by active reservations
+     */
+    public record Group(
+            String key,
+            String state,
+            int warehouses,
+            Summary squareFootage,
+            Summary loadingDocks,
+            long reservedSquareFootage,
+            long reservedLoadingDocks) {
+    }
+
+    /**
+     * Sum, average, minimum and maximum of one capacity field.
+     *
+     * @param sum total over the group
+     * @param average mean over the group
+     * @param min smallest value in the group
+     * @param max largest value in the group
+     */
+    public record Summary(long sum, double average, int min, int max) {
+    }
+
+    /**
+     * A square footage band.
+     *
+     * @param from smallest square footage in the band
+     * @param to square footage where the next band starts, or null for the last band
+     * @param warehouses number of warehouses in the band
+     */
+    public record HistogramBucket(int from, Integer to, int warehouses) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.training.homework.whoms.repository;
+
+import com.training.homework.whoms.dto.Warehouse;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+/**
+ * JPA entity mapped from the {@link Warehouse} record.
+ *
+ * <p>Identifiers come from a pooled sequence rather than an identity column so Hibernate can
+ * batch inserts.
+ */
+@Entity
+@Table(name = "warehouse")
+public class WarehouseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warehouse_seq")
+    @SequenceGenerator(name = "warehouse_seq", sequenceName = "warehouse_seq", allocationSize = 50)
+    private Long id;
+
+    @Version
+    private long version;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    private String address;
+
+    private String city;
+
+    private String state;
+
+    private String postalCode;
+
+    private String warehousePhone;
+
+    private int squareFootage;
+
+    private int loadingDocks;
+
+    protected WarehouseEntity() {
+    }
+
+    /**
+     * Creates a new entity from a warehouse record.
+     *
+     * @param warehouse the warehouse to persist
+     * @return a transient entity
+     */
+    public static WarehouseEntity from(final Warehouse warehouse) {
+        final WarehouseEntity entity = new WarehouseEntity();
+        entity.update(warehouse);
+        return entity;
+    }
+
+    /**
+     * Copies every field of the warehouse record onto this entity.
+     *
+     * @param warehouse the new warehouse values
+     */
+    public void update(final Warehouse warehouse) {
+        this.name = warehouse.name();
+        this.address = warehouse.address();
+        this.city = warehouse.city();
+        this.state = warehouse.state();
+        this.postalCode = warehouse.postalCode();
+        this.warehousePhone = warehouse.warehousePhone();
+        this.squareFootage = warehouse.squareFootage();
+        this.loadingDocks = warehouse.loadingDocks();
+    }
+
+    /**
+     * Maps this entity back to the warehouse record.
+     *
+     * @return the warehouse record
+     */
+    public Warehouse toWarehouse() {
+        return new Warehouse(name, address, city, state, postalCode, warehousePhone, squareFootage, loadingDocks);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
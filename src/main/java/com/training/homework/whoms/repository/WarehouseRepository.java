@@ -0,0 +1,32 @@
+package com.training.homework.whoms.repository;
+
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+/**
+ * Spring Data repository for {@link WarehouseEntity}.
+ */
+public interface WarehouseRepository extends JpaRepository<WarehouseEntity, Long> {
+
+    List<WarehouseEntity> findByNameIn(Collection<String> names);
+
+    List<WarehouseEntity> deleteByName(String name);
+
+    /**
+     * Streams every warehouse in insertion order through a read-only, fetch-size bounded cursor.
+     *
+     * <p>Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return stream of warehouse entities
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<WarehouseEntity> streamAllByOrderByIdAsc();
+}
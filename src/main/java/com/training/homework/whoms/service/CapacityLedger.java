@@ -0,0 +1,254 @@
+package com.training.homework.whoms.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ledger of the square footage and loading docks still available in one warehouse.
+ *
+ * <p>Both dimensions are packed into a single {@code long} (square footage in the high 32 bits,
+ * loading docks in the low 32 bits) so a reservation updates them together with one
+ * compare-and-set. A cold warehouse keeps all of its capacity in one cell. Once a thread sees
+ * repeated compare-and-set failures the ledger doubles its cells, up to {@code maxStripes}, and
+ * spreads the remaining capacity across them so concurrent reservations land on different cache
+ * lines. A request that no single cell can satisfy falls back to a locked slow path that gathers
+ * capacity from every cell; the fast path never takes a lock.
+ *
+ * <p>When the warehouse's capacity changes the ledger is resized by the difference, keeping what is
+ * already reserved. Shrinking it below what is reserved leaves nothing available and records the
+ * shortfall as a debt, which releases pay off before any capacity becomes available again.
+ */
+final class CapacityLedger {
+
+    private final int maxStripes;
+    private final int contentionThreshold;
+
+    private volatile Cell[] cells;
+    // Total capacity and the reserved capacity beyond it, packed like a cell; written only under the lock
+    private volatile long capacity;
+    private volatile long debt;
+
+    CapacityLedger(final int squareFootage, final int loadingDocks, final int maxStripes, final int contentionThreshold) {
+        this.maxStripes = Integer.highestOneBit(Math.max(1, maxStripes) * 2 - 1);
+        this.contentionThreshold = contentionThreshold;
+        this.cells = new Cell[] {new Cell(pack(squareFootage, loadingDocks))};
+        this.capacity = pack(squareFootage, loadingDocks);
+    }
+
+    /**
+     * Takes capacity from the ledger if enough remains.
+     *
+     * @param squareFootage square footage to take, not negative
+     * @param loadingDocks loading docks to take, not negative
+     * @return true if the capacity was taken
+     */
+    boolean tryReserve(final int squareFootage, final int loadingDocks) {
+        final long requested = pack(squareFootage, loadingDocks);
+        Cell[] current = cells;
+        int probe = probe();
+        int failures = 0;
+        while (true) {
+            final Cell cell = current[probe & (current.length - 1)];
+            final long available = cell.get();
+            if (!covers(available, squareFootage, loadingDocks)) {
+                // Re-read the cells: a concurrent grow may be redistributing capacity right now
+                return cells.length > 1 && reserveAcrossCells(squareFootage, loadingDocks);
+            }
+            if (cell.compareAndSet(available, available - requested)) {
+                return true;
+            }
+            if (++failures >= contentionThreshold) {
+                current = grow(current);
+                failures = 0;
+            }
+            probe = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    /**
+     * Returns previously reserved capacity to the ledger.
+     *
+     * @param squareFootage square footage to return
+     * @param loadingDocks loading docks to return
+     */
+    void release(final int squareFootage, final int loadingDocks) {
+        final Cell[] current = cells;
+        current[probe() & (current.length - 1)].addAndGet(pack(squareFootage, loadingDocks));
+        if (debt != 0L) {
+            settle(current, 0L, 0L);
+        }
+    }
+
+    /**
+     * Changes the warehouse's capacity, keeping the capacity already reserved.
+     *
+     * @param squareFootage new total square footage, not negative
+     * @param loadingDocks new total loading docks, not negative
+     */
+    synchronized void resize(final int squareFootage, final int loadingDocks) {
+        final long squareFootageChange = (long) squareFootage - squareFootage(capacity);
+        final long loadingDocksChange = (long) loadingDocks - loadingDocks(capacity);
+        capacity = pack(squareFootage, loadingDocks);
+        final Cell[] current = cells;
+        settle(current, squareFootageChange, loadingDocksChange);
+        // A release that added to a cell before it could see the new debt is netted against it here
+        settle(current, 0L, 0L);
+    }
+
+    /**
+     * Tells whether the ledger has been resized to no capacity, as it is for a removed warehouse.
+     *
+     * @return true if the capacity is zero
+     */
+    boolean closed() {
+        return capacity == 0L;
+    }
+
+    /**
+     * Tells whether the ledger has no capacity and nothing reserved, so it can be discarded.
+     *
+     * @return true if the capacity is zero and every reservation has been released
+     */
+    synchronized boolean retired() {
+        return capacity == 0L && debt == 0L && availableSquareFootage() == 0 && availableLoadingDocks() == 0;
+    }
+
+    /**
+     * Returns the square footage currently available across all cells.
+     *
+     * @return available square footage
+     */
+    long availableSquareFootage() {
+        long total = 0;
+        for (final Cell cell : cells) {
+            total += squareFootage(cell.get());
+        }
+        return total;
+    }
+
+    /**
+     * Returns the loading docks currently available across all cells.
+     *
+     * @return available loading docks
+     */
+    long availableLoadingDocks() {
+        long total = 0;
+        for (final Cell cell : cells) {
+            total += loadingDocks(cell.get());
+        }
+        return total;
+    }
+
+    int stripes() {
+        return cells.length;
+    }
+
+    private synchronized Cell[] grow(final Cell[] seen) {
+        final Cell[] current = cells;
+        if (current != seen || current.length >= maxStripes) {
+            return current;
+        }
+        final Cell[] grown = new Cell[current.length * 2];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        for (int i = current.length; i < grown.length; i++) {
+            grown[i] = new Cell(0L);
+        }
+        cells = grown;
+        settle(grown, 0L, 0L);
+        return grown;
+    }
+
+    private synchronized boolean reserveAcrossCells(final int squareFootage, final int loadingDocks) {
+        final Cell[] current = cells;
+        final long[] taken = new long[current.length];
+        int neededSquareFootage = squareFootage;
+        int neededLoadingDocks = loadingDocks;
+        for (int i = 0; i < current.length && (neededSquareFootage > 0 || neededLoadingDocks > 0); i++) {
+            while (true) {
+                final long available = current[i].get();
+                final int takeSquareFootage = Math.min(neededSquareFootage, squareFootage(available));
+                final int takeLoadingDocks = Math.min(neededLoadingDocks, loadingDocks(available));
+                final long take = pack(takeSquareFootage, takeLoadingDocks);
+                if (take == 0L || current[i].compareAndSet(available, available - take)) {
+                    taken[i] = take;
+                    neededSquareFootage -= takeSquareFootage;
+                    neededLoadingDocks -= takeLoadingDocks;
+                    break;
+                }
+            }
+        }
+        if (neededSquareFootage > 0 || neededLoadingDocks > 0) {
+            for (int i = 0; i < current.length; i++) {
+                if (taken[i] != 0L) {
+                    current[i].addAndGet(taken[i]);
+                }
+            }
+            return false;
+        }
+        // Capacity had fragmented across cells; even it out so later requests stay on the fast path
+        settle(current, 0L, 0L);
+        return true;
+    }
+
+    /**
+     * Drains every cell, applies a change in capacity and the outstanding debt, and spreads what
+     * remains evenly across the cells, recording any shortfall as the new debt.
+     */
+    private synchronized void settle(final Cell[] current, final long squareFootageChange, final long loadingDocksChange) {
+        long totalSquareFootage = squareFootageChange - squareFootage(debt);
+        long totalLoadingDocks = loadingDocksChange - loadingDocks(debt);
+        for (final Cell cell : current) {
+            final long drained = cell.getAndSet(0L);
+            totalSquareFootage += squareFootage(drained);
+            totalLoadingDocks += loadingDocks(drained);
+        }
+        debt = pack((int) Math.max(0L, -totalSquareFootage), (int) Math.max(0L, -totalLoadingDocks));
+        totalSquareFootage = Math.max(0L, totalSquareFootage);
+        totalLoadingDocks = Math.max(0L, totalLoadingDocks);
+        for (int i = 0; i < current.length; i++) {
+            final long shareSquareFootage = totalSquareFootage / current.length + (i < totalSquareFootage % current.length ? 1 : 0);
+            final long shareLoadingDocks = totalLoadingDocks / current.length + (i < totalLoadingDocks % current.length ? 1 : 0);
+            current[i].addAndGet(pack((int) shareSquareFootage, (int) shareLoadingDocks));
+        }
+    }
+
+    private static boolean covers(final long available, final int squareFootage, final int loadingDocks) {
+        return squareFootage(available) >= squareFootage && loadingDocks(available) >= loadingDocks;
+    }
+
+    private static int probe() {
+        final long id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 16)) * 0x9E3779B9;
+    }
+
+    private static long pack(final int squareFootage, final int loadingDocks) {
+        return ((long) squareFootage << 32) | (loadingDocks & 0xFFFFFFFFL);
+    }
+
+    private static int squareFootage(final long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int loadingDocks(final long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Capacity cell padded to its own cache line to avoid false sharing between stripes.
+     */
+    @SuppressWarnings("unused")
+    private static final class Cell extends AtomicLong {
+
+        private long p1;
+        private long p2;
+        private long p3;
+        private long p4;
+        private long p5;
+        private long p6;
+        private long p7;
+
+        Cell(final long initialValue) {
+            super(initialValue);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.training.homework.whoms.service;
+
+/**
+ * Published when capacity is reserved in or released back to a warehouse.
+ *
+ * @param warehouseName warehouse whose reserved capacity changed
+ * @param squareFootage change in reserved square footage, negative on release
+ * @param loadingDocks change in reserved loading docks, negative on release
+ */
+public record CapacityReservationChangedEvent(
+        String warehouseName,
+        int squareFootage,
+        int loadingDocks
+) {
+}
@@ -0,0 +1,236 @@
+package com.training.homework.whoms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.training.homework.whoms.config.ReservationProperties;
+import com.training.homework.whoms.dto.Warehouse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reserves and releases warehouse square footage and loading docks without oversubscribing.
+ *
+ * <p>Each warehouse has its own {@link CapacityLedger}, created from the warehouse's
+ * {@code squareFootage} and {@code loadingDocks} the first time it is reserved against and resized
+ * when the catalog changes the warehouse, keeping the holds already made, so
+ * requests for different warehouses never contend and requests for the same warehouse contend
+ * only on a compare-and-set. Reserve and release are idempotent by request ID: a retried reserve
+ * returns the original decision and a repeated release returns capacity only once. Every request
+ * ID maps to one decision: the first caller claims the ID with a pending future and decides outside
+ * any map lock, and concurrent callers with the same ID wait for that decision. Rejected and
+ * released decisions are forgotten after {@code whoms.reservations.decision-ttl}. Accepted ones hold
+ * their capacity until released or until {@code whoms.reservations.hold-ttl} passes, when the hold
+ * lapses and the capacity returns as if released; at most {@code whoms.reservations.hold-maximum-size}
+ * holds are kept, and the oldest lapse first beyond that. Every change in reserved capacity is
+ * published as a {@link CapacityReservationChangedEvent}.
+ */
+@Service
+public class CapacityReservationEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacityReservationEngine.class);
+
+    private final ReservationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConcurrentMap<String, CapacityLedger> ledgers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Reservation>> decisions = new ConcurrentHashMap<>();
+    // Only bounds how long settled decisions stay in the decisions map
+    private final Cache<String, CompletableFuture<Reservation>> settledDecisions;
+    // Bounds how long accepted decisions hold capacity, releasing it when they lapse
+    private final Cache<String, CompletableFuture<Reservation>> heldDecisions;
+
+    public CapacityReservationEngine(final ReservationProperties properties, final ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.settledDecisions = Caffeine.newBuilder()
+                .maximumSize(properties.decisionMaximumSize())
+                .expireAfterWrite(properties.decisionTtl())
+                .<String, CompletableFuture<Reservation>>removalListener((requestId, decision, cause) -> {
+                    if (cause.wasEvicted()) {
+                        decisions.remove(requestId, decision);
+                    }
+                })
+                .build();
+        this.heldDecisions = Caffeine.newBuilder()
+                .maximumSize(properties.holdMaximumSize())
+                .expireAfterWrite(properties.holdTtl())
+                // Lapse holds on time rather than on the next cache access, so idle warehouses get capacity back
+                .scheduler(Scheduler.systemScheduler())
+                .<String, CompletableFuture<Reservation>>removalListener((requestId, decision, cause) -> {
+                    if (cause.wasEvicted() && settle(requestId, decision)) {
+                        logger.debug("Reservation {} lapsed after {}", requestId, cause);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Reserves capacity in a warehouse for a request, or returns the earlier decision for that request.
+     *
+     * @param requestId idempotency key for the reservation
+     * @param warehouse the warehouse to reserve capacity in
+     * @param squareFootage square footage to reserve, not negative
+     * @param loadingDocks loading docks to reserve, not negative
+     * @return the reservation decision
+     */
+    public Reservation reserve(final String requestId, final Warehouse warehouse, final int squareFootage, final int loadingDocks) {
+        final CompletableFuture<Reservation> claim = new CompletableFuture<>();
+        final CompletableFuture<Reservation> existing = decisions.putIfAbsent(requestId, claim);
+        if (existing != null) {
+            return awaitDecision(existing);
+        }
+
+        final Reservation decided;
+        try {
+            final boolean reserved = ledgerFor(warehouse).tryReserve(squareFootage, loadingDocks);
+            decided = new Reservation(requestId, warehouse.name(), squareFootage, loadingDocks, reserved);
+        } catch (RuntimeException e) {
+            decisions.remove(requestId, claim);
+            claim.completeExceptionally(e);
+            throw e;
+        }
+        if (decided.accepted()) {
+            // Before completing, so no release can settle the claim ahead of its hold being tracked
+            heldDecisions.put(requestId, claim);
+        }
+        claim.complete(decided);
+        if (decided.accepted()) {
+            eventPublisher.publishEvent(new CapacityReservationChangedEvent(warehouse.name(), squareFootage, loadingDocks));
+        } else {
+            settledDecisions.put(requestId, claim);
+            logger.debug("Rejected reservation {} for warehouse {}", requestId, warehouse.name());
+        }
+        return decided;
+    }
+
+    /**
+     * Releases the capacity held by a request's reservation.
+     *
+     * @param requestId the request whose reservation should be released
+     * @return true if capacity was returned, false if the request holds no active reservation
+     */
+    public boolean release(final String requestId) {
+        if (!settle(requestId, decisions.get(requestId))) {
+            return false;
+        }
+        heldDecisions.invalidate(requestId);
+        return true;
+    }
+
+    /**
+     * Resizes the ledgers of warehouses whose capacity the catalog changed.
+     *
+     * <p>Holds already made are kept: a warehouse shrunk below what is held has nothing available
+     * until enough is released. A removed warehouse's ledger is shrunk to nothing and discarded once
+     * its last hold is released.
+     *
+     * @param event the catalog change
+     */
+    @EventListener
+    public void onCatalogChanged(final WarehouseCatalogChangedEvent event) {
+        event.added().forEach(this::resizeLedger);
+        event.updated().forEach(this::resizeLedger);
+        event.removed().forEach(name -> ledgers.computeIfPresent(name, (key, ledger) -> {
+            ledger.resize(0, 0);
+            return ledger.retired() ? null : ledger;
+        }));
+    }
+
+    /**
+     * Tells whether a request's reservation still holds capacity.
+     *
+     * @param requestId the request to check
+     * @return true if the request was accepted and has been neither released nor lapsed
+     */
+    public boolean holds(final String requestId) {
+        final Reservation reservation = settledReservation(decisions.get(requestId));
+        return reservation != null && reservation.accepted();
+    }
+
+    /**
+     * Returns the square footage still available in a warehouse, if it has been reserved against.
+     *
+     * @param warehouseName the warehouse name
+     * @return available square footage, or -1 if the warehouse has no ledger yet
+     */
+    public long availableSquareFootage(final String warehouseName) {
+        final CapacityLedger ledger = ledgers.get(warehouseName);
+        return ledger == null ? -1 : ledger.availableSquareFootage();
+    }
+
+    /**
+     * Returns the loading docks still available in a warehouse, if it has been reserved against.
+     *
+     * @param warehouseName the warehouse name
+     * @return available loading docks, or -1 if the warehouse has no ledger yet
+     */
+    public long availableLoadingDocks(final String warehouseName) {
+        final CapacityLedger ledger = ledgers.get(warehouseName);
+        return ledger == null ? -1 : ledger.availableLoadingDocks();
+    }
+
+    /**
+     * Returns an accepted decision's capacity to its ledger, unless a release or lapse already has.
+     */
+    private boolean settle(final String requestId, final CompletableFuture<Reservation> current) {
+        final Reservation reservation = settledReservation(current);
+        if (reservation == null || !reservation.accepted()) {
+            return false;
+        }
+        final CompletableFuture<Reservation> released = CompletableFuture.completedFuture(new Reservation(requestId,
+                reservation.warehouseName(), reservation.squareFootage(), reservation.loadingDocks(), false));
+        if (!decisions.replace(requestId, current, released)) {
+            // A concurrent release or lapse won
+            return false;
+        }
+        final CapacityLedger ledger = ledgers.get(reservation.warehouseName());
+        ledger.release(reservation.squareFootage(), reservation.loadingDocks());
+        if (ledger.closed()) {
+            // The warehouse was removed; discard its ledger once this was its last hold
+            ledgers.computeIfPresent(reservation.warehouseName(), (name, held) -> held.retired() ? null : held);
+        }
+        eventPublisher.publishEvent(new CapacityReservationChangedEvent(
+                reservation.warehouseName(), -reservation.squareFootage(), -reservation.loadingDocks()));
+        settledDecisions.put(requestId, released);
+        return true;
+    }
+
+    private static Reservation settledReservation(final CompletableFuture<Reservation> decision) {
+        // A decision still being made holds nothing yet, and a failed one is being removed
+        return decision == null || decision.isCompletedExceptionally() ? null : decision.getNow(null);
+    }
+
+    private static Reservation awaitDecision(final CompletableFuture<Reservation> decision) {
+        try {
+            // The caller that claimed the request ID is deciding without blocking
+            return decision.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void resizeLedger(final Warehouse warehouse) {
+        ledgers.computeIfPresent(warehouse.name(), (name, ledger) -> {
+            ledger.resize(warehouse.squareFootage(), warehouse.loadingDocks());
+            return ledger;
+        });
+    }
+
+    private CapacityLedger ledgerFor(final Warehouse warehouse) {
+        return ledgers.computeIfAbsent(warehouse.name(), name -> new CapacityLedger(
+                warehouse.squareFootage(),
+                warehouse.loadingDocks(),
+                properties.maxStripes(),
+                properties.contentionThreshold()));
+    }
+}
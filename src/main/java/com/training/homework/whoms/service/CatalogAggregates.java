@@ -0,0 +1,53 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehouseStats.Group;
+import java.util.List;
+
+/**
+ * Capacity totals that a store computes over its own storage for {@link WarehouseStatsService},
+ * so the service does not have to keep a copy of every warehouse to total them itself.
+ *
+ * <p>Groups are keyed and labelled as {@link Group stats groups} are. Reserved capacity is not
+ * known to the store, so every group reports none and the service adds it.
+ */
+public interface CatalogAggregates {
+
+    /**
+     * Returns the catalog version the totals reflect.
+     *
+     * @return catalog version
+     */
+    long catalogVersion();
+
+    /**
+     * Returns the number of warehouses.
+     *
+     * @return number of warehouses
+     */
+    int warehouses();
+
+    /**
+     * Returns the totals per state, or per city within state.
+     *
+     * @param byState true to group by state, false to group by city within state
+     * @return one group per distinct key, in no particular order, with no reserved capacity
+     */
+    List<Group> groups(boolean byState);
+
+    /**
+     * Counts the warehouses with less square footage than a bound.
+     *
+     * @param squareFootage exclusive upper bound
+     * @return number of warehouses below it
+     */
+    int countBelow(int squareFootage);
+
+    /**
+     * Returns the warehouses with the most square footage.
+     *
+     * @param top maximum number of warehouses to return
+     * @return warehouses ordered by square footage, largest first, then by name
+     */
+    List<Warehouse> largest(int top);
+}
@@ -0,0 +1,313 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the changes made to a {@link MappedCatalogFile} since it was written.
+ *
+ * <p>Layout, all integers big-endian:
+ * <pre>
+ * header   magic "WHMJ" | format version | base catalog version (long) | base payload CRC32
+ * entries  per entry: body length | body CRC32 | body
+ * body     catalog version (long) | saved count | removed count | saved warehouses | removed names
+ * </pre>
+ * A warehouse is its six strings, each a UTF-8 length ({@code -1} for null) and bytes, then square
+ * footage and loading docks. The header names the snapshot the entries apply to, so a journal left
+ * behind by an older snapshot is ignored rather than replayed. Each write appends one entry and
+ * forces only that entry to disk. An entry that is cut short or fails its checksum at the end of
+ * the file is a write still in progress, or one that never finished, and is skipped by readers and
+ * overwritten by the next writer; one followed by further entries means the file is corrupt.
+ */
+final class CatalogJournal {
+
+    private static final int MAGIC = 0x57484D4A;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final int ENTRY_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int NULL_STRING = -1;
+
+    private CatalogJournal() {
+    }
+
+    /**
+     * One write: the warehouses saved and the names removed, and the catalog version it produced.
+     *
+     * @param catalogVersion catalog version after the write
+     * @param saved warehouses inserted or replaced, in order
+     * @param removed names of warehouses removed
+     */
+    record Entry(long catalogVersion, List<Warehouse> saved, List<String> removed) {
+
+        Entry {
+            saved = List.copyOf(saved);
+            removed = List.copyOf(removed);
+        }
+
+        /**
+         * Returns the number of warehouses the entry saves or removes.
+         *
+         * @return number of changed rows
+         */
+        int rows() {
+            return saved.size() + removed.size();
+        }
+    }
+
+    /**
+     * How far into which journal file a reader has got.
+     *
+     * @param fileKey file key of the journal file, which changes when the file is replaced
+     * @param end offset just past the last entry read, or 0 if there is no journal for the snapshot
+     */
+    record Position(Object fileKey, long end) {
+
+        static final Position NONE = new Position(null, 0);
+
+        /**
+         * Tells whether the position is in a journal that belongs to the snapshot.
+         *
+         * @return true if entries can be appended at this position
+         */
+        boolean linked() {
+            return end > 0;
+        }
+    }
+
+    /**
+     * Entries read from a journal.
+     *
+     * @param entries entries in the order they were written
+     * @param position where the next read or append starts
+     * @param restarted true if the entries were read from the start of the journal rather than
+     *        following on from the position asked for
+     */
+    record Tail(List<Entry> entries, Position position, boolean restarted) {
+    }
+
+    /**
+     * Creates an empty journal for a snapshot, atomically replacing any existing journal.
+     *
+     * @param journal journal file
+     * @param base snapshot the journal applies to
+     * @return position of the first entry
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    static Position create(final Path journal, final MappedCatalogFile base) {
+        try {
+            final Path directory = journal.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            final Path temporary = Files.createTempFile(directory, journal.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                        .putInt(MAGIC)
+                        .putInt(FORMAT_VERSION)
+                        .putLong(base.catalogVersion())
+                        .putInt(base.checksum())
+                        .flip();
+                channel.write(header, 0);
+                channel.force(true);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            Files.move(temporary, journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return new Position(fileKey(journal), HEADER_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create catalog journal " + journal, e);
+        }
+    }
+
+    /**
+     * Appends an entry and forces it to disk. Callers hold the snapshot's write lock and have read
+     * the journal up to {@code at}, so anything after it is an unfinished write and is discarded.
+     *
+     * @param journal journal file
+     * @param at position just past the last complete entry
+     * @param entry entry to append
+     * @return position after the new entry
+     * @throws UncheckedIOException if the entry cannot be written
+     */
+    static Position append(final Path journal, final Position at, final Entry entry) {
+        final ByteBuffer encoded = encode(entry);
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.truncate(at.end());
+            long offset = at.end();
+            while (encoded.hasRemaining()) {
+                offset += channel.write(encoded, offset);
+            }
+            channel.force(false);
+            return new Position(at.fileKey(), offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to catalog journal " + journal, e);
+        }
+    }
+
+    /**
+     * Reads the entries written since a position. If the journal has been replaced since, or the
+     * position is not in a journal, reads from the start instead.
+     *
+     * @param journal journal file
+     * @param base snapshot the entries must apply to
+     * @param from position reached by an earlier read
+     * @return the entries, and {@link Position#NONE} if the file is missing or belongs to another snapshot
+     * @throws UncheckedIOException if the file cannot be read
+     * @throws IllegalStateException if an entry other than the last is corrupt
+     */
+    static Tail read(final Path journal, final MappedCatalogFile base, final Position from) {
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ)) {
+            // Replacing a journal always replaces its snapshot first, and the header check below
+            // catches a journal for a newer snapshot, so reading the key after opening is enough
+            final Object fileKey = fileKey(journal);
+            final long length = channel.size();
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (length < HEADER_BYTES || channel.read(header, 0) < HEADER_BYTES
+                    || header.getInt(0) != MAGIC
+                    || header.getInt(4) != FORMAT_VERSION
+                    || header.getLong(8) != base.catalogVersion()
+                    || header.getInt(16) != base.checksum()) {
+                return new Tail(List.of(), Position.NONE, true);
+            }
+            final boolean restarted = !from.linked() || fileKey == null || !Objects.equals(from.fileKey(), fileKey)
+                    || from.end() > length;
+            final long start = restarted ? HEADER_BYTES : from.end();
+            if (length - start > Integer.MAX_VALUE) {
+                throw corrupt(journal, "unexpected length " + length);
+            }
+            final ByteBuffer tail = ByteBuffer.allocate((int) (length - start));
+            while (tail.hasRemaining()) {
+                if (channel.read(tail, start + tail.position()) < 0) {
+                    break;
+                }
+            }
+            tail.flip();
+
+            final List<Entry> entries = new ArrayList<>();
+            while (tail.remaining() >= ENTRY_HEADER_BYTES) {
+                final int bodyLength = tail.getInt(tail.position());
+                final int expectedChecksum = tail.getInt(tail.position() + Integer.BYTES);
+                final int bodyStart = tail.position() + ENTRY_HEADER_BYTES;
+                if (bodyLength < 0 || bodyLength > tail.limit() - bodyStart) {
+                    break;
+                }
+                final ByteBuffer body = tail.slice(bodyStart, bodyLength);
+                final CRC32 checksum = new CRC32();
+                checksum.update(body.duplicate());
+                if ((int) checksum.getValue() != expectedChecksum) {
+                    if (bodyStart + bodyLength < tail.limit()) {
+                        throw corrupt(journal, "checksum mismatch in entry at offset " + (start + tail.position()));
+                    }
+                    break;
+                }
+                entries.add(decode(body));
+                tail.position(bodyStart + bodyLength);
+            }
+            return new Tail(List.copyOf(entries), new Position(fileKey, start + tail.position()), restarted);
+        } catch (NoSuchFileException e) {
+            return new Tail(List.of(), Position.NONE, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read catalog journal " + journal, e);
+        }
+    }
+
+    private static ByteBuffer encode(final Entry entry) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(entry.catalogVersion());
+            out.writeInt(entry.saved().size());
+            out.writeInt(entry.removed().size());
+            for (final Warehouse warehouse : entry.saved()) {
+                writeString(out, warehouse.name());
+                writeString(out, warehouse.address());
+                writeString(out, warehouse.city());
+                writeString(out, warehouse.state());
+                writeString(out, warehouse.postalCode());
+                writeString(out, warehouse.warehousePhone());
+                out.writeInt(warehouse.squareFootage());
+                out.writeInt(warehouse.loadingDocks());
+            }
+            for (final String name : entry.removed()) {
+                writeString(out, name);
+            }
+            out.flush();
+            final byte[] body = bytes.toByteArray();
+            final CRC32 checksum = new CRC32();
+            checksum.update(body);
+            return ByteBuffer.allocate(ENTRY_HEADER_BYTES + body.length)
+                    .putInt(body.length)
+                    .putInt((int) checksum.getValue())
+                    .put(body)
+                    .flip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Entry decode(final ByteBuffer body) {
+        final long catalogVersion = body.getLong();
+        final int savedCount = body.getInt();
+        final int removedCount = body.getInt();
+        final List<Warehouse> saved = new ArrayList<>(savedCount);
+        for (int i = 0; i < savedCount; i++) {
+            saved.add(new Warehouse(
+                    readString(body),
+                    readString(body),
+                    readString(body),
+                    readString(body),
+                    readString(body),
+                    readString(body),
+                    body.getInt(),
+                    body.getInt()));
+        }
+        final List<String> removed = new ArrayList<>(removedCount);
+        for (int i = 0; i < removedCount; i++) {
+            removed.add(readString(body));
+        }
+        return new Entry(catalogVersion, saved, removed);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_STRING);
+            return;
+        }
+        final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(final ByteBuffer body) {
+        final int length = body.getInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        final byte[] utf8 = new byte[length];
+        body.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static Object fileKey(final Path journal) throws IOException {
+        return Files.readAttributes(journal, BasicFileAttributes.class).fileKey();
+    }
+
+    private static IllegalStateException corrupt(final Path journal, final String reason) {
+        return new IllegalStateException("Catalog journal " + journal + " is not readable: " + reason);
+    }
+}
@@ -0,0 +1,144 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory warehouse store that keeps the catalog in primitive and dictionary-encoded columns.
+ *
+ * <p>Holds the same data as {@link WarehouseDtoDataImpl} with far fewer objects per row, which
+ * keeps heap use and GC work low for catalogs of millions of warehouses. Warehouse records are
+ * built only when a caller reads them. Writes derive a new column set copy-on-write from the
+ * previous one, so readers never block, and capacity totals for stats are computed over the
+ * columns rather than from a record per warehouse.
+ */
+@Service
+@ConditionalOnProperty(name = "whoms.catalog.store", havingValue = "columnar")
+public class ColumnarWarehouseDtoData implements WarehouseDtoData {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarWarehouseDtoData.class);
+
+    private volatile Catalog catalog = new Catalog(WarehouseColumns.of(WarehouseSeedData.WAREHOUSES), 1L);
+
+    /**
+     * Returns all warehouses as a read-only view of the current catalog version.
+     *
+     * <p>The view builds each warehouse record as it is read rather than copying the catalog.
+     *
+     * @return immutable list of warehouses
+     */
+    public List<Warehouse> getAllWarehouses() {
+        final List<Warehouse> warehouses = catalog.columns().asList();
+        logger.debug("Retrieved {} warehouses", warehouses.size());
+        return warehouses;
+    }
+
+    /**
+     * Returns the total count of warehouses.
+     *
+     * @return number of warehouses in the data set
+     */
+    public int getWarehouseCount() {
+        return catalog.columns().size();
+    }
+
+    /**
+     * Returns the catalog version, incremented on every write.
+     *
+     * @return current catalog version
+     */
+    public long getCatalogVersion() {
+        return catalog.version();
+    }
+
+    /**
+     * Builds every warehouse in the current catalog version and passes it to an action.
+     *
+     * @param action action to perform on each warehouse
+     */
+    public void forEachWarehouse(final Consumer<? super Warehouse> action) {
+        catalog.columns().forEach(action);
+    }
+
+    /**
+     * Returns capacity totals computed over the current columns.
+     *
+     * @return the totals for the current catalog version
+     */
+    public Optional<CatalogAggregates> aggregates() {
+        final Catalog current = catalog;
+        return Optional.of(current.columns().aggregates(current.version()));
+    }
+
+    /**
+     * Looks up a warehouse by its exact name.
+     *
+     * @param name warehouse name
+     * @return the warehouse, or empty if no warehouse has that name
+     */
+    public Optional<Warehouse> findWarehouse(final String name) {
+        return Optional.ofNullable(catalog.columns().findByName(name));
+    }
+
+    /**
+     * Returns one page of warehouses matching the query, filtered and sorted on the columns.
+     *
+     * @param query filter, sort and paging criteria
+     * @return the requested page of warehouses
+     */
+    public WarehousePage findWarehouses(final WarehouseQuery query) {
+        final WarehousePage page = catalog.columns().query(query);
+        logger.debug("Query {} matched {} warehouses on this page", query, page.items().size());
+        return page;
+    }
+
+    /**
+     * Inserts or replaces warehouses, matched by name, and publishes a new catalog version.
+     *
+     * @param warehouses warehouses to save
+     * @return the change made
+     */
+    public synchronized WarehouseCatalogChangedEvent saveAll(final Collection<Warehouse> warehouses) {
+        final Catalog current = catalog;
+        final WarehouseCatalogChangedEvent change = WarehouseCatalogChangedEvent.saved(current.version(),
+                current.version() + 1, warehouses, name -> current.columns().findByName(name) != null);
+        final WarehouseColumns.Builder builder = current.columns().toBuilder(warehouses.size());
+        warehouses.forEach(builder::put);
+
+        catalog = new Catalog(builder.build(), current.version() + 1);
+        logger.debug("Saved {} warehouses, catalog version is now {}", warehouses.size(), current.version() + 1);
+        return change;
+    }
+
+    /**
+     * Removes a warehouse by name and publishes a new catalog version if it existed.
+     *
+     * <p>Later rows move up one row id and the orderings and groups are renumbered in one pass;
+     * values only the removed warehouse used stay in the dictionaries.
+     *
+     * @param name warehouse name
+     * @return the change made, or empty if no warehouse has that name
+     */
+    public synchronized Optional<WarehouseCatalogChangedEvent> removeWarehouse(final String name) {
+        final Catalog current = catalog;
+        final WarehouseColumns remaining = current.columns().withRemoved(name);
+        if (remaining == current.columns()) {
+            return Optional.empty();
+        }
+
+        catalog = new Catalog(remaining, current.version() + 1);
+        logger.debug("Removed warehouse {}, catalog version is now {}", name, current.version() + 1);
+        return Optional.of(WarehouseCatalogChangedEvent.removed(current.version(), current.version() + 1, name));
+    }
+
+    private record Catalog(WarehouseColumns columns, long version) {}
+}
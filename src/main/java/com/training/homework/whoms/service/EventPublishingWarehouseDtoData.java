@@ -0,0 +1,78 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Decorator that publishes a {@link WarehouseCatalogChangedEvent} after every write to the
+ * underlying {@link WarehouseDtoData}. Saves and removals publish the change the store
+ * reports, so the decorator adds no reads around the write.
+ *
+ * <p>Writes through this decorator are serialized and each event is published before the next
+ * write starts, so listeners see the versions of one process in order. Reads pass straight through.
+ */
+final class EventPublishingWarehouseDtoData implements WarehouseDtoData {
+
+    private final WarehouseDtoData delegate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    EventPublishingWarehouseDtoData(final WarehouseDtoData delegate, final ApplicationEventPublisher eventPublisher) {
+        this.delegate = delegate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public List<Warehouse> getAllWarehouses() {
+        return delegate.getAllWarehouses();
+    }
+
+    @Override
+    public int getWarehouseCount() {
+        return delegate.getWarehouseCount();
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return delegate.getCatalogVersion();
+    }
+
+    @Override
+    public void forEachWarehouse(final Consumer<? super Warehouse> action) {
+        delegate.forEachWarehouse(action);
+    }
+
+    @Override
+    public Optional<CatalogAggregates> aggregates() {
+        return delegate.aggregates();
+    }
+
+    @Override
+    public Optional<Warehouse> findWarehouse(final String name) {
+        return delegate.findWarehouse(name);
+    }
+
+    @Override
+    public WarehousePage findWarehouses(final WarehouseQuery query) {
+        return delegate.findWarehouses(query);
+    }
+
+    @Override
+    public synchronized WarehouseCatalogChangedEvent saveAll(final Collection<Warehouse> warehouses) {
+        final WarehouseCatalogChangedEvent change = delegate.saveAll(warehouses);
+        eventPublisher.publishEvent(change);
+        return change;
+    }
+
+    @Override
+    public synchronized Optional<WarehouseCatalogChangedEvent> removeWarehouse(final String name) {
+        final Optional<WarehouseCatalogChangedEvent> change = delegate.removeWarehouse(name);
+        change.ifPresent(eventPublisher::publishEvent);
+        return change;
+    }
+}
@@ -0,0 +1,10 @@
+package com.training.homework.whoms.service;
+
+/**
+ * A point on the Earth's surface.
+ *
+ * @param latitude latitude in degrees, north positive
+ * @param longitude longitude in degrees, east positive
+ */
+public record GeoPoint(double latitude, double longitude) {
+}
@@ -0,0 +1,11 @@
+package com.training.homework.whoms.service;
+
+/**
+ * Thrown when an idempotency key is sent again with a different request body.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(final String message) {
+        super(message);
+    }
+}
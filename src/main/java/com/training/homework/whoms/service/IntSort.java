@@ -0,0 +1,87 @@
+package com.training.homework.whoms.service;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Sorts and merges {@code int} row ids by a caller-supplied order without boxing them.
+ *
+ * <p>{@link java.util.Arrays#sort(int[])} only sorts by value, and sorting row ids through
+ * {@code IntStream.boxed()} allocates an {@link Integer} per row. The order is an
+ * {@link IntBinaryOperator} that compares two row ids the way a {@link java.util.Comparator} would.
+ */
+final class IntSort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private IntSort() {
+    }
+
+    /**
+     * Sorts row ids in place with a stable merge sort.
+     *
+     * @param rows row ids to sort
+     * @param order comparison of two row ids
+     */
+    static void sort(final int[] rows, final IntBinaryOperator order) {
+        if (rows.length > 1) {
+            mergeSort(rows, rows.clone(), 0, rows.length, order);
+        }
+    }
+
+    /**
+     * Merges two arrays that are each sorted by the same order.
+     *
+     * @param left sorted row ids
+     * @param right sorted row ids
+     * @param order comparison of two row ids
+     * @return a new array holding both, sorted, with ties taken from {@code left} first
+     */
+    static int[] merge(final int[] left, final int[] right, final IntBinaryOperator order) {
+        final int[] merged = new int[left.length + right.length];
+        int l = 0;
+        int r = 0;
+        int out = 0;
+        while (l < left.length && r < right.length) {
+            merged[out++] = order.applyAsInt(left[l], right[r]) <= 0 ? left[l++] : right[r++];
+        }
+        System.arraycopy(left, l, merged, out, left.length - l);
+        System.arraycopy(right, r, merged, out + left.length - l, right.length - r);
+        return merged;
+    }
+
+    /**
+     * Sorts {@code rows[from, to)}, using {@code buffer}, which holds the same values, as scratch.
+     */
+    private static void mergeSort(final int[] rows, final int[] buffer, final int from, final int to,
+            final IntBinaryOperator order) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(rows, from, to, order);
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        // Sort each half of the buffer, then merge the halves back into rows
+        mergeSort(buffer, rows, from, mid, order);
+        mergeSort(buffer, rows, mid, to, order);
+        int l = from;
+        int r = mid;
+        for (int out = from; out < to; out++) {
+            if (r >= to || (l < mid && order.applyAsInt(buffer[l], buffer[r]) <= 0)) {
+                rows[out] = buffer[l++];
+            } else {
+                rows[out] = buffer[r++];
+            }
+        }
+    }
+
+    private static void insertionSort(final int[] rows, final int from, final int to, final IntBinaryOperator order) {
+        for (int i = from + 1; i < to; i++) {
+            final int row = rows[i];
+            int j = i - 1;
+            while (j >= from && order.applyAsInt(rows[j], row) > 0) {
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            rows[j + 1] = row;
+        }
+    }
+}
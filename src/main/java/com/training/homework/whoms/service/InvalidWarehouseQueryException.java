@@ -0,0 +1,11 @@
+package com.training.homework.whoms.service;
+
+/**
+ * Thrown when warehouse query parameters cannot be interpreted.
+ */
+public class InvalidWarehouseQueryException extends RuntimeException {
+
+    public InvalidWarehouseQueryException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,310 @@
+package com.training.homework.whoms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.training.homework.whoms.config.CatalogProperties;
+import com.training.homework.whoms.config.WarehouseMetrics;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.repository.WarehouseEntity;
+import com.training.homework.whoms.repository.WarehouseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Warehouse data backed by a JPA repository, selected with {@code whoms.catalog.store=jpa}.
+ *
+ * <p>Reads are served read-through from a Caffeine cache holding the whole indexed catalog, so
+ * a GET only reaches the database once per {@code whoms.catalog.cache-ttl}. Query pages are
+ * cached per catalog version with size and TTL eviction. Both caches publish their statistics and
+ * hit ratio through Micrometer. Writes are flushed in batches of
+ * {@code whoms.catalog.write-batch-size} and evict the local cache after commit; other nodes
+ * pick the change up when their cached catalog expires.
+ *
+ * <p>The catalog version advances when a write through this node commits, or when a reload finds
+ * rows that differ from the catalog it replaces. A reload that finds nothing changed keeps the
+ * version and the index, so caches keyed by version survive the TTL.
+ */
+@Service
+@ConditionalOnProperty(name = "whoms.catalog.store", havingValue = "jpa")
+public class JpaWarehouseDtoData implements WarehouseDtoData {
+
+    private static final Logger logger = LoggerFactory.getLogger(JpaWarehouseDtoData.class);
+
+    private static final String CATALOG_KEY = "catalog";
+
+    private final WarehouseRepository warehouseRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final CatalogProperties catalogProperties;
+    private final AtomicLong catalogGeneration = new AtomicLong();
+    private final LoadingCache<String, Catalog> catalogCache;
+    private final Cache<QueryKey, WarehousePage> queryCache;
+
+    private volatile Catalog lastLoaded;
+    // Version of the newest catalog this node has loaded or written, guarded by catalogGeneration
+    private long seenVersion;
+
+    public JpaWarehouseDtoData(
+            final WarehouseRepository warehouseRepository,
+            final EntityManager entityManager,
+            final PlatformTransactionManager transactionManager,
+            final CatalogProperties catalogProperties,
+            final MeterRegistry meterRegistry) {
+        this.warehouseRepository = warehouseRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.catalogProperties = catalogProperties;
+        this.catalogCache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(catalogProperties.cacheTtl())
+                .recordStats()
+                .build(key -> loadCatalog());
+        this.queryCache = Caffeine.newBuilder()
+                .maximumSize(catalogProperties.queryCacheSize())
+                .expireAfterWrite(catalogProperties.cacheTtl())
+                .recordStats()
+                .build();
+
+        WarehouseMetrics.monitorCache(meterRegistry, catalogCache, "catalog");
+        WarehouseMetrics.monitorCache(meterRegistry, queryCache, "catalog-query");
+    }
+
+    /**
+     * Returns all warehouses from the cached catalog.
+     *
+     * @return immutable list of warehouses
+     */
+    public List<Warehouse> getAllWarehouses() {
+        logger.debug("Retrieving all warehouse data");
+
+        final List<Warehouse> warehouses = catalog().index().rows();
+
+        logger.debug("Retrieved {} warehouses", warehouses.size());
+        return warehouses;
+    }
+
+    /**
+     * Returns the total count of warehouses in the cached catalog.
+     *
+     * @return number of warehouses
+     */
+    public int getWarehouseCount() {
+        return catalog().index().rows().size();
+    }
+
+    /**
+     * Returns the version of the cached catalog, which advances only when its contents change.
+     *
+     * @return current catalog version
+     */
+    public long getCatalogVersion() {
+        return catalog().version();
+    }
+
+    /**
+     * Passes every warehouse to an action, from the cached catalog if it is loaded and otherwise
+     * straight from a database cursor.
+     *
+     * <p>The cursor path does not populate the catalog cache, and detaches each entity once it has
+     * been converted, so an export never holds more than one fetch of rows in memory.
+     *
+     * @param action action to perform on each warehouse
+     */
+    public void forEachWarehouse(final Consumer<? super Warehouse> action) {
+        final Catalog cached = catalogCache.getIfPresent(CATALOG_KEY);
+        if (cached != null) {
+            cached.index().rows().forEach(action);
+            return;
+        }
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<WarehouseEntity> entities = warehouseRepository.streamAllByOrderByIdAsc()) {
+                entities.forEach(entity -> {
+                    final Warehouse warehouse = entity.toWarehouse();
+                    entityManager.detach(entity);
+                    action.accept(warehouse);
+                });
+            }
+        });
+    }
+
+    /**
+     * Looks up a warehouse by its exact name from the cached catalog.
+     *
+     * @param name warehouse name
+     * @return the warehouse, or empty if no warehouse has that name
+     */
+    public Optional<Warehouse> findWarehouse(final String name) {
+        return catalog().index().findByName(name);
+    }
+
+    /**
+     * Returns one page of warehouses matching the query from the query cache or the catalog indexes.
+     *
+     * @param query filter, sort and paging criteria
+     * @return the requested page of warehouses
+     */
+    public WarehousePage findWarehouses(final WarehouseQuery query) {
+        final Catalog current = catalog();
+        return queryCache.get(new QueryKey(current.version(), query), key -> current.index().query(key.query()));
+    }
+
+    /**
+     * Inserts or updates warehouses, matched by name, using batched JDBC writes.
+     *
+     * <p>Whether each warehouse is added or updated comes from the rows each batch already loads
+     * to merge into, and the new version from the commit, so the catalog is not reloaded. The
+     * change starts from the last version this node loaded or wrote, so when a reload has numbered
+     * the catalog since, listeners see a gap and rebuild rather than apply the change as a delta.
+     *
+     * @param warehouses warehouses to save
+     * @return the change made
+     */
+    public WarehouseCatalogChangedEvent saveAll(final Collection<Warehouse> warehouses) {
+        final Map<String, Warehouse> byName = new LinkedHashMap<>();
+        warehouses.forEach(warehouse -> byName.put(warehouse.name(), warehouse));
+        final List<Warehouse> unique = List.copyOf(byName.values());
+        final List<Warehouse> added = new ArrayList<>();
+        final List<Warehouse> updated = new ArrayList<>();
+        final Commit commit = new Commit();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            final int batchSize = catalogProperties.writeBatchSize();
+            for (int from = 0; from < unique.size(); from += batchSize) {
+                saveBatch(unique.subList(from, Math.min(from + batchSize, unique.size())), added, updated);
+            }
+            invalidateAfterCommit(commit);
+        });
+        logger.debug("Saved {} warehouses in batches of {}", unique.size(), catalogProperties.writeBatchSize());
+        return new WarehouseCatalogChangedEvent(commit.previousVersion, commit.version,
+                List.copyOf(added), List.copyOf(updated), List.of());
+    }
+
+    /**
+     * Deletes a warehouse by name and evicts the local cache after commit if a row was deleted.
+     *
+     * @param name warehouse name
+     * @return the change made, or empty if no warehouse has that name
+     */
+    public Optional<WarehouseCatalogChangedEvent> removeWarehouse(final String name) {
+        final Commit commit = new Commit();
+        final int deleted = transactionTemplate.execute(status -> {
+            final int count = warehouseRepository.deleteByName(name).size();
+            if (count > 0) {
+                invalidateAfterCommit(commit);
+            }
+            return count;
+        });
+        logger.debug("Deleted {} warehouses named {}", deleted, name);
+        return deleted > 0
+                ? Optional.of(WarehouseCatalogChangedEvent.removed(commit.previousVersion, commit.version, name))
+                : Optional.empty();
+    }
+
+    private void saveBatch(final List<Warehouse> batch, final List<Warehouse> added, final List<Warehouse> updated) {
+        final Map<String, WarehouseEntity> existing = warehouseRepository
+                .findByNameIn(batch.stream().map(Warehouse::name).toList())
+                .stream()
+                .collect(Collectors.toMap(WarehouseEntity::getName, Function.identity()));
+
+        final List<WarehouseEntity> entities = new ArrayList<>(batch.size());
+        for (final Warehouse warehouse : batch) {
+            final WarehouseEntity entity = existing.get(warehouse.name());
+            if (entity == null) {
+                entities.add(WarehouseEntity.from(warehouse));
+                added.add(warehouse);
+            } else {
+                entity.update(warehouse);
+                entities.add(entity);
+                updated.add(warehouse);
+            }
+        }
+        warehouseRepository.saveAll(entities);
+        // Push the batch to JDBC and drop it from the persistence context to keep memory flat
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void invalidateAfterCommit(final Commit commit) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Advance first, so the reload that follows is numbered after this write
+                synchronized (catalogGeneration) {
+                    commit.previousVersion = seenVersion;
+                    commit.version = catalogGeneration.incrementAndGet();
+                    seenVersion = commit.version;
+                }
+                catalogCache.invalidateAll();
+            }
+        });
+    }
+
+    private Catalog catalog() {
+        return catalogCache.get(CATALOG_KEY);
+    }
+
+    private Catalog loadCatalog() {
+        // Read before the rows, so a write that commits during the query is never numbered as seen
+        final long generation = catalogGeneration.get();
+        final List<Warehouse> warehouses = warehouseRepository.findAll(Sort.by("id")).stream()
+                .map(WarehouseEntity::toWarehouse)
+                .toList();
+
+        final Catalog previous = lastLoaded;
+        final Catalog loaded;
+        if (previous != null && previous.index().rows().equals(warehouses)) {
+            loaded = previous;
+        } else if (previous != null && previous.version() == generation) {
+            // Changed by another node since the last load
+            loaded = new Catalog(WarehouseIndex.build(warehouses), catalogGeneration.incrementAndGet());
+        } else {
+            // First load, or a write through this node has already advanced the generation
+            loaded = new Catalog(WarehouseIndex.build(warehouses), generation);
+        }
+        lastLoaded = loaded;
+        synchronized (catalogGeneration) {
+            // A reload that raced a write may number rows this node never published a change for
+            seenVersion = loaded.version();
+        }
+        logger.debug("Loaded {} warehouses from the store as catalog version {}", warehouses.size(), loaded.version());
+        return loaded;
+    }
+
+    private record Catalog(WarehouseIndex index, long version) {}
+
+    /**
+     * Catalog versions around a write, filled in once it commits.
+     */
+    private static final class Commit {
+        private long previousVersion;
+        private long version;
+    }
+
+    private record QueryKey(long catalogVersion, WarehouseQuery query) {}
+}
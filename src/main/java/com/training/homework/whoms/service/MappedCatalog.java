@@ -0,0 +1,553 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSort;
+import com.training.homework.whoms.service.MappedCatalogFile.StringFilter;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link MappedCatalogFile} with the {@link CatalogJournal} entries written since it on top.
+ *
+ * <p>Rows the journal leaves alone are read from the mapping. Rows it replaces keep their place in
+ * catalog order, rows it adds follow the snapshot's rows, and rows it removes are skipped, which is
+ * the order a rewritten snapshot would have. The journal's changes are held in memory; a view is
+ * never modified, and applying further entries returns a new view.
+ */
+final class MappedCatalog {
+
+    private final MappedCatalogFile base;
+    private final long catalogVersion;
+    private final BitSet replacedRows;
+    private final Map<Integer, Warehouse> replacements;
+    private final BitSet removedRows;
+    private final int[] removedOrder;
+    private final List<Warehouse> appended;
+    private final Map<String, Integer> appendedIndex;
+    private final int journalRows;
+    private final CatalogJournal.Position position;
+    private volatile NameOrder nameOrder;
+
+    private MappedCatalog(final MappedCatalogFile base, final long catalogVersion, final BitSet replacedRows,
+            final Map<Integer, Warehouse> replacements, final BitSet removedRows, final List<Warehouse> appended,
+            final Map<String, Integer> appendedIndex, final int journalRows, final CatalogJournal.Position position) {
+        this.base = base;
+        this.catalogVersion = catalogVersion;
+        this.replacedRows = replacedRows;
+        this.replacements = replacements;
+        this.removedRows = removedRows;
+        this.removedOrder = removedRows.stream().toArray();
+        this.appended = appended;
+        this.appendedIndex = appendedIndex;
+        this.journalRows = journalRows;
+        this.position = position;
+    }
+
+    /**
+     * Returns a view of a snapshot with no journal entries applied.
+     *
+     * @param base mapped snapshot
+     * @param position position in the snapshot's journal from which later entries are read
+     * @return the view
+     */
+    static MappedCatalog of(final MappedCatalogFile base, final CatalogJournal.Position position) {
+        return new MappedCatalog(base, base.catalogVersion(), new BitSet(), Map.of(), new BitSet(), List.of(), Map.of(),
+                0, position);
+    }
+
+    /**
+     * Maps a snapshot and applies its journal.
+     *
+     * @param file snapshot file
+     * @param journal journal file
+     * @return the view
+     * @throws java.io.UncheckedIOException if either file cannot be read
+     * @throws IllegalStateException if either file is corrupt
+     */
+    static MappedCatalog open(final Path file, final Path journal) {
+        final MappedCatalogFile base = MappedCatalogFile.open(file);
+        final CatalogJournal.Tail tail = CatalogJournal.read(journal, base, CatalogJournal.Position.NONE);
+        return of(base, CatalogJournal.Position.NONE).with(tail.entries(), tail.position());
+    }
+
+    /**
+     * Returns a view that includes every change written to the files since this view was read.
+     *
+     * @param file snapshot file
+     * @param journal journal file
+     * @return this view if nothing has changed, otherwise a new view
+     * @throws java.io.UncheckedIOException if either file cannot be read
+     * @throws IllegalStateException if either file is corrupt
+     */
+    MappedCatalog refreshed(final Path file, final Path journal) {
+        if (base.isReplaced(file)) {
+            return open(file, journal);
+        }
+        final CatalogJournal.Tail tail = CatalogJournal.read(journal, base, position);
+        if (!tail.position().linked()) {
+            // Either the snapshot has no journal yet, or it is being replaced and the journal already
+            // belongs to its replacement; keep the changes read so far until the snapshot is replaced
+            return position.linked() ? with(List.of(), CatalogJournal.Position.NONE) : this;
+        }
+        final MappedCatalog from = tail.restarted() ? of(base, CatalogJournal.Position.NONE) : this;
+        return from.with(tail.entries(), tail.position());
+    }
+
+    /**
+     * Returns a view with journal entries applied on top of this one.
+     *
+     * @param entries entries in the order they were written
+     * @param next journal position after the entries
+     * @return the new view
+     */
+    MappedCatalog with(final List<CatalogJournal.Entry> entries, final CatalogJournal.Position next) {
+        if (entries.isEmpty() && next.equals(position)) {
+            return this;
+        }
+        final BitSet nextReplacedRows = (BitSet) replacedRows.clone();
+        final Map<Integer, Warehouse> nextReplacements = new HashMap<>(replacements);
+        final BitSet nextRemovedRows = (BitSet) removedRows.clone();
+        final List<Warehouse> nextAppended = new ArrayList<>(appended);
+        final Map<String, Integer> nextAppendedIndex = new HashMap<>(appendedIndex);
+        long nextVersion = catalogVersion;
+        int nextJournalRows = journalRows;
+        for (final CatalogJournal.Entry entry : entries) {
+            for (final Warehouse warehouse : entry.saved()) {
+                final Integer index = nextAppendedIndex.get(warehouse.name());
+                final int row = index == null ? base.rowOf(warehouse.name()) : -1;
+                if (index != null) {
+                    nextAppended.set(index, warehouse);
+                } else if (row >= 0 && !nextRemovedRows.get(row)) {
+                    nextReplacedRows.set(row);
+                    nextReplacements.put(row, warehouse);
+                } else {
+                    nextAppendedIndex.put(warehouse.name(), nextAppended.size());
+                    nextAppended.add(warehouse);
+                }
+            }
+            for (final String name : entry.removed()) {
+                final Integer index = nextAppendedIndex.remove(name);
+                final int row = index == null ? base.rowOf(name) : -1;
+                if (index != null) {
+                    nextAppended.remove((int) index);
+                    for (int i = index; i < nextAppended.size(); i++) {
+                        nextAppendedIndex.put(nextAppended.get(i).name(), i);
+                    }
+                } else if (row >= 0) {
+                    nextRemovedRows.set(row);
+                    nextReplacedRows.clear(row);
+                    nextReplacements.remove(row);
+                }
+            }
+            nextVersion = entry.catalogVersion();
+            nextJournalRows += entry.rows();
+        }
+        return new MappedCatalog(base, nextVersion, nextReplacedRows, nextReplacements, nextRemovedRows, nextAppended,
+                nextAppendedIndex, nextJournalRows, next);
+    }
+
+    /**
+     * Returns the mapped snapshot the view is based on.
+     *
+     * @return snapshot
+     */
+    MappedCatalogFile base() {
+        return base;
+    }
+
+    /**
+     * Returns the catalog version after the last journal entry, or the snapshot's if there are none.
+     *
+     * @return catalog version
+     */
+    long catalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Returns the number of warehouses saved or removed by the journal entries in the view.
+     *
+     * @return number of journaled rows
+     */
+    int journalRows() {
+        return journalRows;
+    }
+
+    /**
+     * Returns the position in the journal just past the last entry in the view.
+     *
+     * @return journal position
+     */
+    CatalogJournal.Position position() {
+        return position;
+    }
+
+    /**
+     * Returns the number of warehouses in the catalog.
+     *
+     * @return number of warehouses
+     */
+    int size() {
+        return keptBaseRows() + appended.size();
+    }
+
+    /**
+     * Tells whether the catalog holds a warehouse without decoding it.
+     *
+     * @param name warehouse name
+     * @return true if a warehouse has that name
+     */
+    boolean contains(final String name) {
+        if (appendedIndex.containsKey(name)) {
+            return true;
+        }
+        final int row = base.rowOf(name);
+        return row >= 0 && !removedRows.get(row);
+    }
+
+    /**
+     * Looks up a warehouse by its exact name.
+     *
+     * @param name warehouse name
+     * @return the warehouse, or null if no warehouse has that name
+     */
+    Warehouse findByName(final String name) {
+        final Integer index = appendedIndex.get(name);
+        if (index != null) {
+            return appended.get(index);
+        }
+        final int row = base.rowOf(name);
+        return row < 0 || removedRows.get(row) ? null : baseWarehouse(row);
+    }
+
+    /**
+     * Passes each warehouse in catalog order to an action.
+     *
+     * @param action action to perform on each warehouse
+     */
+    void forEach(final Consumer<? super Warehouse> action) {
+        for (int row = 0; row < base.size(); row++) {
+            if (!removedRows.get(row)) {
+                action.accept(baseWarehouse(row));
+            }
+        }
+        appended.forEach(action);
+    }
+
+    /**
+     * Returns a read-only list view that decodes each mapped warehouse when it is accessed.
+     *
+     * @return list of warehouses in catalog order
+     */
+    List<Warehouse> asList() {
+        return new CatalogView();
+    }
+
+    /**
+     * Runs a query by scanning the catalog.
+     *
+     * <p>The snapshot carries no secondary indexes, so every query reads each row's filter fields,
+     * comparing string filters against the encoded bytes. Matches are ordered by sorting packed
+     * {@code (key, name rank)} longs, where the rank is the name's position in name order, so ties
+     * are broken by name as {@link WarehouseIndex} breaks them, and the sorted matches are paged
+     * through {@link WarehouseCursor#page} as the other stores page theirs.
+     *
+     * @param query filter, sort and paging criteria
+     * @return the requested page of warehouses
+     * @throws InvalidWarehouseQueryException if the cursor is malformed or belongs to another query
+     */
+    WarehousePage query(final WarehouseQuery query) {
+        final WarehouseSort sort = query.sort();
+        final WarehouseCursor cursor = WarehouseCursor.decode(query);
+        final Filters filters = new Filters(
+                StringFilter.of(query.state()), StringFilter.of(query.city()), StringFilter.of(query.postalCode()));
+        // Catalog positions are unique, so catalog order needs no tiebreaker
+        final NameOrder names = sort == WarehouseSort.CATALOG ? null : nameOrder();
+
+        final int size = size();
+        long[] matches = new long[Math.min(size, 1024)];
+        int count = 0;
+        int ordinal = 0;
+        for (int row = 0; row < base.size(); row++) {
+            if (removedRows.get(row)) {
+                continue;
+            }
+            final Warehouse replacement = replacedRows.get(row) ? replacements.get(row) : null;
+            final boolean match = replacement == null ? matches(row, query, filters) : matches(replacement, query, filters);
+            if (match) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, Math.min(size, count * 2));
+                }
+                final long key = replacement == null
+                        ? sortKey(sort, ordinal, base.squareFootage(row), base.loadingDocks(row))
+                        : sortKey(sort, ordinal, replacement.squareFootage(), replacement.loadingDocks());
+                matches[count++] = (key << 32) | (names == null ? 0 : names.baseRank(row));
+            }
+            ordinal++;
+        }
+        for (int index = 0; index < appended.size(); index++) {
+            final Warehouse warehouse = appended.get(index);
+            if (matches(warehouse, query, filters)) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, Math.min(size, count * 2));
+                }
+                final long key = sortKey(sort, ordinal, warehouse.squareFootage(), warehouse.loadingDocks());
+                matches[count++] = (key << 32) | (names == null ? 0 : names.appendedRank(index));
+            }
+            ordinal++;
+        }
+        Arrays.sort(matches, 0, count);
+        return WarehouseCursor.page(query, cursor, IntStream.range(0, count).toArray(), match -> true,
+                new SortedMatches(matches, names));
+    }
+
+    private boolean matches(final int row, final WarehouseQuery query, final Filters filters) {
+        return (query.minSquareFootage() == null || base.squareFootage(row) >= query.minSquareFootage())
+                && (query.minLoadingDocks() == null || base.loadingDocks(row) >= query.minLoadingDocks())
+                && base.matches(row, MappedCatalogFile.STATE, filters.state())
+                && base.matches(row, MappedCatalogFile.CITY, filters.city())
+                && base.matches(row, MappedCatalogFile.POSTAL_CODE, filters.postalCode());
+    }
+
+    private static boolean matches(final Warehouse warehouse, final WarehouseQuery query, final Filters filters) {
+        return (query.minSquareFootage() == null || warehouse.squareFootage() >= query.minSquareFootage())
+                && (query.minLoadingDocks() == null || warehouse.loadingDocks() >= query.minLoadingDocks())
+                && (filters.state() == null || filters.state().matches(warehouse.state()))
+                && (filters.city() == null || filters.city().matches(warehouse.city()))
+                && (filters.postalCode() == null || filters.postalCode().matches(warehouse.postalCode()));
+    }
+
+    private static long sortKey(final WarehouseSort sort, final int ordinal, final int squareFootage, final int loadingDocks) {
+        return switch (sort) {
+            case CATALOG -> ordinal;
+            case SQUARE_FOOTAGE_ASC, SQUARE_FOOTAGE_DESC -> squareFootage;
+            case LOADING_DOCKS_ASC, LOADING_DOCKS_DESC -> loadingDocks;
+        };
+    }
+
+    /**
+     * Returns a warehouse's position in catalog order, or {@code -1} if no warehouse has the name.
+     */
+    private int ordinalOf(final String name) {
+        final Integer index = appendedIndex.get(name);
+        if (index != null) {
+            return keptBaseRows() + index;
+        }
+        final int row = base.rowOf(name);
+        if (row < 0 || removedRows.get(row)) {
+            return -1;
+        }
+        return row - Math.abs(Arrays.binarySearch(removedOrder, row) + 1);
+    }
+
+    private NameOrder nameOrder() {
+        NameOrder order = nameOrder;
+        if (order == null) {
+            order = new NameOrder();
+            nameOrder = order;
+        }
+        return order;
+    }
+
+    private int keptBaseRows() {
+        return base.size() - removedOrder.length;
+    }
+
+    private Warehouse baseWarehouse(final int row) {
+        return replacedRows.get(row) ? replacements.get(row) : base.row(row);
+    }
+
+    /**
+     * Returns the warehouse at a position in catalog order.
+     */
+    private Warehouse warehouseAt(final int ordinal) {
+        if (ordinal >= keptBaseRows()) {
+            return appended.get(ordinal - keptBaseRows());
+        }
+        return baseWarehouse(removedOrder.length == 0 ? ordinal : baseRow(ordinal));
+    }
+
+    /**
+     * Finds the snapshot row at a position in catalog order: the lowest row with {@code ordinal + 1}
+     * rows kept up to and including it.
+     */
+    private int baseRow(final int ordinal) {
+        int low = ordinal;
+        int high = ordinal + removedOrder.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            final int removedUpToMid = Math.abs(Arrays.binarySearch(removedOrder, mid) + 1);
+            if (mid + 1 - removedUpToMid > ordinal) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Ranks of every name, snapshot and appended, in one name order: a snapshot row's rank is its
+     * position in the snapshot's name order plus the appended names before it, and an appended
+     * warehouse's rank is the snapshot names before it plus its position among the appended names.
+     * Removed snapshot rows keep their ranks; they never match a query.
+     */
+    private final class NameOrder {
+
+        private final int[] appendedByName;
+        private final int[] insertionPoints;
+        private final int[] appendedRanks;
+
+        NameOrder() {
+            this.appendedByName = new int[appended.size()];
+            for (int index = 0; index < appendedByName.length; index++) {
+                appendedByName[index] = index;
+            }
+            IntSort.sort(appendedByName,
+                    (left, right) -> WarehouseCursor.NAME_ORDER.compare(appended.get(left).name(), appended.get(right).name()));
+            this.insertionPoints = new int[appendedByName.length];
+            this.appendedRanks = new int[appendedByName.length];
+            for (int i = 0; i < appendedByName.length; i++) {
+                final int found = base.rankOfName(appended.get(appendedByName[i]).name());
+                insertionPoints[i] = found >= 0 ? found : -found - 1;
+                appendedRanks[appendedByName[i]] = insertionPoints[i] + i;
+            }
+        }
+
+        int baseRank(final int row) {
+            final int rank = base.nameRank(row);
+            return insertionPoints.length == 0 ? rank : rank + appendedAtOrBefore(rank);
+        }
+
+        int appendedRank(final int index) {
+            return appendedRanks[index];
+        }
+
+        /**
+         * Returns the rank of a live warehouse, or {@code -(rank of the first greater name) - 1}.
+         */
+        int rankOf(final String name) {
+            final Integer index = appendedIndex.get(name);
+            if (index != null) {
+                return appendedRanks[index];
+            }
+            final int found = base.rankOfName(name);
+            if (found >= 0 && !removedRows.get(base.rowAtNameRank(found))) {
+                return baseRank(base.rowAtNameRank(found));
+            }
+            final int baseBefore = found >= 0 ? found : -found - 1;
+            int low = 0;
+            int high = appendedByName.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (WarehouseCursor.NAME_ORDER.compare(appended.get(appendedByName[mid]).name(), name) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return -(baseBefore + low) - 1;
+        }
+
+        Warehouse warehouseAt(final int rank) {
+            int low = 0;
+            int high = appendedByName.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (insertionPoints[mid] + mid < rank) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low < appendedByName.length && insertionPoints[low] + low == rank) {
+                return appended.get(appendedByName[low]);
+            }
+            return baseWarehouse(base.rowAtNameRank(rank - low));
+        }
+
+        /**
+         * Counts the appended names that sort before the snapshot name at a position.
+         */
+        private int appendedAtOrBefore(final int rank) {
+            int low = 0;
+            int high = insertionPoints.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (insertionPoints[mid] <= rank) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * The sorted packed matches of a query as {@link WarehouseCursor#page} reads them, addressed by
+     * their position in the sorted array.
+     */
+    private final class SortedMatches implements WarehouseCursor.Rows {
+
+        private final long[] matches;
+        private final NameOrder names;
+
+        SortedMatches(final long[] matches, final NameOrder names) {
+            this.matches = matches;
+            this.names = names;
+        }
+
+        @Override
+        public long sortKey(final WarehouseSort sort, final int match) {
+            return matches[match] >> 32;
+        }
+
+        @Override
+        public String name(final int match) {
+            return row(match).name();
+        }
+
+        @Override
+        public Warehouse row(final int match) {
+            return names == null ? warehouseAt((int) (matches[match] >> 32)) : names.warehouseAt((int) matches[match]);
+        }
+
+        @Override
+        public int position(final String name) {
+            return ordinalOf(name);
+        }
+    }
+
+    /**
+     * String filters of a query, prepared once per query.
+     */
+    private record Filters(StringFilter state, StringFilter city, StringFilter postalCode) {
+    }
+
+    private final class CatalogView extends AbstractList<Warehouse> implements RandomAccess {
+
+        @Override
+        public Warehouse get(final int index) {
+            Objects.checkIndex(index, size());
+            return warehouseAt(index);
+        }
+
+        @Override
+        public int size() {
+            return MappedCatalog.this.size();
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary warehouse catalog file, read in place through a read-only memory mapping.
+ *
+ * <p>Layout, all integers big-endian:
+ * <pre>
+ * header   magic "WHMS" | format version | catalog version (long) | row count | payload CRC32 | payload length (long)
+ * rows     per row: name, address, city, state, postal code and phone string offsets, square footage, loading docks
+ * names    row ids sorted by name
+ * strings  per distinct string: UTF-8 length, UTF-8 bytes
+ * </pre>
+ * String offsets are relative to the start of the string section, with {@code -1} for null; each
+ * distinct string is stored once, so repeated states and cities cost four bytes per row. Files are
+ * written to a temporary sibling and renamed into place, so a reader never maps a half-written
+ * file, and the checksum is verified once when the file is opened. The mapping lives outside the
+ * Java heap and is shared through the page cache by every process that maps the same file.
+ * Warehouse records are decoded from the mapping only when they are read. A file is never changed
+ * once written: later writes go to its {@link CatalogJournal} until the two are compacted into a
+ * new file.
+ */
+final class MappedCatalogFile {
+
+    private static final int MAGIC = 0x57484D53;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int STRING_FIELDS = 6;
+    private static final int ROW_BYTES = (STRING_FIELDS + 2) * Integer.BYTES;
+    private static final int NULL_STRING = -1;
+    private static final int MAX_OPEN_ATTEMPTS = 5;
+
+    private static final int NAME = 0;
+    private static final int ADDRESS = 1;
+    static final int CITY = 2;
+    static final int STATE = 3;
+    static final int POSTAL_CODE = 4;
+    private static final int PHONE = 5;
+
+    private final MappedByteBuffer buffer;
+    private final long catalogVersion;
+    private final int size;
+    private final int checksum;
+    private final int namesStart;
+    private final int stringsStart;
+    private final FileIdentity identity;
+    private volatile int[] nameRanks;
+
+    private MappedCatalogFile(final MappedByteBuffer buffer, final long catalogVersion, final int size, final int checksum,
+            final FileIdentity identity) {
+        this.buffer = buffer;
+        this.catalogVersion = catalogVersion;
+        this.size = size;
+        this.checksum = checksum;
+        this.namesStart = HEADER_BYTES + size * ROW_BYTES;
+        this.stringsStart = namesStart + size * Integer.BYTES;
+        this.identity = identity;
+    }
+
+    /**
+     * Writes a catalog file atomically, replacing any existing file.
+     *
+     * @param file file to write
+     * @param catalogVersion catalog version recorded in the header
+     * @param warehouses warehouses in catalog order, unique by name
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    static void write(final Path file, final long catalogVersion, final List<Warehouse> warehouses) {
+        final Map<String, Integer> stringOffsets = new LinkedHashMap<>();
+        long stringBytes = 0;
+        for (final Warehouse warehouse : warehouses) {
+            for (final String value : strings(warehouse)) {
+                if (value != null && !stringOffsets.containsKey(value)) {
+                    stringOffsets.put(value, (int) stringBytes);
+                    stringBytes += Integer.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+        }
+        final long payloadLength = (long) warehouses.size() * (ROW_BYTES + Integer.BYTES) + stringBytes;
+        if (HEADER_BYTES + payloadLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Catalog of " + warehouses.size() + " warehouses exceeds the 2 GB snapshot file limit");
+        }
+        final int[] nameOrder = IntStream.range(0, warehouses.size()).toArray();
+        IntSort.sort(nameOrder, (left, right) ->
+                WarehouseCursor.NAME_ORDER.compare(warehouses.get(left).name(), warehouses.get(right).name()));
+
+        try {
+            final Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_BYTES);
+                final CRC32 checksum = new CRC32();
+                final DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), checksum));
+                for (final Warehouse warehouse : warehouses) {
+                    for (final String value : strings(warehouse)) {
+                        out.writeInt(value == null ? NULL_STRING : stringOffsets.get(value));
+                    }
+                    out.writeInt(warehouse.squareFootage());
+                    out.writeInt(warehouse.loadingDocks());
+                }
+                for (final int row : nameOrder) {
+                    out.writeInt(row);
+                }
+                for (final String value : stringOffsets.keySet()) {
+                    final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(utf8.length);
+                    out.write(utf8);
+                }
+                out.flush();
+
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                        .putInt(MAGIC)
+                        .putInt(FORMAT_VERSION)
+                        .putLong(catalogVersion)
+                        .putInt(warehouses.size())
+                        .putInt((int) checksum.getValue())
+                        .putLong(payloadLength)
+                        .flip();
+                channel.write(header, 0);
+                channel.force(true);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write catalog snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Maps a catalog file and verifies its header and checksum.
+     *
+     * @param file file to open
+     * @return the mapped catalog
+     * @throws UncheckedIOException if the file cannot be read
+     * @throws IllegalStateException if the file is not a valid catalog snapshot
+     */
+    static MappedCatalogFile open(final Path file) {
+        for (int attempt = 1; ; attempt++) {
+            // The channel has no attributes of its own, so bracket the open with two reads of the
+            // path: writers always rename a new file into place, so if both name the same file,
+            // that is the file the channel opened
+            final FileIdentity identity = FileIdentity.of(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (identity.equals(FileIdentity.of(file)) && channel.size() == identity.size()) {
+                    return map(file, channel, identity);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read catalog snapshot " + file, e);
+            }
+            if (attempt == MAX_OPEN_ATTEMPTS) {
+                throw new IllegalStateException("Catalog snapshot " + file + " was replaced during each of "
+                        + MAX_OPEN_ATTEMPTS + " attempts to open it");
+            }
+        }
+    }
+
+    private static MappedCatalogFile map(final Path file, final FileChannel channel, final FileIdentity identity)
+            throws IOException {
+        final long length = channel.size();
+        if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+            throw corrupt(file, "unexpected length " + length);
+        }
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        if (buffer.getInt(0) != MAGIC) {
+            throw corrupt(file, "not a catalog snapshot");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw corrupt(file, "unsupported format version " + buffer.getInt(4));
+        }
+        final long catalogVersion = buffer.getLong(8);
+        final int size = buffer.getInt(16);
+        final int expectedChecksum = buffer.getInt(20);
+        final long payloadLength = buffer.getLong(24);
+        if (payloadLength != length - HEADER_BYTES || size < 0 || (long) size * (ROW_BYTES + Integer.BYTES) > payloadLength) {
+            throw corrupt(file, "truncated payload");
+        }
+        final CRC32 checksum = new CRC32();
+        checksum.update(buffer.slice(HEADER_BYTES, (int) payloadLength));
+        if ((int) checksum.getValue() != expectedChecksum) {
+            throw corrupt(file, "checksum mismatch");
+        }
+        return new MappedCatalogFile(buffer, catalogVersion, size, expectedChecksum, identity);
+    }
+
+    /**
+     * Returns the catalog version recorded when the file was written.
+     *
+     * @return catalog version
+     */
+    long catalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Returns the number of warehouses in the file.
+     *
+     * @return number of rows
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the payload checksum, which together with the catalog version identifies this file
+     * to its {@link CatalogJournal}.
+     *
+     * @return payload CRC32
+     */
+    int checksum() {
+        return checksum;
+    }
+
+    /**
+     * Tells whether the file on disk is still the one that was mapped.
+     *
+     * @param file path the catalog was opened from
+     * @return true if the path now names a different file
+     * @throws UncheckedIOException if the file attributes cannot be read
+     */
+    boolean isReplaced(final Path file) {
+        return !identity.equals(FileIdentity.of(file));
+    }
+
+    /**
+     * Decodes the warehouse held in a row.
+     *
+     * @param row row id
+     * @return a new warehouse record
+     */
+    Warehouse row(final int row) {
+        return new Warehouse(
+                string(row, NAME),
+                string(row, ADDRESS),
+                string(row, CITY),
+                string(row, STATE),
+                string(row, POSTAL_CODE),
+                string(row, PHONE),
+                squareFootage(row),
+                loadingDocks(row));
+    }
+
+    /**
+     * Looks up a warehouse by its exact name with a binary search of the name section.
+     *
+     * @param name warehouse name
+     * @return the warehouse, or null if no warehouse has that name
+     */
+    Warehouse findByName(final String name) {
+        final int row = rowOf(name);
+        return row < 0 ? null : row(row);
+    }
+
+    /**
+     * Finds the row holding a warehouse with a binary search of the name section.
+     *
+     * @param name warehouse name
+     * @return row id, or {@code -1} if no warehouse has that name
+     */
+    int rowOf(final String name) {
+        final int rank = rankOfName(name);
+        return rank < 0 ? -1 : rowAtNameRank(rank);
+    }
+
+    /**
+     * Finds a name's position in name order with a binary search of the name section.
+     *
+     * @param name warehouse name
+     * @return the position, or {@code -(insertion point) - 1} if no row has that name
+     */
+    int rankOfName(final String name) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int comparison = WarehouseCursor.NAME_ORDER.compare(string(rowAtNameRank(mid), NAME), name);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns the row whose name is at a position in name order.
+     *
+     * @param rank position in name order
+     * @return row id
+     */
+    int rowAtNameRank(final int rank) {
+        return buffer.getInt(namesStart + rank * Integer.BYTES);
+    }
+
+    /**
+     * Returns the position of a row's name in name order. The first call inverts the name section
+     * into an {@code int} per row on the heap.
+     *
+     * @param row row id
+     * @return position in name order
+     */
+    int nameRank(final int row) {
+        int[] ranks = nameRanks;
+        if (ranks == null) {
+            ranks = new int[size];
+            for (int rank = 0; rank < size; rank++) {
+                ranks[rowAtNameRank(rank)] = rank;
+            }
+            nameRanks = ranks;
+        }
+        return ranks[row];
+    }
+
+    /**
+     * Tells whether a row's string field equals a filter value, ignoring case.
+     *
+     * <p>ASCII values are compared against the encoded bytes in the mapping; only a stored value
+     * with non-ASCII bytes in it, or a non-ASCII filter value, is decoded.
+     *
+     * @param row row id
+     * @param field {@link #STATE}, {@link #CITY} or {@link #POSTAL_CODE}
+     * @param filter filter value, or null for no filter
+     * @return true if there is no filter or the field matches it
+     */
+    boolean matches(final int row, final int field, final StringFilter filter) {
+        if (filter == null) {
+            return true;
+        }
+        final int offset = buffer.getInt(HEADER_BYTES + row * ROW_BYTES + field * Integer.BYTES);
+        if (offset == NULL_STRING) {
+            return false;
+        }
+        if (!filter.ascii) {
+            return filter.matches(string(row, field));
+        }
+        final int position = stringsStart + offset;
+        final int length = buffer.getInt(position);
+        if (length != filter.lower.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            final byte b = buffer.get(position + Integer.BYTES + i);
+            if (b != filter.lower[i] && b != filter.upper[i]) {
+                return b < 0 && filter.matches(string(row, field));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the square footage held in a row without decoding it.
+     *
+     * @param row row id
+     * @return square footage
+     */
+    int squareFootage(final int row) {
+        return buffer.getInt(HEADER_BYTES + row * ROW_BYTES + STRING_FIELDS * Integer.BYTES);
+    }
+
+    /**
+     * Returns the loading dock count held in a row without decoding it.
+     *
+     * @param row row id
+     * @return loading docks
+     */
+    int loadingDocks(final int row) {
+        return buffer.getInt(HEADER_BYTES + row * ROW_BYTES + (STRING_FIELDS + 1) * Integer.BYTES);
+    }
+
+    private String string(final int row, final int field) {
+        final int offset = buffer.getInt(HEADER_BYTES + row * ROW_BYTES + field * Integer.BYTES);
+        if (offset == NULL_STRING) {
+            return null;
+        }
+        final int position = stringsStart + offset;
+        final byte[] utf8 = new byte[buffer.getInt(position)];
+        buffer.get(position + Integer.BYTES, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static String[] strings(final Warehouse warehouse) {
+        return new String[] {
+                warehouse.name(),
+                warehouse.address(),
+                warehouse.city(),
+                warehouse.state(),
+                warehouse.postalCode(),
+                warehouse.warehousePhone()
+        };
+    }
+
+    private static IllegalStateException corrupt(final Path file, final String reason) {
+        return new IllegalStateException("Catalog snapshot " + file + " is not readable: " + reason);
+    }
+
+    /**
+     * A case-insensitive equality filter on a string field, encoded once per query so that rows
+     * can be compared with it without decoding their strings.
+     */
+    static final class StringFilter {
+
+        private final String value;
+        private final byte[] lower;
+        private final byte[] upper;
+        private final boolean ascii;
+
+        private StringFilter(final String value) {
+            this.value = value;
+            this.lower = value.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+            this.upper = value.toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+            this.ascii = value.chars().allMatch(c -> c < 0x80);
+        }
+
+        /**
+         * Prepares a query filter value, trimmed the way {@link WarehouseIndex} trims it.
+         *
+         * @param value filter value from the query
+         * @return the filter, or null if the value is null or blank and so filters nothing
+         */
+        static StringFilter of(final String value) {
+            return value == null || value.isBlank() ? null : new StringFilter(value.trim());
+        }
+
+        /**
+         * Tells whether a decoded value matches, for rows that are not read from the mapping.
+         *
+         * @param actual field value
+         * @return true if the value equals the filter, ignoring case
+         */
+        boolean matches(final String actual) {
+            return value.equalsIgnoreCase(actual);
+        }
+    }
+
+    /**
+     * What distinguishes one file from its replacement at the same path.
+     */
+    private record FileIdentity(Object fileKey, long lastModifiedMillis, long size) {
+
+        static FileIdentity of(final Path file) {
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new FileIdentity(attributes.fileKey(), attributes.lastModifiedTime().toMillis(), attributes.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read attributes of catalog snapshot " + file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.config.SnapshotFileProperties;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Warehouse store that serves reads straight from a memory-mapped {@link MappedCatalogFile}.
+ *
+ * <p>Startup maps the existing snapshot instead of rebuilding the catalog, so a restarted node is
+ * ready as soon as the checksum is verified and the journal replayed. Several processes on one
+ * host can point at the same file: writes take an exclusive lock on a sibling {@code .lock} file,
+ * catch up with the newest snapshot and journal, and append one entry to the sibling
+ * {@code .journal} file, so a write costs the size of its batch rather than of the catalog. Once
+ * the journal holds as many rows as the snapshot, the next write compacts both into a new snapshot
+ * that replaces the old one atomically. Readers in other processes pick up new entries and
+ * snapshots within {@code whoms.snapshot.refresh-interval}. A missing file is created empty and
+ * filled by {@link WarehouseCatalogSeeder}.
+ */
+@Service
+@ConditionalOnProperty(name = "whoms.catalog.store", havingValue = "mapped")
+public class MappedWarehouseDtoData implements WarehouseDtoData {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedWarehouseDtoData.class);
+
+    /**
+     * Journal size, in rows, below which a journal is never compacted, so that a small catalog is
+     * not rewritten on every write.
+     */
+    static final int MIN_COMPACTION_ROWS = 1024;
+
+    private final Path file;
+    private final Path journalFile;
+    private final Path lockFile;
+    private final long refreshIntervalNanos;
+
+    private volatile MappedCatalog catalog;
+    private volatile long nextRefreshNanos;
+
+    public MappedWarehouseDtoData(final SnapshotFileProperties properties) {
+        this.file = properties.file();
+        this.journalFile = file.resolveSibling(file.getFileName() + ".journal");
+        this.lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        this.refreshIntervalNanos = properties.refreshInterval().toNanos();
+        if (Files.notExists(file)) {
+            underFileLock(() -> {
+                if (Files.notExists(file)) {
+                    logger.info("Creating empty catalog snapshot {}", file.toAbsolutePath());
+                    MappedCatalogFile.write(file, 1L, List.of());
+                }
+                return null;
+            });
+        }
+        this.catalog = MappedCatalog.open(file, journalFile);
+        this.nextRefreshNanos = System.nanoTime() + refreshIntervalNanos;
+        logger.info("Mapped catalog snapshot {} at version {} with {} warehouses and {} journaled changes",
+                file.toAbsolutePath(), catalog.catalogVersion(), catalog.size(), catalog.journalRows());
+    }
+
+    /**
+     * Returns all warehouses as a read-only view of the mapped snapshot.
+     *
+     * <p>The view decodes each warehouse record as it is read rather than copying the catalog.
+     *
+     * @return immutable list of warehouses
+     */
+    public List<Warehouse> getAllWarehouses() {
+        final List<Warehouse> warehouses = current().asList();
+        logger.debug("Retrieved {} warehouses", warehouses.size());
+        return warehouses;
+    }
+
+    /**
+     * Returns the total count of warehouses.
+     *
+     * @return number of warehouses in the data set
+     */
+    public int getWarehouseCount() {
+        return current().size();
+    }
+
+    /**
+     * Returns the catalog version recorded in the mapped snapshot.
+     *
+     * @return current catalog version
+     */
+    public long getCatalogVersion() {
+        return current().catalogVersion();
+    }
+
+    /**
+     * Decodes every warehouse in the mapped snapshot and passes it to an action.
+     *
+     * @param action action to perform on each warehouse
+     */
+    public void forEachWarehouse(final Consumer<? super Warehouse> action) {
+        current().forEach(action);
+    }
+
+    /**
+     * Looks up a warehouse by its exact name.
+     *
+     * @param name warehouse name
+     * @return the warehouse, or empty if no warehouse has that name
+     */
+    public Optional<Warehouse> findWarehouse(final String name) {
+        return Optional.ofNullable(current().findByName(name));
+    }
+
+    /**
+     * Returns one page of warehouses matching the query, scanned from the mapped snapshot.
+     *
+     * @param query filter, sort and paging criteria
+     * @return the requested page of warehouses
+     */
+    public WarehousePage findWarehouses(final WarehouseQuery query) {
+        final WarehousePage page = current().query(query);
+        logger.debug("Query {} matched {} warehouses on this page", query, page.items().size());
+        return page;
+    }
+
+    /**
+     * Inserts or replaces warehouses, matched by name, and journals them as a new catalog version.
+     *
+     * @param warehouses warehouses to save
+     * @return the change made
+     */
+    public synchronized WarehouseCatalogChangedEvent saveAll(final Collection<Warehouse> warehouses) {
+        final WarehouseCatalogChangedEvent[] change = new WarehouseCatalogChangedEvent[1];
+        catalog = underFileLock(() -> {
+            final MappedCatalog latest = catalog.refreshed(file, journalFile);
+            change[0] = WarehouseCatalogChangedEvent.saved(latest.catalogVersion(), latest.catalogVersion() + 1,
+                    warehouses, latest::contains);
+            return write(latest, new CatalogJournal.Entry(latest.catalogVersion() + 1, List.copyOf(warehouses), List.of()));
+        });
+        logger.debug("Saved {} warehouses, catalog version is now {}", warehouses.size(), catalog.catalogVersion());
+        return change[0];
+    }
+
+    /**
+     * Removes a warehouse by name and journals a new catalog version if it existed.
+     *
+     * @param name warehouse name
+     * @return the change made, or empty if no warehouse has that name
+     */
+    public synchronized Optional<WarehouseCatalogChangedEvent> removeWarehouse(final String name) {
+        final WarehouseCatalogChangedEvent[] change = new WarehouseCatalogChangedEvent[1];
+        catalog = underFileLock(() -> {
+            final MappedCatalog latest = catalog.refreshed(file, journalFile);
+            if (!latest.contains(name)) {
+                return latest;
+            }
+            change[0] = WarehouseCatalogChangedEvent.removed(latest.catalogVersion(), latest.catalogVersion() + 1, name);
+            return write(latest, new CatalogJournal.Entry(latest.catalogVersion() + 1, List.of(), List.of(name)));
+        });
+        logger.debug("Removed warehouse {}: {}, catalog version is now {}", name, change[0] != null, catalog.catalogVersion());
+        return Optional.ofNullable(change[0]);
+    }
+
+    /**
+     * Appends an entry to the journal, or compacts the catalog and the entry into a new snapshot
+     * once the journal has grown as large as the snapshot. Called with the file lock held.
+     */
+    private MappedCatalog write(final MappedCatalog latest, final CatalogJournal.Entry entry) {
+        final int journalRows = latest.journalRows() + entry.rows();
+        // A view with changes but no journal to append them to can only be written out in full
+        final boolean orphaned = !latest.position().linked() && latest.journalRows() > 0;
+        if (orphaned || journalRows > Math.max(MIN_COMPACTION_ROWS, latest.base().size())) {
+            final MappedCatalog compacted = latest.with(List.of(entry), CatalogJournal.Position.NONE);
+            MappedCatalogFile.write(file, compacted.catalogVersion(), List.copyOf(compacted.asList()));
+            final MappedCatalogFile base = MappedCatalogFile.open(file);
+            logger.info("Compacted {} journaled rows into catalog snapshot {} at version {}",
+                    journalRows, file.toAbsolutePath(), base.catalogVersion());
+            return MappedCatalog.of(base, CatalogJournal.create(journalFile, base));
+        }
+        final CatalogJournal.Position at = latest.position().linked()
+                ? latest.position()
+                : CatalogJournal.create(journalFile, latest.base());
+        return latest.with(List.of(entry), CatalogJournal.append(journalFile, at, entry));
+    }
+
+    private MappedCatalog current() {
+        if (System.nanoTime() - nextRefreshNanos >= 0) {
+            refresh();
+        }
+        return catalog;
+    }
+
+    private synchronized void refresh() {
+        if (System.nanoTime() - nextRefreshNanos < 0) {
+            return;
+        }
+        nextRefreshNanos = System.nanoTime() + refreshIntervalNanos;
+        try {
+            final MappedCatalog latest = catalog.refreshed(file, journalFile);
+            if (latest.catalogVersion() != catalog.catalogVersion()) {
+                logger.info("Catalog snapshot {} was changed, now serving version {}", file.toAbsolutePath(), latest.catalogVersion());
+            }
+            catalog = latest;
+        } catch (UncheckedIOException | IllegalStateException e) {
+            logger.warn("Unable to refresh catalog snapshot {}, still serving version {}", file.toAbsolutePath(), catalog.catalogVersion(), e);
+        }
+    }
+
+    private <T> T underFileLock(final Supplier<T> action) {
+        try {
+            Files.createDirectories(lockFile.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                return action.get();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to lock catalog snapshot " + file, e);
+        }
+    }
+}
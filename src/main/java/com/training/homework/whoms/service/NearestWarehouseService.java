@@ -0,0 +1,90 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.config.GeoProperties;
+import com.training.homework.whoms.dto.NearbyWarehouse;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers "closest warehouses to this postal code" searches from an in-memory spatial index.
+ *
+ * <p>Warehouses are placed at the centroid of their postal code. The {@link WarehouseGeoIndex} is
+ * rebuilt only when {@link WarehouseDtoData#getCatalogVersion()} changes, so a search against an
+ * unchanged catalog costs a volatile read and a tree walk.
+ */
+@Service
+public class NearestWarehouseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearestWarehouseService.class);
+
+    private final WarehouseDtoData warehouseDtoData;
+    private final PostalCodeCentroids postalCodeCentroids;
+    private final GeoProperties properties;
+
+    private volatile VersionedIndex current;
+
+    public NearestWarehouseService(
+            final WarehouseDtoData warehouseDtoData,
+            final PostalCodeCentroids postalCodeCentroids,
+            final GeoProperties properties) {
+        this.warehouseDtoData = warehouseDtoData;
+        this.postalCodeCentroids = postalCodeCentroids;
+        this.properties = properties;
+    }
+
+    /**
+     * Finds the warehouses closest to a postal code that meet the capacity minimums.
+     *
+     * @param postalCode postal code to search from
+     * @param k maximum number of warehouses to return
+     * @param minLoadingDocks minimum loading docks, or null for no minimum
+     * @param minSquareFootage minimum square footage, or null for no minimum
+     * @return up to {@code k} warehouses, nearest first
+     * @throws InvalidWarehouseQueryException if {@code k} is out of range or the postal code cannot be located
+     */
+    public List<NearbyWarehouse> findNearest(
+            final String postalCode,
+            final int k,
+            final Integer minLoadingDocks,
+            final Integer minSquareFootage) {
+        if (k < 1 || k > properties.maxNeighbours()) {
+            throw new InvalidWarehouseQueryException("k must be between 1 and " + properties.maxNeighbours());
+        }
+        final GeoPoint origin = postalCodeCentroids.locate(postalCode)
+                .orElseThrow(() -> new InvalidWarehouseQueryException("Unknown postal code: " + postalCode));
+        return index().nearest(
+                origin,
+                k,
+                minLoadingDocks == null ? Integer.MIN_VALUE : minLoadingDocks,
+                minSquareFootage == null ? Integer.MIN_VALUE : minSquareFootage);
+    }
+
+    private WarehouseGeoIndex index() {
+        final long catalogVersion = warehouseDtoData.getCatalogVersion();
+        final VersionedIndex existing = current;
+        if (existing != null && existing.catalogVersion() == catalogVersion) {
+            return existing.index();
+        }
+        return rebuild(catalogVersion);
+    }
+
+    private synchronized WarehouseGeoIndex rebuild(final long catalogVersion) {
+        final VersionedIndex existing = current;
+        if (existing != null && existing.catalogVersion() == catalogVersion) {
+            return existing.index();
+        }
+        final WarehouseGeoIndex index = WarehouseGeoIndex.build(
+                warehouseDtoData.getAllWarehouses(), warehouse -> postalCodeCentroids.locate(warehouse.postalCode()));
+        if (index.unlocated() > 0) {
+            logger.warn("{} warehouses have postal codes with no known centroid and are excluded from nearest searches",
+                    index.unlocated());
+        }
+        logger.debug("Rebuilt geo index for catalog version {} with {} warehouses", catalogVersion, index.size());
+        current = new VersionedIndex(catalogVersion, index);
+        return index;
+    }
+
+    private record VersionedIndex(long catalogVersion, WarehouseGeoIndex index) {}
+}
@@ -0,0 +1,78 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.config.GeoProperties;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Offline lookup of postal code centroids, loaded once from {@code whoms.geo.postal-code-centroids}.
+ *
+ * <p>A postal code resolves to its own five-digit entry when the table has one, and otherwise to
+ * the entry for its three-digit prefix, so a partial table still places most US addresses in the
+ * right region. ZIP+4 codes are matched on their first five digits.
+ */
+@Component
+public class PostalCodeCentroids {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostalCodeCentroids.class);
+
+    private static final int ZIP_LENGTH = 5;
+    private static final int PREFIX_LENGTH = 3;
+
+    private final Map<String, GeoPoint> centroids;
+
+    public PostalCodeCentroids(final GeoProperties properties) {
+        this.centroids = load(properties.postalCodeCentroids());
+        logger.info("Loaded {} postal code centroids from {}", centroids.size(), properties.postalCodeCentroids().getDescription());
+    }
+
+    /**
+     * Returns the centroid of a postal code, falling back to its three-digit prefix.
+     *
+     * @param postalCode a five-digit or ZIP+4 postal code
+     * @return the centroid, or empty if neither the code nor its prefix is in the table
+     */
+    public Optional<GeoPoint> locate(final String postalCode) {
+        if (postalCode == null) {
+            return Optional.empty();
+        }
+        final String trimmed = postalCode.trim();
+        if (trimmed.length() < PREFIX_LENGTH) {
+            return Optional.empty();
+        }
+        final GeoPoint exact = trimmed.length() >= ZIP_LENGTH ? centroids.get(trimmed.substring(0, ZIP_LENGTH)) : null;
+        return Optional.ofNullable(exact != null ? exact : centroids.get(trimmed.substring(0, PREFIX_LENGTH)));
+    }
+
+    private static Map<String, GeoPoint> load(final Resource resource) {
+        final Map<String, GeoPoint> loaded = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#") || line.startsWith("postal_code")) {
+                    continue;
+                }
+                final String[] columns = line.split(",");
+                if (columns.length != 3) {
+                    throw new IllegalStateException("Malformed postal code centroid on line " + lineNumber + " of " + resource.getDescription());
+                }
+                loaded.put(columns[0].trim(), new GeoPoint(Double.parseDouble(columns[1].trim()), Double.parseDouble(columns[2].trim())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read postal code centroids from " + resource.getDescription(), e);
+        }
+        return Map.copyOf(loaded);
+    }
+}
@@ -0,0 +1,19 @@
+package com.training.homework.whoms.service;
+
+/**
+ * Outcome of a capacity reservation attempt.
+ *
+ * @param requestId request the reservation was made for
+ * @param warehouseName warehouse the capacity was reserved in
+ * @param squareFootage square footage requested
+ * @param loadingDocks loading docks requested
+ * @param accepted whether the capacity was reserved
+ */
+public record Reservation(
+        String requestId,
+        String warehouseName,
+        int squareFootage,
+        int loadingDocks,
+        boolean accepted
+) {
+}
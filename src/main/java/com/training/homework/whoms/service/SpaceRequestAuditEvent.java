@@ -0,0 +1,60 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.SpaceRequestState;
+import com.training.homework.whoms.dto.SpaceRequestStatus;
+import java.time.Instant;
+
+/**
+ * Published at each step of a warehouse space request's life, for the audit log.
+ *
+ * @param timestamp when the step happened
+ * @param type the step
+ * @param requestId identifier assigned to the request
+ * @param warehouseName name of the warehouse the space was requested from
+ * @param squareFootage requested square footage
+ * @param loadingDocks requested number of loading docks
+ * @param state processing state after the step
+ * @param reason explanation for a rejection, otherwise null
+ * @param idempotencyKey key the client sent with the request, or null
+ */
+public record SpaceRequestAuditEvent(
+        Instant timestamp,
+        Type type,
+        String requestId,
+        String warehouseName,
+        int squareFootage,
+        int loadingDocks,
+        SpaceRequestState state,
+        String reason,
+        String idempotencyKey
+) {
+
+    /**
+     * Creates an event for a step of the request with the given status.
+     *
+     * @param type the step
+     * @param status status of the request after the step
+     * @param idempotencyKey key the client sent with the request, or null
+     * @return the event, timestamped now
+     */
+    public static SpaceRequestAuditEvent of(final Type type, final SpaceRequestStatus status, final String idempotencyKey) {
+        return new SpaceRequestAuditEvent(Instant.now(), type, status.requestId(), status.warehouseName(),
+                status.squareFootage(), status.loadingDocks(), status.state(), status.reason(), idempotencyKey);
+    }
+
+    /**
+     * Steps of a space request.
+     */
+    public enum Type {
+        /** The request was queued for processing. */
+        QUEUED,
+        /** A retry with the same idempotency key was answered with the original request. */
+        REPLAYED,
+        /** The request was dropped because the queue stayed full. */
+        SHED,
+        /** The request was accepted or rejected. */
+        DECIDED,
+        /** The capacity an accepted request held was released. */
+        RELEASED
+    }
+}
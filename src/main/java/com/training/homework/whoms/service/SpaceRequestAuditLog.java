@@ -0,0 +1,148 @@
+package com.training.homework.whoms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.training.homework.whoms.config.AuditProperties;
+import com.training.homework.whoms.config.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes {@link SpaceRequestAuditEvent}s as one JSON object per line to the {@code whoms.audit}
+ * logger, off the request and worker threads.
+ *
+ * <p>Publishing an event only offers it to a bounded ring buffer; a single writer thread drains
+ * it, serializes each event with the application's Jackson settings and logs it, so neither
+ * serialization nor I/O happens on the thread that published the event. When the buffer is full
+ * the event is dropped and counted in {@code whoms.audit.events{outcome=dropped}} rather than slowing the
+ * request down. {@code logback-spring.xml} routes the logger to its own file, so audit lines are
+ * not mixed with the console log.
+ */
+@Service
+public class SpaceRequestAuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpaceRequestAuditLog.class);
+    private static final Logger auditLogger = LoggerFactory.getLogger("whoms.audit");
+
+    private static final long IDLE_POLL_MILLIS = 200;
+    private static final int DRAIN_BATCH_SIZE = 256;
+
+    private final AuditProperties properties;
+    private final WorkerThreads workerThreads;
+    private final ObjectWriter writer;
+    private final BlockingQueue<SpaceRequestAuditEvent> queue;
+    private final Counter written;
+    private final Counter dropped;
+
+    private ExecutorService writerThread;
+    private volatile boolean running;
+
+    public SpaceRequestAuditLog(
+            final AuditProperties properties,
+            final WorkerThreads workerThreads,
+            final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.workerThreads = workerThreads;
+        // ISO-8601 timestamps whatever spring.jackson says, so audit lines keep one format
+        this.writer = objectMapper.writerFor(SpaceRequestAuditEvent.class)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+
+        Gauge.builder("whoms.audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        this.written = Counter.builder("whoms.audit.events").tag("outcome", "written").register(meterRegistry);
+        this.dropped = Counter.builder("whoms.audit.events").tag("outcome", "dropped").register(meterRegistry);
+    }
+
+    /**
+     * Starts the writer thread, on a virtual thread when they are enabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        running = true;
+        writerThread = Executors.newSingleThreadExecutor(workerThreads.newThreadFactory("space-request-audit-"));
+        writerThread.execute(this::writeLoop);
+    }
+
+    /**
+     * Stops the writer thread once the events already buffered are written.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        writerThread.shutdown();
+        if (!writerThread.awaitTermination(5, TimeUnit.SECONDS)) {
+            writerThread.shutdownNow();
+        }
+    }
+
+    /**
+     * Buffers an event for the writer thread, or drops it if the buffer is full.
+     *
+     * @param event the space request step
+     */
+    @EventListener
+    public void onSpaceRequestEvent(final SpaceRequestAuditEvent event) {
+        if (!running) {
+            return;
+        }
+        if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        final List<SpaceRequestAuditEvent> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                final SpaceRequestAuditEvent first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, DRAIN_BATCH_SIZE - 1);
+            batch.forEach(this::write);
+            batch.clear();
+        }
+    }
+
+    private void write(final SpaceRequestAuditEvent event) {
+        if (!auditLogger.isInfoEnabled()) {
+            return;
+        }
+        try {
+            auditLogger.info(writer.writeValueAsString(event));
+            written.increment();
+        } catch (JsonProcessingException e) {
+            logger.warn("Unable to write audit event for space request {}", event.requestId(), e);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.training.homework.whoms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.training.homework.whoms.config.SpaceRequestProperties;
+import com.training.homework.whoms.config.WarehouseMetrics;
+import com.training.homework.whoms.config.WorkerThreads;
+import com.training.homework.whoms.dto.SpaceRequestState;
+import com.training.homework.whoms.dto.SpaceRequestStatus;
+import com.training.homework.whoms.dto.Warehouse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded, back-pressured pipeline that processes warehouse space requests off the request thread.
+ *
+ * <p>Request threads enqueue a request and return immediately with a request ID. When the queue
+ * stays full for longer than the offer timeout the request is shed instead of queuing without
+ * bound. Worker threads drain the queue in micro-batches, closing a batch when it reaches the
+ * configured size or when the batch window elapses, and reserve each request against the
+ * warehouse's remaining capacity through the {@link CapacityReservationEngine}, keyed by request
+ * ID. Decisions are kept in a bounded status cache for polling. An accepted request holds its
+ * capacity until the client releases it or the engine lets the hold lapse, and a poll after either
+ * reports the request as released.
+ *
+ * <p>Clients that retry may send an idempotency key. The first submission with a key claims it in
+ * a bounded cache and queues the request; later submissions with the same key and body get the
+ * original pending status back without queuing anything, and concurrent ones wait for the first
+ * to be queued rather than racing it. A claim whose request is shed is released so the client's
+ * next retry can queue it.
+ *
+ * <p>Each step of a request is published as a {@link SpaceRequestAuditEvent} for the audit log.
+ */
+@Service
+public class SpaceRequestPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpaceRequestPipeline.class);
+
+    private static final long IDLE_POLL_MILLIS = 200;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    private final WarehouseDtoData warehouseDtoData;
+    private final CapacityReservationEngine reservationEngine;
+    private final SpaceRequestProperties properties;
+    private final WorkerThreads workerThreads;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<SpaceRequestStatus> queue;
+    private final Cache<String, SpaceRequestStatus> statuses;
+    private final Cache<String, IdempotentSubmission> idempotencyKeys;
+    private final Timer batchLatency;
+    private final DistributionSummary batchSize;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter shed;
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public SpaceRequestPipeline(
+            final WarehouseDtoData warehouseDtoData,
+            final CapacityReservationEngine reservationEngine,
+            final SpaceRequestProperties properties,
+            final WorkerThreads workerThreads,
+            final ApplicationEventPublisher eventPublisher,
+            final MeterRegistry meterRegistry) {
+        this.warehouseDtoData = warehouseDtoData;
+        this.reservationEngine = reservationEngine;
+        this.properties = properties;
+        this.workerThreads = workerThreads;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(properties.statusMaximumSize())
+                .expireAfterWrite(properties.statusTtl())
+                .recordStats()
+                .build();
+        this.idempotencyKeys = Caffeine.newBuilder()
+                .maximumSize(properties.idempotencyKeyMaximumSize())
+                .expireAfterWrite(properties.idempotencyKeyTtl())
+                .recordStats()
+                .build();
+
+        Gauge.builder("whoms.space.requests.queue.depth", queue, BlockingQueue::size)
+                .description("Space requests waiting to be processed")
+                .register(meterRegistry);
+        WarehouseMetrics.monitorCache(meterRegistry, statuses, "space-request-status");
+        WarehouseMetrics.monitorCache(meterRegistry, idempotencyKeys, "space-request-idempotency-keys");
+        this.batchLatency = Timer.builder("whoms.space.requests.batch.latency")
+                .description("Time taken to process one batch of space requests")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("whoms.space.requests.batch.size")
+                .description("Number of space requests processed per batch")
+                .register(meterRegistry);
+        this.accepted = Counter.builder("whoms.space.requests.decisions").tag("outcome", "accepted").register(meterRegistry);
+        this.rejected = Counter.builder("whoms.space.requests.decisions").tag("outcome", "rejected").register(meterRegistry);
+        this.shed = Counter.builder("whoms.space.requests.decisions").tag("outcome", "shed").register(meterRegistry);
+    }
+
+    /**
+     * Starts the worker threads, on virtual threads when they are enabled.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        workers = Executors.newThreadPerTaskExecutor(workerThreads.newThreadFactory("space-request-"));
+        for (int i = 0; i < properties.workers(); i++) {
+            workers.execute(this::drainLoop);
+        }
+        logger.info("Started {} space request workers on {} threads with queue capacity {}",
+                properties.workers(), workerThreads.isVirtual() ? "virtual" : "platform", properties.queueCapacity());
+    }
+
+    /**
+     * Stops the worker threads, letting in-flight batches finish.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (workers == null) {
+            return;
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a space request for asynchronous processing.
+     *
+     * @param request warehouse name and the square footage and loading docks requested
+     * @return the pending status, including the assigned request ID
+     * @throws SpaceRequestQueueFullException if the queue stays full for longer than the offer timeout
+     */
+    public SpaceRequestStatus submit(final Warehouse request) {
+        return enqueue(request, null);
+    }
+
+    /**
+     * Queues a space request once per idempotency key.
+     *
+     * @param request warehouse name and the square footage and loading docks requested
+     * @param idempotencyKey client-chosen key identifying this request across retries
+     * @return the pending status from the first submission with this key, and whether it was replayed
+     * @throws InvalidWarehouseQueryException if the key is blank or longer than 255 characters
+     * @throws IdempotencyKeyReusedException if the key was first sent with a different request
+     * @throws SpaceRequestQueueFullException if the queue stays full for longer than the offer timeout
+     */
+    public SpaceRequestSubmission submit(final Warehouse request, final String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidWarehouseQueryException(
+                    "Idempotency-Key must be between 1 and " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        final CompletableFuture<SpaceRequestStatus> claim = new CompletableFuture<>();
+        final IdempotentSubmission submission = idempotencyKeys.get(idempotencyKey,
+                key -> new IdempotentSubmission(request, claim));
+        if (!submission.request().equals(request)) {
+            throw new IdempotencyKeyReusedException("Idempotency key was already used for a different space request");
+        }
+        if (submission.pending() != claim) {
+            final SpaceRequestStatus original = awaitOriginal(submission.pending());
+            eventPublisher.publishEvent(SpaceRequestAuditEvent.of(SpaceRequestAuditEvent.Type.REPLAYED, original, idempotencyKey));
+            return new SpaceRequestSubmission(original, true);
+        }
+
+        try {
+            final SpaceRequestStatus pending = enqueue(request, idempotencyKey);
+            claim.complete(pending);
+            return new SpaceRequestSubmission(pending, false);
+        } catch (RuntimeException e) {
+            idempotencyKeys.asMap().remove(idempotencyKey, submission);
+            claim.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the current status of a space request.
+     *
+     * @param requestId the request ID returned by {@link #submit(Warehouse)}
+     * @return the status, or empty if the ID is unknown or has expired
+     */
+    public Optional<SpaceRequestStatus> getStatus(final String requestId) {
+        final SpaceRequestStatus status = statuses.getIfPresent(requestId);
+        if (status != null && status.state() == SpaceRequestState.ACCEPTED && !reservationEngine.holds(requestId)) {
+            return Optional.of(status.decide(SpaceRequestState.RELEASED, "Hold lapsed"));
+        }
+        return Optional.ofNullable(status);
+    }
+
+    /**
+     * Releases the capacity an accepted space request holds.
+     *
+     * @param requestId the request ID returned by {@link #submit(Warehouse)}
+     * @return the released status, or empty if the request is unknown, has expired or holds no capacity
+     */
+    public Optional<SpaceRequestStatus> release(final String requestId) {
+        final SpaceRequestStatus status = statuses.getIfPresent(requestId);
+        if (status == null || status.state() != SpaceRequestState.ACCEPTED || !reservationEngine.release(requestId)) {
+            return Optional.empty();
+        }
+        final SpaceRequestStatus released = status.decide(SpaceRequestState.RELEASED, "Released by client");
+        statuses.put(requestId, released);
+        eventPublisher.publishEvent(SpaceRequestAuditEvent.of(SpaceRequestAuditEvent.Type.RELEASED, released, null));
+        return Optional.of(released);
+    }
+
+    private SpaceRequestStatus enqueue(final Warehouse request, final String idempotencyKey) {
+        final SpaceRequestStatus pending = new SpaceRequestStatus(
+                UUID.randomUUID().toString(),
+                request.name(),
+                request.squareFootage(),
+                request.loadingDocks(),
+                SpaceRequestState.PENDING,
+                null);
+        statuses.put(pending.requestId(), pending);
+
+        final boolean queued;
+        try {
+            queued = queue.offer(pending, properties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            statuses.invalidate(pending.requestId());
+            throw new SpaceRequestQueueFullException("Interrupted while queuing space request");
+        }
+        if (!queued) {
+            statuses.invalidate(pending.requestId());
+            shed.increment();
+            eventPublisher.publishEvent(SpaceRequestAuditEvent.of(SpaceRequestAuditEvent.Type.SHED, pending, idempotencyKey));
+            throw new SpaceRequestQueueFullException("Space request queue is full");
+        }
+        eventPublisher.publishEvent(SpaceRequestAuditEvent.of(SpaceRequestAuditEvent.Type.QUEUED, pending, idempotencyKey));
+        return pending;
+    }
+
+    private static SpaceRequestStatus awaitOriginal(final CompletableFuture<SpaceRequestStatus> original) {
+        try {
+            // The first submission holds the claim for at most the offer timeout
+            return original.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void drainLoop() {
+        final List<SpaceRequestStatus> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    processBatch(batch);
+                }
+                return;
+            }
+            if (!batch.isEmpty()) {
+                processBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(final List<SpaceRequestStatus> batch) throws InterruptedException {
+        final SpaceRequestStatus first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        final long deadline = System.nanoTime() + properties.batchWindow().toNanos();
+        while (batch.size() < properties.batchSize()) {
+            queue.drainTo(batch, properties.batchSize() - batch.size());
+            final long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.batchSize() || remaining <= 0) {
+                return;
+            }
+            final SpaceRequestStatus next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void processBatch(final List<SpaceRequestStatus> batch) {
+        final long start = System.nanoTime();
+        for (final SpaceRequestStatus request : batch) {
+            try {
+                final SpaceRequestStatus decided = decide(request);
+                statuses.put(decided.requestId(), decided);
+                (decided.state() == SpaceRequestState.ACCEPTED ? accepted : rejected).increment();
+                eventPublisher.publishEvent(SpaceRequestAuditEvent.of(SpaceRequestAuditEvent.Type.DECIDED, decided, null));
+            } catch (RuntimeException e) {
+                logger.error("Failed to process space request {}", request.requestId(), e);
+                final SpaceRequestStatus failed = request.decide(SpaceRequestState.REJECTED, "Processing failed");
+                statuses.put(request.requestId(), failed);
+                rejected.increment();
+                eventPublisher.publishEvent(SpaceRequestAuditEvent.of(SpaceRequestAuditEvent.Type.DECIDED, failed, null));
+            }
+        }
+        batchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+        logger.debug("Processed batch of {} space requests", batch.size());
+    }
+
+    private SpaceRequestStatus decide(final SpaceRequestStatus request) {
+        if (request.squareFootage() < 0 || request.loadingDocks() < 0) {
+            return request.decide(SpaceRequestState.REJECTED, "Requested capacity must not be negative");
+        }
+        if (request.squareFootage() == 0 && request.loadingDocks() == 0) {
+            // It would hold nothing, yet keep a decision until its hold lapsed
+            return request.decide(SpaceRequestState.REJECTED, "Requested capacity must not be zero");
+        }
+        final Optional<Warehouse> warehouse = warehouseDtoData.findWarehouse(request.warehouseName());
+        if (warehouse.isEmpty()) {
+            return request.decide(SpaceRequestState.REJECTED, "Unknown warehouse");
+        }
+        final Reservation reservation = reservationEngine.reserve(
+                request.requestId(), warehouse.get(), request.squareFootage(), request.loadingDocks());
+        if (!reservation.accepted()) {
+            return request.decide(SpaceRequestState.REJECTED, "Insufficient capacity");
+        }
+        return request.decide(SpaceRequestState.ACCEPTED, null);
+    }
+
+    /**
+     * A request claimed under an idempotency key, with its pending status once queued.
+     */
+    private record IdempotentSubmission(Warehouse request, CompletableFuture<SpaceRequestStatus> pending) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.training.homework.whoms.service;
+
+/**
+ * Thrown when the space request queue stays full for longer than the configured offer timeout.
+ */
+public class SpaceRequestQueueFullException extends RuntimeException {
+
+    public SpaceRequestQueueFullException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.SpaceRequestStatus;
+
+/**
+ * Outcome of submitting a space request with an idempotency key.
+ *
+ * @param status the pending status returned when the request was first queued
+ * @param replayed whether the request was queued by an earlier submission with the same key
+ */
+public record SpaceRequestSubmission(SpaceRequestStatus status, boolean replayed) {
+}
@@ -0,0 +1,149 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Decorator that times every call to the underlying {@link WarehouseDtoData}.
+ *
+ * <p>Each operation has its own timer, tagged with the method name and registered up front, and
+ * calls are timed with {@link System#nanoTime()} rather than a {@code Timer.Sample} or lambda so
+ * the hot read path allocates nothing extra. The catalog size is published as a gauge read from
+ * the delegate directly, so scrapes do not show up in the operation timers.
+ */
+final class TimedWarehouseDtoData implements WarehouseDtoData {
+
+    private final WarehouseDtoData delegate;
+    private final Timer getAllWarehouses;
+    private final Timer getWarehouseCount;
+    private final Timer getCatalogVersion;
+    private final Timer forEachWarehouse;
+    private final Timer aggregates;
+    private final Timer findWarehouse;
+    private final Timer findWarehouses;
+    private final Timer saveAll;
+    private final Timer removeWarehouse;
+
+    TimedWarehouseDtoData(final WarehouseDtoData delegate, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.getAllWarehouses = operationTimer(meterRegistry, "getAllWarehouses");
+        this.getWarehouseCount = operationTimer(meterRegistry, "getWarehouseCount");
+        this.getCatalogVersion = operationTimer(meterRegistry, "getCatalogVersion");
+        this.forEachWarehouse = operationTimer(meterRegistry, "forEachWarehouse");
+        this.aggregates = operationTimer(meterRegistry, "aggregates");
+        this.findWarehouse = operationTimer(meterRegistry, "findWarehouse");
+        this.findWarehouses = operationTimer(meterRegistry, "findWarehouses");
+        this.saveAll = operationTimer(meterRegistry, "saveAll");
+        this.removeWarehouse = operationTimer(meterRegistry, "removeWarehouse");
+
+        Gauge.builder("whoms.catalog.size", delegate, WarehouseDtoData::getWarehouseCount)
+                .description("Number of warehouses in the catalog")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<Warehouse> getAllWarehouses() {
+        final long start = System.nanoTime();
+        try {
+            return delegate.getAllWarehouses();
+        } finally {
+            getAllWarehouses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public int getWarehouseCount() {
+        final long start = System.nanoTime();
+        try {
+            return delegate.getWarehouseCount();
+        } finally {
+            getWarehouseCount.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        final long start = System.nanoTime();
+        try {
+            return delegate.getCatalogVersion();
+        } finally {
+            getCatalogVersion.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void forEachWarehouse(final Consumer<? super Warehouse> action) {
+        final long start = System.nanoTime();
+        try {
+            delegate.forEachWarehouse(action);
+        } finally {
+            forEachWarehouse.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<CatalogAggregates> aggregates() {
+        final long start = System.nanoTime();
+        try {
+            return delegate.aggregates();
+        } finally {
+            aggregates.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<Warehouse> findWarehouse(final String name) {
+        final long start = System.nanoTime();
+        try {
+            return delegate.findWarehouse(name);
+        } finally {
+            findWarehouse.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public WarehousePage findWarehouses(final WarehouseQuery query) {
+        final long start = System.nanoTime();
+        try {
+            return delegate.findWarehouses(query);
+        } finally {
+            findWarehouses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public WarehouseCatalogChangedEvent saveAll(final Collection<Warehouse> warehouses) {
+        final long start = System.nanoTime();
+        try {
+            return delegate.saveAll(warehouses);
+        } finally {
+            saveAll.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<WarehouseCatalogChangedEvent> removeWarehouse(final String name) {
+        final long start = System.nanoTime();
+        try {
+            return delegate.removeWarehouse(name);
+        } finally {
+            removeWarehouse.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer operationTimer(final MeterRegistry meterRegistry, final String operation) {
+        return Timer.builder("whoms.catalog.operation.latency")
+                .description("Time taken by a warehouse store operation")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,69 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Published after warehouses are saved to or removed from the catalog.
+ *
+ * <p>Listeners that maintain derived state can apply the change as a delta when they are at
+ * {@code previousVersion}; any other version means they missed a change, for example one made by
+ * another process sharing the store, and should rebuild from the catalog instead.
+ *
+ * @param previousVersion catalog version before the change
+ * @param catalogVersion catalog version after the change
+ * @param added warehouses whose name was not in the catalog before
+ * @param updated warehouses that replaced one with the same name
+ * @param removed names of warehouses that were removed
+ */
+public record WarehouseCatalogChangedEvent(
+        long previousVersion,
+        long catalogVersion,
+        List<Warehouse> added,
+        List<Warehouse> updated,
+        List<String> removed
+) {
+
+    /**
+     * Describes a save, splitting the saved warehouses into added and updated.
+     *
+     * <p>Stores call this before applying the write, while {@code existed} still answers for the
+     * catalog being replaced. When a name is saved more than once, the last warehouse wins, as it
+     * does in the store.
+     *
+     * @param previousVersion catalog version before the save
+     * @param catalogVersion catalog version after the save
+     * @param saved warehouses being saved
+     * @param existed whether a name is in the catalog before the save
+     * @return the change
+     */
+    static WarehouseCatalogChangedEvent saved(
+            final long previousVersion,
+            final long catalogVersion,
+            final Collection<Warehouse> saved,
+            final Predicate<String> existed) {
+        final Map<String, Warehouse> byName = new LinkedHashMap<>();
+        saved.forEach(warehouse -> byName.put(warehouse.name(), warehouse));
+        final List<Warehouse> added = new ArrayList<>();
+        final List<Warehouse> updated = new ArrayList<>();
+        byName.values().forEach(warehouse -> (existed.test(warehouse.name()) ? updated : added).add(warehouse));
+        return new WarehouseCatalogChangedEvent(previousVersion, catalogVersion, List.copyOf(added), List.copyOf(updated), List.of());
+    }
+
+    /**
+     * Describes the removal of one warehouse.
+     *
+     * @param previousVersion catalog version before the removal
+     * @param catalogVersion catalog version after the removal
+     * @param name name of the removed warehouse
+     * @return the change
+     */
+    static WarehouseCatalogChangedEvent removed(final long previousVersion, final long catalogVersion, final String name) {
+        return new WarehouseCatalogChangedEvent(previousVersion, catalogVersion, List.of(), List.of(), List.of(name));
+    }
+}
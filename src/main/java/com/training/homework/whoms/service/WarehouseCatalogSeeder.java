@@ -0,0 +1,39 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.config.CatalogProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Populates an empty warehouse store with the predefined warehouses once the application is ready.
+ *
+ * <p>Kept apart from the store implementations so that the {@link WarehouseDtoData} bean can be
+ * decorated without losing the startup listener.
+ */
+@Component
+public class WarehouseCatalogSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseCatalogSeeder.class);
+
+    private final WarehouseDtoData warehouseDtoData;
+    private final CatalogProperties catalogProperties;
+
+    public WarehouseCatalogSeeder(final WarehouseDtoData warehouseDtoData, final CatalogProperties catalogProperties) {
+        this.warehouseDtoData = warehouseDtoData;
+        this.catalogProperties = catalogProperties;
+    }
+
+    /**
+     * Saves the predefined warehouses if seeding is enabled and the store is empty.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        if (catalogProperties.seedOnEmpty() && warehouseDtoData.getWarehouseCount() == 0) {
+            logger.info("Seeding empty warehouse store with {} warehouses", WarehouseSeedData.WAREHOUSES.size());
+            warehouseDtoData.saveAll(WarehouseSeedData.WAREHOUSES);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.config.WireFormat;
+import java.util.function.Supplier;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Immutable, lazily encoded view of the warehouse catalog at a given catalog version.
+ *
+ * <p>Each representation is encoded the first time a request asks for it and then kept for the
+ * life of the snapshot, so a version nobody reads as CBOR, for example, is never encoded as CBOR.
+ * The byte arrays are shared by every request that serves this snapshot and must never be modified.
+ */
+public final class WarehouseCatalogSnapshot {
+
+    private final long catalogVersion;
+    private final int size;
+    private final Supplier<Representation> json;
+    private final Supplier<Representation> gzipJson;
+    private final Supplier<Representation> cbor;
+    private final Supplier<Representation> smile;
+
+    /**
+     * Creates a snapshot whose representations are encoded on first use.
+     *
+     * @param catalogVersion catalog version the snapshot was built from
+     * @param size number of warehouses in the snapshot
+     * @param json encodes the catalog as a JSON array
+     * @param gzipJson compresses the JSON encoding with gzip
+     * @param cbor encodes the catalog as a CBOR array
+     * @param smile encodes the catalog as a Smile array
+     */
+    WarehouseCatalogSnapshot(
+            final long catalogVersion,
+            final int size,
+            final Supplier<Representation> json,
+            final Supplier<Representation> gzipJson,
+            final Supplier<Representation> cbor,
+            final Supplier<Representation> smile) {
+        this.catalogVersion = catalogVersion;
+        this.size = size;
+        this.json = SingletonSupplier.of(json);
+        this.gzipJson = SingletonSupplier.of(gzipJson);
+        this.cbor = SingletonSupplier.of(cbor);
+        this.smile = SingletonSupplier.of(smile);
+    }
+
+    /**
+     * Returns the catalog version the snapshot was built from.
+     *
+     * @return catalog version
+     */
+    public long catalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Returns the number of warehouses in the snapshot.
+     *
+     * @return number of warehouses
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the representation for a wire format, encoding it if this is its first use.
+     *
+     * <p>Only JSON has a gzip variant; the binary encodings are served as they are.
+     *
+     * @param format the negotiated format
+     * @param gzip whether the client accepts gzip
+     * @return the encoded catalog
+     */
+    public Representation representation(final WireFormat format, final boolean gzip) {
+        return switch (format) {
+            case JSON -> gzip ? gzipJson.get() : json.get();
+            case CBOR -> cbor.get();
+            case SMILE -> smile.get();
+        };
+    }
+
+    /**
+     * A single encoded representation of the catalog together with its strong entity tag.
+     *
+     * @param body encoded response body
+     * @param etag quoted strong entity tag for the body
+     */
+    public record Representation(byte[] body, String etag) {}
+}
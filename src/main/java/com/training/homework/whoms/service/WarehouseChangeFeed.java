@@ -0,0 +1,480 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.config.ChangeFeedProperties;
+import com.training.homework.whoms.config.WorkerThreads;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehouseChange;
+import com.training.homework.whoms.dto.WarehouseChange.Type;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams warehouse catalog and capacity changes to Server-Sent Events subscribers.
+ *
+ * <p>Catalog and reservation events are queued when they are published and numbered by a single
+ * dispatcher, so the publishing thread only pays for a queue offer. The last
+ * {@code whoms.changes.replay-capacity} changes are kept in a ring, and a client reconnecting with
+ * the sequence it last saw is replayed what it missed. A client that connects without a sequence,
+ * or whose sequence has left the ring, is first sent a {@link Type#RESYNC} telling it to re-read
+ * the catalog. Sequences start from the wall clock in microseconds, so a sequence from before a
+ * restart is always older than the ring.
+ *
+ * <p>Each subscriber has its own buffer of undelivered changes, keyed by warehouse: a newer change
+ * to the same warehouse replaces the older one and capacity deltas are summed, so a slow client
+ * receives the latest state rather than every step. A buffer that grows past
+ * {@code whoms.changes.subscriber-buffer-size} warehouses is dropped for a RESYNC. An idle
+ * subscriber is an open async request and a buffer, with no thread; a drain task only exists
+ * while a subscriber has something to send, and runs on a virtual thread when virtual threads are
+ * enabled. The dispatcher has its own thread, so stalled clients never hold up numbering or the
+ * other subscribers' buffers. A send that blocks for longer than {@code whoms.changes.send-timeout}
+ * is interrupted and its client dropped, so a client that stops reading holds a drain thread for
+ * at most that long.
+ */
+@Service
+public class WarehouseChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseChangeFeed.class);
+
+    private final ChangeFeedProperties properties;
+    private final WorkerThreads workerThreads;
+    private final Queue<WarehouseChange> inbound = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter overflows;
+    private final Counter stalls;
+
+    // The ring, the sequence and registration of subscribers are guarded by the ring's monitor
+    private final WarehouseChange[] ring;
+    private final long firstSequence;
+    private long sequence;
+
+    private ExecutorService dispatcher;
+    private ExecutorService drains;
+    private ScheduledExecutorService heartbeats;
+
+    public WarehouseChangeFeed(
+            final ChangeFeedProperties properties,
+            final WorkerThreads workerThreads,
+            final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.workerThreads = workerThreads;
+        this.ring = new WarehouseChange[properties.replayCapacity()];
+        this.firstSequence = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.sequence = firstSequence;
+
+        Gauge.builder("whoms.changes.subscribers", subscribers, Set::size)
+                .description("Open change feed subscriptions")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("whoms.changes.overflows")
+                .description("Subscriber buffers dropped for a resync because the client fell too far behind")
+                .register(meterRegistry);
+        this.stalls = Counter.builder("whoms.changes.stalls")
+                .description("Subscribers dropped because a send blocked for longer than the send timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the dispatcher, drain and heartbeat threads, on virtual threads when they are enabled.
+     */
+    @PostConstruct
+    public void start() {
+        dispatcher = Executors.newSingleThreadExecutor(workerThreads.newThreadFactory("change-feed-dispatch-"));
+        drains = workerThreads.isVirtual()
+                ? Executors.newThreadPerTaskExecutor(workerThreads.newThreadFactory("change-feed-"))
+                : Executors.newFixedThreadPool(properties.drainThreads(), workerThreads.newThreadFactory("change-feed-"));
+        heartbeats = Executors.newSingleThreadScheduledExecutor(workerThreads.newThreadFactory("change-feed-heartbeat-"));
+        final long interval = properties.heartbeatInterval().toMillis();
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+        final long stallCheck = Math.max(1, properties.sendTimeout().toMillis() / 2);
+        heartbeats.scheduleAtFixedRate(this::dropStalledSubscribers, stallCheck, stallCheck, TimeUnit.MILLISECONDS);
+        logger.info("Started change feed at sequence {} with a replay ring of {} changes", firstSequence, ring.length);
+    }
+
+    /**
+     * Stops delivering changes and completes every open subscription.
+     */
+    @PreDestroy
+    public void stop() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+        if (drains != null) {
+            drains.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Opens a subscription that streams changes after the given sequence.
+     *
+     * @param lastSequence sequence of the last change the client has seen, or null to start from now
+     * @return the emitter to return from the handler method
+     */
+    public SseEmitter subscribe(final Long lastSequence) {
+        final SseEmitter emitter = new SseEmitter(properties.subscriberTimeout().toMillis());
+        subscribe(emitter, lastSequence);
+        return emitter;
+    }
+
+    /**
+     * Registers an emitter as a subscriber, queueing a replay or a resync for it first.
+     *
+     * @param emitter emitter to send changes to
+     * @param lastSequence sequence of the last change the client has seen, or null to start from now
+     */
+    void subscribe(final SseEmitter emitter, final Long lastSequence) {
+        final Subscriber subscriber = new Subscriber(emitter, properties.subscriberBufferSize(), overflows);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        final boolean drain;
+        synchronized (ring) {
+            final long oldest = Math.max(firstSequence + 1, sequence - ring.length + 1);
+            if (lastSequence != null && lastSequence >= oldest - 1 && lastSequence <= sequence) {
+                for (long replay = lastSequence + 1; replay <= sequence; replay++) {
+                    subscriber.buffer(ring[slot(replay)]);
+                }
+            } else {
+                subscriber.resync(sequence);
+            }
+            subscribers.add(subscriber);
+            drain = subscriber.claimDrain();
+        }
+        if (drain) {
+            execute(() -> drain(subscriber));
+        }
+        logger.debug("Subscribed to changes after {}, {} subscribers", lastSequence, subscribers.size());
+    }
+
+    /**
+     * Returns the sequence of the latest change numbered by the dispatcher.
+     *
+     * @return current sequence
+     */
+    long currentSequence() {
+        synchronized (ring) {
+            return sequence;
+        }
+    }
+
+    /**
+     * Queues added, updated and removed warehouses for the feed.
+     *
+     * @param event the catalog change
+     */
+    @EventListener
+    public void onCatalogChanged(final WarehouseCatalogChangedEvent event) {
+        for (final Warehouse warehouse : event.added()) {
+            inbound.offer(new WarehouseChange(0, Type.ADDED, warehouse.name(), warehouse, null, null));
+        }
+        for (final Warehouse warehouse : event.updated()) {
+            inbound.offer(new WarehouseChange(0, Type.UPDATED, warehouse.name(), warehouse, null, null));
+        }
+        for (final String name : event.removed()) {
+            inbound.offer(new WarehouseChange(0, Type.REMOVED, name, null, null, null));
+        }
+        requestDispatch();
+    }
+
+    /**
+     * Queues a change in reserved capacity for the feed.
+     *
+     * @param event the reservation change
+     */
+    @EventListener
+    public void onReservationChanged(final CapacityReservationChangedEvent event) {
+        inbound.offer(new WarehouseChange(0, Type.CAPACITY_CHANGED, event.warehouseName(), null,
+                event.squareFootage(), event.loadingDocks()));
+        requestDispatch();
+    }
+
+    private void requestDispatch() {
+        if (dispatching.compareAndSet(false, true)) {
+            execute(dispatcher, this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        do {
+            final List<Subscriber> ready = new ArrayList<>();
+            synchronized (ring) {
+                WarehouseChange change;
+                while ((change = inbound.poll()) != null) {
+                    final WarehouseChange numbered = change.withSequence(++sequence);
+                    ring[slot(numbered.sequence())] = numbered;
+                    for (final Subscriber subscriber : subscribers) {
+                        if (subscriber.offer(numbered)) {
+                            ready.add(subscriber);
+                        }
+                    }
+                }
+            }
+            ready.forEach(subscriber -> execute(() -> drain(subscriber)));
+            dispatching.set(false);
+        } while (!inbound.isEmpty() && dispatching.compareAndSet(false, true));
+    }
+
+    private void sendHeartbeats() {
+        for (final Subscriber subscriber : subscribers) {
+            if (subscriber.heartbeat()) {
+                execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    private void dropStalledSubscribers() {
+        final long now = System.nanoTime();
+        final long timeout = properties.sendTimeout().toNanos();
+        for (final Subscriber subscriber : subscribers) {
+            subscriber.interruptIfStalled(now, timeout, () -> {
+                subscribers.remove(subscriber);
+                stalls.increment();
+            });
+        }
+    }
+
+    private void drain(final Subscriber subscriber) {
+        try {
+            List<WarehouseChange> batch;
+            while ((batch = subscriber.take()) != null) {
+                if (batch.isEmpty()) {
+                    subscriber.send(SseEmitter.event().comment("heartbeat"));
+                }
+                for (final WarehouseChange change : batch) {
+                    subscriber.send(SseEmitter.event()
+                            .id(Long.toString(change.sequence()))
+                            .name(change.type().name())
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client has gone; the container reports the error to the emitter's callbacks
+            logger.debug("Dropping change feed subscriber: {}", e.getMessage());
+            subscriber.close();
+            subscribers.remove(subscriber);
+        } finally {
+            // Clear an interrupt from the stall check in case the send returned before it arrived
+            Thread.interrupted();
+        }
+        if (subscriber.stalled()) {
+            // The client is still connected but not reading, so end the response ourselves
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void execute(final Runnable task) {
+        execute(drains, task);
+    }
+
+    private void execute(final ExecutorService executor, final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Change feed is stopped, dropping task");
+        }
+    }
+
+    private int slot(final long changeSequence) {
+        return (int) (changeSequence % ring.length);
+    }
+
+    /**
+     * Undelivered changes for one client, coalesced by warehouse.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final int bufferSize;
+        private final Counter overflows;
+        private final Map<String, WarehouseChange> pending = new LinkedHashMap<>();
+        private WarehouseChange resync;
+        private boolean heartbeatDue;
+        private boolean draining;
+        private boolean closed;
+        private boolean stalled;
+        private Thread sender;
+        private long sendStarted;
+
+        Subscriber(final SseEmitter emitter, final int bufferSize, final Counter overflows) {
+            this.emitter = emitter;
+            this.bufferSize = bufferSize;
+            this.overflows = overflows;
+        }
+
+        /**
+         * Adds a change to the buffer and claims the drain if nobody holds it.
+         *
+         * @return true if the caller should start a drain
+         */
+        synchronized boolean offer(final WarehouseChange change) {
+            if (closed) {
+                return false;
+            }
+            buffer(change);
+            return claimDrain();
+        }
+
+        /**
+         * Adds a change to the buffer, replacing the buffer with a resync if it grows too large.
+         */
+        synchronized void buffer(final WarehouseChange change) {
+            coalesce(change);
+            if (pending.size() > bufferSize) {
+                overflows.increment();
+                pending.clear();
+                resync = new WarehouseChange(change.sequence(), Type.RESYNC, null, null, null, null);
+            }
+        }
+
+        synchronized void resync(final long atSequence) {
+            resync = new WarehouseChange(atSequence, Type.RESYNC, null, null, null, null);
+        }
+
+        /**
+         * Asks for a heartbeat to be sent.
+         *
+         * @return true if the caller should start a drain
+         */
+        synchronized boolean heartbeat() {
+            if (closed) {
+                return false;
+            }
+            heartbeatDue = true;
+            return claimDrain();
+        }
+
+        /**
+         * Claims the right to drain this subscriber if it has anything to send.
+         *
+         * @return true if the caller should start a drain
+         */
+        synchronized boolean claimDrain() {
+            if (draining || (pending.isEmpty() && resync == null && !heartbeatDue)) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        /**
+         * Takes everything buffered, in sequence order.
+         *
+         * @return the changes to send, empty if only a heartbeat is due, or null once there is
+         *         nothing left, which also ends the drain
+         */
+        synchronized List<WarehouseChange> take() {
+            if (closed || (pending.isEmpty() && resync == null && !heartbeatDue)) {
+                draining = false;
+                return null;
+            }
+            heartbeatDue = false;
+            final List<WarehouseChange> batch = new ArrayList<>(pending.size() + 1);
+            if (resync != null) {
+                batch.add(resync);
+                resync = null;
+            }
+            batch.addAll(pending.values());
+            pending.clear();
+            return batch;
+        }
+
+        synchronized void close() {
+            closed = true;
+            pending.clear();
+            resync = null;
+        }
+
+        synchronized boolean stalled() {
+            return stalled;
+        }
+
+        /**
+         * Sends an event to the client, recording the sending thread so a stalled send can be
+         * interrupted.
+         */
+        void send(final SseEmitter.SseEventBuilder event) throws IOException {
+            synchronized (this) {
+                if (closed) {
+                    throw new IOException("Subscriber was dropped");
+                }
+                sender = Thread.currentThread();
+                sendStarted = System.nanoTime();
+            }
+            try {
+                emitter.send(event);
+            } finally {
+                synchronized (this) {
+                    sender = null;
+                }
+            }
+        }
+
+        /**
+         * Closes the subscriber and interrupts its drain if a send has been blocked for too long.
+         *
+         * <p>{@code drop}, which removes the subscriber from the feed, runs before the interrupt, so
+         * the subscriber is gone by the time the drain thread moves on to other subscribers.
+         */
+        synchronized void interruptIfStalled(final long now, final long timeoutNanos, final Runnable drop) {
+            if (sender == null || now - sendStarted < timeoutNanos) {
+                return;
+            }
+            stalled = true;
+            close();
+            drop.run();
+            sender.interrupt();
+        }
+
+        private void coalesce(final WarehouseChange change) {
+            final boolean capacity = change.type() == Type.CAPACITY_CHANGED;
+            final String key = (capacity ? "capacity:" : "warehouse:") + change.warehouseName();
+            // Re-inserting moves the key to the end, which keeps the buffer in sequence order
+            final WarehouseChange previous = pending.remove(key);
+            WarehouseChange merged = change;
+            if (previous != null && capacity) {
+                final int squareFootage = previous.reservedSquareFootage() + change.reservedSquareFootage();
+                final int loadingDocks = previous.reservedLoadingDocks() + change.reservedLoadingDocks();
+                if (squareFootage == 0 && loadingDocks == 0) {
+                    return;
+                }
+                merged = new WarehouseChange(change.sequence(), Type.CAPACITY_CHANGED, change.warehouseName(), null,
+                        squareFootage, loadingDocks);
+            } else if (previous != null && previous.type() == Type.ADDED) {
+                if (change.type() == Type.REMOVED) {
+                    return;
+                }
+                merged = new WarehouseChange(change.sequence(), Type.ADDED, change.warehouseName(), change.warehouse(),
+                        null, null);
+            }
+            pending.put(key, merged);
+        }
+    }
+}
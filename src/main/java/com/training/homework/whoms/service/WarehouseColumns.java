@@ -0,0 +1,905 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSort;
+import com.training.homework.whoms.dto.WarehouseStats.Group;
+import com.training.homework.whoms.dto.WarehouseStats.Summary;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable column-oriented copy of the warehouse catalog.
+ *
+ * <p>Each field is held in its own array indexed by row id instead of one {@link Warehouse} record
+ * per row. Square footage and loading docks are {@code int[]} columns. State, city and postal code
+ * repeat across rows, so they are dictionary encoded: each row stores an {@code int} code into a
+ * shared array of distinct values, and each column keeps its row ids grouped by case-insensitive
+ * value for equality filters. Queries evaluate filters and sort keys on the columns and only build
+ * {@link Warehouse} records for the rows they return; rows with equal sort keys are ordered by
+ * name, so paging cursors are compatible with {@link WarehouseIndex}.
+ *
+ * <p>A new version is derived from the previous one rather than rebuilt: a save sorts only the
+ * rows it changed and merges them into the existing orderings and groups, and a removal
+ * renumbers them in one pass. Capacity totals per state and city are computed over the columns
+ * on first use and kept with the version.
+ */
+final class WarehouseColumns implements WarehouseCursor.Rows {
+
+    private static final int NO_VALUE = -1;
+    private static final int ANY = -1;
+    private static final int NONE = -2;
+    private static final Comparator<String> NAME_ORDER = WarehouseCursor.NAME_ORDER;
+    private static final int[] NO_ROWS = new int[0];
+
+    private final int size;
+    private final String[] names;
+    private final String[] addresses;
+    private final String[] phones;
+    private final int[] squareFootage;
+    private final int[] loadingDocks;
+    private final DictionaryColumn states;
+    private final DictionaryColumn cities;
+    private final DictionaryColumn postalCodes;
+    private final int[] byName;
+    private final int[] catalogOrder;
+    private final int[] bySquareFootage;
+    private final int[] byLoadingDocks;
+    private volatile Totals totals;
+
+    private WarehouseColumns(
+            final int size,
+            final String[] names,
+            final String[] addresses,
+            final String[] phones,
+            final int[] squareFootage,
+            final int[] loadingDocks,
+            final DictionaryColumn states,
+            final DictionaryColumn cities,
+            final DictionaryColumn postalCodes,
+            final int[] byName,
+            final int[] bySquareFootage,
+            final int[] byLoadingDocks) {
+        this.size = size;
+        this.names = names;
+        this.addresses = addresses;
+        this.phones = phones;
+        this.squareFootage = squareFootage;
+        this.loadingDocks = loadingDocks;
+        this.states = states;
+        this.cities = cities;
+        this.postalCodes = postalCodes;
+        this.byName = byName;
+        this.catalogOrder = IntStream.range(0, size).toArray();
+        this.bySquareFootage = bySquareFootage;
+        this.byLoadingDocks = byLoadingDocks;
+    }
+
+    /**
+     * Builds columns over the given warehouses, keeping the last warehouse for each name.
+     *
+     * @param warehouses warehouses in catalog order
+     * @return the columns
+     */
+    static WarehouseColumns of(final List<Warehouse> warehouses) {
+        final Builder builder = new Builder(null, warehouses.size());
+        warehouses.forEach(builder::put);
+        return builder.build();
+    }
+
+    /**
+     * Starts a new catalog version from these columns, with room for the given number of additions.
+     *
+     * @param expectedAdditions number of warehouses likely to be added
+     * @return a builder holding a copy of these columns
+     */
+    Builder toBuilder(final int expectedAdditions) {
+        return new Builder(this, size + expectedAdditions);
+    }
+
+    /**
+     * Returns the next catalog version without the named warehouse. Later rows move up one row id,
+     * and values only the removed warehouse used stay in the dictionaries.
+     *
+     * @param name warehouse name
+     * @return the columns without the warehouse, or these columns if no warehouse has that name
+     */
+    WarehouseColumns withRemoved(final String name) {
+        final int removed = rowOf(name);
+        if (removed < 0) {
+            return this;
+        }
+        return new WarehouseColumns(
+                size - 1,
+                without(names, removed),
+                without(addresses, removed),
+                without(phones, removed),
+                without(squareFootage, removed),
+                without(loadingDocks, removed),
+                states.withRemoved(removed),
+                cities.withRemoved(removed),
+                postalCodes.withRemoved(removed),
+                renumbered(byName, removed),
+                renumbered(bySquareFootage, removed),
+                renumbered(byLoadingDocks, removed));
+    }
+
+    /**
+     * Returns the number of warehouses.
+     *
+     * @return number of rows
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Builds the warehouse held in a row.
+     *
+     * @param row row id
+     * @return a new warehouse record
+     */
+    @Override
+    public Warehouse row(final int row) {
+        return new Warehouse(
+                names[row],
+                addresses[row],
+                cities.value(row),
+                states.value(row),
+                postalCodes.value(row),
+                phones[row],
+                squareFootage[row],
+                loadingDocks[row]);
+    }
+
+    /**
+     * Returns a read-only list view that builds each warehouse when it is accessed.
+     *
+     * @return list of warehouses in catalog order
+     */
+    List<Warehouse> asList() {
+        return new RowView();
+    }
+
+    /**
+     * Builds each warehouse in catalog order and passes it to an action.
+     *
+     * @param action action to perform on each warehouse
+     */
+    void forEach(final Consumer<? super Warehouse> action) {
+        for (int row = 0; row < size; row++) {
+            action.accept(row(row));
+        }
+    }
+
+    /**
+     * Looks up a warehouse by its exact name.
+     *
+     * @param name warehouse name
+     * @return the warehouse, or null if no warehouse has that name
+     */
+    Warehouse findByName(final String name) {
+        final int row = rowOf(name);
+        return row < 0 ? null : row(row);
+    }
+
+    /**
+     * Returns capacity totals over the columns.
+     *
+     * @param catalogVersion catalog version these columns hold
+     * @return the totals
+     */
+    CatalogAggregates aggregates(final long catalogVersion) {
+        return new Aggregates(catalogVersion);
+    }
+
+    /**
+     * Runs a query against the columns.
+     *
+     * @param query filter, sort and paging criteria
+     * @return the requested page of warehouses
+     * @throws InvalidWarehouseQueryException if the cursor is malformed or belongs to another query
+     */
+    WarehousePage query(final WarehouseQuery query) {
+        final WarehouseCursor cursor = WarehouseCursor.decode(query);
+        final Filter filter = new Filter(query);
+        if (filter.isUnsatisfiable()) {
+            return new WarehousePage(List.of(), null);
+        }
+
+        final int[] postings = smallestPostings(filter);
+        final int[] ordering;
+        if (postings == null) {
+            ordering = orderingFor(query.sort());
+        } else {
+            ordering = sortRows(Arrays.stream(postings).filter(filter::matches).toArray(), query.sort());
+        }
+        return WarehouseCursor.page(query, cursor, ordering, filter::matches, this);
+    }
+
+    @Override
+    public long sortKey(final WarehouseSort sort, final int row) {
+        return switch (sort) {
+            case CATALOG -> row;
+            case SQUARE_FOOTAGE_ASC, SQUARE_FOOTAGE_DESC -> squareFootage[row];
+            case LOADING_DOCKS_ASC, LOADING_DOCKS_DESC -> loadingDocks[row];
+        };
+    }
+
+    @Override
+    public String name(final int row) {
+        return names[row];
+    }
+
+    /**
+     * Returns a warehouse's row id, which is its position in catalog order.
+     */
+    @Override
+    public int position(final String name) {
+        return rowOf(name);
+    }
+
+    private int rowOf(final String name) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int order = NAME_ORDER.compare(names[byName[mid]], name);
+            if (order < 0) {
+                low = mid + 1;
+            } else if (order > 0) {
+                high = mid - 1;
+            } else {
+                return byName[mid];
+            }
+        }
+        return -1;
+    }
+
+    private int[] smallestPostings(final Filter filter) {
+        final DictionaryColumn[] columns = {states, cities, postalCodes};
+        final int[] groups = {filter.state, filter.city, filter.postalCode};
+        int smallest = -1;
+        for (int i = 0; i < columns.length; i++) {
+            if (groups[i] >= 0 && (smallest < 0
+                    || columns[i].groupSize(groups[i]) < columns[smallest].groupSize(groups[smallest]))) {
+                smallest = i;
+            }
+        }
+        return smallest < 0 ? null : columns[smallest].postings(groups[smallest]);
+    }
+
+    private int[] orderingFor(final WarehouseSort sort) {
+        return switch (sort) {
+            case CATALOG -> catalogOrder;
+            case SQUARE_FOOTAGE_ASC, SQUARE_FOOTAGE_DESC -> bySquareFootage;
+            case LOADING_DOCKS_ASC, LOADING_DOCKS_DESC -> byLoadingDocks;
+        };
+    }
+
+    /**
+     * Sorts row ids by {@code (key, name)} without boxing.
+     */
+    private int[] sortRows(final int[] rowIds, final WarehouseSort sort) {
+        switch (sort) {
+            case SQUARE_FOOTAGE_ASC, SQUARE_FOOTAGE_DESC -> IntSort.sort(rowIds, keyOrder(squareFootage, names));
+            case LOADING_DOCKS_ASC, LOADING_DOCKS_DESC -> IntSort.sort(rowIds, keyOrder(loadingDocks, names));
+            case CATALOG -> {
+                // Row ids are already in catalog order
+            }
+        }
+        return rowIds;
+    }
+
+    /**
+     * Orders row ids by an {@code int} column, then by name.
+     */
+    private static IntBinaryOperator keyOrder(final int[] keys, final String[] names) {
+        return (left, right) -> {
+            final int byKey = Integer.compare(keys[left], keys[right]);
+            return byKey != 0 ? byKey : NAME_ORDER.compare(names[left], names[right]);
+        };
+    }
+
+    private static int[] sorted(final int[] rowIds, final IntBinaryOperator order) {
+        IntSort.sort(rowIds, order);
+        return rowIds;
+    }
+
+    /**
+     * Drops a removed row id from a list of row ids and moves the ones after it up by one.
+     */
+    private static int[] renumbered(final int[] rowIds, final int removed) {
+        return Arrays.stream(rowIds).filter(row -> row != removed).map(row -> row < removed ? row : row - 1).toArray();
+    }
+
+    private static String[] without(final String[] column, final int row) {
+        final String[] remaining = Arrays.copyOf(column, column.length - 1);
+        System.arraycopy(column, row + 1, remaining, row, column.length - row - 1);
+        return remaining;
+    }
+
+    private static int[] without(final int[] column, final int row) {
+        final int[] remaining = Arrays.copyOf(column, column.length - 1);
+        System.arraycopy(column, row + 1, remaining, row, column.length - row - 1);
+        return remaining;
+    }
+
+    private static String normalize(final String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Totals totals() {
+        Totals computed = totals;
+        if (computed == null) {
+            computed = new Totals();
+            totals = computed;
+        }
+        return computed;
+    }
+
+    /**
+     * Query criteria resolved against the column dictionaries, so matching a row compares ints.
+     */
+    private final class Filter {
+
+        private final int state;
+        private final int city;
+        private final int postalCode;
+        private final int minSquareFootage;
+        private final int minLoadingDocks;
+
+        Filter(final WarehouseQuery query) {
+            this.state = states.group(query.state());
+            this.city = cities.group(query.city());
+            this.postalCode = postalCodes.group(query.postalCode());
+            this.minSquareFootage = query.minSquareFootage() == null ? Integer.MIN_VALUE : query.minSquareFootage();
+            this.minLoadingDocks = query.minLoadingDocks() == null ? Integer.MIN_VALUE : query.minLoadingDocks();
+        }
+
+        boolean isUnsatisfiable() {
+            return state == NONE || city == NONE || postalCode == NONE;
+        }
+
+        boolean matches(final int row) {
+            return (state == ANY || states.groupOf(row) == state)
+                    && (city == ANY || cities.groupOf(row) == city)
+                    && (postalCode == ANY || postalCodes.groupOf(row) == postalCode)
+                    && squareFootage[row] >= minSquareFootage
+                    && loadingDocks[row] >= minLoadingDocks;
+        }
+    }
+
+    /**
+     * A dictionary-encoded string column.
+     *
+     * <p>Codes index {@link #dictionary}. Distinct values that differ only in case or surrounding
+     * whitespace share a group, and each group keeps its row ids in catalog order in its own array,
+     * so a new version copies only the groups its changed rows were in or moved to. Codes and
+     * groups are only ever appended, so they keep their meaning from one version to the next.
+     */
+    private static final class DictionaryColumn {
+
+        private final String[] dictionary;
+        private final int[] codes;
+        private final int[] groupOfCode;
+        private final Map<String, Integer> groups;
+        private final int[][] groupRows;
+
+        private DictionaryColumn(
+                final String[] dictionary,
+                final int[] codes,
+                final int[] groupOfCode,
+                final Map<String, Integer> groups,
+                final int[][] groupRows) {
+            this.dictionary = dictionary;
+            this.codes = codes;
+            this.groupOfCode = groupOfCode;
+            this.groups = groups;
+            this.groupRows = groupRows;
+        }
+
+        static DictionaryColumn of(final String[] dictionary, final int[] codes) {
+            final Map<String, Integer> grouped = new HashMap<>();
+            final int[] groupOfCode = groupCodes(dictionary, new int[0], grouped);
+            final int[] counts = new int[grouped.size()];
+            for (final int code : codes) {
+                if (code != NO_VALUE) {
+                    counts[groupOfCode[code]]++;
+                }
+            }
+            final int[][] groupRows = new int[counts.length][];
+            for (int group = 0; group < counts.length; group++) {
+                groupRows[group] = new int[counts[group]];
+            }
+            Arrays.fill(counts, 0);
+            for (int row = 0; row < codes.length; row++) {
+                if (codes[row] != NO_VALUE) {
+                    final int group = groupOfCode[codes[row]];
+                    groupRows[group][counts[group]++] = row;
+                }
+            }
+            return new DictionaryColumn(dictionary, codes, groupOfCode, Map.copyOf(grouped), groupRows);
+        }
+
+        /**
+         * Derives the next version of the column, in which the changed rows may hold new codes.
+         */
+        DictionaryColumn withChanged(final String[] nextDictionary, final int[] nextCodes, final BitSet changed) {
+            final Map<String, Integer> grouped = new HashMap<>(groups);
+            final int[] nextGroupOfCode = groupCodes(nextDictionary, groupOfCode, grouped);
+            final int[][] nextGroupRows = Arrays.copyOf(groupRows, grouped.size());
+            Arrays.fill(nextGroupRows, groupRows.length, nextGroupRows.length, NO_ROWS);
+
+            // Find the groups the changed rows leave and join, then rebuild only those
+            final BitSet touched = new BitSet(nextGroupRows.length);
+            final int[] joined = new int[nextGroupRows.length];
+            for (int row = changed.nextSetBit(0); row >= 0; row = changed.nextSetBit(row + 1)) {
+                if (row < codes.length && codes[row] != NO_VALUE) {
+                    touched.set(groupOfCode[codes[row]]);
+                }
+                if (nextCodes[row] != NO_VALUE) {
+                    final int group = nextGroupOfCode[nextCodes[row]];
+                    touched.set(group);
+                    joined[group]++;
+                }
+            }
+            final int[][] joinedRows = new int[nextGroupRows.length][];
+            for (int group = touched.nextSetBit(0); group >= 0; group = touched.nextSetBit(group + 1)) {
+                joinedRows[group] = new int[joined[group]];
+                joined[group] = 0;
+            }
+            for (int row = changed.nextSetBit(0); row >= 0; row = changed.nextSetBit(row + 1)) {
+                if (nextCodes[row] != NO_VALUE) {
+                    final int group = nextGroupOfCode[nextCodes[row]];
+                    joinedRows[group][joined[group]++] = row;
+                }
+            }
+            for (int group = touched.nextSetBit(0); group >= 0; group = touched.nextSetBit(group + 1)) {
+                final int[] kept = Arrays.stream(nextGroupRows[group]).filter(row -> !changed.get(row)).toArray();
+                nextGroupRows[group] = IntSort.merge(kept, joinedRows[group], Integer::compare);
+            }
+            return new DictionaryColumn(nextDictionary, nextCodes, nextGroupOfCode,
+                    grouped.size() == groups.size() ? groups : Map.copyOf(grouped), nextGroupRows);
+        }
+
+        /**
+         * Derives the next version of the column without a row, keeping the dictionary.
+         */
+        DictionaryColumn withRemoved(final int removed) {
+            final int[][] nextGroupRows = new int[groupRows.length][];
+            for (int group = 0; group < groupRows.length; group++) {
+                final int[] rows = groupRows[group];
+                nextGroupRows[group] = rows.length == 0 || rows[rows.length - 1] < removed ? rows : renumbered(rows, removed);
+            }
+            return new DictionaryColumn(dictionary, without(codes, removed), groupOfCode, groups, nextGroupRows);
+        }
+
+        /**
+         * Assigns a group to each code from {@code known.length} on, adding new groups to {@code grouped}.
+         */
+        private static int[] groupCodes(final String[] dictionary, final int[] known, final Map<String, Integer> grouped) {
+            final int[] groupOfCode = Arrays.copyOf(known, dictionary.length);
+            for (int code = known.length; code < dictionary.length; code++) {
+                groupOfCode[code] = grouped.computeIfAbsent(normalize(dictionary[code]), key -> grouped.size());
+            }
+            return groupOfCode;
+        }
+
+        String value(final int row) {
+            final int code = codes[row];
+            return code == NO_VALUE ? null : dictionary[code];
+        }
+
+        int code(final int row) {
+            return codes[row];
+        }
+
+        String decode(final int code) {
+            return code == NO_VALUE ? null : dictionary[code];
+        }
+
+        int groupOf(final int row) {
+            final int code = codes[row];
+            return code == NO_VALUE ? NO_VALUE : groupOfCode[code];
+        }
+
+        int groupCount() {
+            return groupRows.length;
+        }
+
+        /**
+         * Resolves a filter value to a group, {@link #ANY} for no filter or {@link #NONE} if no row can match.
+         */
+        int group(final String value) {
+            if (value == null || value.isBlank()) {
+                return ANY;
+            }
+            final Integer group = groups.get(normalize(value));
+            return group == null ? NONE : group;
+        }
+
+        int groupSize(final int group) {
+            return groupRows[group].length;
+        }
+
+        /**
+         * Returns the row ids of a group in catalog order. The array is shared and must not be modified.
+         */
+        int[] postings(final int group) {
+            return groupRows[group];
+        }
+    }
+
+    /**
+     * Accumulates the next catalog version: rows are replaced by name or appended.
+     */
+    static final class Builder {
+
+        private final WarehouseColumns base;
+        private final Map<String, Integer> addedRows = new HashMap<>();
+        private final BitSet changed = new BitSet();
+        private String[] names;
+        private String[] addresses;
+        private String[] phones;
+        private int[] squareFootage;
+        private int[] loadingDocks;
+        private final DictionaryBuilder states;
+        private final DictionaryBuilder cities;
+        private final DictionaryBuilder postalCodes;
+        private int size;
+
+        private Builder(final WarehouseColumns base, final int capacity) {
+            this.base = base;
+            this.size = base == null ? 0 : base.size;
+            this.names = base == null ? new String[capacity] : Arrays.copyOf(base.names, capacity);
+            this.addresses = base == null ? new String[capacity] : Arrays.copyOf(base.addresses, capacity);
+            this.phones = base == null ? new String[capacity] : Arrays.copyOf(base.phones, capacity);
+            this.squareFootage = base == null ? new int[capacity] : Arrays.copyOf(base.squareFootage, capacity);
+            this.loadingDocks = base == null ? new int[capacity] : Arrays.copyOf(base.loadingDocks, capacity);
+            this.states = new DictionaryBuilder(base == null ? null : base.states, capacity);
+            this.cities = new DictionaryBuilder(base == null ? null : base.cities, capacity);
+            this.postalCodes = new DictionaryBuilder(base == null ? null : base.postalCodes, capacity);
+        }
+
+        /**
+         * Replaces the warehouse with the same name, or appends it if the name is new.
+         *
+         * @param warehouse warehouse to store
+         */
+        void put(final Warehouse warehouse) {
+            int row = base == null ? -1 : base.rowOf(warehouse.name());
+            if (row < 0) {
+                row = addedRows.computeIfAbsent(warehouse.name(), name -> append());
+            }
+            changed.set(row);
+            names[row] = warehouse.name();
+            addresses[row] = warehouse.address();
+            phones[row] = warehouse.warehousePhone();
+            squareFootage[row] = warehouse.squareFootage();
+            loadingDocks[row] = warehouse.loadingDocks();
+            states.set(row, warehouse.state());
+            cities.set(row, warehouse.city());
+            postalCodes.set(row, warehouse.postalCode());
+        }
+
+        /**
+         * Freezes the accumulated rows into a new set of columns. Starting from existing columns,
+         * only the changed rows are sorted, and they are merged into the existing orderings.
+         *
+         * @return the columns
+         */
+        WarehouseColumns build() {
+            final String[] names = Arrays.copyOf(this.names, size);
+            final int[] squareFootage = Arrays.copyOf(this.squareFootage, size);
+            final int[] loadingDocks = Arrays.copyOf(this.loadingDocks, size);
+            final IntBinaryOperator nameOrder = (left, right) -> NAME_ORDER.compare(names[left], names[right]);
+            final IntBinaryOperator squareFootageOrder = keyOrder(squareFootage, names);
+            final IntBinaryOperator loadingDocksOrder = keyOrder(loadingDocks, names);
+
+            final int[] byName;
+            final int[] bySquareFootage;
+            final int[] byLoadingDocks;
+            if (base == null) {
+                byName = sorted(IntStream.range(0, size).toArray(), nameOrder);
+                bySquareFootage = sorted(IntStream.range(0, size).toArray(), squareFootageOrder);
+                byLoadingDocks = sorted(IntStream.range(0, size).toArray(), loadingDocksOrder);
+            } else {
+                // A row keeps its name, so only appended rows need a place in the name order
+                byName = IntSort.merge(base.byName, sorted(IntStream.range(base.size, size).toArray(), nameOrder), nameOrder);
+                bySquareFootage = withChanged(base.bySquareFootage, squareFootageOrder);
+                byLoadingDocks = withChanged(base.byLoadingDocks, loadingDocksOrder);
+            }
+            return new WarehouseColumns(
+                    size,
+                    names,
+                    Arrays.copyOf(addresses, size),
+                    Arrays.copyOf(phones, size),
+                    squareFootage,
+                    loadingDocks,
+                    states.build(size, changed),
+                    cities.build(size, changed),
+                    postalCodes.build(size, changed),
+                    byName,
+                    bySquareFootage,
+                    byLoadingDocks);
+        }
+
+        private int[] withChanged(final int[] ordering, final IntBinaryOperator order) {
+            final int[] kept = Arrays.stream(ordering).filter(row -> !changed.get(row)).toArray();
+            return IntSort.merge(kept, sorted(changed.stream().toArray(), order), order);
+        }
+
+        private int append() {
+            if (size == names.length) {
+                final int capacity = Math.max(16, size + (size >> 1));
+                names = Arrays.copyOf(names, capacity);
+                addresses = Arrays.copyOf(addresses, capacity);
+                phones = Arrays.copyOf(phones, capacity);
+                squareFootage = Arrays.copyOf(squareFootage, capacity);
+                loadingDocks = Arrays.copyOf(loadingDocks, capacity);
+            }
+            return size++;
+        }
+    }
+
+    /**
+     * Assigns codes to distinct values while a builder is open.
+     *
+     * <p>Starting from an existing column keeps its codes, so unchanged rows are copied as ints.
+     * Values no longer used by any row stay in the dictionary until the store is rebuilt from
+     * scratch, which is bounded by the number of distinct values ever stored.
+     */
+    private static final class DictionaryBuilder {
+
+        private final DictionaryColumn base;
+        private final List<String> values;
+        private final Map<String, Integer> codesByValue;
+        private int[] codes;
+
+        DictionaryBuilder(final DictionaryColumn base, final int capacity) {
+            this.base = base;
+            if (base == null) {
+                this.values = new ArrayList<>();
+                this.codesByValue = new HashMap<>();
+                this.codes = new int[capacity];
+                Arrays.fill(codes, NO_VALUE);
+            } else {
+                this.values = new ArrayList<>(Arrays.asList(base.dictionary));
+                this.codesByValue = new HashMap<>(values.size() * 2);
+                for (int code = 0; code < values.size(); code++) {
+                    codesByValue.put(values.get(code), code);
+                }
+                this.codes = Arrays.copyOf(base.codes, capacity);
+                Arrays.fill(codes, base.codes.length, capacity, NO_VALUE);
+            }
+        }
+
+        void set(final int row, final String value) {
+            if (row >= codes.length) {
+                final int previous = codes.length;
+                codes = Arrays.copyOf(codes, Math.max(16, row + (row >> 1) + 1));
+                Arrays.fill(codes, previous, codes.length, NO_VALUE);
+            }
+            codes[row] = value == null ? NO_VALUE : codesByValue.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        DictionaryColumn build(final int size, final BitSet changed) {
+            final String[] dictionary = values.toArray(String[]::new);
+            final int[] rowCodes = Arrays.copyOf(codes, size);
+            return base == null
+                    ? DictionaryColumn.of(dictionary, rowCodes)
+                    : base.withChanged(dictionary, rowCodes, changed);
+        }
+    }
+
+    /**
+     * Capacity totals for this catalog version, read from the columns.
+     */
+    private final class Aggregates implements CatalogAggregates {
+
+        private final long catalogVersion;
+
+        Aggregates(final long catalogVersion) {
+            this.catalogVersion = catalogVersion;
+        }
+
+        @Override
+        public long catalogVersion() {
+            return catalogVersion;
+        }
+
+        @Override
+        public int warehouses() {
+            return size;
+        }
+
+        @Override
+        public List<Group> groups(final boolean byState) {
+            return byState ? totals().byState : totals().byCity;
+        }
+
+        @Override
+        public int countBelow(final int bound) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (squareFootage[bySquareFootage[mid]] < bound) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        public List<Warehouse> largest(final int top) {
+            // The ordering is ascending by square footage, then name: take runs of equal square
+            // footage from the end, each in name order
+            final List<Warehouse> largest = new ArrayList<>(Math.min(top, size));
+            int end = size;
+            while (largest.size() < top && end > 0) {
+                final int start = countBelow(squareFootage[bySquareFootage[end - 1]]);
+                for (int i = start; i < end && largest.size() < top; i++) {
+                    largest.add(row(bySquareFootage[i]));
+                }
+                end = start;
+            }
+            return List.copyOf(largest);
+        }
+    }
+
+    /**
+     * Totals per state and per city within state, from one pass over the dictionary codes.
+     *
+     * <p>State groups are slotted by state group id. A city group is slotted by city group id for
+     * the first state it is seen in; the same city name in another state, which is rare, falls
+     * back to a map.
+     */
+    private final class Totals {
+
+        private final List<Group> byState;
+        private final List<Group> byCity;
+
+        Totals() {
+            // Slot 0 holds warehouses without a state, or without a city
+            final GroupTally stateTally = new GroupTally();
+            for (int group = 0; group <= states.groupCount(); group++) {
+                stateTally.newSlot();
+            }
+            final GroupTally cityTally = new GroupTally();
+            final int[] stateOfCity = new int[cities.groupCount() + 1];
+            final int[] slotOfCity = new int[cities.groupCount() + 1];
+            Arrays.fill(stateOfCity, NO_VALUE);
+            final Map<Long, Integer> citiesInOtherStates = new HashMap<>();
+            for (int row = 0; row < size; row++) {
+                final int stateSlot = states.groupOf(row) + 1;
+                final int citySlot = cities.groupOf(row) + 1;
+                stateTally.add(stateSlot, row);
+                final int slot;
+                if (stateOfCity[citySlot] == stateSlot) {
+                    slot = slotOfCity[citySlot];
+                } else if (stateOfCity[citySlot] == NO_VALUE) {
+                    stateOfCity[citySlot] = stateSlot;
+                    slot = cityTally.newSlot();
+                    slotOfCity[citySlot] = slot;
+                } else {
+                    slot = citiesInOtherStates.computeIfAbsent(((long) stateSlot << 32) | citySlot,
+                            key -> cityTally.newSlot());
+                }
+                cityTally.add(slot, row);
+            }
+            this.byState = stateTally.toGroups(true);
+            this.byCity = cityTally.toGroups(false);
+        }
+    }
+
+    /**
+     * Counts, sums, minimums and maximums per slot, held in parallel arrays. Each slot is labelled
+     * with the first state and city spelling of its rows in natural order.
+     */
+    private final class GroupTally {
+
+        private int slots;
+        private int[] warehouses = new int[16];
+        private long[] squareFootageSum = new long[16];
+        private int[] squareFootageMin = new int[16];
+        private int[] squareFootageMax = new int[16];
+        private long[] loadingDocksSum = new long[16];
+        private int[] loadingDocksMin = new int[16];
+        private int[] loadingDocksMax = new int[16];
+        private int[] stateLabel = new int[16];
+        private int[] cityLabel = new int[16];
+
+        int newSlot() {
+            if (slots == warehouses.length) {
+                final int capacity = slots + (slots >> 1);
+                warehouses = Arrays.copyOf(warehouses, capacity);
+                squareFootageSum = Arrays.copyOf(squareFootageSum, capacity);
+                squareFootageMin = Arrays.copyOf(squareFootageMin, capacity);
+                squareFootageMax = Arrays.copyOf(squareFootageMax, capacity);
+                loadingDocksSum = Arrays.copyOf(loadingDocksSum, capacity);
+                loadingDocksMin = Arrays.copyOf(loadingDocksMin, capacity);
+                loadingDocksMax = Arrays.copyOf(loadingDocksMax, capacity);
+                stateLabel = Arrays.copyOf(stateLabel, capacity);
+                cityLabel = Arrays.copyOf(cityLabel, capacity);
+            }
+            squareFootageMin[slots] = Integer.MAX_VALUE;
+            squareFootageMax[slots] = Integer.MIN_VALUE;
+            loadingDocksMin[slots] = Integer.MAX_VALUE;
+            loadingDocksMax[slots] = Integer.MIN_VALUE;
+            stateLabel[slots] = NO_VALUE;
+            cityLabel[slots] = NO_VALUE;
+            return slots++;
+        }
+
+        void add(final int slot, final int row) {
+            warehouses[slot]++;
+            squareFootageSum[slot] += squareFootage[row];
+            squareFootageMin[slot] = Math.min(squareFootageMin[slot], squareFootage[row]);
+            squareFootageMax[slot] = Math.max(squareFootageMax[slot], squareFootage[row]);
+            loadingDocksSum[slot] += loadingDocks[row];
+            loadingDocksMin[slot] = Math.min(loadingDocksMin[slot], loadingDocks[row]);
+            loadingDocksMax[slot] = Math.max(loadingDocksMax[slot], loadingDocks[row]);
+            stateLabel[slot] = firstSpelling(states, stateLabel[slot], states.code(row));
+            cityLabel[slot] = firstSpelling(cities, cityLabel[slot], cities.code(row));
+        }
+
+        List<Group> toGroups(final boolean byState) {
+            final List<Group> groups = new ArrayList<>(slots);
+            for (int slot = 0; slot < slots; slot++) {
+                if (warehouses[slot] == 0) {
+                    continue;
+                }
+                final String state = states.decode(stateLabel[slot]);
+                groups.add(new Group(byState ? state : cities.decode(cityLabel[slot]), state, warehouses[slot],
+                        new Summary(squareFootageSum[slot], (double) squareFootageSum[slot] / warehouses[slot],
+                                squareFootageMin[slot], squareFootageMax[slot]),
+                        new Summary(loadingDocksSum[slot], (double) loadingDocksSum[slot] / warehouses[slot],
+                                loadingDocksMin[slot], loadingDocksMax[slot]),
+                        0,
+                        0));
+            }
+            return List.copyOf(groups);
+        }
+
+        private static int firstSpelling(final DictionaryColumn column, final int current, final int code) {
+            if (code == NO_VALUE || code == current) {
+                return current;
+            }
+            return current == NO_VALUE || column.decode(code).compareTo(column.decode(current)) < 0 ? code : current;
+        }
+    }
+
+    private final class RowView extends AbstractList<Warehouse> implements RandomAccess {
+
+        @Override
+        public Warehouse get(final int index) {
+            Objects.checkIndex(index, size);
+            return row(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
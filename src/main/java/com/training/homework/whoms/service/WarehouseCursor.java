@@ -0,0 +1,280 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSort;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Keyset paging cursor: where the last page of a query ended.
+ *
+ * <p>A cursor records the sort and a hash of the query's filters, so it is rejected if it is
+ * replayed against a different query, and the sort key and name of the last warehouse returned.
+ * Names are unique, so every query orders its matches by {@code (key, name)} and resumes strictly
+ * after the cursor, whatever rows were saved or removed in between. For {@link WarehouseSort#CATALOG}
+ * the key is the row's position in catalog order; the query resumes after the named warehouse's
+ * current position, or at its old position if it has since been removed.
+ *
+ * <p>Every store pages through {@link #page}, so they all resume a cursor the same way and a
+ * cursor issued by one store is honoured by another.
+ *
+ * @param key sort key of the last warehouse returned
+ * @param name name of the last warehouse returned
+ */
+record WarehouseCursor(long key, String name) {
+
+    /**
+     * Order of names within equal sort keys.
+     */
+    static final Comparator<String> NAME_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Encodes where a page ended as an opaque cursor for the next page of the same query.
+     *
+     * @param query query the page answered
+     * @param key sort key of the last warehouse on the page
+     * @param name name of the last warehouse on the page
+     * @return the cursor
+     */
+    static String encode(final WarehouseQuery query, final long key, final String name) {
+        final String raw = query.sort().name() + SEPARATOR + Integer.toHexString(filterHash(query)) + SEPARATOR + key
+                + SEPARATOR + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the cursor of a query.
+     *
+     * @param query query whose cursor to decode
+     * @return the cursor, or null if the query has none
+     * @throws InvalidWarehouseQueryException if the cursor is malformed or was issued for a query
+     *         with a different sort or different filters
+     */
+    static WarehouseCursor decode(final WarehouseQuery query) {
+        final String cursor = query.cursor();
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        final String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidWarehouseQueryException("Invalid cursor: " + cursor);
+        }
+        if (parts.length != 4) {
+            throw new InvalidWarehouseQueryException("Invalid cursor: " + cursor);
+        }
+        if (!parts[0].equals(query.sort().name()) || !parts[1].equals(Integer.toHexString(filterHash(query)))) {
+            throw new InvalidWarehouseQueryException("Cursor does not belong to this query: " + cursor);
+        }
+        try {
+            return new WarehouseCursor(Long.parseLong(parts[2]), parts[3]);
+        } catch (NumberFormatException e) {
+            throw new InvalidWarehouseQueryException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Assembles one page of a query from an ordering of the matching rows.
+     *
+     * <p>Ascending sorts page forwards from just after the cursor, starting no lower than the
+     * query's minimum on the sort key; descending sorts page backwards from just before the cursor
+     * and stop at that minimum. The page holds up to {@code limit} rows, and a next cursor is issued
+     * only if another matching row follows.
+     *
+     * @param query query being answered
+     * @param cursor decoded cursor of the query, or null for the first page
+     * @param ordering row ids in {@code (key, name)} order for the query's sort
+     * @param matches tests whether a row matches the query's filters
+     * @param rows the store's rows
+     * @return the requested page of warehouses
+     */
+    static WarehousePage page(final WarehouseQuery query, final WarehouseCursor cursor, final int[] ordering,
+            final IntPredicate matches, final Rows rows) {
+        final WarehouseSort sort = query.sort();
+        final WarehouseCursor resumed = resume(cursor, sort, rows);
+        final Integer sortedMinimum = sortedMinimum(query);
+        final List<Warehouse> items = new ArrayList<>(Math.min(query.limit(), ordering.length));
+        int lastRow = -1;
+        boolean more = false;
+        if (sort.isDescending()) {
+            final int end = resumed == null ? ordering.length : lowerBound(ordering, sort, resumed, rows);
+            for (int i = end - 1; i >= 0; i--) {
+                final int row = ordering[i];
+                if (sortedMinimum != null && rows.sortKey(sort, row) < sortedMinimum) {
+                    break;
+                }
+                if (!matches.test(row)) {
+                    continue;
+                }
+                if (items.size() == query.limit()) {
+                    more = true;
+                    break;
+                }
+                items.add(rows.row(row));
+                lastRow = row;
+            }
+        } else {
+            int start = resumed == null ? 0 : upperBound(ordering, sort, resumed, rows);
+            if (sortedMinimum != null) {
+                start = Math.max(start, lowerBound(ordering, sort, new WarehouseCursor(sortedMinimum, null), rows));
+            }
+            for (int i = start; i < ordering.length; i++) {
+                final int row = ordering[i];
+                if (!matches.test(row)) {
+                    continue;
+                }
+                if (items.size() == query.limit()) {
+                    more = true;
+                    break;
+                }
+                items.add(rows.row(row));
+                lastRow = row;
+            }
+        }
+
+        final String nextCursor = more ? encode(query, rows.sortKey(sort, lastRow), items.get(items.size() - 1).name()) : null;
+        return new WarehousePage(List.copyOf(items), nextCursor);
+    }
+
+    /**
+     * Compares two rows by {@code (key, name)}.
+     *
+     * @param leftKey sort key of the first row
+     * @param leftName name of the first row
+     * @param rightKey sort key of the second row
+     * @param rightName name of the second row
+     * @return a negative number, zero or a positive number as the first row sorts before, with or
+     *         after the second
+     */
+    static int compare(final long leftKey, final String leftName, final long rightKey, final String rightName) {
+        final int byKey = Long.compare(leftKey, rightKey);
+        return byKey != 0 ? byKey : NAME_ORDER.compare(leftName, rightName);
+    }
+
+    /**
+     * Places a catalog order cursor at the named warehouse's current position, or, if it has been
+     * removed, just before the position it had, which now holds the warehouse that followed it.
+     */
+    private static WarehouseCursor resume(final WarehouseCursor cursor, final WarehouseSort sort, final Rows rows) {
+        if (cursor == null || sort != WarehouseSort.CATALOG) {
+            return cursor;
+        }
+        final int position = rows.position(cursor.name());
+        return position < 0 ? new WarehouseCursor(cursor.key(), null) : new WarehouseCursor(position, cursor.name());
+    }
+
+    private static Integer sortedMinimum(final WarehouseQuery query) {
+        return switch (query.sort()) {
+            case SQUARE_FOOTAGE_ASC, SQUARE_FOOTAGE_DESC -> query.minSquareFootage();
+            case LOADING_DOCKS_ASC, LOADING_DOCKS_DESC -> query.minLoadingDocks();
+            case CATALOG -> null;
+        };
+    }
+
+    /**
+     * Returns the first position whose {@code (key, name)} is greater than or equal to the cursor's.
+     */
+    private static int lowerBound(final int[] ordering, final WarehouseSort sort, final WarehouseCursor cursor,
+            final Rows rows) {
+        int low = 0;
+        int high = ordering.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compareTo(ordering[mid], sort, cursor, rows) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first position whose {@code (key, name)} is strictly greater than the cursor's.
+     */
+    private static int upperBound(final int[] ordering, final WarehouseSort sort, final WarehouseCursor cursor,
+            final Rows rows) {
+        int low = 0;
+        int high = ordering.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compareTo(ordering[mid], sort, cursor, rows) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares a row with a cursor, reading the row's name only if the sort keys are equal.
+     */
+    private static int compareTo(final int row, final WarehouseSort sort, final WarehouseCursor cursor, final Rows rows) {
+        final int byKey = Long.compare(rows.sortKey(sort, row), cursor.key());
+        return byKey != 0 ? byKey : NAME_ORDER.compare(rows.name(row), cursor.name());
+    }
+
+    /**
+     * Hashes the filters as they are matched: string filters trimmed and case-insensitive, blank
+     * ones ignored. The page size is left out so that a client may change it between pages.
+     */
+    private static int filterHash(final WarehouseQuery query) {
+        return Objects.hash(normalize(query.state()), normalize(query.city()), normalize(query.postalCode()),
+                query.minSquareFootage(), query.minLoadingDocks());
+    }
+
+    private static String normalize(final String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A store's rows as {@link #page} reads them, addressed by the row ids in the store's orderings.
+     */
+    interface Rows {
+
+        /**
+         * Returns a row's sort key: for {@link WarehouseSort#CATALOG}, its position in catalog order.
+         *
+         * @param sort sort being paged
+         * @param row row id
+         * @return the sort key
+         */
+        long sortKey(WarehouseSort sort, int row);
+
+        /**
+         * Returns a row's warehouse name.
+         *
+         * @param row row id
+         * @return the name
+         */
+        String name(int row);
+
+        /**
+         * Returns a row's warehouse.
+         *
+         * @param row row id
+         * @return the warehouse
+         */
+        Warehouse row(int row);
+
+        /**
+         * Returns a warehouse's position in catalog order.
+         *
+         * @param name warehouse name
+         * @return the position, or {@code -1} if no warehouse has the name
+         */
+        int position(String name);
+    }
+}
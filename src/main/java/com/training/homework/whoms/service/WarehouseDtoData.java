@@ -1,10 +1,84 @@
 package com.training.homework.whoms.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
 
 public interface WarehouseDtoData {
-List<Warehouse> getAllWarehouses();
-int getWarehouseCount();
+
+    List<Warehouse> getAllWarehouses();
+
+    int getWarehouseCount();
+
+    /**
+     * Returns a version number that changes whenever the warehouse catalog changes.
+     *
+     * @return current catalog version
+     */
+    long getCatalogVersion();
+
+    /**
+     * Passes every warehouse to an action in catalog order, one at a time.
+     *
+     * <p>Unlike {@link #getAllWarehouses()}, implementations do not build a list of the whole
+     * catalog for the call, so memory stays bounded however large the catalog is.
+     *
+     * @param action action to perform on each warehouse
+     */
+    void forEachWarehouse(Consumer<? super Warehouse> action);
+
+    /**
+     * Returns capacity totals the store computes over its own storage, for stores that can do so
+     * without building a record per warehouse.
+     *
+     * @return totals for the current catalog version, or empty if callers should total
+     *         {@link #forEachWarehouse} themselves
+     */
+    default Optional<CatalogAggregates> aggregates() {
+        return Optional.empty();
+    }
+
+    /**
+     * Looks up a warehouse by its exact name.
+     *
+     * @param name warehouse name
+     * @return the warehouse, or empty if no warehouse has that name
+     */
+    Optional<Warehouse> findWarehouse(String name);
+
+    /**
+     * Returns one page of warehouses matching the query.
+     *
+     * @param query filter, sort and paging criteria
+     * @return the requested page of warehouses
+     * @throws InvalidWarehouseQueryException if the query cursor is not valid
+     */
+    WarehousePage findWarehouses(WarehouseQuery query);
+
+    /**
+     * Inserts or updates warehouses, matched by name.
+     *
+     * <p>Implementations work out which warehouses were added and which updated as part of the
+     * write, so callers never have to look the names up or re-read the catalog version around it.
+     *
+     * @param warehouses warehouses to save
+     * @return the change made, with the catalog versions before and after it
+     */
+    WarehouseCatalogChangedEvent saveAll(Collection<Warehouse> warehouses);
+
+    /**
+     * Removes the warehouse with the given exact name.
+     *
+     * <p>As with {@link #saveAll}, the change carries the catalog versions around the write itself,
+     * so callers never have to read the version before and after it.
+     *
+     * @param name warehouse name
+     * @return the change made, or empty if no warehouse has that name
+     */
+    Optional<WarehouseCatalogChangedEvent> removeWarehouse(String name);
 }
@@ -1,114 +1,32 @@
 package com.training.homework.whoms.service;
 
 import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 /**
- * Service providing static warehouse data for testing and demonstration purposes.
+ * Service providing in-memory warehouse data for testing and demonstration purposes.
  * 
- * <p>This service contains a predefined set of warehouse records that can be used
+ * <p>This service starts from a predefined set of warehouse records that can be used
  * for development, testing, and demonstration of warehouse management functionality.
+ * Writes publish a new catalog copy-on-write, so readers never block; each write derives its
+ * indexes from the previous version's rather than rebuilding them.
  */
 @Service
+@ConditionalOnProperty(name = "whoms.catalog.store", havingValue = "memory", matchIfMissing = true)
 public class WarehouseDtoDataImpl implements WarehouseDtoData {
 
     private static final Logger logger = LoggerFactory.getLogger(WarehouseDtoDataImpl.class);
 
-    private static final List<Warehouse> WAREHOUSES = List.of(
-        new Warehouse(
-            "Providence Distribution Center",
-            "1234 Industrial Way",
-            "Providence",
-            "RI",
-            "02903",
-            "(401) 555-0101",
-            1500000,
-            15
-        ),
-        new Warehouse(
-            "Albany Regional Warehouse",
-            "5678 Commerce Blvd",
-            "Albany",
-            "NY",
-            "12205",
-            "(518) 555-0201",
-            600000,
-            36
-        ),
-        new Warehouse(
-            "Newark Logistics Hub",
-            "9012 Freight Avenue",
-            "Newark",
-            "NJ",
-            "07102",
-            "(973) 555-0301",
-            250000,
-            24
-        ),
-        new Warehouse(
-            "Philadelphia Storage Facility",
-            "3456 Warehouse Drive",
-            "Philadelphia",
-            "PA",
-            "19104",
-            "(215) 555-0401",
-            180000,
-            15
-        ),
-        new Warehouse(
-            "Richmond Distribution Point",
-            "7890 Supply Chain Road",
-            "Richmond",
-            "VA",
-            "23230",
-            "(804) 555-0501",
-            175000,
-            14
-        ),
-        new Warehouse(
-            "Charlotte Fulfillment Center",
-            "2468 Logistics Lane",
-            "Charlotte",
-            "NC",
-            "28202",
-            "(704) 555-0601",
-            3000000,
-            30
-        ),
-        new Warehouse(
-            "Jacksonville Coastal Warehouse",
-            "1357 Port Access Road",
-            "Jacksonville",
-            "FL",
-            "32202",
-            "(904) 555-0701",
-            280000,
-            20
-        ),
-        new Warehouse(
-            "Houston Energy District Depot",
-            "8642 Petroleum Plaza",
-            "Houston",
-            "TX",
-            "77002",
-            "(713) 555-0801",
-            550000,
-            35
-        ),
-        new Warehouse(
-            "Sioux Falls Agricultural Center",
-            "9753 Prairie Commerce Way",
-            "Sioux Falls",
-            "SD",
-            "57104",
-            "(605) 555-0901",
-            120000,
-            10
-        )
-    );
+    private volatile Catalog catalog = new Catalog(WarehouseIndex.build(WarehouseSeedData.WAREHOUSES), 1L);
 
     /**
      * Returns a copy of all warehouse data.
@@ -118,9 +36,9 @@ public class WarehouseDtoDataImpl implements WarehouseDtoData {
     public List<Warehouse> getAllWarehouses() {
         logger.debug("Retrieving all warehouse data");
         
-        final List<Warehouse> warehouseCopy = List.copyOf(WAREHOUSES);
+        final List<Warehouse> warehouseCopy = List.copyOf(catalog.index().rows());
         
-        logger.info("Retrieved {} warehouses", warehouseCopy.size());
+        logger.debug("Retrieved {} warehouses", warehouseCopy.size());
         return warehouseCopy;
     }
 
@@ -130,8 +48,81 @@ public class WarehouseDtoDataImpl implements WarehouseDtoData {
      * @return number of warehouses in the data set
      */
     public int getWarehouseCount() {
-        final int count = WAREHOUSES.size();
+        final int count = catalog.index().rows().size();
         logger.debug("Warehouse count: {}", count);
         return count;
     }
+
+    /**
+     * Returns the catalog version, incremented on every write.
+     *
+     * @return current catalog version
+     */
+    public long getCatalogVersion() {
+        return catalog.version();
+    }
+
+    /**
+     * Passes every warehouse in the current catalog version to an action without copying it.
+     *
+     * @param action action to perform on each warehouse
+     */
+    public void forEachWarehouse(final Consumer<? super Warehouse> action) {
+        catalog.index().rows().forEach(action);
+    }
+
+    /**
+     * Looks up a warehouse by its exact name from the in-memory catalog.
+     *
+     * @param name warehouse name
+     * @return the warehouse, or empty if no warehouse has that name
+     */
+    public Optional<Warehouse> findWarehouse(final String name) {
+        return catalog.index().findByName(name);
+    }
+
+    /**
+     * Returns one page of warehouses matching the query, served from in-memory indexes.
+     *
+     * @param query filter, sort and paging criteria
+     * @return the requested page of warehouses
+     */
+    public WarehousePage findWarehouses(final WarehouseQuery query) {
+        final WarehousePage page = catalog.index().query(query);
+        logger.debug("Query {} matched {} warehouses on this page", query, page.items().size());
+        return page;
+    }
+
+    /**
+     * Inserts or replaces warehouses, matched by name, and publishes a new catalog version.
+     *
+     * @param warehouses warehouses to save
+     * @return the change made
+     */
+    public synchronized WarehouseCatalogChangedEvent saveAll(final Collection<Warehouse> warehouses) {
+        final Catalog current = catalog;
+        final WarehouseCatalogChangedEvent change = WarehouseCatalogChangedEvent.saved(current.version(),
+                current.version() + 1, warehouses, name -> current.index().findByName(name).isPresent());
+        catalog = new Catalog(current.index().withSaved(warehouses), current.version() + 1);
+        logger.debug("Saved {} warehouses, catalog version is now {}", warehouses.size(), current.version() + 1);
+        return change;
+    }
+
+    /**
+     * Removes a warehouse by name and publishes a new catalog version if it existed.
+     *
+     * @param name warehouse name
+     * @return the change made, or empty if no warehouse has that name
+     */
+    public synchronized Optional<WarehouseCatalogChangedEvent> removeWarehouse(final String name) {
+        final Catalog current = catalog;
+        if (current.index().findByName(name).isEmpty()) {
+            return Optional.empty();
+        }
+        catalog = new Catalog(current.index().withRemoved(name), current.version() + 1);
+        logger.debug("Removed warehouse {}, catalog version is now {}", name, current.version() + 1);
+        return Optional.of(WarehouseCatalogChangedEvent.removed(current.version(), current.version() + 1, name));
+    }
+
+    private record Catalog(WarehouseIndex index, long version) {}
 }
\ No newline at end of file
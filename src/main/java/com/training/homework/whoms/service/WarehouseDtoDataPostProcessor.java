@@ -0,0 +1,38 @@
+package com.training.homework.whoms.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps whichever {@link WarehouseDtoData} store is active in an {@link EventPublishingWarehouseDtoData}
+ * and then a {@link TimedWarehouseDtoData}.
+ *
+ * <p>The meter registry is resolved lazily, when the store bean is wrapped, so that declaring
+ * this post-processor does not initialize the registry before the other post-processors exist.
+ */
+@Component
+public class WarehouseDtoDataPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WarehouseDtoDataPostProcessor(
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            final ApplicationEventPublisher eventPublisher) {
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof WarehouseDtoData warehouseDtoData && !(bean instanceof TimedWarehouseDtoData)) {
+            return new TimedWarehouseDtoData(
+                    new EventPublishingWarehouseDtoData(warehouseDtoData, eventPublisher),
+                    meterRegistry.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,113 @@
+package com.training.homework.whoms.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.training.homework.whoms.config.WireFormat;
+import com.training.homework.whoms.dto.Warehouse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes the whole warehouse catalog to an output stream one record at a time.
+ *
+ * <p>Records come from {@link WarehouseDtoData#forEachWarehouse} and are serialized straight into
+ * a {@link JsonGenerator}, so memory use is bounded by the generator buffer rather than the
+ * catalog size, and the first bytes leave as soon as that buffer fills. CBOR and Smile exports
+ * use a generator of that format, writing the array with an indefinite length.
+ */
+@Service
+public class WarehouseExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseExportService.class);
+
+    private final WarehouseDtoData warehouseDtoData;
+    private final Map<WireFormat, ObjectWriter> warehouseWriters = new EnumMap<>(WireFormat.class);
+
+    public WarehouseExportService(final WarehouseDtoData warehouseDtoData, final ObjectMapper objectMapper) {
+        this.warehouseDtoData = warehouseDtoData;
+        for (final WireFormat format : WireFormat.values()) {
+            // Flushing after every record would push one tiny chunk per warehouse to the client
+            warehouseWriters.put(format, format.mapperFrom(objectMapper).writerFor(Warehouse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+        }
+    }
+
+    /**
+     * Writes the catalog as newline-delimited JSON, one warehouse object per line.
+     *
+     * @param outputStream stream to write to, left open
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeNdjson(final OutputStream outputStream) throws IOException {
+        final ObjectWriter warehouseWriter = warehouseWriters.get(WireFormat.JSON);
+        try (JsonGenerator generator = createGenerator(warehouseWriter, outputStream)) {
+            // Newlines are written explicitly after each record instead of between them
+            generator.setRootValueSeparator(null);
+            final int count = writeEach(warehouseWriter, generator, true);
+            logger.debug("Exported {} warehouses as NDJSON", count);
+        }
+    }
+
+    /**
+     * Writes the catalog as a single JSON array of warehouse objects.
+     *
+     * @param outputStream stream to write to, left open
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeJsonArray(final OutputStream outputStream) throws IOException {
+        writeArray(WireFormat.JSON, outputStream);
+    }
+
+    /**
+     * Writes the catalog as a single array of warehouse objects in the given format.
+     *
+     * @param format encoding to write
+     * @param outputStream stream to write to, left open
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeArray(final WireFormat format, final OutputStream outputStream) throws IOException {
+        final ObjectWriter warehouseWriter = warehouseWriters.get(format);
+        try (JsonGenerator generator = createGenerator(warehouseWriter, outputStream)) {
+            generator.writeStartArray();
+            final int count = writeEach(warehouseWriter, generator, false);
+            generator.writeEndArray();
+            logger.debug("Exported {} warehouses as a {} array", count, format);
+        }
+    }
+
+    private static JsonGenerator createGenerator(final ObjectWriter warehouseWriter, final OutputStream outputStream)
+            throws IOException {
+        final JsonGenerator generator = warehouseWriter.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private int writeEach(final ObjectWriter warehouseWriter, final JsonGenerator generator, final boolean newlineAfterEach)
+            throws IOException {
+        final int[] count = new int[1];
+        try {
+            warehouseDtoData.forEachWarehouse(warehouse -> {
+                try {
+                    warehouseWriter.writeValue(generator, warehouse);
+                    if (newlineAfterEach) {
+                        generator.writeRaw('\n');
+                    }
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+}
@@ -0,0 +1,336 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.NearbyWarehouse;
+import com.training.homework.whoms.dto.Warehouse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Immutable k-d tree over warehouse locations, answering k-nearest-neighbour queries.
+ *
+ * <p>Each location is stored as a unit vector on the sphere, where straight-line (chord) distance
+ * grows monotonically with great-circle distance, so an ordinary Euclidean k-d tree returns exact
+ * great-circle neighbours without any projection error near the poles or the antimeridian. The
+ * tree is implicit: nodes are laid out in one set of parallel arrays, the node for the range
+ * {@code [lo, hi)} sits at its midpoint and splits on the axis with the widest spread. Every node
+ * also records the largest loading docks and square footage in its subtree, so a search with
+ * minimums skips whole subtrees that cannot match instead of scanning them.
+ */
+final class WarehouseGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final Warehouse[] warehouses;
+    private final GeoPoint[] points;
+    private final double[][] coordinates;
+    private final byte[] splitAxes;
+    private final int[] maxLoadingDocks;
+    private final int[] maxSquareFootage;
+    private final int unlocated;
+
+    private WarehouseGeoIndex(final Warehouse[] warehouses, final GeoPoint[] points, final int unlocated) {
+        final int size = warehouses.length;
+        this.warehouses = warehouses;
+        this.points = points;
+        this.coordinates = new double[3][size];
+        this.splitAxes = new byte[size];
+        this.maxLoadingDocks = new int[size];
+        this.maxSquareFootage = new int[size];
+        this.unlocated = unlocated;
+        for (int i = 0; i < size; i++) {
+            final double latitude = Math.toRadians(points[i].latitude());
+            final double longitude = Math.toRadians(points[i].longitude());
+            coordinates[0][i] = Math.cos(latitude) * Math.cos(longitude);
+            coordinates[1][i] = Math.cos(latitude) * Math.sin(longitude);
+            coordinates[2][i] = Math.sin(latitude);
+        }
+        build(0, size);
+    }
+
+    /**
+     * Builds an index over the warehouses that can be located.
+     *
+     * @param rows warehouses to index
+     * @param locator resolves a warehouse to its location, or empty if it cannot be placed
+     * @return the index
+     */
+    static WarehouseGeoIndex build(final List<Warehouse> rows, final Function<Warehouse, Optional<GeoPoint>> locator) {
+        final List<Warehouse> located = new ArrayList<>(rows.size());
+        final List<GeoPoint> points = new ArrayList<>(rows.size());
+        for (final Warehouse warehouse : rows) {
+            locator.apply(warehouse).ifPresent(point -> {
+                located.add(warehouse);
+                points.add(point);
+            });
+        }
+        return new WarehouseGeoIndex(
+                located.toArray(Warehouse[]::new),
+                points.toArray(GeoPoint[]::new),
+                rows.size() - located.size());
+    }
+
+    /**
+     * Returns the number of warehouses in the index.
+     *
+     * @return number of located warehouses
+     */
+    int size() {
+        return warehouses.length;
+    }
+
+    /**
+     * Returns the number of warehouses left out because they could not be located.
+     *
+     * @return number of unlocated warehouses
+     */
+    int unlocated() {
+        return unlocated;
+    }
+
+    /**
+     * Finds the warehouses closest to a point that meet the capacity minimums.
+     *
+     * @param origin point to measure from
+     * @param k maximum number of warehouses to return
+     * @param minLoadingDocks minimum loading docks, or {@link Integer#MIN_VALUE} for no minimum
+     * @param minSquareFootage minimum square footage, or {@link Integer#MIN_VALUE} for no minimum
+     * @return up to {@code k} warehouses, nearest first
+     */
+    List<NearbyWarehouse> nearest(final GeoPoint origin, final int k, final int minLoadingDocks, final int minSquareFootage) {
+        final double latitude = Math.toRadians(origin.latitude());
+        final double longitude = Math.toRadians(origin.longitude());
+        final double[] target = {
+                Math.cos(latitude) * Math.cos(longitude),
+                Math.cos(latitude) * Math.sin(longitude),
+                Math.sin(latitude)
+        };
+        final Neighbours neighbours = new Neighbours(k);
+        search(0, warehouses.length, target, minLoadingDocks, minSquareFootage, neighbours);
+        return neighbours.sortedResults(this);
+    }
+
+    private void build(final int lo, final int hi) {
+        if (hi - lo <= 0) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        final int axis = widestAxis(lo, hi);
+        select(coordinates[axis], lo, hi - 1, mid);
+        splitAxes[mid] = (byte) axis;
+        build(lo, mid);
+        build(mid + 1, hi);
+
+        int docks = warehouses[mid].loadingDocks();
+        int squareFootage = warehouses[mid].squareFootage();
+        if (lo < mid) {
+            final int left = (lo + mid) >>> 1;
+            docks = Math.max(docks, maxLoadingDocks[left]);
+            squareFootage = Math.max(squareFootage, maxSquareFootage[left]);
+        }
+        if (mid + 1 < hi) {
+            final int right = (mid + 1 + hi) >>> 1;
+            docks = Math.max(docks, maxLoadingDocks[right]);
+            squareFootage = Math.max(squareFootage, maxSquareFootage[right]);
+        }
+        maxLoadingDocks[mid] = docks;
+        maxSquareFootage[mid] = squareFootage;
+    }
+
+    private void search(
+            final int lo,
+            final int hi,
+            final double[] target,
+            final int minLoadingDocks,
+            final int minSquareFootage,
+            final Neighbours neighbours) {
+        if (lo >= hi) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        if (maxLoadingDocks[mid] < minLoadingDocks || maxSquareFootage[mid] < minSquareFootage) {
+            return;
+        }
+        if (warehouses[mid].loadingDocks() >= minLoadingDocks && warehouses[mid].squareFootage() >= minSquareFootage) {
+            final double dx = coordinates[0][mid] - target[0];
+            final double dy = coordinates[1][mid] - target[1];
+            final double dz = coordinates[2][mid] - target[2];
+            neighbours.offer(mid, dx * dx + dy * dy + dz * dz);
+        }
+
+        final int axis = splitAxes[mid];
+        final double delta = target[axis] - coordinates[axis][mid];
+        if (delta < 0) {
+            search(lo, mid, target, minLoadingDocks, minSquareFootage, neighbours);
+            if (!neighbours.isFull() || delta * delta < neighbours.worstDistance()) {
+                search(mid + 1, hi, target, minLoadingDocks, minSquareFootage, neighbours);
+            }
+        } else {
+            search(mid + 1, hi, target, minLoadingDocks, minSquareFootage, neighbours);
+            if (!neighbours.isFull() || delta * delta < neighbours.worstDistance()) {
+                search(lo, mid, target, minLoadingDocks, minSquareFootage, neighbours);
+            }
+        }
+    }
+
+    private int widestAxis(final int lo, final int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            final double[] values = coordinates[axis];
+            for (int i = lo; i < hi; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = axis;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * Quickselect with Hoare partitioning, which stays balanced when many warehouses share a location.
+     */
+    private void select(final double[] keys, final int first, final int last, final int target) {
+        int left = first;
+        int right = last;
+        while (right > left) {
+            final double pivot = keys[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(final int i, final int j) {
+        final Warehouse warehouse = warehouses[i];
+        warehouses[i] = warehouses[j];
+        warehouses[j] = warehouse;
+        final GeoPoint point = points[i];
+        points[i] = points[j];
+        points[j] = point;
+        for (final double[] axis : coordinates) {
+            final double value = axis[i];
+            axis[i] = axis[j];
+            axis[j] = value;
+        }
+    }
+
+    private static double kilometres(final double squaredChord) {
+        return 2 * Math.asin(Math.min(1.0, Math.sqrt(squaredChord) / 2)) * EARTH_RADIUS_KM;
+    }
+
+    /**
+     * Bounded max-heap of the best candidates found so far, keyed by squared chord distance.
+     */
+    private static final class Neighbours {
+
+        private final int[] nodes;
+        private final double[] distances;
+        private int size;
+
+        Neighbours(final int capacity) {
+            this.nodes = new int[capacity];
+            this.distances = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == nodes.length;
+        }
+
+        double worstDistance() {
+            return distances[0];
+        }
+
+        void offer(final int node, final double distance) {
+            if (size < nodes.length) {
+                nodes[size] = node;
+                distances[size] = distance;
+                siftUp(size++);
+            } else if (distance < distances[0]) {
+                nodes[0] = node;
+                distances[0] = distance;
+                siftDown(0);
+            }
+        }
+
+        List<NearbyWarehouse> sortedResults(final WarehouseGeoIndex index) {
+            final Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(distances[a], distances[b]));
+            final List<NearbyWarehouse> results = new ArrayList<>(size);
+            for (final int slot : order) {
+                final int node = nodes[slot];
+                final GeoPoint point = index.points[node];
+                results.add(new NearbyWarehouse(index.warehouses[node], point.latitude(), point.longitude(),
+                        kilometres(distances[slot])));
+            }
+            return results;
+        }
+
+        private void siftUp(final int start) {
+            int child = start;
+            while (child > 0) {
+                final int parent = (child - 1) >>> 1;
+                if (distances[parent] >= distances[child]) {
+                    return;
+                }
+                exchange(parent, child);
+                child = parent;
+            }
+        }
+
+        private void siftDown(final int start) {
+            int parent = start;
+            while (true) {
+                final int left = 2 * parent + 1;
+                if (left >= size) {
+                    return;
+                }
+                final int right = left + 1;
+                final int larger = right < size && distances[right] > distances[left] ? right : left;
+                if (distances[parent] >= distances[larger]) {
+                    return;
+                }
+                exchange(parent, larger);
+                parent = larger;
+            }
+        }
+
+        private void exchange(final int i, final int j) {
+            final int node = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = node;
+            final double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSort;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable secondary indexes over a warehouse list.
+ *
+ * <p>Rows are addressed by their position in the list. Equality filters on {@code state},
+ * {@code city} and {@code postalCode} use hash indexes of row ids, and the numeric sort keys use
+ * row ids pre-sorted by {@code (key, name)}. Paging is keyset based: a {@link WarehouseCursor}
+ * holds the sort key and name of the last returned warehouse, so locating any page is a binary
+ * search instead of an offset scan.
+ *
+ * <p>Writes derive the next index from this one rather than rebuilding it: unchanged rows keep
+ * their row ids, posting lists of values no saved warehouse touched are shared, and only the saved
+ * rows are sorted before being merged into the existing orderings.
+ */
+final class WarehouseIndex implements WarehouseCursor.Rows {
+
+    private final List<Warehouse> rows;
+    private final Map<String, Integer> byName;
+    private final Map<String, int[]> byState;
+    private final Map<String, int[]> byCity;
+    private final Map<String, int[]> byPostalCode;
+    private final int[] catalogOrder;
+    private final int[] bySquareFootage;
+    private final int[] byLoadingDocks;
+
+    private WarehouseIndex(final List<Warehouse> rows) {
+        this.rows = rows;
+        this.byName = nameIndex(rows);
+        this.byState = hashIndex(rows, Warehouse::state);
+        this.byCity = hashIndex(rows, Warehouse::city);
+        this.byPostalCode = hashIndex(rows, Warehouse::postalCode);
+        this.catalogOrder = IntStream.range(0, rows.size()).toArray();
+        this.bySquareFootage = sortRows(catalogOrder.clone(), WarehouseSort.SQUARE_FOOTAGE_ASC);
+        this.byLoadingDocks = sortRows(catalogOrder.clone(), WarehouseSort.LOADING_DOCKS_ASC);
+    }
+
+    private WarehouseIndex(
+            final List<Warehouse> rows,
+            final Map<String, Integer> byName,
+            final Map<String, int[]> byState,
+            final Map<String, int[]> byCity,
+            final Map<String, int[]> byPostalCode,
+            final Function<WarehouseIndex, int[]> bySquareFootage,
+            final Function<WarehouseIndex, int[]> byLoadingDocks) {
+        this.rows = rows;
+        this.byName = byName;
+        this.byState = byState;
+        this.byCity = byCity;
+        this.byPostalCode = byPostalCode;
+        this.catalogOrder = IntStream.range(0, rows.size()).toArray();
+        this.bySquareFootage = bySquareFootage.apply(this);
+        this.byLoadingDocks = byLoadingDocks.apply(this);
+    }
+
+    /**
+     * Builds indexes over the given warehouses.
+     *
+     * @param warehouses immutable list of warehouses to index
+     * @return the index
+     */
+    static WarehouseIndex build(final List<Warehouse> warehouses) {
+        return new WarehouseIndex(List.copyOf(warehouses));
+    }
+
+    /**
+     * Derives the index of the next catalog version with warehouses inserted or replaced by name.
+     *
+     * <p>A replaced warehouse keeps its row id and a new one is appended, as if the catalog were
+     * rebuilt in order. Only posting lists for values the saved warehouses had or now have are
+     * rebuilt, and only the saved rows are sorted before being merged into the orderings, so the
+     * cost is a copy of the row and name tables plus time in the size of the batch.
+     *
+     * @param saved warehouses to insert or replace; the last wins when a name repeats
+     * @return the new index, leaving this one unchanged
+     */
+    WarehouseIndex withSaved(final Collection<Warehouse> saved) {
+        final Warehouse[] next = rows.toArray(new Warehouse[rows.size() + saved.size()]);
+        final Map<String, Integer> names = new HashMap<>(byName);
+        final BitSet changed = new BitSet();
+        int size = rows.size();
+        for (final Warehouse warehouse : saved) {
+            Integer row = names.get(warehouse.name());
+            if (row == null) {
+                row = size++;
+                names.put(warehouse.name(), row);
+            }
+            next[row] = warehouse;
+            changed.set(row);
+        }
+        final List<Warehouse> nextRows = Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(next, size)));
+        return new WarehouseIndex(nextRows, names,
+                withSaved(byState, nextRows, changed, Warehouse::state),
+                withSaved(byCity, nextRows, changed, Warehouse::city),
+                withSaved(byPostalCode, nextRows, changed, Warehouse::postalCode),
+                index -> index.withSaved(bySquareFootage, changed, WarehouseSort.SQUARE_FOOTAGE_ASC),
+                index -> index.withSaved(byLoadingDocks, changed, WarehouseSort.LOADING_DOCKS_ASC));
+    }
+
+    /**
+     * Derives the index of the next catalog version without the named warehouse.
+     *
+     * <p>Later rows move down one row id, which keeps every posting list and ordering in order, so
+     * they are renumbered in a single pass instead of being sorted again.
+     *
+     * @param name warehouse name
+     * @return the new index, or this one if no warehouse has that name
+     */
+    WarehouseIndex withRemoved(final String name) {
+        final Integer removed = name == null ? null : byName.get(name);
+        if (removed == null) {
+            return this;
+        }
+        final List<Warehouse> nextRows = new ArrayList<>(rows.size() - 1);
+        nextRows.addAll(rows.subList(0, removed));
+        nextRows.addAll(rows.subList(removed + 1, rows.size()));
+        final IntUnaryOperator renumber = row -> row < removed ? row : row - 1;
+        return new WarehouseIndex(Collections.unmodifiableList(nextRows), nameIndex(nextRows),
+                withRemoved(byState, removed, renumber),
+                withRemoved(byCity, removed, renumber),
+                withRemoved(byPostalCode, removed, renumber),
+                index -> withRemoved(bySquareFootage, removed, renumber),
+                index -> withRemoved(byLoadingDocks, removed, renumber));
+    }
+
+    /**
+     * Returns the indexed warehouses in catalog order.
+     *
+     * @return immutable list of warehouses
+     */
+    List<Warehouse> rows() {
+        return rows;
+    }
+
+    /**
+     * Looks up a warehouse by its exact name.
+     *
+     * @param name warehouse name
+     * @return the warehouse, or empty if no warehouse has that name
+     */
+    Optional<Warehouse> findByName(final String name) {
+        return Optional.ofNullable(name).map(byName::get).map(rows::get);
+    }
+
+    /**
+     * Runs a query against the indexes.
+     *
+     * @param query filter, sort and paging criteria
+     * @return the requested page of warehouses
+     * @throws InvalidWarehouseQueryException if the cursor is malformed or belongs to another query
+     */
+    WarehousePage query(final WarehouseQuery query) {
+        final WarehouseCursor cursor = WarehouseCursor.decode(query);
+        final int[] postings = smallestPostings(query);
+        final int[] ordering;
+        if (postings == null) {
+            ordering = orderingFor(query.sort());
+        } else {
+            ordering = sortRows(Arrays.stream(postings).filter(row -> matches(rows.get(row), query)).toArray(), query.sort());
+        }
+        return WarehouseCursor.page(query, cursor, ordering, row -> matches(rows.get(row), query), this);
+    }
+
+    @Override
+    public long sortKey(final WarehouseSort sort, final int row) {
+        return switch (sort) {
+            case CATALOG -> row;
+            case SQUARE_FOOTAGE_ASC, SQUARE_FOOTAGE_DESC -> rows.get(row).squareFootage();
+            case LOADING_DOCKS_ASC, LOADING_DOCKS_DESC -> rows.get(row).loadingDocks();
+        };
+    }
+
+    @Override
+    public String name(final int row) {
+        return rows.get(row).name();
+    }
+
+    @Override
+    public Warehouse row(final int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * Returns a warehouse's row id, which is its position in catalog order.
+     */
+    @Override
+    public int position(final String name) {
+        final Integer row = byName.get(name);
+        return row == null ? -1 : row;
+    }
+
+    private int[] smallestPostings(final WarehouseQuery query) {
+        int[] smallest = null;
+        for (final int[] postings : new int[][] {
+                lookup(byState, query.state()),
+                lookup(byCity, query.city()),
+                lookup(byPostalCode, query.postalCode())}) {
+            if (postings != null && (smallest == null || postings.length < smallest.length)) {
+                smallest = postings;
+            }
+        }
+        return smallest;
+    }
+
+    private static int[] lookup(final Map<String, int[]> index, final String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return index.getOrDefault(normalize(value), new int[0]);
+    }
+
+    private int[] orderingFor(final WarehouseSort sort) {
+        return switch (sort) {
+            case CATALOG -> catalogOrder;
+            case SQUARE_FOOTAGE_ASC, SQUARE_FOOTAGE_DESC -> bySquareFootage;
+            case LOADING_DOCKS_ASC, LOADING_DOCKS_DESC -> byLoadingDocks;
+        };
+    }
+
+    private int[] sortRows(final int[] rowIds, final WarehouseSort sort) {
+        if (sort != WarehouseSort.CATALOG) {
+            IntSort.sort(rowIds, order(sort));
+        }
+        return rowIds;
+    }
+
+    private IntBinaryOperator order(final WarehouseSort sort) {
+        return (left, right) -> WarehouseCursor.compare(
+                sortKey(sort, left), rows.get(left).name(), sortKey(sort, right), rows.get(right).name());
+    }
+
+    /**
+     * Drops the changed rows from an ordering of the previous version and merges them back in at
+     * their new keys.
+     */
+    private int[] withSaved(final int[] ordering, final BitSet changed, final WarehouseSort sort) {
+        final int[] kept = Arrays.stream(ordering).filter(row -> !changed.get(row)).toArray();
+        return IntSort.merge(kept, sortRows(changed.stream().toArray(), sort), order(sort));
+    }
+
+    private static boolean matches(final Warehouse warehouse, final WarehouseQuery query) {
+        return equalsIgnoreCase(query.state(), warehouse.state())
+                && equalsIgnoreCase(query.city(), warehouse.city())
+                && equalsIgnoreCase(query.postalCode(), warehouse.postalCode())
+                && (query.minSquareFootage() == null || warehouse.squareFootage() >= query.minSquareFootage())
+                && (query.minLoadingDocks() == null || warehouse.loadingDocks() >= query.minLoadingDocks());
+    }
+
+    private static boolean equalsIgnoreCase(final String expected, final String actual) {
+        return expected == null || expected.isBlank() || expected.trim().equalsIgnoreCase(actual);
+    }
+
+    private static Map<String, Integer> nameIndex(final List<Warehouse> rows) {
+        final Map<String, Integer> index = new HashMap<>(rows.size() * 2);
+        for (int row = 0; row < rows.size(); row++) {
+            index.put(rows.get(row).name(), row);
+        }
+        return index;
+    }
+
+    private static Map<String, int[]> hashIndex(final List<Warehouse> rows, final Function<Warehouse, String> field) {
+        final Map<String, List<Integer>> grouped = new HashMap<>();
+        for (int row = 0; row < rows.size(); row++) {
+            final String value = field.apply(rows.get(row));
+            if (value != null) {
+                grouped.computeIfAbsent(normalize(value), key -> new ArrayList<>()).add(row);
+            }
+        }
+        final Map<String, int[]> index = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, rowIds) -> index.put(key, rowIds.stream().mapToInt(Integer::intValue).toArray()));
+        return Map.copyOf(index);
+    }
+
+    /**
+     * Rebuilds the posting lists of the values the changed rows had before or have now, sharing
+     * the rest with the previous version. Changed rows keep their row ids, so the new lists stay in
+     * catalog order.
+     */
+    private Map<String, int[]> withSaved(final Map<String, int[]> index, final List<Warehouse> nextRows,
+            final BitSet changed, final Function<Warehouse, String> field) {
+        final Set<String> touched = new HashSet<>();
+        final Map<String, List<Integer>> added = new HashMap<>();
+        changed.stream().forEach(row -> {
+            if (row < rows.size() && field.apply(rows.get(row)) != null) {
+                touched.add(normalize(field.apply(rows.get(row))));
+            }
+            final String value = field.apply(nextRows.get(row));
+            if (value != null) {
+                touched.add(normalize(value));
+                added.computeIfAbsent(normalize(value), key -> new ArrayList<>()).add(row);
+            }
+        });
+        final Map<String, int[]> next = new HashMap<>(index);
+        for (final String key : touched) {
+            final int[] kept = Arrays.stream(index.getOrDefault(key, new int[0])).filter(row -> !changed.get(row)).toArray();
+            final int[] rowIds = IntSort.merge(kept,
+                    added.getOrDefault(key, List.of()).stream().mapToInt(Integer::intValue).toArray(),
+                    Integer::compare);
+            if (rowIds.length == 0) {
+                next.remove(key);
+            } else {
+                next.put(key, rowIds);
+            }
+        }
+        return Map.copyOf(next);
+    }
+
+    private static Map<String, int[]> withRemoved(final Map<String, int[]> index, final int removed,
+            final IntUnaryOperator renumber) {
+        final Map<String, int[]> next = new HashMap<>(index.size() * 2);
+        index.forEach((key, rowIds) -> {
+            final int[] renumbered = withRemoved(rowIds, removed, renumber);
+            if (renumbered.length > 0) {
+                next.put(key, renumbered);
+            }
+        });
+        return Map.copyOf(next);
+    }
+
+    private static int[] withRemoved(final int[] rowIds, final int removed, final IntUnaryOperator renumber) {
+        return Arrays.stream(rowIds).filter(row -> row != removed).map(renumber).toArray();
+    }
+
+    private static String normalize(final String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
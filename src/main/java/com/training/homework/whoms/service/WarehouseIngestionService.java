@@ -0,0 +1,178 @@
+package com.training.homework.whoms.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.homework.whoms.config.BulkIngestionProperties;
+import com.training.homework.whoms.dto.BulkIngestionReport;
+import com.training.homework.whoms.dto.BulkIngestionReport.RowError;
+import com.training.homework.whoms.dto.Warehouse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loads warehouses into the catalog from a JSON array or newline-delimited JSON payload.
+ *
+ * <p>The payload is read with Jackson's streaming parser one row at a time: each row is read as a
+ * tree, bound to a {@link Warehouse} and validated on its own, so a bad row is reported without
+ * failing the rest. Valid rows are saved in batches of {@code whoms.bulk-ingestion.batch-size},
+ * and at most {@code whoms.bulk-ingestion.max-reported-errors} rejected rows are described, so
+ * memory use does not grow with the payload. Batches already saved stay saved if a later batch
+ * fails or the payload turns out to be malformed part way through.
+ */
+@Service
+public class WarehouseIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseIngestionService.class);
+
+    private final WarehouseDtoData warehouseDtoData;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BulkIngestionProperties properties;
+
+    public WarehouseIngestionService(
+            final WarehouseDtoData warehouseDtoData,
+            final ObjectMapper objectMapper,
+            final Validator validator,
+            final BulkIngestionProperties properties) {
+        this.warehouseDtoData = warehouseDtoData;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = properties;
+    }
+
+    /**
+     * Reads, validates and saves every warehouse in the payload.
+     *
+     * @param payload a JSON array of warehouse objects, or warehouse objects separated by newlines
+     * @return counts of received, saved and rejected rows and the first rejected rows
+     * @throws IOException if the payload cannot be read
+     */
+    public BulkIngestionReport ingest(final InputStream payload) throws IOException {
+        final Ingestion ingestion = new Ingestion(properties);
+        try (JsonParser parser = objectMapper.createParser(payload)) {
+            JsonToken token = parser.nextToken();
+            final boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                if (token == JsonToken.START_OBJECT) {
+                    final JsonNode node = parser.readValueAsTree();
+                    accept(ingestion, ingestion.nextRow(), node);
+                } else {
+                    parser.skipChildren();
+                    ingestion.reject(ingestion.nextRow(), null, List.of("Row must be a JSON object"));
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // The parser cannot resynchronize after a syntax error, so stop at the broken row
+            ingestion.abort(e.getOriginalMessage());
+        }
+        flush(ingestion);
+
+        final BulkIngestionReport report = ingestion.report();
+        logger.info("Bulk ingestion received {} warehouses, saved {}, rejected {}",
+                report.received(), report.saved(), report.rejected());
+        return report;
+    }
+
+    private void accept(final Ingestion ingestion, final int row, final JsonNode node) {
+        final String name = node.path("name").isTextual() ? node.get("name").asText() : null;
+        final Warehouse warehouse;
+        try {
+            warehouse = objectMapper.treeToValue(node, Warehouse.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            ingestion.reject(row, name, List.of("Unreadable warehouse: " + originalMessage(e)));
+            return;
+        }
+
+        final Set<ConstraintViolation<Warehouse>> violations = validator.validate(warehouse);
+        if (!violations.isEmpty()) {
+            ingestion.reject(row, name, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .toList());
+            return;
+        }
+
+        ingestion.batch.add(warehouse);
+        if (ingestion.batch.size() >= properties.batchSize()) {
+            flush(ingestion);
+        }
+    }
+
+    private void flush(final Ingestion ingestion) {
+        if (ingestion.batch.isEmpty()) {
+            return;
+        }
+        warehouseDtoData.saveAll(ingestion.batch);
+        ingestion.saved += ingestion.batch.size();
+        logger.debug("Saved batch of {} ingested warehouses", ingestion.batch.size());
+        ingestion.batch.clear();
+    }
+
+    private static String originalMessage(final Exception exception) {
+        return exception instanceof JsonProcessingException processing
+                ? processing.getOriginalMessage()
+                : exception.getMessage();
+    }
+
+    /**
+     * Running state of one ingestion.
+     */
+    private static final class Ingestion {
+
+        private final int maxReportedErrors;
+        private final List<Warehouse> batch;
+        private final List<RowError> errors = new ArrayList<>();
+        private int received;
+        private int saved;
+        private int rejected;
+        private boolean complete = true;
+        private boolean errorsTruncated;
+
+        Ingestion(final BulkIngestionProperties properties) {
+            this.maxReportedErrors = properties.maxReportedErrors();
+            this.batch = new ArrayList<>(properties.batchSize());
+        }
+
+        int nextRow() {
+            return ++received;
+        }
+
+        void reject(final int row, final String name, final List<String> messages) {
+            rejected++;
+            describe(new RowError(row, name, messages));
+        }
+
+        void abort(final String message) {
+            // Rows are only counted once fully read, so the broken row is the one after the last counted
+            complete = false;
+            describe(new RowError(received + 1, null, List.of("Malformed JSON: " + message)));
+        }
+
+        BulkIngestionReport report() {
+            return new BulkIngestionReport(received, saved, rejected, complete, List.copyOf(errors), errorsTruncated);
+        }
+
+        private void describe(final RowError error) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,540 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehouseSearchHit;
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index and prefix trie over warehouse names, addresses and cities, answering ranked
+ * full-text searches.
+ *
+ * <p>Text is folded to lower case without accents and split into words of letters and digits.
+ * Each warehouse is given an id in insertion order, and every word it contains gets a posting of
+ * that id and the fields the word appears in, so posting lists stay sorted by id. A search
+ * expands each query word to index terms: the word itself; for the last word, which is usually
+ * still being typed, the terms it is a prefix of, shortest first; and for a word of four or more
+ * characters that matched nothing, the terms within one edit (two from eight characters), found
+ * by walking the trie with one Levenshtein row per node. Every query word has to match. For each
+ * query word a warehouse scores its best expansion, weighted by how close the term is to the word,
+ * by the term's inverse document frequency and by the most important field it appears in, name
+ * over city over address. The query word with the fewest postings leads: its posting lists are
+ * walked in id order, the other words' lists are advanced to each candidate by galloping search,
+ * and a word that rules a candidate out lets the walk skip ahead to its own next id, so a search
+ * builds no per-match state beyond the best {@code limit} hits.
+ *
+ * <p>Updating or removing a warehouse marks its id deleted instead of editing posting lists;
+ * searches skip deleted ids, and the index is rebuilt from the live warehouses once deleted ids
+ * outnumber them. Not thread-safe: callers must keep writes apart from searches.
+ */
+final class WarehouseSearchIndex {
+
+    private static final int NAME = 1;
+    private static final int CITY = 2;
+    private static final int ADDRESS = 4;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int TWO_EDIT_LENGTH = 8;
+    private static final int MIN_DELETED_BEFORE_COMPACTION = 1024;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private Warehouse[] warehouses = new Warehouse[64];
+    private int nextId;
+    private int live;
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private TrieNode root = new TrieNode();
+
+    /**
+     * Returns the number of warehouses in the index.
+     *
+     * @return number of live warehouses
+     */
+    int size() {
+        return live;
+    }
+
+    /**
+     * Returns the number of ids left behind by updates and removals since the index was last compacted.
+     *
+     * @return number of deleted ids
+     */
+    int deleted() {
+        return nextId - live;
+    }
+
+    /**
+     * Removes every warehouse.
+     */
+    void clear() {
+        warehouses = new Warehouse[64];
+        nextId = 0;
+        live = 0;
+        idsByName.clear();
+        postings.clear();
+        root = new TrieNode();
+    }
+
+    /**
+     * Adds a warehouse, replacing any with the same name.
+     *
+     * @param warehouse the warehouse
+     */
+    void put(final Warehouse warehouse) {
+        delete(warehouse.name());
+        insert(warehouse);
+        compactIfSparse();
+    }
+
+    /**
+     * Removes the warehouse with the given name, if there is one.
+     *
+     * @param name warehouse name
+     */
+    void remove(final String name) {
+        delete(name);
+        compactIfSparse();
+    }
+
+    /**
+     * Finds the warehouses matching every word of a query, best first.
+     *
+     * @param query words to search for; the last may be incomplete
+     * @param limit maximum number of warehouses to return
+     * @param maxExpansions most index terms one query word is expanded to
+     * @return up to {@code limit} matches ordered by descending score, then by when they were indexed
+     */
+    List<WarehouseSearchHit> search(final String query, final int limit, final int maxExpansions) {
+        final List<String> words = terms(query).stream().distinct().toList();
+        if (words.isEmpty() || live == 0) {
+            return List.of();
+        }
+        final List<List<Expansion>> expanded = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            final List<Expansion> expansions = expand(words.get(i), i == words.size() - 1, maxExpansions);
+            if (expansions.isEmpty()) {
+                return List.of();
+            }
+            expanded.add(expansions);
+        }
+        expanded.sort(Comparator.comparingLong(WarehouseSearchIndex::postingCount));
+        final WordCursor[] cursors = new WordCursor[expanded.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = new WordCursor(expanded.get(i), live);
+        }
+
+        final TopHits top = new TopHits(limit);
+        int id = cursors[0].next(0);
+        while (id != WordCursor.EXHAUSTED) {
+            int skipTo = id + 1;
+            if (warehouses[id] != null) {
+                double total = cursors[0].scoreAt(id);
+                for (int i = 1; i < cursors.length && total >= 0; i++) {
+                    final double score = cursors[i].scoreAt(id);
+                    if (score < 0) {
+                        skipTo = cursors[i].next(id);
+                    }
+                    total = score < 0 ? -1 : total + score;
+                }
+                if (total >= 0) {
+                    top.offer(id, total);
+                }
+            }
+            id = skipTo == WordCursor.EXHAUSTED ? skipTo : cursors[0].next(skipTo);
+        }
+        final WarehouseSearchHit[] hits = new WarehouseSearchHit[top.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            hits[i] = new WarehouseSearchHit(warehouses[top.worstId()], top.worstScore());
+            top.removeWorst();
+        }
+        return List.of(hits);
+    }
+
+    /**
+     * Splits text into lower-case words of letters and digits, with accents removed.
+     *
+     * @param text text to split, may be null
+     * @return the words in order of appearance
+     */
+    static List<String> terms(final String text) {
+        if (text == null) {
+            return List.of();
+        }
+        final String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        final List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            final boolean wordCharacter = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordCharacter && start < 0) {
+                start = i;
+            } else if (!wordCharacter && start >= 0) {
+                terms.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private void insert(final Warehouse warehouse) {
+        final int id = nextId++;
+        if (id == warehouses.length) {
+            warehouses = Arrays.copyOf(warehouses, id * 2);
+        }
+        warehouses[id] = warehouse;
+        idsByName.put(warehouse.name(), id);
+        live++;
+
+        final Map<String, Integer> fields = new HashMap<>();
+        terms(warehouse.name()).forEach(term -> fields.merge(term, NAME, (a, b) -> a | b));
+        terms(warehouse.city()).forEach(term -> fields.merge(term, CITY, (a, b) -> a | b));
+        terms(warehouse.address()).forEach(term -> fields.merge(term, ADDRESS, (a, b) -> a | b));
+        fields.forEach((term, mask) -> postings.computeIfAbsent(term, this::newTerm).add(id, mask));
+    }
+
+    private void delete(final String name) {
+        final Integer id = idsByName.remove(name);
+        if (id != null) {
+            warehouses[id] = null;
+            live--;
+        }
+    }
+
+    private void compactIfSparse() {
+        final int deleted = deleted();
+        if (deleted < MIN_DELETED_BEFORE_COMPACTION || deleted <= live) {
+            return;
+        }
+        final List<Warehouse> remaining = new ArrayList<>(live);
+        for (int id = 0; id < nextId; id++) {
+            if (warehouses[id] != null) {
+                remaining.add(warehouses[id]);
+            }
+        }
+        clear();
+        remaining.forEach(this::insert);
+    }
+
+    private Postings newTerm(final String term) {
+        TrieNode node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.childOrCreate(term.charAt(i));
+        }
+        node.term = term;
+        return new Postings();
+    }
+
+    private List<Expansion> expand(final String word, final boolean last, final int maxExpansions) {
+        final List<Expansion> expansions = new ArrayList<>();
+        final Postings exact = postings.get(word);
+        if (exact != null) {
+            expansions.add(new Expansion(exact, 1.0));
+        }
+        if (last) {
+            final TrieNode prefix = find(word);
+            if (prefix != null) {
+                addCompletions(prefix, word.length(), expansions, maxExpansions);
+            }
+        }
+        if (expansions.isEmpty() && word.length() >= MIN_FUZZY_LENGTH) {
+            addNearMisses(word, word.length() >= TWO_EDIT_LENGTH ? 2 : 1, expansions, maxExpansions);
+        }
+        return expansions;
+    }
+
+    private TrieNode find(final String word) {
+        TrieNode node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.child(word.charAt(i));
+        }
+        return node;
+    }
+
+    private void addCompletions(final TrieNode prefix, final int prefixLength, final List<Expansion> expansions,
+                                final int maxExpansions) {
+        final ArrayDeque<TrieNode> queue = new ArrayDeque<>(Arrays.asList(prefix.children));
+        while (!queue.isEmpty() && expansions.size() < maxExpansions) {
+            final TrieNode node = queue.poll();
+            if (node.term != null) {
+                expansions.add(new Expansion(postings.get(node.term), 0.5 + 0.5 * prefixLength / node.term.length()));
+            }
+            queue.addAll(Arrays.asList(node.children));
+        }
+    }
+
+    private void addNearMisses(final String word, final int maxEdits, final List<Expansion> expansions,
+                               final int maxExpansions) {
+        final int[] firstRow = new int[word.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        final List<NearMiss> nearMisses = new ArrayList<>();
+        collectNearMisses(root, word, firstRow, maxEdits, nearMisses);
+        nearMisses.sort(Comparator.comparingInt(NearMiss::edits).thenComparing(NearMiss::term));
+        for (int i = 0; i < nearMisses.size() && expansions.size() < maxExpansions; i++) {
+            final NearMiss nearMiss = nearMisses.get(i);
+            expansions.add(new Expansion(postings.get(nearMiss.term()), 1.0 - 0.3 * nearMiss.edits()));
+        }
+    }
+
+    private static void collectNearMisses(final TrieNode node, final String word, final int[] previousRow,
+                                          final int maxEdits, final List<NearMiss> nearMisses) {
+        for (int c = 0; c < node.keys.length; c++) {
+            final char letter = node.keys[c];
+            final int[] row = new int[previousRow.length];
+            row[0] = previousRow[0] + 1;
+            int closest = row[0];
+            for (int i = 1; i < row.length; i++) {
+                final int substitution = previousRow[i - 1] + (word.charAt(i - 1) == letter ? 0 : 1);
+                row[i] = Math.min(substitution, Math.min(row[i - 1], previousRow[i]) + 1);
+                closest = Math.min(closest, row[i]);
+            }
+            final TrieNode child = node.children[c];
+            final int edits = row[word.length()];
+            if (child.term != null && edits > 0 && edits <= maxEdits) {
+                nearMisses.add(new NearMiss(child.term, edits));
+            }
+            if (closest <= maxEdits) {
+                collectNearMisses(child, word, row, maxEdits, nearMisses);
+            }
+        }
+    }
+
+    private static long postingCount(final List<Expansion> expansions) {
+        long count = 0;
+        for (final Expansion expansion : expansions) {
+            count += expansion.postings().size;
+        }
+        return count;
+    }
+
+    private static int fieldWeight(final byte fields) {
+        if ((fields & NAME) != 0) {
+            return 3;
+        }
+        return (fields & CITY) != 0 ? 2 : 1;
+    }
+
+    private record Expansion(Postings postings, double weight) {}
+
+    private record NearMiss(String term, int edits) {}
+
+    /**
+     * Ids of the warehouses containing one term, in ascending order, with the fields it appears in.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        void add(final int id, final int mask) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            ids[size] = id;
+            fields[size] = (byte) mask;
+            size++;
+        }
+    }
+
+    /**
+     * Trie node with children sorted by character; {@code term} is set where an index term ends.
+     */
+    private static final class TrieNode {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+        private char[] keys = NO_KEYS;
+        private TrieNode[] children = NO_CHILDREN;
+        private String term;
+
+        TrieNode child(final char key) {
+            final int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        TrieNode childOrCreate(final char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            final char[] grownKeys = new char[keys.length + 1];
+            final TrieNode[] grownChildren = new TrieNode[children.length + 1];
+            System.arraycopy(keys, 0, grownKeys, 0, index);
+            System.arraycopy(children, 0, grownChildren, 0, index);
+            System.arraycopy(keys, index, grownKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, grownChildren, index + 1, children.length - index);
+            grownKeys[index] = key;
+            grownChildren[index] = new TrieNode();
+            keys = grownKeys;
+            children = grownChildren;
+            return grownChildren[index];
+        }
+    }
+
+    /**
+     * Walks the posting lists of one query word's expansions together in id order.
+     */
+    private static final class WordCursor {
+
+        static final int EXHAUSTED = Integer.MAX_VALUE;
+
+        private final Postings[] postings;
+        private final double[] weights;
+        private final int[] positions;
+
+        WordCursor(final List<Expansion> expansions, final int live) {
+            postings = new Postings[expansions.size()];
+            weights = new double[expansions.size()];
+            positions = new int[expansions.size()];
+            for (int i = 0; i < postings.length; i++) {
+                postings[i] = expansions.get(i).postings();
+                weights[i] = expansions.get(i).weight() * Math.log(1 + (double) live / postings[i].size);
+            }
+        }
+
+        /**
+         * Returns the smallest id from {@code from} on that any expansion contains, or {@link #EXHAUSTED}.
+         */
+        int next(final int from) {
+            int next = EXHAUSTED;
+            for (int i = 0; i < postings.length; i++) {
+                positions[i] = advance(postings[i], positions[i], from);
+                if (positions[i] < postings[i].size) {
+                    next = Math.min(next, postings[i].ids[positions[i]]);
+                }
+            }
+            return next;
+        }
+
+        /**
+         * Returns the best weighted score of the expansions containing an id, or -1 if none does.
+         * Ids must be asked for in ascending order.
+         */
+        double scoreAt(final int id) {
+            double best = -1;
+            for (int i = 0; i < postings.length; i++) {
+                positions[i] = advance(postings[i], positions[i], id);
+                if (positions[i] < postings[i].size && postings[i].ids[positions[i]] == id) {
+                    best = Math.max(best, weights[i] * fieldWeight(postings[i].fields[positions[i]]));
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Finds the first position from {@code position} on whose id is at least {@code target},
+         * doubling the step until it overshoots and then binary searching the last step.
+         */
+        private static int advance(final Postings list, final int position, final int target) {
+            if (position >= list.size || list.ids[position] >= target) {
+                return position;
+            }
+            int below = position;
+            int step = 1;
+            while (below + step < list.size && list.ids[below + step] < target) {
+                below += step;
+                step <<= 1;
+            }
+            final int found = Arrays.binarySearch(list.ids, below + 1, Math.min(below + step + 1, list.size), target);
+            return found >= 0 ? found : -found - 1;
+        }
+    }
+
+    /**
+     * Bounded heap of the best scores offered, worst at the root; of equal scores the lower id,
+     * indexed earlier, counts as better.
+     */
+    private static final class TopHits {
+
+        private final int[] ids;
+        private final double[] scores;
+        private int size;
+
+        TopHits(final int limit) {
+            ids = new int[limit];
+            scores = new double[limit];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int worstId() {
+            return ids[0];
+        }
+
+        double worstScore() {
+            return scores[0];
+        }
+
+        void offer(final int id, final double score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (better(score, id, scores[0], ids[0])) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        void removeWorst() {
+            size--;
+            ids[0] = ids[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+
+        private void siftUp(int node) {
+            while (node > 0) {
+                final int parent = (node - 1) / 2;
+                if (!better(scores[parent], ids[parent], scores[node], ids[node])) {
+                    return;
+                }
+                swap(parent, node);
+                node = parent;
+            }
+        }
+
+        private void siftDown(int node) {
+            while (2 * node + 1 < size) {
+                int worse = 2 * node + 1;
+                if (worse + 1 < size && better(scores[worse], ids[worse], scores[worse + 1], ids[worse + 1])) {
+                    worse++;
+                }
+                if (!better(scores[node], ids[node], scores[worse], ids[worse])) {
+                    return;
+                }
+                swap(node, worse);
+                node = worse;
+            }
+        }
+
+        private void swap(final int a, final int b) {
+            final int id = ids[a];
+            final double score = scores[a];
+            ids[a] = ids[b];
+            scores[a] = scores[b];
+            ids[b] = id;
+            scores[b] = score;
+        }
+
+        private static boolean better(final double score, final int id, final double otherScore, final int otherId) {
+            return score > otherScore || (score == otherScore && id < otherId);
+        }
+    }
+}
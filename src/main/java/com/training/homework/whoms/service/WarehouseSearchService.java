@@ -0,0 +1,125 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.config.SearchProperties;
+import com.training.homework.whoms.dto.WarehouseSearchHit;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers full-text and prefix searches over warehouse names, addresses and cities from a
+ * {@link WarehouseSearchIndex}.
+ *
+ * <p>The index is built from the catalog on first use and then kept current from
+ * {@link WarehouseCatalogChangedEvent}s. When an event does not follow on from the version the
+ * index was built at, or a search finds the store at another version, the index is rebuilt from
+ * the catalog. Searches share a read lock, so they only wait while a change is being applied.
+ */
+@Service
+public class WarehouseSearchService {
+
+    /** Longest query a search accepts. */
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseSearchService.class);
+
+    private static final long NOT_BUILT = Long.MIN_VALUE;
+
+    private final WarehouseDtoData warehouseDtoData;
+    private final SearchProperties properties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final WarehouseSearchIndex index = new WarehouseSearchIndex();
+
+    private long catalogVersion = NOT_BUILT;
+
+    public WarehouseSearchService(final WarehouseDtoData warehouseDtoData, final SearchProperties properties) {
+        this.warehouseDtoData = warehouseDtoData;
+        this.properties = properties;
+    }
+
+    /**
+     * Finds the warehouses whose name, address or city match every word of a query.
+     *
+     * <p>The last word also matches the words it is the start of, and a word that matches nothing
+     * also matches words one or two typing mistakes away. Matches in the name rank above matches in
+     * the city, which rank above matches in the address.
+     *
+     * @param query words to search for
+     * @param limit maximum number of warehouses to return
+     * @return up to {@code limit} matching warehouses, best match first
+     * @throws InvalidWarehouseQueryException if the query is blank or too long, or {@code limit} is out of range
+     */
+    public List<WarehouseSearchHit> search(final String query, final int limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidWarehouseQueryException("q must not be blank");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new InvalidWarehouseQueryException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > properties.maxResults()) {
+            throw new InvalidWarehouseQueryException("limit must be between 1 and " + properties.maxResults());
+        }
+
+        final long currentVersion = warehouseDtoData.getCatalogVersion();
+        lock.readLock().lock();
+        try {
+            if (catalogVersion == currentVersion) {
+                return index.search(query, limit, properties.maxExpansions());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (catalogVersion != currentVersion) {
+                rebuild(currentVersion);
+            }
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            return index.search(query, limit, properties.maxExpansions());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies saved and removed warehouses to the index, or marks it stale if a change was missed.
+     *
+     * @param event the catalog change
+     */
+    @EventListener
+    public void onCatalogChanged(final WarehouseCatalogChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (catalogVersion == NOT_BUILT || catalogVersion == event.catalogVersion()) {
+                return;
+            }
+            if (catalogVersion != event.previousVersion()) {
+                logger.debug("Catalog moved from version {} to {} while the search index was at {}, rebuilding on next search",
+                        event.previousVersion(), event.catalogVersion(), catalogVersion);
+                catalogVersion = NOT_BUILT;
+                return;
+            }
+            event.added().forEach(index::put);
+            event.updated().forEach(index::put);
+            event.removed().forEach(index::remove);
+            catalogVersion = event.catalogVersion();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuild(final long version) {
+        index.clear();
+        warehouseDtoData.forEachWarehouse(index::put);
+        catalogVersion = version;
+        logger.debug("Rebuilt search index for catalog version {} from {} warehouses", version, index.size());
+    }
+}
@@ -0,0 +1,119 @@
+package com.training.homework.whoms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.training.homework.whoms.config.WireFormat;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.service.WarehouseCatalogSnapshot.Representation;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Maintains a pre-serialized snapshot of the warehouse catalog.
+ *
+ * <p>The snapshot is rebuilt only when {@link WarehouseDtoData#getCatalogVersion()} changes, so
+ * repeated reads of an unchanged catalog cost a volatile read instead of a copy and a Jackson pass.
+ * Entity tags are derived from the encoded content, which keeps them stable across nodes that
+ * serve the same data. A rebuild only takes a copy of the rows: each {@link WireFormat}, and the
+ * gzipped JSON, is encoded the first time a request for that version asks for it and reused after,
+ * so a catalog written often does not pay for encodings nobody reads.
+ */
+@Service
+public class WarehouseSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseSnapshotService.class);
+
+    private final WarehouseDtoData warehouseDtoData;
+    private final ObjectWriter catalogWriter;
+    private final ObjectWriter cborCatalogWriter;
+    private final ObjectWriter smileCatalogWriter;
+
+    private volatile WarehouseCatalogSnapshot snapshot;
+
+    public WarehouseSnapshotService(final WarehouseDtoData warehouseDtoData, final ObjectMapper objectMapper) {
+        this.warehouseDtoData = warehouseDtoData;
+        this.catalogWriter = listWriter(objectMapper);
+        this.cborCatalogWriter = listWriter(WireFormat.CBOR.mapperFrom(objectMapper));
+        this.smileCatalogWriter = listWriter(WireFormat.SMILE.mapperFrom(objectMapper));
+    }
+
+    /**
+     * Returns the snapshot for the current catalog version, rebuilding it if the catalog changed.
+     *
+     * @return current catalog snapshot
+     */
+    public WarehouseCatalogSnapshot getSnapshot() {
+        final long catalogVersion = warehouseDtoData.getCatalogVersion();
+        final WarehouseCatalogSnapshot current = snapshot;
+        if (current != null && current.catalogVersion() == catalogVersion) {
+            return current;
+        }
+        return rebuild(catalogVersion);
+    }
+
+    private synchronized WarehouseCatalogSnapshot rebuild(final long catalogVersion) {
+        final WarehouseCatalogSnapshot current = snapshot;
+        if (current != null && current.catalogVersion() == catalogVersion) {
+            return current;
+        }
+
+        final List<Warehouse> warehouses = warehouseDtoData.getAllWarehouses();
+        final Supplier<Representation> json = SingletonSupplier.of(() -> encode(catalogWriter, warehouses, catalogVersion));
+        final WarehouseCatalogSnapshot rebuilt = new WarehouseCatalogSnapshot(
+                catalogVersion,
+                warehouses.size(),
+                json,
+                () -> {
+                    final byte[] plain = json.get().body();
+                    return new Representation(gzip(plain), etag(plain, "-gzip"));
+                },
+                () -> encode(cborCatalogWriter, warehouses, catalogVersion),
+                () -> encode(smileCatalogWriter, warehouses, catalogVersion));
+
+        logger.debug("Rebuilt catalog snapshot version {} with {} warehouses", catalogVersion, warehouses.size());
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    private static ObjectWriter listWriter(final ObjectMapper objectMapper) {
+        return objectMapper.writerFor(new TypeReference<List<Warehouse>>() {});
+    }
+
+    private static Representation encode(final ObjectWriter writer, final List<Warehouse> warehouses,
+            final long catalogVersion) {
+        final byte[] body;
+        try {
+            body = writer.writeValueAsBytes(warehouses);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode warehouse catalog snapshot", e);
+        }
+        logger.debug("Encoded catalog snapshot version {} as {} ({} bytes)",
+                catalogVersion, writer.getFactory().getFormatName(), body.length);
+        return new Representation(body, etag(body, ""));
+    }
+
+    private static byte[] gzip(final byte[] content) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(buffer)) {
+            gzipStream.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compress warehouse catalog snapshot", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String etag(final byte[] content, final String suffix) {
+        return "\"" + DigestUtils.md5DigestAsHex(content) + suffix + "\"";
+    }
+}
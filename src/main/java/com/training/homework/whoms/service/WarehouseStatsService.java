@@ -0,0 +1,366 @@
+package com.training.homework.whoms.service;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehouseStats;
+import com.training.homework.whoms.dto.WarehouseStats.Group;
+import com.training.homework.whoms.dto.WarehouseStats.HistogramBucket;
+import com.training.homework.whoms.dto.WarehouseStats.Summary;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains catalog capacity totals incrementally, so a stats request costs O(groups) rather than
+ * a pass over the catalog.
+ *
+ * <p>Totals are built from the catalog on first use and then kept current from
+ * {@link WarehouseCatalogChangedEvent}s: a saved warehouse first has its previous values, if any,
+ * taken out of its groups and then its new values added, which also makes applying the same save
+ * twice harmless, and a removed warehouse has its values taken out. Minimums and maximums come
+ * from per-group sorted value counts, and the largest warehouses from a set ordered by square
+ * footage. Cities are grouped within their state, and both are matched ignoring case and
+ * surrounding whitespace, as query filters are. When an event does not follow on from the version the totals were built at, or a
+ * request finds the store at another version, the totals are rebuilt from the catalog.
+ *
+ * <p>A store that totals capacity over its own storage, as the columnar store does, reports
+ * {@link CatalogAggregates} instead. The service then keeps no copy of the catalog at all and only
+ * adds reserved capacity, looking up the warehouses that hold reservations.
+ *
+ * <p>Reserved capacity arrives as {@link CapacityReservationChangedEvent}s from the reservation
+ * hot path. Those are queued without locking and folded in by whichever thread next holds the
+ * lock, so reserving never waits on a stats request.
+ */
+@Service
+public class WarehouseStatsService {
+
+    /** Largest number of warehouses a stats request may ask for in {@code largest}. */
+    public static final int MAX_TOP = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseStatsService.class);
+
+    private static final long NOT_BUILT = Long.MIN_VALUE;
+    private static final int[] SQUARE_FOOTAGE_BANDS = {0, 50_000, 100_000, 250_000, 500_000, 1_000_000};
+    private static final Comparator<String> KEY_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<Group> GROUP_ORDER = Comparator.comparing(Group::key, KEY_ORDER)
+            .thenComparing(Group::state, KEY_ORDER);
+    private static final Comparator<Warehouse> LARGEST_FIRST = Comparator.comparingInt(Warehouse::squareFootage)
+            .reversed()
+            .thenComparing(Warehouse::name, KEY_ORDER);
+
+    private final WarehouseDtoData warehouseDtoData;
+    private final Queue<CapacityReservationChangedEvent> pendingReservations = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long catalogVersion = NOT_BUILT;
+    private final Map<String, Warehouse> byName = new HashMap<>();
+    private final Map<GroupKey, GroupTotals> byState = new HashMap<>();
+    private final Map<GroupKey, GroupTotals> byCity = new HashMap<>();
+    private final TreeSet<Warehouse> bySize = new TreeSet<>(LARGEST_FIRST);
+    private final int[] histogram = new int[SQUARE_FOOTAGE_BANDS.length];
+    private final Map<String, long[]> reservedByName = new HashMap<>();
+
+    public WarehouseStatsService(final WarehouseDtoData warehouseDtoData) {
+        this.warehouseDtoData = warehouseDtoData;
+    }
+
+    /**
+     * Returns capacity totals grouped by state or city, with the largest warehouses.
+     *
+     * @param groupBy {@code state} or {@code city}
+     * @param top number of largest warehouses to include, from 0 to {@link #MAX_TOP}
+     * @return the current totals
+     * @throws InvalidWarehouseQueryException if {@code groupBy} or {@code top} is not valid
+     */
+    public WarehouseStats getStats(final String groupBy, final int top) {
+        final boolean byStateRequested = "state".equals(groupBy);
+        if (!byStateRequested && !"city".equals(groupBy)) {
+            throw new InvalidWarehouseQueryException("groupBy must be state or city");
+        }
+        if (top < 0 || top > MAX_TOP) {
+            throw new InvalidWarehouseQueryException("top must be between 0 and " + MAX_TOP);
+        }
+
+        lock.lock();
+        try {
+            drainReservations();
+            final Optional<CatalogAggregates> aggregates = warehouseDtoData.aggregates();
+            if (aggregates.isPresent()) {
+                return fromAggregates(aggregates.get(), groupBy, byStateRequested, top);
+            }
+            final long currentVersion = warehouseDtoData.getCatalogVersion();
+            if (currentVersion != catalogVersion) {
+                rebuild(currentVersion);
+            }
+
+            final List<Group> groups = new ArrayList<>();
+            (byStateRequested ? byState : byCity).values().forEach(totals -> groups.add(totals.toGroup(byStateRequested)));
+            groups.sort(GROUP_ORDER);
+
+            final List<Warehouse> largest = new ArrayList<>(Math.min(top, bySize.size()));
+            final Iterator<Warehouse> iterator = bySize.iterator();
+            while (largest.size() < top && iterator.hasNext()) {
+                largest.add(iterator.next());
+            }
+            return new WarehouseStats(catalogVersion, groupBy, byName.size(), List.copyOf(groups),
+                    histogram(band -> histogram[band]), List.copyOf(largest));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies saved warehouses to the totals, or marks the totals stale if a change was missed.
+     *
+     * @param event the catalog change
+     */
+    @EventListener
+    public void onCatalogChanged(final WarehouseCatalogChangedEvent event) {
+        lock.lock();
+        try {
+            drainReservations();
+            if (catalogVersion == NOT_BUILT) {
+                return;
+            }
+            if (catalogVersion != event.previousVersion()) {
+                logger.debug("Catalog moved from version {} to {} while stats were at {}, rebuilding on next request",
+                        event.previousVersion(), event.catalogVersion(), catalogVersion);
+                catalogVersion = NOT_BUILT;
+                return;
+            }
+            event.added().forEach(this::put);
+            event.updated().forEach(this::put);
+            event.removed().forEach(this::remove);
+            catalogVersion = event.catalogVersion();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a change in reserved capacity and folds it in straight away if nobody holds the lock.
+     *
+     * @param event the reservation change
+     */
+    @EventListener
+    public void onReservationChanged(final CapacityReservationChangedEvent event) {
+        pendingReservations.offer(event);
+        if (lock.tryLock()) {
+            try {
+                drainReservations();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds reserved capacity to the totals a store computed itself.
+     */
+    private WarehouseStats fromAggregates(final CatalogAggregates aggregates, final String groupBy,
+            final boolean byStateRequested, final int top) {
+        final Map<GroupKey, long[]> reservedByGroup = new HashMap<>();
+        reservedByName.forEach((name, reserved) -> warehouseDtoData.findWarehouse(name).ifPresent(warehouse -> {
+            final GroupKey key = byStateRequested ? GroupKey.state(warehouse) : GroupKey.city(warehouse);
+            final long[] total = reservedByGroup.computeIfAbsent(key, ignored -> new long[2]);
+            total[0] += reserved[0];
+            total[1] += reserved[1];
+        }));
+
+        final List<Group> groups = new ArrayList<>();
+        for (final Group group : aggregates.groups(byStateRequested)) {
+            final long[] reserved = reservedByGroup.getOrDefault(GroupKey.of(group, byStateRequested), new long[2]);
+            groups.add(new Group(group.key(), group.state(), group.warehouses(), group.squareFootage(),
+                    group.loadingDocks(), reserved[0], reserved[1]));
+        }
+        groups.sort(GROUP_ORDER);
+
+        // The first band also holds anything below its start, as band() places it there
+        final List<HistogramBucket> buckets = histogram(band -> {
+            final int below = band == 0 ? 0 : aggregates.countBelow(SQUARE_FOOTAGE_BANDS[band]);
+            final int belowNext = band + 1 < SQUARE_FOOTAGE_BANDS.length
+                    ? aggregates.countBelow(SQUARE_FOOTAGE_BANDS[band + 1])
+                    : aggregates.warehouses();
+            return belowNext - below;
+        });
+        return new WarehouseStats(aggregates.catalogVersion(), groupBy, aggregates.warehouses(), List.copyOf(groups),
+                buckets, aggregates.largest(top));
+    }
+
+    private static List<HistogramBucket> histogram(final IntUnaryOperator warehousesInBand) {
+        final List<HistogramBucket> buckets = new ArrayList<>(SQUARE_FOOTAGE_BANDS.length);
+        for (int band = 0; band < SQUARE_FOOTAGE_BANDS.length; band++) {
+            buckets.add(new HistogramBucket(SQUARE_FOOTAGE_BANDS[band],
+                    band + 1 < SQUARE_FOOTAGE_BANDS.length ? SQUARE_FOOTAGE_BANDS[band + 1] : null,
+                    warehousesInBand.applyAsInt(band)));
+        }
+        return List.copyOf(buckets);
+    }
+
+    private void rebuild(final long version) {
+        byName.clear();
+        byState.clear();
+        byCity.clear();
+        bySize.clear();
+        Arrays.fill(histogram, 0);
+        warehouseDtoData.forEachWarehouse(this::put);
+        catalogVersion = version;
+        logger.debug("Rebuilt warehouse stats for catalog version {} from {} warehouses", version, byName.size());
+    }
+
+    private void put(final Warehouse warehouse) {
+        final Warehouse previous = byName.put(warehouse.name(), warehouse);
+        if (previous != null) {
+            update(previous, -1);
+        }
+        update(warehouse, 1);
+    }
+
+    private void remove(final String name) {
+        final Warehouse previous = byName.remove(name);
+        if (previous != null) {
+            update(previous, -1);
+        }
+    }
+
+    private void update(final Warehouse warehouse, final int sign) {
+        final long[] reserved = reservedByName.getOrDefault(warehouse.name(), new long[2]);
+        update(byState, GroupKey.state(warehouse), warehouse, reserved, sign);
+        update(byCity, GroupKey.city(warehouse), warehouse, reserved, sign);
+        if (sign > 0) {
+            bySize.add(warehouse);
+        } else {
+            bySize.remove(warehouse);
+        }
+        histogram[band(warehouse.squareFootage())] += sign;
+    }
+
+    private static void update(final Map<GroupKey, GroupTotals> groups, final GroupKey key, final Warehouse warehouse,
+            final long[] reserved, final int sign) {
+        final GroupTotals totals = groups.computeIfAbsent(key, ignored -> new GroupTotals());
+        totals.update(warehouse, reserved, sign);
+        if (totals.isEmpty()) {
+            groups.remove(key);
+        }
+    }
+
+    private void drainReservations() {
+        CapacityReservationChangedEvent event;
+        while ((event = pendingReservations.poll()) != null) {
+            final long[] reserved = reservedByName.computeIfAbsent(event.warehouseName(), name -> new long[2]);
+            reserved[0] += event.squareFootage();
+            reserved[1] += event.loadingDocks();
+            if (reserved[0] == 0 && reserved[1] == 0) {
+                reservedByName.remove(event.warehouseName());
+            }
+            final Warehouse warehouse = byName.get(event.warehouseName());
+            if (warehouse != null) {
+                byState.get(GroupKey.state(warehouse)).reserve(event.squareFootage(), event.loadingDocks());
+                byCity.get(GroupKey.city(warehouse)).reserve(event.squareFootage(), event.loadingDocks());
+            }
+        }
+    }
+
+    private static int band(final int squareFootage) {
+        int band = 0;
+        while (band + 1 < SQUARE_FOOTAGE_BANDS.length && squareFootage >= SQUARE_FOOTAGE_BANDS[band + 1]) {
+            band++;
+        }
+        return band;
+    }
+
+    /**
+     * Identifies a group by its normalized state and, for city groups, city.
+     */
+    private record GroupKey(String state, String city) {
+
+        static GroupKey state(final Warehouse warehouse) {
+            return new GroupKey(normalize(warehouse.state()), null);
+        }
+
+        static GroupKey city(final Warehouse warehouse) {
+            return new GroupKey(normalize(warehouse.state()), normalize(warehouse.city()));
+        }
+
+        static GroupKey of(final Group group, final boolean byState) {
+            return new GroupKey(normalize(group.state()), byState ? null : normalize(group.key()));
+        }
+
+        private static String normalize(final String value) {
+            return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Running totals for one group, with sorted value counts so minimums and maximums survive removals.
+     */
+    private static final class GroupTotals {
+
+        private int warehouses;
+        private long squareFootage;
+        private long loadingDocks;
+        private long reservedSquareFootage;
+        private long reservedLoadingDocks;
+        private final TreeMap<Integer, Integer> squareFootageValues = new TreeMap<>();
+        private final TreeMap<Integer, Integer> loadingDockValues = new TreeMap<>();
+        private final TreeMap<String, Integer> stateSpellings = new TreeMap<>();
+        private final TreeMap<String, Integer> citySpellings = new TreeMap<>();
+
+        void update(final Warehouse warehouse, final long[] reserved, final int sign) {
+            warehouses += sign;
+            if (warehouse.state() != null) {
+                count(stateSpellings, warehouse.state(), sign);
+            }
+            if (warehouse.city() != null) {
+                count(citySpellings, warehouse.city(), sign);
+            }
+            squareFootage += sign * (long) warehouse.squareFootage();
+            loadingDocks += sign * (long) warehouse.loadingDocks();
+            reserve(sign * reserved[0], sign * reserved[1]);
+            count(squareFootageValues, warehouse.squareFootage(), sign);
+            count(loadingDockValues, warehouse.loadingDocks(), sign);
+        }
+
+        void reserve(final long squareFootageDelta, final long loadingDocksDelta) {
+            reservedSquareFootage += squareFootageDelta;
+            reservedLoadingDocks += loadingDocksDelta;
+        }
+
+        boolean isEmpty() {
+            return warehouses == 0;
+        }
+
+        Group toGroup(final boolean byState) {
+            final String state = stateSpellings.isEmpty() ? null : stateSpellings.firstKey();
+            final String city = citySpellings.isEmpty() ? null : citySpellings.firstKey();
+            return new Group(byState ? state : city, state, warehouses,
+                    summary(squareFootage, squareFootageValues),
+                    summary(loadingDocks, loadingDockValues),
+                    reservedSquareFootage,
+                    reservedLoadingDocks);
+        }
+
+        private Summary summary(final long sum, final TreeMap<Integer, Integer> values) {
+            return new Summary(sum, (double) sum / warehouses, values.firstKey(), values.lastKey());
+        }
+
+        private static <T> void count(final TreeMap<T, Integer> values, final T value, final int sign) {
+            values.merge(value, sign, (current, delta) -> current + delta == 0 ? null : current + delta);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.training.homework.whoms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.service.WarehouseDtoData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Boots the application with the {@code fast-startup} profile and serves the catalog over HTTP.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("fast-startup")
+class FastStartupApplicationTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private WarehouseDtoData warehouseDtoData;
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void shouldServeCatalog_whenStartedWithLazyInitialization() {
+        // Given
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // When
+        final ResponseEntity<Warehouse[]> response = restTemplate.exchange(
+                "/whoms/v1/warehouses", HttpMethod.GET, new HttpEntity<>(headers), Warehouse[].class);
+
+        // Then
+        assertThat(environment.getProperty("spring.main.lazy-initialization", Boolean.class)).isTrue();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .isNotEmpty()
+                .containsExactlyElementsOf(warehouseDtoData.getAllWarehouses());
+    }
+}
@@ -0,0 +1,91 @@
+package com.training.homework.whoms.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for AccessLogFilter.
+ */
+class AccessLogFilterTest {
+
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger("whoms.access");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(appender);
+    }
+
+    @Test
+    void shouldNotLog_whenRequestIsSampledOut() throws Exception {
+        // Given
+        final AccessLogFilter filter = filter(0.5);
+
+        // When
+        handle(filter, HttpServletResponse.SC_OK, Duration.ofMillis(10));
+
+        // Then
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void shouldLogMethodUriStatusAndTime_whenRequestIsSampledIn() throws Exception {
+        // Given
+        final AccessLogFilter filter = filter(0.0);
+
+        // When
+        handle(filter, HttpServletResponse.SC_OK, Duration.ofMillis(10));
+
+        // Then
+        assertThat(appender.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .isEqualTo("GET /whoms/v1/warehouses 200 10ms 127.0.0.1");
+    }
+
+    @Test
+    void shouldAlwaysLog_whenRequestFailsOrIsSlow() throws Exception {
+        // Given
+        final AccessLogFilter filter = filter(0.5);
+
+        // When
+        handle(filter, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, Duration.ofMillis(10));
+        handle(filter, HttpServletResponse.SC_OK, Duration.ofMillis(750));
+
+        // Then
+        assertThat(appender.list)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("GET /whoms/v1/warehouses 500 10ms 127.0.0.1", "GET /whoms/v1/warehouses 200 750ms 127.0.0.1");
+    }
+
+    private AccessLogFilter filter(final double random) {
+        return new AccessLogFilter(new AccessLogProperties(true, 0.25, Duration.ofMillis(500)), nanoTime::get, () -> random);
+    }
+
+    private void handle(final AccessLogFilter filter, final int status, final Duration elapsed) throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/whoms/v1/warehouses");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(status);
+            nanoTime.addAndGet(elapsed.toNanos());
+        });
+    }
+}
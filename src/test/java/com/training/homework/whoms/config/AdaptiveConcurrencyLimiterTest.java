@@ -0,0 +1,75 @@
+package com.training.homework.whoms.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            new RateLimitProperties.Concurrency(4, 2, 8, Duration.ofMillis(500), 0.5));
+
+    @Test
+    void shouldRefuseRequests_whenLimitIsInFlight() {
+        // Given
+        for (int request = 1; request <= 4; request++) {
+            assertThat(limiter.tryAcquire()).isEqualTo(request);
+        }
+
+        // When & Then
+        assertThat(limiter.tryAcquire()).isEqualTo(-1);
+        assertThat(limiter.getInFlight()).isEqualTo(4);
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldCutLimitDownToMinimum_whenRequestsAreSlowOrFail() {
+        // When
+        limiter.release(limiter.tryAcquire(), SLOW, false);
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        limiter.release(limiter.tryAcquire(), FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldGrowLimitUpToMaximum_whenBusyRequestsStayFast() {
+        // Given
+        final int[] admitted = new int[4];
+        for (int request = 0; request < admitted.length; request++) {
+            admitted[request] = limiter.tryAcquire();
+        }
+
+        // When
+        for (int round = 0; round < 100; round++) {
+            for (int request = 0; request < admitted.length; request++) {
+                limiter.release(admitted[request], FAST, false);
+                admitted[request] = limiter.tryAcquire();
+            }
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldKeepLimit_whenFastRequestsLeaveItMostlyUnused() {
+        // When
+        for (int request = 0; request < 100; request++) {
+            limiter.release(limiter.tryAcquire(), FAST, false);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+}
@@ -1,20 +1,36 @@
 package com.training.homework.whoms.config;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.homework.whoms.config.WarehouseMetrics.ErrorType;
 import com.training.homework.whoms.controller.DemoRestController;
 import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.service.IdempotencyKeyReusedException;
+import com.training.homework.whoms.service.NearestWarehouseService;
+import com.training.homework.whoms.service.SpaceRequestPipeline;
+import com.training.homework.whoms.service.WarehouseChangeFeed;
+import com.training.homework.whoms.service.SpaceRequestQueueFullException;
 import com.training.homework.whoms.service.WarehouseDtoData;
+import com.training.homework.whoms.service.WarehouseExportService;
+import com.training.homework.whoms.service.WarehouseIngestionService;
+import com.training.homework.whoms.service.WarehouseSearchService;
+import com.training.homework.whoms.service.WarehouseSnapshotService;
+import com.training.homework.whoms.service.WarehouseStatsService;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -24,7 +40,7 @@ import org.springframework.test.web.servlet.MockMvc;
  * Unit tests for GlobalExceptionHandler integration with DemoRestController.
  */
 @WebMvcTest(DemoRestController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, WarehouseSnapshotService.class, WarehouseExportService.class})
 @ActiveProfiles("test")
 class GlobalExceptionHandlerTest {
 
@@ -37,6 +53,27 @@ class GlobalExceptionHandlerTest {
     @MockitoBean
     private WarehouseDtoData warehouseDtoData;
 
+    @MockitoBean
+    private SpaceRequestPipeline spaceRequestPipeline;
+
+    @MockitoBean
+    private WarehouseIngestionService warehouseIngestionService;
+
+    @MockitoBean
+    private NearestWarehouseService nearestWarehouseService;
+
+    @MockitoBean
+    private WarehouseSearchService warehouseSearchService;
+
+    @MockitoBean
+    private WarehouseStatsService warehouseStatsService;
+
+    @MockitoBean
+    private WarehouseChangeFeed warehouseChangeFeed;
+
+    @MockitoBean
+    private WarehouseMetrics warehouseMetrics;
+
     @Test
     void shouldReturnStandardErrorResponse_whenRuntimeExceptionThrownFromController() throws Exception {
         // Given
@@ -48,6 +85,7 @@ class GlobalExceptionHandlerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.message").value("Our apologies for not being able to service your request at present"));
+        verify(warehouseMetrics).recordError(ErrorType.UNEXPECTED);
     }
 
     @Test
@@ -92,4 +130,78 @@ class GlobalExceptionHandlerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.message").value("Our apologies for not being able to service your request at present"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnBadRequest_whenRequiredQueryParameterIsMissing() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouses/nearest")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Our apologies for not being able to service your request at present"));
+        verify(warehouseMetrics).recordError(ErrorType.INVALID_QUERY);
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWithRetryAfter_whenSpaceRequestQueueIsFull() throws Exception {
+        // Given
+        final var warehouse = new Warehouse("Test Warehouse", "789 Test St", "Test City", "TS", "12345", "(123) 456-7890", 5000, 10);
+        final String warehouseJson = objectMapper.writeValueAsString(warehouse);
+        when(spaceRequestPipeline.submit(any())).thenThrow(new SpaceRequestQueueFullException("Space request queue is full"));
+
+        // When & Then
+        mockMvc.perform(post("/whoms/v1/warehouse/request-space")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(warehouseJson))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Our apologies for not being able to service your request at present"));
+        verify(warehouseMetrics).recordError(ErrorType.QUEUE_FULL);
+    }
+
+    @Test
+    void shouldReturnUnprocessableEntity_whenIdempotencyKeyReusedWithDifferentBody() throws Exception {
+        // Given
+        final var warehouse = new Warehouse("Test Warehouse", "789 Test St", "Test City", "TS", "12345", "(123) 456-7890", 5000, 10);
+        when(spaceRequestPipeline.submit(any(), any()))
+                .thenThrow(new IdempotencyKeyReusedException("Idempotency key was already used for a different space request"));
+
+        // When & Then
+        mockMvc.perform(post("/whoms/v1/warehouse/request-space")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "retry-1")
+                .content(objectMapper.writeValueAsString(warehouse)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Our apologies for not being able to service your request at present"));
+        verify(warehouseMetrics).recordError(ErrorType.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWithRetryAfter_whenRateLimitExceeded() throws Exception {
+        // Given
+        when(warehouseDtoData.getAllWarehouses())
+                .thenThrow(new RateLimitExceededException("Client exceeded its rate limit", Duration.ofMillis(2500)));
+
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouses")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+                .andExpect(jsonPath("$.message").value("Our apologies for not being able to service your request at present"));
+        verify(warehouseMetrics).recordError(ErrorType.RATE_LIMITED);
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWithRetryAfter_whenConcurrencyLimitReached() throws Exception {
+        // Given
+        when(warehouseDtoData.getAllWarehouses())
+                .thenThrow(new ConcurrencyLimitExceededException("Concurrency limit reached"));
+
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouses")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Our apologies for not being able to service your request at present"));
+        verify(warehouseMetrics).recordError(ErrorType.CONCURRENCY_LIMITED);
+    }
+}
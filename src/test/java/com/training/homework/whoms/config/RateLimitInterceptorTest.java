@@ -0,0 +1,214 @@
+package com.training.homework.whoms.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Unit tests for RateLimitInterceptor.
+ */
+class RateLimitInterceptorTest {
+
+    private final AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimitProperties(
+            true,
+            "X-Client-Id",
+            Set.of("127.0.0.1"),
+            1000,
+            Duration.ofMinutes(1),
+            new RateLimitProperties.Limit(2, 1),
+            Map.of("requestWarehouseSpace", new RateLimitProperties.Limit(1, 0.5)),
+            new RateLimitProperties.Concurrency(10, 1, 10, Duration.ofMillis(500), 0.5),
+            Map.of("ingestWarehouses", new RateLimitProperties.Concurrency(2, 1, 4, Duration.ofSeconds(60), 0.5))),
+            nanoTime::get);
+
+    @Test
+    void shouldRejectWithTimeUntilNextToken_whenClientExhaustsBucket() throws Exception {
+        // Given
+        handle("getWarehouses", "client-a");
+        handle("getWarehouses", "client-a");
+
+        // When & Then
+        assertThatThrownBy(() -> handle("getWarehouses", "client-a"))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        exception -> assertThat(exception.getRetryAfter()).isEqualTo(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void shouldAdmitAgain_whenBucketRefills() throws Exception {
+        // Given
+        handle("getWarehouses", "client-a");
+        handle("getWarehouses", "client-a");
+
+        // When
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        // Then
+        handle("getWarehouses", "client-a");
+        assertThatThrownBy(() -> handle("getWarehouses", "client-a")).isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void shouldKeepSeparateBuckets_whenClientsOrEndpointsDiffer() throws Exception {
+        // Given
+        handle("getWarehouses", "client-a");
+        handle("getWarehouses", "client-a");
+
+        // When & Then
+        handle("getWarehouses", "client-b");
+        handle("requestWarehouseSpace", "client-a");
+        assertThatThrownBy(() -> handle("requestWarehouseSpace", "client-a"))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        exception -> assertThat(exception.getRetryAfter()).isEqualTo(Duration.ofSeconds(2)));
+    }
+
+    @Test
+    void shouldFallBackToRemoteAddress_whenClientIdHeaderIsMissing() throws Exception {
+        // Given
+        handle("getWarehouses", null);
+        handle("getWarehouses", null);
+
+        // When & Then
+        assertThatThrownBy(() -> handle("getWarehouses", null)).isInstanceOf(RateLimitExceededException.class);
+        handle("getWarehouses", "client-a");
+    }
+
+    @Test
+    void shouldIgnoreClientIdHeader_whenRequestDoesNotComeFromTrustedProxy() throws Exception {
+        // Given
+        handle(request("rotated-1", "203.0.113.7"));
+        handle(request("rotated-2", "203.0.113.7"));
+
+        // When & Then
+        assertThatThrownBy(() -> handle(request("rotated-3", "203.0.113.7")))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void shouldShareBucketAcrossAddresses_whenRequestsAreFromSamePrincipal() throws Exception {
+        // Given
+        handle(authenticated("alice", "203.0.113.7"));
+        handle(authenticated("alice", "198.51.100.4"));
+
+        // When & Then
+        assertThatThrownBy(() -> handle(authenticated("alice", "192.0.2.1")))
+                .isInstanceOf(RateLimitExceededException.class);
+        handle(authenticated("bob", "192.0.2.1"));
+    }
+
+    @Test
+    void shouldShedRequest_whenConcurrencyLimitReached() throws Exception {
+        // Given
+        for (int client = 0; client < 10; client++) {
+            assertThat(interceptor.preHandle(request("client-" + client), new MockHttpServletResponse(),
+                    handlerMethod("getWarehouses"))).isTrue();
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> interceptor.preHandle(request("client-10"), new MockHttpServletResponse(),
+                handlerMethod("getWarehouses")))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(interceptor.getConcurrencyLimiter().getInFlight()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldKeepSharedLimit_whenSlowRequestsUseTheirOwnEndpointLimit() throws Exception {
+        // Given
+        final HandlerMethod ingest = handlerMethod("ingestWarehouses");
+        final MockHttpServletRequest upload = request("client-a");
+        final MockHttpServletResponse uploadResponse = new MockHttpServletResponse();
+        interceptor.preHandle(upload, uploadResponse, ingest);
+        interceptor.preHandle(request("client-b"), new MockHttpServletResponse(), ingest);
+
+        // When
+        final Throwable shed = catchThrowable(() -> interceptor.preHandle(request("client-c"), new MockHttpServletResponse(), ingest));
+        nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+        interceptor.afterCompletion(upload, uploadResponse, ingest, null);
+
+        // Then
+        assertThat(shed).isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(interceptor.getConcurrencyLimiter().getLimit()).isEqualTo(10);
+        assertThat(interceptor.getConcurrencyLimiter().getInFlight()).isZero();
+        assertThat(interceptor.getEndpointConcurrencyLimiters().get("ingestWarehouses").getInFlight()).isEqualTo(1);
+        handle("getWarehouses", "client-c");
+    }
+
+    @Test
+    void shouldReleaseAdmissionOnce_whenRequestGoesAsynchronous() throws Exception {
+        // Given
+        final MockHttpServletRequest request = request("client-a");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final HandlerMethod handler = handlerMethod("getWarehouses");
+        interceptor.preHandle(request, response, handler);
+
+        // When
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        // Then
+        assertThat(interceptor.getConcurrencyLimiter().getInFlight()).isZero();
+        assertThat(interceptor.getConcurrencyLimiter().getLimit()).isEqualTo(10);
+    }
+
+    private void handle(final String endpoint, final String clientId) throws Exception {
+        perform(endpoint, request(clientId));
+    }
+
+    private void handle(final MockHttpServletRequest request) throws Exception {
+        perform("getWarehouses", request);
+    }
+
+    private void perform(final String endpoint, final MockHttpServletRequest request) throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final HandlerMethod handler = handlerMethod(endpoint);
+        assertThat(interceptor.preHandle(request, response, handler)).isTrue();
+        interceptor.afterCompletion(request, response, handler, null);
+    }
+
+    private static MockHttpServletRequest request(final String clientId) {
+        return request(clientId, "127.0.0.1");
+    }
+
+    private static MockHttpServletRequest request(final String clientId, final String remoteAddress) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/whoms/v1/warehouses");
+        request.setRemoteAddr(remoteAddress);
+        if (clientId != null) {
+            request.addHeader("X-Client-Id", clientId);
+        }
+        return request;
+    }
+
+    private static MockHttpServletRequest authenticated(final String user, final String remoteAddress) {
+        final MockHttpServletRequest request = request(null, remoteAddress);
+        request.setUserPrincipal(() -> user);
+        return request;
+    }
+
+    private static HandlerMethod handlerMethod(final String endpoint) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getDeclaredMethod(endpoint));
+    }
+
+    /**
+     * Stand-in controller whose method names match the endpoints being limited.
+     */
+    private static final class Endpoints {
+
+        void getWarehouses() {
+        }
+
+        void requestWarehouseSpace() {
+        }
+
+        void ingestWarehouses() {
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.training.homework.whoms.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Unit tests for VirtualThreadPinningMonitor.
+ */
+class VirtualThreadPinningMonitorTest {
+
+    private final Logger monitorLogger = (Logger) LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor =
+            new VirtualThreadPinningMonitor(new ThreadingProperties(Duration.ofMillis(10)), meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        monitorLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+        monitorLogger.detachAppender(appender);
+    }
+
+    @Test
+    void shouldCountAndLogPinningSite_whenVirtualThreadBlocksWhilePinned() throws InterruptedException {
+        // Given
+        monitor.start();
+
+        // When
+        Thread.ofVirtual().start(() -> PinsWhileInitializing.touch()).join();
+
+        // Then
+        final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (meterRegistry.get("whoms.virtual.threads.pinned").counter().count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(meterRegistry.get("whoms.virtual.threads.pinned").counter().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("whoms.virtual.threads.pinned.duration").timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(monitor.pinningSites().keySet()).anyMatch(site -> site.contains("PinsWhileInitializing"));
+        assertThat(appender.list).anySatisfy(event -> {
+            assertThat(event.getLevel()).isEqualTo(Level.WARN);
+            assertThat(event.getFormattedMessage()).contains("PinsWhileInitializing");
+        });
+    }
+
+    /**
+     * Blocks in its class initializer, which pins a virtual thread to its carrier on every JDK
+     * release, unlike {@code synchronized}, which stopped pinning in JDK 24.
+     */
+    private static final class PinsWhileInitializing {
+
+        static {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        static void touch() {
+            // Calling this runs the class initializer
+        }
+    }
+}
@@ -1,28 +1,68 @@
 package com.training.homework.whoms.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.training.homework.whoms.config.WireFormat;
+import com.training.homework.whoms.config.WarehouseMetrics;
+import com.training.homework.whoms.dto.BulkIngestionReport;
+import com.training.homework.whoms.dto.NearbyWarehouse;
+import com.training.homework.whoms.dto.SpaceRequestState;
+import com.training.homework.whoms.dto.SpaceRequestStatus;
 import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSearchHit;
+import com.training.homework.whoms.dto.WarehouseSort;
+import com.training.homework.whoms.dto.WarehouseStats;
+import com.training.homework.whoms.service.NearestWarehouseService;
+import com.training.homework.whoms.service.SpaceRequestPipeline;
+import com.training.homework.whoms.service.SpaceRequestSubmission;
+import com.training.homework.whoms.service.WarehouseCatalogChangedEvent;
+import com.training.homework.whoms.service.WarehouseChangeFeed;
 import com.training.homework.whoms.service.WarehouseDtoData;
+import com.training.homework.whoms.service.WarehouseExportService;
+import com.training.homework.whoms.service.WarehouseIngestionService;
+import com.training.homework.whoms.service.WarehouseSearchService;
+import com.training.homework.whoms.service.WarehouseSnapshotService;
+import com.training.homework.whoms.service.WarehouseStatsService;
+import java.io.ByteArrayInputStream;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Unit tests for DemoRestController.
  */
 @WebMvcTest(DemoRestController.class)
+@Import({WarehouseSnapshotService.class, WarehouseExportService.class})
 @ActiveProfiles("test")
 class DemoRestControllerTest {
 
@@ -35,6 +75,27 @@ class DemoRestControllerTest {
     @MockitoBean
     private WarehouseDtoData warehouseDtoData;
 
+    @MockitoBean
+    private SpaceRequestPipeline spaceRequestPipeline;
+
+    @MockitoBean
+    private WarehouseIngestionService warehouseIngestionService;
+
+    @MockitoBean
+    private NearestWarehouseService nearestWarehouseService;
+
+    @MockitoBean
+    private WarehouseSearchService warehouseSearchService;
+
+    @MockitoBean
+    private WarehouseStatsService warehouseStatsService;
+
+    @MockitoBean
+    private WarehouseChangeFeed warehouseChangeFeed;
+
+    @MockitoBean
+    private WarehouseMetrics warehouseMetrics;
+
     @Test
     void shouldReturnAllWarehouses_whenGetWarehousesEndpointCalled() throws Exception {
         // Given
@@ -61,6 +122,7 @@ class DemoRestControllerTest {
         )
         );
         
+        when(warehouseDtoData.getCatalogVersion()).thenReturn(1L);
         when(warehouseDtoData.getAllWarehouses()).thenReturn(warehouses);
 
         // When & Then
@@ -91,6 +153,7 @@ class DemoRestControllerTest {
     @Test
     void shouldReturnEmptyList_whenGetWarehousesEndpointCalledWithNoWarehouses() throws Exception {
         // Given
+        when(warehouseDtoData.getCatalogVersion()).thenReturn(2L);
         when(warehouseDtoData.getAllWarehouses()).thenReturn(List.of());
 
         // When & Then
@@ -102,18 +165,386 @@ class DemoRestControllerTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void shouldReturnNotModified_whenIfNoneMatchEqualsCurrentEtag() throws Exception {
+        // Given
+        when(warehouseDtoData.getCatalogVersion()).thenReturn(3L);
+        when(warehouseDtoData.getAllWarehouses()).thenReturn(List.of(
+                new Warehouse("Test Warehouse", "789 Test St", "Test City", "TS", "12345", "(123) 456-7890", 5000, 10)));
+
+        final String etag = mockMvc.perform(get("/whoms/v1/warehouses")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldReturnGzipBody_whenClientAcceptsGzipEncoding() throws Exception {
+        // Given
+        when(warehouseDtoData.getCatalogVersion()).thenReturn(4L);
+        when(warehouseDtoData.getAllWarehouses()).thenReturn(List.of(
+                new Warehouse("Test Warehouse", "789 Test St", "Test City", "TS", "12345", "(123) 456-7890", 5000, 10)));
+
+        // When
+        final MvcResult result = mockMvc.perform(get("/whoms/v1/warehouses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+
+        // Then
+        try (GZIPInputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            final Warehouse[] decoded = objectMapper.readValue(gzip.readAllBytes(), Warehouse[].class);
+            assertThat(decoded).extracting(Warehouse::name).containsExactly("Test Warehouse");
+        }
+    }
+
+    @Test
+    void shouldReturnCborBody_whenClientPrefersCbor() throws Exception {
+        // Given
+        when(warehouseDtoData.getCatalogVersion()).thenReturn(5L);
+        when(warehouseDtoData.getAllWarehouses()).thenReturn(List.of(
+                new Warehouse("Test Warehouse", "789 Test St", "Test City", "TS", "12345", "(123) 456-7890", 5000, 10)));
+
+        // When
+        final MvcResult result = mockMvc.perform(get("/whoms/v1/warehouses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+
+        // Then
+        final Warehouse[] decoded = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), Warehouse[].class);
+        assertThat(decoded).extracting(Warehouse::name).containsExactly("Test Warehouse");
+    }
+
+    @Test
+    void shouldReturnPageOfWarehouses_whenQueryParametersPresent() throws Exception {
+        // Given
+        final Warehouse warehouse = new Warehouse("Test Warehouse", "789 Test St", "Test City", "TS", "12345", "(123) 456-7890", 5000, 10);
+        when(warehouseDtoData.findWarehouses(any())).thenReturn(new WarehousePage(List.of(warehouse), "next-page"));
+
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("state", "TS")
+                .param("minDocks", "5")
+                .param("sort", "-squareFootage")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Test Warehouse"))
+                .andExpect(jsonPath("$.nextCursor").value("next-page"));
+
+        verify(warehouseDtoData).findWarehouses(
+                new WarehouseQuery("TS", null, null, null, 5, WarehouseSort.SQUARE_FOOTAGE_DESC, null, 1));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenQuerySortIsNotSupported() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("sort", "warehousePhone"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnNearestWarehouses_whenPostalCodeProvided() throws Exception {
+        // Given
+        final Warehouse newark = new Warehouse("Newark Logistics Hub", null, "Newark", "NJ", "07102", null, 250000, 24);
+        when(nearestWarehouseService.findNearest("19104", 3, 20, null))
+                .thenReturn(List.of(new NearbyWarehouse(newark, 40.736, -74.173, 122.4)));
+
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouses/nearest")
+                .param("postalCode", "19104")
+                .param("k", "3")
+                .param("minDocks", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].warehouse.name").value("Newark Logistics Hub"))
+                .andExpect(jsonPath("$[0].distanceKm").value(122.4));
+    }
+
+    @Test
+    void shouldReturnRankedMatches_whenSearchQueryProvided() throws Exception {
+        // Given
+        final Warehouse charlotte = new Warehouse("Charlotte Fulfillment Center", null, "Charlotte", "NC", "28208", null, 300000, 30);
+        when(warehouseSearchService.search("charl", 5)).thenReturn(List.of(new WarehouseSearchHit(charlotte, 4.2)));
+
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouses/search")
+                .param("q", "charl")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].warehouse.name").value("Charlotte Fulfillment Center"))
+                .andExpect(jsonPath("$[0].score").value(4.2));
+    }
+
+    @Test
+    void shouldReturnStats_whenGroupByAndTopProvided() throws Exception {
+        // Given
+        final Warehouse newark = new Warehouse("Newark Logistics Hub", null, "Newark", "NJ", "07102", null, 250000, 24);
+        final WarehouseStats stats = new WarehouseStats(7L, "city", 1,
+                List.of(new WarehouseStats.Group("Newark", "NJ", 1,
+                        new WarehouseStats.Summary(250000, 250000.0, 250000, 250000),
+                        new WarehouseStats.Summary(24, 24.0, 24, 24),
+                        5000, 2)),
+                List.of(new WarehouseStats.HistogramBucket(0, 50000, 0), new WarehouseStats.HistogramBucket(250000, 500000, 1)),
+                List.of(newark));
+        when(warehouseStatsService.getStats("city", 1)).thenReturn(stats);
+
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouses/stats")
+                .param("groupBy", "city")
+                .param("top", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.catalogVersion").value(7))
+                .andExpect(jsonPath("$.groups[0].key").value("Newark"))
+                .andExpect(jsonPath("$.groups[0].state").value("NJ"))
+                .andExpect(jsonPath("$.groups[0].squareFootage.sum").value(250000))
+                .andExpect(jsonPath("$.groups[0].reservedLoadingDocks").value(2))
+                .andExpect(jsonPath("$.largest[0].name").value("Newark Logistics Hub"));
+    }
+
+    @Test
+    void shouldResumeChangeFeedFromLastEventId_whenClientReconnects() throws Exception {
+        // Given
+        when(warehouseChangeFeed.subscribe(42L)).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouses/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "42"))
+                .andExpect(request().asyncStarted());
+        verify(warehouseChangeFeed).subscribe(42L);
+    }
+
+    @Test
+    void shouldReturnNoContent_whenRemovingExistingWarehouse() throws Exception {
+        // Given
+        when(warehouseDtoData.removeWarehouse("Newark Logistics Hub")).thenReturn(Optional.of(
+                new WarehouseCatalogChangedEvent(1L, 2L, List.of(), List.of(), List.of("Newark Logistics Hub"))));
+
+        // When & Then
+        mockMvc.perform(delete("/whoms/v1/warehouses/{name}", "Newark Logistics Hub"))
+                .andExpect(status().isNoContent());
+        verify(warehouseDtoData).removeWarehouse("Newark Logistics Hub");
+    }
+
+    @Test
+    void shouldReturnNotFound_whenRemovingUnknownWarehouse() throws Exception {
+        // When & Then
+        mockMvc.perform(delete("/whoms/v1/warehouses/{name}", "No Such Warehouse"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldStreamNdjson_whenExportRequestedWithoutJsonArrayPreference() throws Exception {
+        // Given
+        stubCatalog(
+                new Warehouse("Providence Distribution Center", null, "Providence", "RI", "02903", null, 1500000, 15),
+                new Warehouse("Albany Regional Warehouse", null, "Albany", "NY", "12205", null, 600000, 36));
+
+        // When
+        final MvcResult started = mockMvc.perform(get("/whoms/v1/warehouses/export")
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        final String[] lines = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString()
+                .split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], Warehouse.class).name()).isEqualTo("Providence Distribution Center");
+        assertThat(objectMapper.readValue(lines[1], Warehouse.class).name()).isEqualTo("Albany Regional Warehouse");
+    }
+
+    @Test
+    void shouldStreamJsonArray_whenExportRequestedAcceptingOnlyJson() throws Exception {
+        // Given
+        stubCatalog(
+                new Warehouse("Providence Distribution Center", null, "Providence", "RI", "02903", null, 1500000, 15),
+                new Warehouse("Albany Regional Warehouse", null, "Albany", "NY", "12205", null, 600000, 36));
+
+        // When
+        final MvcResult started = mockMvc.perform(get("/whoms/v1/warehouses/export")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].name").value("Albany Regional Warehouse"));
+    }
+
+    @Test
+    void shouldStreamSmileArray_whenExportRequestedAcceptingSmile() throws Exception {
+        // Given
+        stubCatalog(
+                new Warehouse("Providence Distribution Center", null, "Providence", "RI", "02903", null, 1500000, 15),
+                new Warehouse("Albany Regional Warehouse", null, "Albany", "NY", "12205", null, 600000, 36));
+
+        // When
+        final MvcResult started = mockMvc.perform(get("/whoms/v1/warehouses/export")
+                .accept(WireFormat.SMILE.mediaType()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        final byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormat.SMILE.mediaType()))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new SmileMapper().readValue(body, Warehouse[].class))
+                .extracting(Warehouse::name)
+                .containsExactly("Providence Distribution Center", "Albany Regional Warehouse");
+    }
+
+    @Test
+    void shouldReturnIngestionReport_whenBulkNdjsonPosted() throws Exception {
+        // Given
+        final BulkIngestionReport report = new BulkIngestionReport(2, 1, 1, true,
+                List.of(new BulkIngestionReport.RowError(2, "Bad Warehouse", List.of("squareFootage must be greater than or equal to 0"))),
+                false);
+        when(warehouseIngestionService.ingest(any())).thenReturn(report);
+
+        // When & Then
+        mockMvc.perform(post("/whoms/v1/warehouses/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"name\":\"Good Warehouse\"}\n{\"name\":\"Bad Warehouse\",\"squareFootage\":-1}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].name").value("Bad Warehouse"));
+    }
+
     @Test
     void shouldReturnAccepted_whenRequestWarehouseSpaceWithValidWarehouse() throws Exception {
         // Given
     
         final Warehouse warehouse = new Warehouse("Test Warehouse", "789 Test St", "Test City", "TS", "12345", "(123) 456-7890", 5000, 10);
         final String warehouseJson = objectMapper.writeValueAsString(warehouse);
+        when(spaceRequestPipeline.submit(warehouse)).thenReturn(
+                new SpaceRequestStatus("request-1", "Test Warehouse", 5000, 10, SpaceRequestState.PENDING, null));
 
         // When & Then
         mockMvc.perform(post("/whoms/v1/warehouse/request-space")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(warehouseJson))
-                .andExpect(status().isAccepted());
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/whoms/v1/warehouse/request-space/request-1"))
+                .andExpect(jsonPath("$.requestId").value("request-1"))
+                .andExpect(jsonPath("$.state").value("PENDING"));
+    }
+
+    @Test
+    void shouldReplayOriginalResponse_whenSpaceRequestRetriedWithIdempotencyKey() throws Exception {
+        // Given
+        final Warehouse warehouse = new Warehouse("Test Warehouse", "789 Test St", "Test City", "TS", "12345", "(123) 456-7890", 5000, 10);
+        when(spaceRequestPipeline.submit(warehouse, "retry-1")).thenReturn(new SpaceRequestSubmission(
+                new SpaceRequestStatus("request-1", "Test Warehouse", 5000, 10, SpaceRequestState.PENDING, null), true));
+
+        // When & Then
+        mockMvc.perform(post("/whoms/v1/warehouse/request-space")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", "retry-1")
+                .content(objectMapper.writeValueAsString(warehouse)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/whoms/v1/warehouse/request-space/request-1"))
+                .andExpect(jsonPath("$.requestId").value("request-1"));
+    }
+
+    @Test
+    void shouldAcceptCborSpaceRequest_whenSentAndAcceptedAsCbor() throws Exception {
+        // Given
+        final CBORMapper cborMapper = new CBORMapper();
+        final Warehouse warehouse = new Warehouse("Test Warehouse", "789 Test St", "Test City", "TS", "12345", "(123) 456-7890", 5000, 10);
+        when(spaceRequestPipeline.submit(warehouse)).thenReturn(
+                new SpaceRequestStatus("request-1", "Test Warehouse", 5000, 10, SpaceRequestState.PENDING, null));
+
+        // When
+        final MvcResult result = mockMvc.perform(post("/whoms/v1/warehouse/request-space")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(cborMapper.writeValueAsBytes(warehouse)))
+                .andExpect(status().isAccepted())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // Then
+        final SpaceRequestStatus decoded = cborMapper.readValue(result.getResponse().getContentAsByteArray(), SpaceRequestStatus.class);
+        assertThat(decoded.requestId()).isEqualTo("request-1");
+        assertThat(decoded.state()).isEqualTo(SpaceRequestState.PENDING);
+    }
+
+    @Test
+    void shouldReturnRequestStatus_whenPollingKnownSpaceRequest() throws Exception {
+        // Given
+        when(spaceRequestPipeline.getStatus("request-1")).thenReturn(Optional.of(
+                new SpaceRequestStatus("request-1", "Test Warehouse", 5000, 10, SpaceRequestState.REJECTED, "Insufficient capacity")));
+
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouse/request-space/request-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("REJECTED"))
+                .andExpect(jsonPath("$.reason").value("Insufficient capacity"));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenPollingUnknownSpaceRequest() throws Exception {
+        // Given
+        when(spaceRequestPipeline.getStatus("missing")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/whoms/v1/warehouse/request-space/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnReleasedStatus_whenReleasingAcceptedSpaceRequest() throws Exception {
+        // Given
+        when(spaceRequestPipeline.release("request-1")).thenReturn(Optional.of(
+                new SpaceRequestStatus("request-1", "Test Warehouse", 5000, 10, SpaceRequestState.RELEASED, "Released by client")));
+
+        // When & Then
+        mockMvc.perform(delete("/whoms/v1/warehouse/request-space/request-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RELEASED"));
+        verify(spaceRequestPipeline).release("request-1");
+    }
+
+    @Test
+    void shouldReturnNotFound_whenReleasingSpaceRequestThatHoldsNothing() throws Exception {
+        // When & Then
+        mockMvc.perform(delete("/whoms/v1/warehouse/request-space/{requestId}", "missing"))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -139,4 +570,15 @@ class DemoRestControllerTest {
                 .content(warehouseJson))
                 .andExpect(status().isUnsupportedMediaType());
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private void stubCatalog(final Warehouse... warehouses) {
+        doAnswer(invocation -> {
+            final Consumer<Warehouse> action = invocation.getArgument(0);
+            for (final Warehouse warehouse : warehouses) {
+                action.accept(warehouse);
+            }
+            return null;
+        }).when(warehouseDtoData).forEachWarehouse(any(Consumer.class));
+    }
+}
@@ -0,0 +1,212 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.training.homework.whoms.config.ReservationProperties;
+import com.training.homework.whoms.dto.Warehouse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for CapacityReservationEngine.
+ */
+class CapacityReservationEngineTest {
+
+    private static final Warehouse WAREHOUSE =
+            new Warehouse("Newark Logistics Hub", "9012 Freight Avenue", "Newark", "NJ", "07102", "(973) 555-0301", 250000, 24);
+
+    private final CapacityReservationEngine engine =
+            new CapacityReservationEngine(new ReservationProperties(8, 2, Duration.ofMinutes(1), 1000, null, 0), event -> { });
+
+    @Test
+    void shouldReturnOriginalDecision_whenReserveIsRetriedWithSameRequestId() {
+        // When
+        final Reservation first = engine.reserve("request-1", WAREHOUSE, 200000, 20);
+        final Reservation retry = engine.reserve("request-1", WAREHOUSE, 200000, 20);
+
+        // Then
+        assertThat(first.accepted()).isTrue();
+        assertThat(retry).isEqualTo(first);
+        assertThat(engine.availableSquareFootage(WAREHOUSE.name())).isEqualTo(50000);
+        assertThat(engine.availableLoadingDocks(WAREHOUSE.name())).isEqualTo(4);
+    }
+
+    @Test
+    void shouldRejectReservation_whenEitherDimensionIsExhausted() {
+        // Given
+        engine.reserve("request-1", WAREHOUSE, 1000, 24);
+
+        // When
+        final Reservation rejected = engine.reserve("request-2", WAREHOUSE, 1000, 1);
+
+        // Then
+        assertThat(rejected.accepted()).isFalse();
+        assertThat(engine.availableSquareFootage(WAREHOUSE.name())).isEqualTo(249000);
+    }
+
+    @Test
+    void shouldReturnCapacityOnce_whenReleaseIsRepeated() {
+        // Given
+        engine.reserve("request-1", WAREHOUSE, 250000, 24);
+
+        // When
+        final boolean firstRelease = engine.release("request-1");
+        final boolean secondRelease = engine.release("request-1");
+
+        // Then
+        assertThat(firstRelease).isTrue();
+        assertThat(secondRelease).isFalse();
+        assertThat(engine.availableSquareFootage(WAREHOUSE.name())).isEqualTo(250000);
+        assertThat(engine.availableLoadingDocks(WAREHOUSE.name())).isEqualTo(24);
+        assertThat(engine.reserve("request-1", WAREHOUSE, 1, 1).accepted()).isFalse();
+    }
+
+    @Test
+    void shouldReturnCapacityOnce_whenAcceptedHoldLapses() throws InterruptedException {
+        // Given
+        final List<CapacityReservationChangedEvent> events = new CopyOnWriteArrayList<>();
+        final CapacityReservationEngine lapsing = new CapacityReservationEngine(
+                new ReservationProperties(8, 2, Duration.ofMinutes(1), 1000, Duration.ofMillis(50), 0),
+                event -> events.add((CapacityReservationChangedEvent) event));
+        lapsing.reserve("request-1", WAREHOUSE, 250000, 24);
+
+        // When
+        final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (lapsing.holds("request-1") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertThat(lapsing.holds("request-1")).isFalse();
+        assertThat(lapsing.availableSquareFootage(WAREHOUSE.name())).isEqualTo(250000);
+        assertThat(lapsing.availableLoadingDocks(WAREHOUSE.name())).isEqualTo(24);
+        assertThat(lapsing.release("request-1")).isFalse();
+        assertThat(events).containsExactly(new CapacityReservationChangedEvent(WAREHOUSE.name(), 250000, 24),
+                new CapacityReservationChangedEvent(WAREHOUSE.name(), -250000, -24));
+    }
+
+    @Test
+    void shouldKeepHolds_whenCatalogResizesWarehouse() {
+        // Given
+        engine.reserve("request-1", WAREHOUSE, 200000, 20);
+        final Warehouse grown = new Warehouse(WAREHOUSE.name(), null, "Newark", "NJ", "07102", null, 300000, 30);
+        final Warehouse shrunk = new Warehouse(WAREHOUSE.name(), null, "Newark", "NJ", "07102", null, 100000, 10);
+
+        // When
+        engine.onCatalogChanged(new WarehouseCatalogChangedEvent(1L, 2L, List.of(), List.of(grown), List.of()));
+        final long availableAfterGrowing = engine.availableSquareFootage(WAREHOUSE.name());
+        engine.onCatalogChanged(new WarehouseCatalogChangedEvent(2L, 3L, List.of(), List.of(shrunk), List.of()));
+        final boolean reservedWhileOverHeld = engine.reserve("request-2", WAREHOUSE, 1, 0).accepted();
+        engine.release("request-1");
+
+        // Then
+        assertThat(availableAfterGrowing).isEqualTo(100000);
+        assertThat(reservedWhileOverHeld).isFalse();
+        assertThat(engine.availableSquareFootage(WAREHOUSE.name())).isEqualTo(100000);
+        assertThat(engine.availableLoadingDocks(WAREHOUSE.name())).isEqualTo(10);
+    }
+
+    @Test
+    void shouldDiscardLedger_whenRemovedWarehouseReleasesItsLastHold() {
+        // Given
+        engine.reserve("request-1", WAREHOUSE, 1000, 1);
+
+        // When
+        engine.onCatalogChanged(new WarehouseCatalogChangedEvent(1L, 2L, List.of(), List.of(), List.of(WAREHOUSE.name())));
+        final long availableWhileHeld = engine.availableSquareFootage(WAREHOUSE.name());
+        final boolean released = engine.release("request-1");
+
+        // Then
+        assertThat(availableWhileHeld).isZero();
+        assertThat(released).isTrue();
+        assertThat(engine.availableSquareFootage(WAREHOUSE.name())).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldNeverOversubscribe_whenManyThreadsReserveAndReleaseConcurrently() throws Exception {
+        // Given
+        final int threads = 8;
+        final int requestsPerThread = 2_000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<Integer>> acceptedDocks = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            acceptedDocks.add(executor.submit(() -> {
+                start.await();
+                int held = 0;
+                for (int i = 0; i < requestsPerThread; i++) {
+                    final String requestId = thread + "-" + i;
+                    if (engine.reserve(requestId, WAREHOUSE, 1000, 1).accepted()) {
+                        if (i % 2 == 0) {
+                            engine.release(requestId);
+                        } else {
+                            held++;
+                        }
+                    }
+                }
+                return held;
+            }));
+        }
+        start.countDown();
+        int held = 0;
+        for (final Future<Integer> future : acceptedDocks) {
+            held += future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(held).isLessThanOrEqualTo(24);
+        assertThat(engine.availableLoadingDocks(WAREHOUSE.name())).isEqualTo(24 - held);
+        assertThat(engine.availableSquareFootage(WAREHOUSE.name())).isEqualTo(250000 - 1000L * held);
+    }
+
+    @Test
+    void shouldReturnOneDecisionPerRequestId_whenSameRequestIdRacesWithRelease() throws Exception {
+        // Given
+        final Warehouse singleDock = new Warehouse("Boise Overflow", null, "Boise", "ID", "83705", null, 1000, 1);
+        final int callers = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(callers + 1);
+
+        for (int round = 0; round < 200; round++) {
+            final CapacityReservationEngine racing =
+                    new CapacityReservationEngine(new ReservationProperties(8, 2, Duration.ofMinutes(1), 1000, null, 0), event -> { });
+            racing.reserve("holder", singleDock, 1000, 1);
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Reservation>> decisions = new ArrayList<>();
+
+            // When
+            for (int c = 0; c < callers; c++) {
+                decisions.add(executor.submit(() -> {
+                    start.await();
+                    return racing.reserve("contested", singleDock, 1000, 1);
+                }));
+            }
+            final Future<Boolean> released = executor.submit(() -> {
+                start.await();
+                return racing.release("holder");
+            });
+            start.countDown();
+
+            // Then
+            final Reservation first = decisions.get(0).get(30, TimeUnit.SECONDS);
+            for (final Future<Reservation> decision : decisions) {
+                assertThat(decision.get(30, TimeUnit.SECONDS)).isEqualTo(first);
+            }
+            assertThat(released.get(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(racing.availableLoadingDocks(singleDock.name())).isEqualTo(first.accepted() ? 0 : 1);
+            assertThat(racing.release("contested")).isEqualTo(first.accepted());
+        }
+        executor.shutdown();
+    }
+}
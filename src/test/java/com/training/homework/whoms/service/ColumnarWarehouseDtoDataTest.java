@@ -0,0 +1,162 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSort;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ColumnarWarehouseDtoData.
+ */
+class ColumnarWarehouseDtoDataTest {
+
+    private final ColumnarWarehouseDtoData warehouseDtoData = new ColumnarWarehouseDtoData();
+
+    @Test
+    void shouldHoldSeedCatalog_whenCreated() {
+        // When
+        final List<Warehouse> warehouses = warehouseDtoData.getAllWarehouses();
+
+        // Then
+        assertThat(warehouses).containsExactlyElementsOf(WarehouseSeedData.WAREHOUSES);
+        assertThat(warehouseDtoData.getWarehouseCount()).isEqualTo(WarehouseSeedData.WAREHOUSES.size());
+        assertThatThrownBy(() -> warehouses.add(warehouses.get(0))).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldReplaceByNameAndAppendNewWarehouses_whenSaving() {
+        // Given
+        final Warehouse existing = WarehouseSeedData.WAREHOUSES.get(0);
+        final Warehouse updated = new Warehouse(existing.name(), existing.address(), existing.city(), existing.state(),
+                existing.postalCode(), existing.warehousePhone(), existing.squareFootage() + 1, existing.loadingDocks() + 1);
+        final Warehouse added = new Warehouse("Boise Overflow", "1 Depot Rd", "Boise", "ID", "83705", null, 12000, 3);
+        final long version = warehouseDtoData.getCatalogVersion();
+
+        // When
+        warehouseDtoData.saveAll(List.of(updated, added));
+
+        // Then
+        assertThat(warehouseDtoData.getCatalogVersion()).isEqualTo(version + 1);
+        assertThat(warehouseDtoData.getAllWarehouses().get(0)).isEqualTo(updated);
+        assertThat(warehouseDtoData.getWarehouseCount()).isEqualTo(WarehouseSeedData.WAREHOUSES.size() + 1);
+        assertThat(warehouseDtoData.findWarehouse("Boise Overflow")).contains(added);
+        assertThat(warehouseDtoData.findWarehouses(query("id", null, null, WarehouseSort.CATALOG, null, 10)).items())
+                .containsExactly(added);
+    }
+
+    @Test
+    void shouldDropRowAndBumpVersion_whenRemovingWarehouse() {
+        // Given
+        final Warehouse removed = WarehouseSeedData.WAREHOUSES.get(2);
+        final long version = warehouseDtoData.getCatalogVersion();
+
+        // When
+        final Optional<WarehouseCatalogChangedEvent> result = warehouseDtoData.removeWarehouse(removed.name());
+
+        // Then
+        assertThat(result).contains(new WarehouseCatalogChangedEvent(version, version + 1, List.of(), List.of(),
+                List.of(removed.name())));
+        assertThat(warehouseDtoData.removeWarehouse(removed.name())).isEmpty();
+        assertThat(warehouseDtoData.getCatalogVersion()).isEqualTo(version + 1);
+        assertThat(warehouseDtoData.findWarehouse(removed.name())).isEmpty();
+        assertThat(warehouseDtoData.getWarehouseCount()).isEqualTo(WarehouseSeedData.WAREHOUSES.size() - 1);
+        assertThat(warehouseDtoData.findWarehouses(query(removed.state(), null, null, WarehouseSort.CATALOG, null, 10)).items())
+                .isEmpty();
+    }
+
+    @Test
+    void shouldMatchRowIndexResults_whenPagingRandomQueries() {
+        // Given
+        final Random random = new Random(11);
+        final String[] states = {"NY", "ny", "TX", "CA", null};
+        final String[] cities = {"Albany", "ALBANY", "Austin", "Fresno"};
+        final List<Warehouse> warehouses = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            warehouses.add(new Warehouse("Warehouse " + i, null, cities[random.nextInt(cities.length)],
+                    states[random.nextInt(states.length)], String.valueOf(10000 + random.nextInt(20)), null,
+                    random.nextInt(20) * 10000, random.nextInt(30)));
+        }
+        final ColumnarWarehouseDtoData columnar = new ColumnarWarehouseDtoData();
+        columnar.saveAll(warehouses);
+        final WarehouseDtoDataImpl rows = new WarehouseDtoDataImpl();
+        rows.saveAll(warehouses);
+
+        for (final WarehouseSort sort : WarehouseSort.values()) {
+            for (final String state : new String[] {null, "ny", "Tx", "WA"}) {
+                final String city = random.nextBoolean() ? null : "albany";
+                final Integer minDocks = random.nextBoolean() ? null : random.nextInt(30);
+                String columnarCursor = null;
+                String rowCursor = null;
+                do {
+                    // When
+                    final WarehousePage expected = rows.findWarehouses(query(state, city, minDocks, sort, rowCursor, 7));
+                    final WarehousePage actual = columnar.findWarehouses(query(state, city, minDocks, sort, columnarCursor, 7));
+
+                    // Then
+                    assertThat(actual).isEqualTo(expected);
+                    columnarCursor = actual.nextCursor();
+                    rowCursor = expected.nextCursor();
+                } while (columnarCursor != null);
+            }
+        }
+    }
+
+    @Test
+    void shouldMatchRowIndexResults_whenColumnsAreDerivedFromSavesAndRemovals() {
+        // Given
+        final Random random = new Random(23);
+        final String[] states = {"NY", "ny", "TX", "CA", null};
+        final String[] cities = {"Albany", "ALBANY", "Austin", "Fresno", null};
+        final ColumnarWarehouseDtoData columnar = new ColumnarWarehouseDtoData();
+        final WarehouseDtoDataImpl rows = new WarehouseDtoDataImpl();
+        for (int batch = 0; batch < 20; batch++) {
+            final Map<String, Warehouse> warehouses = new LinkedHashMap<>();
+            for (int i = 0; i < 25; i++) {
+                final String name = "Warehouse " + random.nextInt(200);
+                warehouses.put(name, new Warehouse(name, null, cities[random.nextInt(cities.length)],
+                        states[random.nextInt(states.length)], String.valueOf(10000 + random.nextInt(20)), null,
+                        random.nextInt(20) * 10000, random.nextInt(30)));
+            }
+            columnar.saveAll(warehouses.values());
+            rows.saveAll(warehouses.values());
+            final String removed = "Warehouse " + random.nextInt(200);
+            assertThat(columnar.removeWarehouse(removed)).isEqualTo(rows.removeWarehouse(removed));
+        }
+
+        // When & Then
+        assertThat(columnar.getAllWarehouses()).containsExactlyElementsOf(rows.getAllWarehouses());
+        for (final WarehouseSort sort : WarehouseSort.values()) {
+            for (final String state : new String[] {null, "ny", "tx", "CA"}) {
+                for (final String city : new String[] {null, "albany"}) {
+                    String cursor = null;
+                    do {
+                        final WarehousePage expected = rows.findWarehouses(query(state, city, null, sort, cursor, 9));
+                        final WarehousePage actual = columnar.findWarehouses(query(state, city, null, sort, cursor, 9));
+                        assertThat(actual).isEqualTo(expected);
+                        cursor = actual.nextCursor();
+                    } while (cursor != null);
+                }
+            }
+        }
+    }
+
+    private static WarehouseQuery query(
+            final String state,
+            final String city,
+            final Integer minLoadingDocks,
+            final WarehouseSort sort,
+            final String cursor,
+            final int limit) {
+        return new WarehouseQuery(state, city, null, null, minLoadingDocks, sort, cursor, limit);
+    }
+}
@@ -0,0 +1,181 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.training.homework.whoms.config.CatalogProperties;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSort;
+import com.training.homework.whoms.repository.WarehouseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for JpaWarehouseDtoData against embedded H2.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaWarehouseDtoDataTest {
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final CatalogProperties catalogProperties = new CatalogProperties("jpa", Duration.ofMinutes(5), 100, 3, true);
+
+    private JpaWarehouseDtoData warehouseDtoData;
+
+    @BeforeEach
+    void setUp() {
+        warehouseRepository.deleteAll();
+        warehouseDtoData = new JpaWarehouseDtoData(warehouseRepository, entityManager, transactionManager,
+                catalogProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldPersistAndReadBackWarehouses_whenSavedInSeveralBatches() {
+        // Given
+        final List<Warehouse> warehouses = IntStream.range(0, 7)
+                .mapToObj(i -> new Warehouse("Warehouse " + i, i + " Main St", "Albany", "NY", "12205", "(518) 555-000" + i, 1000 * i, i))
+                .toList();
+
+        // When
+        warehouseDtoData.saveAll(warehouses);
+
+        // Then
+        assertThat(warehouseRepository.count()).isEqualTo(7);
+        assertThat(warehouseDtoData.getAllWarehouses()).containsExactlyElementsOf(warehouses);
+        assertThat(warehouseDtoData.getWarehouseCount()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldUpdateExistingWarehouseAndAdvanceVersion_whenSavedAgainByName() {
+        // Given
+        final Warehouse original = new Warehouse("Albany Regional Warehouse", "5678 Commerce Blvd", "Albany", "NY", "12205", "(518) 555-0201", 600000, 36);
+        warehouseDtoData.saveAll(List.of(original));
+        final long versionBefore = warehouseDtoData.getCatalogVersion();
+
+        // When
+        final Warehouse expanded = new Warehouse("Albany Regional Warehouse", "5678 Commerce Blvd", "Albany", "NY", "12205", "(518) 555-0201", 650000, 40);
+        warehouseDtoData.saveAll(List.of(expanded));
+
+        // Then
+        assertThat(warehouseRepository.count()).isEqualTo(1);
+        assertThat(warehouseDtoData.getAllWarehouses()).containsExactly(expanded);
+        assertThat(warehouseDtoData.getCatalogVersion()).isGreaterThan(versionBefore);
+    }
+
+    @Test
+    void shouldKeepVersion_whenReloadFindsNothingChangedAndAdvanceIt_whenAnotherNodeWrote() throws InterruptedException {
+        // Given
+        final JpaWarehouseDtoData reloading = new JpaWarehouseDtoData(warehouseRepository, entityManager, transactionManager,
+                new CatalogProperties("jpa", Duration.ofMillis(1), 100, 3, true), new SimpleMeterRegistry());
+        reloading.saveAll(WarehouseSeedData.WAREHOUSES);
+        final long versionAfterWrite = reloading.getCatalogVersion();
+
+        // When
+        Thread.sleep(20);
+        final long versionAfterReload = reloading.getCatalogVersion();
+        warehouseDtoData.saveAll(List.of(new Warehouse("Boise Overflow", null, "Boise", "ID", "83705", null, 12000, 3)));
+        Thread.sleep(20);
+
+        // Then
+        assertThat(versionAfterReload).isEqualTo(versionAfterWrite);
+        assertThat(reloading.getCatalogVersion()).isGreaterThan(versionAfterWrite);
+        assertThat(reloading.findWarehouse("Boise Overflow")).isPresent();
+    }
+
+    @Test
+    void shouldDeleteRowAndReportChange_whenRemovingWarehouse() {
+        // Given
+        warehouseDtoData.saveAll(WarehouseSeedData.WAREHOUSES);
+        final String removed = WarehouseSeedData.WAREHOUSES.get(0).name();
+
+        // When
+        final Optional<WarehouseCatalogChangedEvent> change = warehouseDtoData.removeWarehouse(removed);
+
+        // Then
+        assertThat(change).map(WarehouseCatalogChangedEvent::removed).contains(List.of(removed));
+        assertThat(warehouseDtoData.removeWarehouse(removed)).isEmpty();
+        assertThat(warehouseRepository.count()).isEqualTo(WarehouseSeedData.WAREHOUSES.size() - 1);
+        assertThat(warehouseDtoData.findWarehouse(removed)).isEmpty();
+    }
+
+    @Test
+    void shouldStartChangeFromVersionThisNodeLastSaw_whenWritingAfterEarlierWriteAndReload() throws InterruptedException {
+        // Given
+        final JpaWarehouseDtoData reloading = new JpaWarehouseDtoData(warehouseRepository, entityManager, transactionManager,
+                new CatalogProperties("jpa", Duration.ofMillis(1), 100, 3, true), new SimpleMeterRegistry());
+        final WarehouseCatalogChangedEvent seeded = reloading.saveAll(WarehouseSeedData.WAREHOUSES);
+        reloading.getCatalogVersion();
+        warehouseDtoData.saveAll(List.of(new Warehouse("Boise Overflow", null, "Boise", "ID", "83705", null, 12000, 3)));
+        Thread.sleep(20);
+        final long reloadedVersion = reloading.getCatalogVersion();
+
+        // When
+        final WarehouseCatalogChangedEvent consecutive = reloading.saveAll(
+                List.of(new Warehouse("Reno Annex", null, "Reno", "NV", "89502", null, 8000, 2)));
+        final WarehouseCatalogChangedEvent removed = reloading.removeWarehouse("Reno Annex").orElseThrow();
+
+        // Then
+        assertThat(reloadedVersion).isGreaterThan(seeded.catalogVersion());
+        assertThat(consecutive.previousVersion()).isEqualTo(reloadedVersion);
+        assertThat(removed.previousVersion()).isEqualTo(consecutive.catalogVersion());
+        assertThat(removed.catalogVersion()).isEqualTo(consecutive.catalogVersion() + 1);
+    }
+
+    @Test
+    void shouldServeQueriesFromCachedCatalog_whenFilteringByState() {
+        // Given
+        warehouseDtoData.saveAll(WarehouseSeedData.WAREHOUSES);
+
+        // When
+        final WarehousePage page = warehouseDtoData.findWarehouses(
+                new WarehouseQuery("NC", null, null, null, null, WarehouseSort.CATALOG, null, 10));
+
+        // Then
+        assertThat(page.items()).extracting(Warehouse::name).containsExactly("Charlotte Fulfillment Center");
+    }
+
+    @Test
+    void shouldVisitEveryWarehouseInOrder_whenStreamingFromDatabaseCursor() {
+        // Given
+        warehouseDtoData.saveAll(WarehouseSeedData.WAREHOUSES);
+        final List<Warehouse> visited = new ArrayList<>();
+
+        // When
+        warehouseDtoData.forEachWarehouse(visited::add);
+
+        // Then
+        assertThat(visited).containsExactlyElementsOf(WarehouseSeedData.WAREHOUSES);
+    }
+
+    @Test
+    void shouldSeedPredefinedWarehouses_whenStoreIsEmpty() {
+        // When
+        new WarehouseCatalogSeeder(warehouseDtoData, catalogProperties).seedIfEmpty();
+
+        // Then
+        assertThat(warehouseDtoData.getWarehouseCount()).isEqualTo(WarehouseSeedData.WAREHOUSES.size());
+    }
+}
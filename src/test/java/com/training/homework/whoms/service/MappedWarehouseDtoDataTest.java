@@ -0,0 +1,275 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.training.homework.whoms.config.SnapshotFileProperties;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSort;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for MappedWarehouseDtoData.
+ */
+class MappedWarehouseDtoDataTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldServeSavedCatalog_whenReopenedFromSnapshotFile() {
+        // Given
+        final SnapshotFileProperties properties = properties(Duration.ofMinutes(1));
+        final MappedWarehouseDtoData first = new MappedWarehouseDtoData(properties);
+        assertThat(first.getWarehouseCount()).isZero();
+        first.saveAll(WarehouseSeedData.WAREHOUSES);
+
+        // When
+        final MappedWarehouseDtoData restarted = new MappedWarehouseDtoData(properties);
+
+        // Then
+        assertThat(restarted.getCatalogVersion()).isEqualTo(2L);
+        assertThat(restarted.getAllWarehouses()).containsExactlyElementsOf(WarehouseSeedData.WAREHOUSES);
+        final Warehouse seeded = WarehouseSeedData.WAREHOUSES.get(3);
+        assertThat(restarted.findWarehouse(seeded.name())).contains(seeded);
+        assertThat(restarted.findWarehouse("No Such Warehouse")).isEmpty();
+    }
+
+    @Test
+    void shouldPickUpSnapshotReplacedByAnotherProcess_whenRefreshIntervalElapses() {
+        // Given
+        final MappedWarehouseDtoData reader = new MappedWarehouseDtoData(properties(Duration.ZERO));
+        final MappedWarehouseDtoData writer = new MappedWarehouseDtoData(properties(Duration.ZERO));
+        final Warehouse added = new Warehouse("Boise Overflow", "1 Depot Rd", "Boise", "ID", "83705", null, 12000, 3);
+
+        // When
+        writer.saveAll(List.of(added));
+
+        // Then
+        assertThat(reader.getCatalogVersion()).isEqualTo(2L);
+        assertThat(reader.getAllWarehouses()).containsExactly(added);
+    }
+
+    @Test
+    void shouldKeepRemoval_whenReopenedFromSnapshotFile() {
+        // Given
+        final SnapshotFileProperties properties = properties(Duration.ofMinutes(1));
+        final MappedWarehouseDtoData first = new MappedWarehouseDtoData(properties);
+        first.saveAll(WarehouseSeedData.WAREHOUSES);
+        final Warehouse removed = WarehouseSeedData.WAREHOUSES.get(0);
+
+        // When
+        final Optional<WarehouseCatalogChangedEvent> result = first.removeWarehouse(removed.name());
+
+        // Then
+        assertThat(result).contains(new WarehouseCatalogChangedEvent(2L, 3L, List.of(), List.of(), List.of(removed.name())));
+        assertThat(first.removeWarehouse("No Such Warehouse")).isEmpty();
+        final MappedWarehouseDtoData restarted = new MappedWarehouseDtoData(properties);
+        assertThat(restarted.getCatalogVersion()).isEqualTo(3L);
+        assertThat(restarted.getAllWarehouses())
+                .containsExactlyElementsOf(WarehouseSeedData.WAREHOUSES.subList(1, WarehouseSeedData.WAREHOUSES.size()));
+        assertThat(restarted.findWarehouse(removed.name())).isEmpty();
+    }
+
+    @Test
+    void shouldMatchRowIndexResults_whenPagingSortedQuery() {
+        // Given
+        final List<Warehouse> warehouses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            warehouses.add(new Warehouse("Warehouse " + i, null, i % 3 == 0 ? "Albany" : "Austin", i % 2 == 0 ? "NY" : "TX",
+                    null, null, (i % 10) * 10000, i % 25));
+        }
+        final MappedWarehouseDtoData mapped = new MappedWarehouseDtoData(properties(Duration.ofMinutes(1)));
+        mapped.saveAll(warehouses);
+        final WarehouseIndex index = WarehouseIndex.build(warehouses);
+        String mappedCursor = null;
+        String indexCursor = null;
+
+        do {
+            // When
+            final WarehousePage expected = index.query(query(indexCursor));
+            final WarehousePage actual = mapped.findWarehouses(query(mappedCursor));
+
+            // Then
+            assertThat(actual).isEqualTo(expected);
+            mappedCursor = actual.nextCursor();
+            indexCursor = expected.nextCursor();
+        } while (mappedCursor != null);
+    }
+
+    @Test
+    void shouldMatchRowIndexResults_whenCatalogSpansSnapshotAndJournal() {
+        // Given
+        final SnapshotFileProperties properties = properties(Duration.ofMinutes(1));
+        final Map<String, Warehouse> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 120; i++) {
+            expected.put("Warehouse " + i, warehouse(i, "NY"));
+        }
+        MappedCatalogFile.write(properties.file(), 1L, List.copyOf(expected.values()));
+        final List<Warehouse> saved = new ArrayList<>();
+        for (int i = 100; i < 200; i++) {
+            saved.add(warehouse(i, i % 4 == 0 ? "TX" : "NY"));
+        }
+        final MappedWarehouseDtoData mapped = new MappedWarehouseDtoData(properties);
+
+        // When
+        mapped.saveAll(saved);
+        mapped.removeWarehouse("Warehouse 7");
+        mapped.removeWarehouse("Warehouse 150");
+        saved.forEach(warehouse -> expected.put(warehouse.name(), warehouse));
+        expected.remove("Warehouse 7");
+        expected.remove("Warehouse 150");
+
+        // Then
+        final WarehouseIndex index = WarehouseIndex.build(List.copyOf(expected.values()));
+        final MappedWarehouseDtoData restarted = new MappedWarehouseDtoData(properties);
+        assertThat(restarted.getCatalogVersion()).isEqualTo(4L);
+        assertThat(restarted.getAllWarehouses()).containsExactlyElementsOf(expected.values());
+        for (final WarehouseSort sort : WarehouseSort.values()) {
+            String cursor = null;
+            do {
+                final WarehouseQuery query = new WarehouseQuery("Ny", null, null, null, null, sort, cursor, 17);
+                final WarehousePage page = restarted.findWarehouses(query);
+                assertThat(page).isEqualTo(index.query(query));
+                cursor = page.nextCursor();
+            } while (cursor != null);
+        }
+    }
+
+    @Test
+    void shouldResumeLikeRowIndex_whenLastWarehouseOfPageIsRemoved() {
+        // Given
+        final SnapshotFileProperties properties = properties(Duration.ofMinutes(1));
+        final List<Warehouse> warehouses = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            warehouses.add(warehouse(i, "NY"));
+        }
+        MappedCatalogFile.write(properties.file(), 1L, warehouses.subList(0, 40));
+        final MappedWarehouseDtoData mapped = new MappedWarehouseDtoData(properties);
+        mapped.saveAll(warehouses.subList(40, 60));
+        WarehouseIndex index = WarehouseIndex.build(warehouses);
+
+        for (final WarehouseSort sort : WarehouseSort.values()) {
+            final WarehousePage page = mapped.findWarehouses(new WarehouseQuery(null, null, null, null, null, sort, null, 7));
+            final String removed = page.items().get(page.items().size() - 1).name();
+
+            // When
+            mapped.removeWarehouse(removed);
+            index = index.withRemoved(removed);
+
+            // Then
+            final WarehouseQuery next = new WarehouseQuery(null, null, null, null, null, sort, page.nextCursor(), 7);
+            assertThat(mapped.findWarehouses(next)).isEqualTo(index.query(next));
+        }
+    }
+
+    @Test
+    void shouldMatchStringFiltersIgnoringCase_whenComparingMappedBytes() {
+        // Given
+        final SnapshotFileProperties properties = properties(Duration.ofMinutes(1));
+        final Warehouse albany = new Warehouse("Albany DC", null, "Albany", "NY", "12207", null, 50000, 4);
+        final Warehouse zurich = new Warehouse("Zurich DC", null, "Zürich", "ZH", "8001", null, 30000, 2);
+        final Warehouse moved = new Warehouse("Albany Annex", null, "Albany", "NY", "12208", null, 10000, 1);
+        MappedCatalogFile.write(properties.file(), 1L, List.of(albany, zurich, moved));
+        final MappedWarehouseDtoData mapped = new MappedWarehouseDtoData(properties);
+        final Warehouse relocated = new Warehouse("Albany Annex", null, "Albany", "GA", "31701", null, 10000, 1);
+
+        // When
+        mapped.saveAll(List.of(relocated));
+
+        // Then
+        assertThat(mapped.findWarehouses(filter(" aLBANY ", "ny", null)).items()).containsExactly(albany);
+        assertThat(mapped.findWarehouses(filter("albany", null, null)).items()).containsExactly(albany, relocated);
+        assertThat(mapped.findWarehouses(filter("ZÜRICH", null, null)).items()).containsExactly(zurich);
+        assertThat(mapped.findWarehouses(filter(null, "zh", "8001")).items()).containsExactly(zurich);
+        assertThat(mapped.findWarehouses(filter("Albany", "NY", "1220")).items()).isEmpty();
+    }
+
+    @Test
+    void shouldCompactJournalIntoSnapshot_whenJournalOutgrowsSnapshot() throws IOException {
+        // Given
+        final SnapshotFileProperties properties = properties(Duration.ofMinutes(1));
+        final Path journal = properties.file().resolveSibling("catalog.snapshot.journal");
+        final MappedWarehouseDtoData mapped = new MappedWarehouseDtoData(properties);
+        final List<Warehouse> warehouses = new ArrayList<>();
+        for (int i = 0; i <= MappedWarehouseDtoData.MIN_COMPACTION_ROWS; i++) {
+            warehouses.add(warehouse(i, "NY"));
+        }
+        mapped.saveAll(warehouses.subList(0, warehouses.size() / 2));
+        final long journaledBytes = Files.size(journal);
+
+        // When
+        mapped.saveAll(warehouses.subList(warehouses.size() / 2, warehouses.size()));
+
+        // Then
+        assertThat(Files.size(journal)).isLessThan(journaledBytes);
+        final MappedWarehouseDtoData restarted = new MappedWarehouseDtoData(properties);
+        assertThat(restarted.getCatalogVersion()).isEqualTo(3L);
+        assertThat(restarted.getAllWarehouses()).containsExactlyElementsOf(warehouses);
+    }
+
+    @Test
+    void shouldSkipUnfinishedJournalEntry_whenWriterStoppedPartWayThroughAppend() throws IOException {
+        // Given
+        final SnapshotFileProperties properties = properties(Duration.ofMinutes(1));
+        final Path journal = properties.file().resolveSibling("catalog.snapshot.journal");
+        new MappedWarehouseDtoData(properties).saveAll(WarehouseSeedData.WAREHOUSES);
+        Files.write(journal, new byte[] {0, 0, 1, 0, 7, 7, 7, 7, 1, 2, 3}, StandardOpenOption.APPEND);
+        final Warehouse added = new Warehouse("Boise Overflow", "1 Depot Rd", "Boise", "ID", "83705", null, 12000, 3);
+
+        // When
+        final MappedWarehouseDtoData restarted = new MappedWarehouseDtoData(properties);
+        restarted.saveAll(List.of(added));
+
+        // Then
+        final MappedWarehouseDtoData reopened = new MappedWarehouseDtoData(properties);
+        assertThat(reopened.getCatalogVersion()).isEqualTo(3L);
+        assertThat(reopened.getWarehouseCount()).isEqualTo(WarehouseSeedData.WAREHOUSES.size() + 1);
+        assertThat(reopened.findWarehouse(added.name())).contains(added);
+    }
+
+    @Test
+    void shouldRefuseToStart_whenSnapshotFileIsCorrupt() throws IOException {
+        // Given
+        final SnapshotFileProperties properties = properties(Duration.ofMinutes(1));
+        MappedCatalogFile.write(properties.file(), 2L, WarehouseSeedData.WAREHOUSES);
+        final byte[] content = Files.readAllBytes(properties.file());
+        content[content.length - 1] ^= 1;
+        Files.write(properties.file(), content);
+
+        // When & Then
+        assertThatThrownBy(() -> new MappedWarehouseDtoData(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("checksum mismatch");
+    }
+
+    private SnapshotFileProperties properties(final Duration refreshInterval) {
+        return new SnapshotFileProperties(directory.resolve("catalog.snapshot"), refreshInterval);
+    }
+
+    private static Warehouse warehouse(final int i, final String state) {
+        return new Warehouse("Warehouse " + i, null, i % 3 == 0 ? "Albany" : "Austin", state, null, null,
+                (i % 10) * 10000, i % 25);
+    }
+
+    private static WarehouseQuery filter(final String city, final String state, final String postalCode) {
+        return new WarehouseQuery(state, city, postalCode, null, null, WarehouseSort.CATALOG, null, 10);
+    }
+
+    private static WarehouseQuery query(final String cursor) {
+        return new WarehouseQuery("ny", null, null, null, 5, WarehouseSort.SQUARE_FOOTAGE_DESC, cursor, 9);
+    }
+}
@@ -0,0 +1,62 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.training.homework.whoms.config.GeoProperties;
+import com.training.homework.whoms.dto.NearbyWarehouse;
+import com.training.homework.whoms.dto.Warehouse;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for NearestWarehouseService against the bundled postal code centroids.
+ */
+class NearestWarehouseServiceTest {
+
+    private final GeoProperties properties = new GeoProperties(null, 0);
+    private final WarehouseDtoDataImpl warehouseDtoData = new WarehouseDtoDataImpl();
+    private final NearestWarehouseService service =
+            new NearestWarehouseService(warehouseDtoData, new PostalCodeCentroids(properties), properties);
+
+    @Test
+    void shouldReturnClosestWarehousesFirst_whenSearchingFromKnownPostalCode() {
+        // When
+        final List<NearbyWarehouse> nearest = service.findNearest("19104", 2, null, null);
+
+        // Then
+        assertThat(nearest).extracting(nearby -> nearby.warehouse().name())
+                .containsExactly("Philadelphia Storage Facility", "Newark Logistics Hub");
+        assertThat(nearest.get(0).distanceKm()).isZero();
+        assertThat(nearest.get(1).distanceKm()).isBetween(100.0, 150.0);
+    }
+
+    @Test
+    void shouldFallBackToPostalCodePrefix_whenExactPostalCodeIsNotBundled() {
+        // When
+        final List<NearbyWarehouse> nearest = service.findNearest("77056-1234", 1, null, null);
+
+        // Then
+        assertThat(nearest).extracting(nearby -> nearby.warehouse().name()).containsExactly("Houston Energy District Depot");
+    }
+
+    @Test
+    void shouldSeeNewWarehouses_whenCatalogVersionChanges() {
+        // Given
+        service.findNearest("57104", 1, null, null);
+        warehouseDtoData.saveAll(List.of(new Warehouse("Sioux Falls Annex", null, "Sioux Falls", "SD", "57104", null, 900000, 90)));
+
+        // When
+        final List<NearbyWarehouse> nearest = service.findNearest("57104", 1, 60, null);
+
+        // Then
+        assertThat(nearest).extracting(nearby -> nearby.warehouse().name()).containsExactly("Sioux Falls Annex");
+    }
+
+    @Test
+    void shouldRejectSearch_whenPostalCodeIsUnknown() {
+        // When & Then
+        assertThatThrownBy(() -> service.findNearest("00000", 5, null, null))
+                .isInstanceOf(InvalidWarehouseQueryException.class);
+    }
+}
@@ -0,0 +1,91 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.training.homework.whoms.config.AuditProperties;
+import com.training.homework.whoms.config.WorkerThreads;
+import com.training.homework.whoms.dto.SpaceRequestState;
+import com.training.homework.whoms.dto.SpaceRequestStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Unit tests for SpaceRequestAuditLog.
+ */
+class SpaceRequestAuditLogTest {
+
+    private final Logger auditLogger = (Logger) LoggerFactory.getLogger("whoms.audit");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SpaceRequestAuditLog auditLog;
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        auditLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (auditLog != null) {
+            auditLog.stop();
+        }
+        auditLogger.detachAppender(appender);
+    }
+
+    @Test
+    void shouldWriteEventAsJsonLine_whenEnabled() throws InterruptedException {
+        // Given
+        auditLog = auditLog(true);
+        auditLog.start();
+
+        // When
+        auditLog.onSpaceRequestEvent(SpaceRequestAuditEvent.of(SpaceRequestAuditEvent.Type.DECIDED,
+                new SpaceRequestStatus("request-1", "Newark Logistics Hub", 10, 1, SpaceRequestState.REJECTED,
+                        "Insufficient capacity"), "key-1"));
+
+        // Then
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (appender.list.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(appender.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .asString()
+                .startsWith("{\"timestamp\":\"")
+                .contains("\"type\":\"DECIDED\"", "\"requestId\":\"request-1\"", "\"state\":\"REJECTED\"",
+                        "\"reason\":\"Insufficient capacity\"", "\"idempotencyKey\":\"key-1\"")
+                .doesNotContain("\n");
+        assertThat(meterRegistry.get("whoms.audit.events").tag("outcome", "written").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldIgnoreEvents_whenDisabled() throws InterruptedException {
+        // Given
+        auditLog = auditLog(false);
+        auditLog.start();
+
+        // When
+        auditLog.onSpaceRequestEvent(SpaceRequestAuditEvent.of(SpaceRequestAuditEvent.Type.QUEUED,
+                new SpaceRequestStatus("request-1", "Newark Logistics Hub", 10, 1, SpaceRequestState.PENDING, null), null));
+        auditLog.stop();
+
+        // Then
+        assertThat(appender.list).isEmpty();
+        assertThat(meterRegistry.get("whoms.audit.queue.depth").gauge().value()).isZero();
+    }
+
+    private SpaceRequestAuditLog auditLog(final boolean enabled) {
+        return new SpaceRequestAuditLog(new AuditProperties(enabled, 16), WorkerThreads.platform(),
+                Jackson2ObjectMapperBuilder.json().build(), meterRegistry);
+    }
+}
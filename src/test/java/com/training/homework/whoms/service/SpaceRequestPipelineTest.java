@@ -0,0 +1,251 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.training.homework.whoms.config.ReservationProperties;
+import com.training.homework.whoms.config.SpaceRequestProperties;
+import com.training.homework.whoms.config.WorkerThreads;
+import com.training.homework.whoms.dto.SpaceRequestState;
+import com.training.homework.whoms.dto.SpaceRequestStatus;
+import com.training.homework.whoms.dto.Warehouse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for SpaceRequestPipeline.
+ */
+class SpaceRequestPipelineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Object> auditEvents = new CopyOnWriteArrayList<>();
+
+    private SpaceRequestPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void shouldAcceptThenRejectRequests_whenCapacityIsExhausted() throws InterruptedException {
+        // Given
+        pipeline = startedPipeline(16);
+        final Warehouse request = new Warehouse("Sioux Falls Agricultural Center", null, null, null, null, null, 100000, 8);
+
+        // When
+        final SpaceRequestStatus first = pipeline.submit(request);
+        final SpaceRequestStatus second = pipeline.submit(request);
+
+        // Then
+        assertThat(first.state()).isEqualTo(SpaceRequestState.PENDING);
+        assertThat(awaitDecision(first.requestId()).state()).isEqualTo(SpaceRequestState.ACCEPTED);
+        final SpaceRequestStatus secondDecision = awaitDecision(second.requestId());
+        assertThat(secondDecision.state()).isEqualTo(SpaceRequestState.REJECTED);
+        assertThat(secondDecision.reason()).isEqualTo("Insufficient capacity");
+        assertThat(meterRegistry.get("whoms.space.requests.batch.latency").timer().count()).isPositive();
+    }
+
+    @Test
+    void shouldRejectRequest_whenWarehouseIsUnknown() throws InterruptedException {
+        // Given
+        pipeline = startedPipeline(16);
+
+        // When
+        final SpaceRequestStatus pending = pipeline.submit(
+                new Warehouse("Unknown Warehouse", null, null, null, null, null, 10, 1));
+
+        // Then
+        assertThat(awaitDecision(pending.requestId()).reason()).isEqualTo("Unknown warehouse");
+    }
+
+    @Test
+    void shouldRejectRequest_whenNoCapacityIsRequested() throws InterruptedException {
+        // Given
+        pipeline = startedPipeline(16);
+
+        // When
+        final SpaceRequestStatus pending = pipeline.submit(
+                new Warehouse("Newark Logistics Hub", null, null, null, null, null, 0, 0));
+
+        // Then
+        final SpaceRequestStatus decided = awaitDecision(pending.requestId());
+        assertThat(decided.state()).isEqualTo(SpaceRequestState.REJECTED);
+        assertThat(decided.reason()).isEqualTo("Requested capacity must not be zero");
+    }
+
+    @Test
+    void shouldReturnCapacityAndReportReleased_whenAcceptedRequestIsReleased() throws InterruptedException {
+        // Given
+        pipeline = startedPipeline(16);
+        final Warehouse request = new Warehouse("Sioux Falls Agricultural Center", null, null, null, null, null, 100000, 8);
+        final SpaceRequestStatus first = pipeline.submit(request);
+        awaitDecision(first.requestId());
+
+        // When
+        final Optional<SpaceRequestStatus> released = pipeline.release(first.requestId());
+
+        // Then
+        assertThat(released).map(SpaceRequestStatus::state).contains(SpaceRequestState.RELEASED);
+        assertThat(pipeline.getStatus(first.requestId())).isEqualTo(released);
+        assertThat(pipeline.release(first.requestId())).isEmpty();
+        assertThat(awaitDecision(pipeline.submit(request).requestId()).state()).isEqualTo(SpaceRequestState.ACCEPTED);
+    }
+
+    @Test
+    void shouldShedRequest_whenQueueIsFull() {
+        // Given
+        pipeline = unstartedPipeline(1);
+        final Warehouse request = new Warehouse("Newark Logistics Hub", null, null, null, null, null, 10, 1);
+        pipeline.submit(request);
+
+        // When & Then
+        assertThatThrownBy(() -> pipeline.submit(request)).isInstanceOf(SpaceRequestQueueFullException.class);
+        assertThat(meterRegistry.get("whoms.space.requests.decisions").tag("outcome", "shed").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReturnOriginalStatusWithoutRequeuing_whenIdempotencyKeyIsRepeated() throws InterruptedException {
+        // Given
+        pipeline = startedPipeline(16);
+        final Warehouse request = new Warehouse("Sioux Falls Agricultural Center", null, null, null, null, null, 100000, 8);
+        final SpaceRequestSubmission first = pipeline.submit(request, "retry-1");
+
+        // When
+        final SpaceRequestSubmission retry = pipeline.submit(request, "retry-1");
+
+        // Then
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.status()).isEqualTo(first.status());
+        assertThat(awaitDecision(first.status().requestId()).state()).isEqualTo(SpaceRequestState.ACCEPTED);
+        assertThat(meterRegistry.get("whoms.space.requests.decisions").tag("outcome", "rejected").counter().count())
+                .isZero();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "space-request-idempotency-keys").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldQueueOnce_whenDuplicatesArriveConcurrently() throws Exception {
+        // Given
+        pipeline = unstartedPipeline(16);
+        final Warehouse request = new Warehouse("Newark Logistics Hub", null, null, null, null, null, 10, 1);
+        final CountDownLatch go = new CountDownLatch(1);
+        final List<Future<SpaceRequestSubmission>> submissions = new ArrayList<>();
+
+        // When
+        try (ExecutorService clients = Executors.newFixedThreadPool(8)) {
+            for (int client = 0; client < 8; client++) {
+                submissions.add(clients.submit(() -> {
+                    go.await();
+                    return pipeline.submit(request, "retry-1");
+                }));
+            }
+            go.countDown();
+        }
+
+        // Then
+        final List<SpaceRequestSubmission> results = new ArrayList<>();
+        for (final Future<SpaceRequestSubmission> submission : submissions) {
+            results.add(submission.get());
+        }
+        assertThat(results).extracting(result -> result.status().requestId()).containsOnly(results.get(0).status().requestId());
+        assertThat(results).filteredOn(result -> !result.replayed()).hasSize(1);
+        assertThat(meterRegistry.get("whoms.space.requests.queue.depth").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldRejectRequest_whenIdempotencyKeyWasUsedForDifferentBody() {
+        // Given
+        pipeline = unstartedPipeline(16);
+        pipeline.submit(new Warehouse("Newark Logistics Hub", null, null, null, null, null, 10, 1), "retry-1");
+
+        // When & Then
+        assertThatThrownBy(() -> pipeline.submit(
+                new Warehouse("Newark Logistics Hub", null, null, null, null, null, 20, 1), "retry-1"))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void shouldReleaseIdempotencyKey_whenRequestIsShed() {
+        // Given
+        pipeline = unstartedPipeline(1);
+        pipeline.submit(new Warehouse("Newark Logistics Hub", null, null, null, null, null, 10, 1));
+        assertThatThrownBy(() -> pipeline.submit(
+                new Warehouse("Newark Logistics Hub", null, null, null, null, null, 10, 1), "retry-1"))
+                .isInstanceOf(SpaceRequestQueueFullException.class);
+
+        // When & Then
+        assertThatThrownBy(() -> pipeline.submit(
+                new Warehouse("Newark Logistics Hub", null, null, null, null, null, 20, 1), "retry-1"))
+                .isInstanceOf(SpaceRequestQueueFullException.class);
+    }
+
+    @Test
+    void shouldPublishAuditEvents_whenRequestIsQueuedReplayedAndDecided() throws InterruptedException {
+        // Given
+        pipeline = startedPipeline(16);
+        final Warehouse request = new Warehouse("Sioux Falls Agricultural Center", null, null, null, null, null, 100, 1);
+
+        // When
+        final SpaceRequestSubmission first = pipeline.submit(request, "audit-key");
+        pipeline.submit(request, "audit-key");
+        awaitDecision(first.status().requestId());
+
+        // Then
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (auditEvents.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(auditEvents)
+                .map(event -> ((SpaceRequestAuditEvent) event).type())
+                .containsExactlyInAnyOrder(SpaceRequestAuditEvent.Type.QUEUED, SpaceRequestAuditEvent.Type.REPLAYED,
+                        SpaceRequestAuditEvent.Type.DECIDED);
+        assertThat(((SpaceRequestAuditEvent) auditEvents.get(0)).idempotencyKey()).isEqualTo("audit-key");
+        assertThat(((SpaceRequestAuditEvent) auditEvents.get(0)).requestId()).isEqualTo(first.status().requestId());
+    }
+
+    private SpaceRequestPipeline startedPipeline(final int queueCapacity) {
+        final SpaceRequestPipeline started = new SpaceRequestPipeline(new WarehouseDtoDataImpl(),
+                new CapacityReservationEngine(new ReservationProperties(0, 0, null, 0, null, 0), event -> { }), properties(queueCapacity),
+                WorkerThreads.platform(), auditEvents::add, meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private SpaceRequestPipeline unstartedPipeline(final int queueCapacity) {
+        return new SpaceRequestPipeline(new WarehouseDtoDataImpl(),
+                new CapacityReservationEngine(new ReservationProperties(0, 0, null, 0, null, 0), event -> { }), properties(queueCapacity),
+                WorkerThreads.platform(), auditEvents::add, meterRegistry);
+    }
+
+    private static SpaceRequestProperties properties(final int queueCapacity) {
+        return new SpaceRequestProperties(queueCapacity, Duration.ofMillis(10), 1, 8, Duration.ofMillis(5),
+                Duration.ofMinutes(1), 100, Duration.ofMinutes(1), 100);
+    }
+
+    private SpaceRequestStatus awaitDecision(final String requestId) throws InterruptedException {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            final SpaceRequestStatus status = pipeline.getStatus(requestId).orElseThrow();
+            if (status.state() != SpaceRequestState.PENDING) {
+                return status;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Space request " + requestId + " was not decided in time");
+    }
+}
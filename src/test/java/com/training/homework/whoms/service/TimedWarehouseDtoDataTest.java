@@ -0,0 +1,55 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for TimedWarehouseDtoData.
+ */
+class TimedWarehouseDtoDataTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TimedWarehouseDtoData warehouseDtoData =
+            new TimedWarehouseDtoData(new WarehouseDtoDataImpl(), meterRegistry);
+
+    @Test
+    void shouldRecordOperationTimer_whenDelegateIsCalled() {
+        // When
+        warehouseDtoData.getAllWarehouses();
+        warehouseDtoData.getAllWarehouses();
+        warehouseDtoData.findWarehouse("Newark Logistics Hub");
+
+        // Then
+        assertThat(meterRegistry.get("whoms.catalog.operation.latency").tag("operation", "getAllWarehouses").timer().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("whoms.catalog.operation.latency").tag("operation", "findWarehouse").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecordOperationTimer_whenDelegateThrows() {
+        // Given
+        final WarehouseQuery badCursor = new WarehouseQuery(null, null, null, null, null, WarehouseSort.CATALOG, "not-a-cursor", 10);
+
+        // When & Then
+        assertThatThrownBy(() -> warehouseDtoData.findWarehouses(badCursor)).isInstanceOf(InvalidWarehouseQueryException.class);
+        assertThat(meterRegistry.get("whoms.catalog.operation.latency").tag("operation", "findWarehouses").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldReportCatalogSize_whenGaugeIsRead() {
+        // When
+        final double size = meterRegistry.get("whoms.catalog.size").gauge().value();
+
+        // Then
+        assertThat(size).isEqualTo(WarehouseSeedData.WAREHOUSES.size());
+        assertThat(meterRegistry.get("whoms.catalog.operation.latency").tag("operation", "getWarehouseCount").timer().count())
+                .isZero();
+    }
+}
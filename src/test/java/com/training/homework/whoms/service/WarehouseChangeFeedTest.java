@@ -0,0 +1,253 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.training.homework.whoms.config.ChangeFeedProperties;
+import com.training.homework.whoms.config.WorkerThreads;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehouseChange;
+import com.training.homework.whoms.dto.WarehouseChange.Type;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Unit tests for WarehouseChangeFeed.
+ */
+class WarehouseChangeFeedTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private WarehouseChangeFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        if (feed != null) {
+            feed.stop();
+        }
+    }
+
+    @Test
+    void shouldSendResyncThenNumberedChanges_whenSubscribingWithoutSequence() throws InterruptedException {
+        // Given
+        feed = startedFeed(100, 100);
+        final RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter, null);
+
+        // When
+        feed.onCatalogChanged(added("Boise Overflow"));
+        feed.onReservationChanged(new CapacityReservationChangedEvent("Boise Overflow", 500, 1));
+
+        // Then
+        final WarehouseChange resync = emitter.next();
+        assertThat(resync.type()).isEqualTo(Type.RESYNC);
+        final WarehouseChange added = emitter.next();
+        assertThat(added.type()).isEqualTo(Type.ADDED);
+        assertThat(added.sequence()).isEqualTo(resync.sequence() + 1);
+        assertThat(added.warehouse().name()).isEqualTo("Boise Overflow");
+        final WarehouseChange reserved = emitter.next();
+        assertThat(reserved.type()).isEqualTo(Type.CAPACITY_CHANGED);
+        assertThat(reserved.sequence()).isEqualTo(resync.sequence() + 2);
+        assertThat(reserved.reservedSquareFootage()).isEqualTo(500);
+    }
+
+    @Test
+    void shouldReplayMissedChanges_whenResumingFromSequence() throws InterruptedException {
+        // Given
+        feed = startedFeed(100, 100);
+        final long start = feed.currentSequence();
+        feed.onCatalogChanged(added("Boise Overflow"));
+        feed.onCatalogChanged(new WarehouseCatalogChangedEvent(2, 3, List.of(), List.of(), List.of("Newark Logistics Hub")));
+        awaitSequence(start + 2);
+        final RecordingEmitter emitter = new RecordingEmitter();
+
+        // When
+        feed.subscribe(emitter, start + 1);
+
+        // Then
+        final WarehouseChange replayed = emitter.next();
+        assertThat(replayed.type()).isEqualTo(Type.REMOVED);
+        assertThat(replayed.sequence()).isEqualTo(start + 2);
+        assertThat(replayed.warehouseName()).isEqualTo("Newark Logistics Hub");
+    }
+
+    @Test
+    void shouldSendResync_whenSequenceHasLeftReplayRing() throws InterruptedException {
+        // Given
+        feed = startedFeed(2, 100);
+        final long start = feed.currentSequence();
+        feed.onCatalogChanged(added("First"));
+        feed.onCatalogChanged(added("Second"));
+        feed.onCatalogChanged(added("Third"));
+        awaitSequence(start + 3);
+        final RecordingEmitter emitter = new RecordingEmitter();
+
+        // When
+        feed.subscribe(emitter, start);
+
+        // Then
+        final WarehouseChange resync = emitter.next();
+        assertThat(resync.type()).isEqualTo(Type.RESYNC);
+        assertThat(resync.sequence()).isEqualTo(start + 3);
+    }
+
+    @Test
+    void shouldCoalesceChangesPerWarehouse_whenSubscriberFallsBehind() throws InterruptedException {
+        // Given
+        feed = startedFeed(100, 100);
+        final RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(1));
+        feed.subscribe(emitter, null);
+        final long start = feed.currentSequence();
+        assertThat(emitter.next().type()).isEqualTo(Type.RESYNC);
+
+        // When
+        feed.onCatalogChanged(added("Boise Overflow"));
+        feed.onReservationChanged(new CapacityReservationChangedEvent("Boise Overflow", 500, 1));
+        final Warehouse updated = new Warehouse("Boise Overflow", null, "Boise", "ID", "83705", null, 24000, 6);
+        feed.onCatalogChanged(new WarehouseCatalogChangedEvent(3, 4, List.of(), List.of(updated), List.of()));
+        feed.onReservationChanged(new CapacityReservationChangedEvent("Boise Overflow", 250, 1));
+        awaitSequence(start + 4);
+        emitter.release();
+
+        // Then
+        final WarehouseChange added = emitter.next();
+        assertThat(added.type()).isEqualTo(Type.ADDED);
+        assertThat(added.warehouse()).isEqualTo(updated);
+        assertThat(added.sequence()).isEqualTo(start + 3);
+        final WarehouseChange reserved = emitter.next();
+        assertThat(reserved.reservedSquareFootage()).isEqualTo(750);
+        assertThat(reserved.reservedLoadingDocks()).isEqualTo(2);
+        assertThat(reserved.sequence()).isEqualTo(start + 4);
+    }
+
+    @Test
+    void shouldReplaceBufferWithResync_whenSubscriberBufferOverflows() throws InterruptedException {
+        // Given
+        feed = startedFeed(100, 2);
+        final RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(1));
+        feed.subscribe(emitter, null);
+        final long start = feed.currentSequence();
+        assertThat(emitter.next().type()).isEqualTo(Type.RESYNC);
+
+        // When
+        feed.onCatalogChanged(added("First"));
+        feed.onCatalogChanged(added("Second"));
+        feed.onCatalogChanged(added("Third"));
+        awaitSequence(start + 3);
+        emitter.release();
+
+        // Then
+        final WarehouseChange resync = emitter.next();
+        assertThat(resync.type()).isEqualTo(Type.RESYNC);
+        assertThat(resync.sequence()).isEqualTo(start + 3);
+        assertThat(meterRegistry.get("whoms.changes.overflows").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepNumberingAndDropStalledClient_whenClientStopsReading() throws InterruptedException {
+        // Given
+        feed = startedFeed(100, 100, 1, Duration.ofMillis(200));
+        final RecordingEmitter stalled = new RecordingEmitter(new CountDownLatch(1));
+        feed.subscribe(stalled, null);
+        assertThat(stalled.next().type()).isEqualTo(Type.RESYNC);
+        final RecordingEmitter healthy = new RecordingEmitter();
+        feed.subscribe(healthy, null);
+        final long start = feed.currentSequence();
+
+        // When
+        feed.onCatalogChanged(added("Boise Overflow"));
+
+        // Then
+        awaitSequence(start + 1);
+        assertThat(healthy.next().type()).isEqualTo(Type.RESYNC);
+        assertThat(healthy.next().type()).isEqualTo(Type.ADDED);
+        assertThat(meterRegistry.get("whoms.changes.stalls").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("whoms.changes.subscribers").gauge().value()).isEqualTo(1);
+    }
+
+    private WarehouseChangeFeed startedFeed(final int replayCapacity, final int subscriberBufferSize) {
+        return startedFeed(replayCapacity, subscriberBufferSize, 4, Duration.ofMinutes(1));
+    }
+
+    private WarehouseChangeFeed startedFeed(
+            final int replayCapacity,
+            final int subscriberBufferSize,
+            final int drainThreads,
+            final Duration sendTimeout) {
+        final WarehouseChangeFeed started = new WarehouseChangeFeed(
+                new ChangeFeedProperties(replayCapacity, subscriberBufferSize, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                        drainThreads, sendTimeout),
+                WorkerThreads.platform(),
+                meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private void awaitSequence(final long expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (feed.currentSequence() >= expected) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Change feed did not reach sequence " + expected + " in time");
+    }
+
+    private static WarehouseCatalogChangedEvent added(final String name) {
+        final Warehouse warehouse = new Warehouse(name, null, "Boise", "ID", "83705", null, 12000, 3);
+        return new WarehouseCatalogChangedEvent(1, 2, List.of(warehouse), List.of(), List.of());
+    }
+
+    /**
+     * Emitter that records the changes sent to it, optionally blocking every send until released.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<WarehouseChange> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch released;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(final CountDownLatch released) {
+            this.released = released;
+        }
+
+        @Override
+        public void send(final SseEventBuilder builder) throws IOException {
+            builder.build().forEach(part -> {
+                if (part.getData() instanceof WarehouseChange change) {
+                    sent.add(change);
+                }
+            });
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        WarehouseChange next() throws InterruptedException {
+            final WarehouseChange change = sent.poll(5, TimeUnit.SECONDS);
+            if (change == null) {
+                throw new AssertionError("No change was sent in time");
+            }
+            return change;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.training.homework.whoms.dto.NearbyWarehouse;
+import com.training.homework.whoms.dto.Warehouse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for WarehouseGeoIndex.
+ */
+class WarehouseGeoIndexTest {
+
+    @Test
+    void shouldMatchBruteForce_whenSearchingRandomWarehouses() {
+        // Given
+        final Random random = new Random(42);
+        final Map<String, GeoPoint> locations = new HashMap<>();
+        final List<Warehouse> warehouses = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            final String postalCode = "P" + i;
+            // Cluster a third of the warehouses on a handful of shared points
+            final GeoPoint point = i % 3 == 0
+                    ? new GeoPoint(40 + i % 5, -75 - i % 5)
+                    : new GeoPoint(25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57);
+            locations.put(postalCode, point);
+            warehouses.add(new Warehouse("Warehouse " + i, null, null, null, postalCode, null, random.nextInt(500_000), random.nextInt(50)));
+        }
+        final WarehouseGeoIndex index = WarehouseGeoIndex.build(warehouses, warehouse -> Optional.ofNullable(locations.get(warehouse.postalCode())));
+
+        for (int query = 0; query < 50; query++) {
+            final GeoPoint origin = new GeoPoint(25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57);
+            final int minDocks = query % 2 == 0 ? Integer.MIN_VALUE : 40;
+
+            // When
+            final List<NearbyWarehouse> nearest = index.nearest(origin, 7, minDocks, Integer.MIN_VALUE);
+
+            // Then
+            final List<Double> expected = warehouses.stream()
+                    .filter(warehouse -> warehouse.loadingDocks() >= minDocks)
+                    .map(warehouse -> haversineKm(origin, locations.get(warehouse.postalCode())))
+                    .sorted(Comparator.naturalOrder())
+                    .limit(7)
+                    .toList();
+            assertThat(nearest).extracting(NearbyWarehouse::distanceKm)
+                    .zipSatisfy(expected, (actual, wanted) -> assertThat(actual).isCloseTo(wanted, within(1e-6)));
+        }
+    }
+
+    @Test
+    void shouldSkipWarehousesBelowMinimums_whenFiltering() {
+        // Given
+        final Map<String, GeoPoint> locations = Map.of(
+                "A", new GeoPoint(40.0, -75.0),
+                "B", new GeoPoint(40.1, -75.0),
+                "C", new GeoPoint(45.0, -75.0));
+        final WarehouseGeoIndex index = WarehouseGeoIndex.build(List.of(
+                new Warehouse("Near Small", null, null, null, "A", null, 1_000, 2),
+                new Warehouse("Near Large", null, null, null, "B", null, 500_000, 40),
+                new Warehouse("Far Large", null, null, null, "C", null, 900_000, 60),
+                new Warehouse("Unlocated", null, null, null, "Z", null, 900_000, 60)),
+                warehouse -> Optional.ofNullable(locations.get(warehouse.postalCode())));
+
+        // When
+        final List<NearbyWarehouse> nearest = index.nearest(new GeoPoint(40.0, -75.0), 5, 10, 100_000);
+
+        // Then
+        assertThat(nearest).extracting(nearby -> nearby.warehouse().name()).containsExactly("Near Large", "Far Large");
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.unlocated()).isEqualTo(1);
+    }
+
+    private static double haversineKm(final GeoPoint from, final GeoPoint to) {
+        final double deltaLatitude = Math.toRadians(to.latitude() - from.latitude());
+        final double deltaLongitude = Math.toRadians(to.longitude() - from.longitude());
+        final double a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                + Math.cos(Math.toRadians(from.latitude())) * Math.cos(Math.toRadians(to.latitude()))
+                * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * 6371.0088 * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,169 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehousePage;
+import com.training.homework.whoms.dto.WarehouseQuery;
+import com.training.homework.whoms.dto.WarehouseSort;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for WarehouseIndex.
+ */
+class WarehouseIndexTest {
+
+    private final WarehouseIndex index = WarehouseIndex.build(List.of(
+            new Warehouse("Alpha", "1 First St", "Albany", "NY", "12205", "(518) 555-0001", 600000, 36),
+            new Warehouse("Bravo", "2 Second St", "Buffalo", "NY", "14201", "(716) 555-0002", 250000, 12),
+            new Warehouse("Charlie", "3 Third St", "Newark", "NJ", "07102", "(973) 555-0003", 250000, 24),
+            new Warehouse("Delta", "4 Fourth St", "Albany", "NY", "12206", "(518) 555-0004", 90000, 6),
+            new Warehouse("Echo", "5 Fifth St", "Houston", "TX", "77002", "(713) 555-0005", 1500000, 40)));
+
+    @Test
+    void shouldReturnMatchingWarehouses_whenFilteringByStateCaseInsensitively() {
+        // When
+        final WarehousePage page = index.query(query("ny", null, null, null, WarehouseSort.CATALOG, null, 10));
+
+        // Then
+        assertThat(page.items()).extracting(Warehouse::name).containsExactly("Alpha", "Bravo", "Delta");
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldApplyMinimumsAndDescendingSort_whenCombinedWithEqualityFilter() {
+        // When
+        final WarehousePage page = index.query(query("NY", "Albany", 100000, null, WarehouseSort.SQUARE_FOOTAGE_DESC, null, 10));
+
+        // Then
+        assertThat(page.items()).extracting(Warehouse::name).containsExactly("Alpha");
+    }
+
+    @Test
+    void shouldReturnEmptyPage_whenEqualityFilterHasNoMatches() {
+        // When
+        final WarehousePage page = index.query(query("CA", null, null, null, WarehouseSort.CATALOG, null, 10));
+
+        // Then
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldWalkAllPagesInSortOrder_whenFollowingCursors() {
+        // Given
+        final List<String> names = new ArrayList<>();
+        String cursor = null;
+
+        // When
+        do {
+            final WarehousePage page = index.query(query(null, null, null, 10, WarehouseSort.LOADING_DOCKS_ASC, cursor, 2));
+            page.items().forEach(warehouse -> names.add(warehouse.name()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertThat(names).containsExactly("Bravo", "Charlie", "Alpha", "Echo");
+    }
+
+    @Test
+    void shouldBreakTiesByName_whenPagingDescendingOverEqualKeys() {
+        // When
+        final WarehousePage first = index.query(query(null, null, null, null, WarehouseSort.SQUARE_FOOTAGE_DESC, null, 3));
+        final WarehousePage second = index.query(query(null, null, null, null, WarehouseSort.SQUARE_FOOTAGE_DESC, first.nextCursor(), 3));
+
+        // Then
+        assertThat(first.items()).extracting(Warehouse::name).containsExactly("Echo", "Alpha", "Charlie");
+        assertThat(second.items()).extracting(Warehouse::name).containsExactly("Bravo", "Delta");
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldResumeAfterLastWarehouse_whenRowsAreRemovedBetweenPages() {
+        // Given
+        final WarehousePage first = index.query(query(null, null, null, null, WarehouseSort.SQUARE_FOOTAGE_DESC, null, 3));
+
+        // When
+        final WarehousePage second = index.withRemoved("Alpha")
+                .query(query(null, null, null, null, WarehouseSort.SQUARE_FOOTAGE_DESC, first.nextCursor(), 3));
+
+        // Then
+        assertThat(second.items()).extracting(Warehouse::name).containsExactly("Bravo", "Delta");
+    }
+
+    @Test
+    void shouldResumeAtRemovedWarehousesPosition_whenPagingCatalogOrder() {
+        // Given
+        final WarehousePage first = index.query(query(null, null, null, null, WarehouseSort.CATALOG, null, 2));
+
+        // When
+        final WarehousePage second = index.withRemoved("Bravo")
+                .query(query(null, null, null, null, WarehouseSort.CATALOG, first.nextCursor(), 2));
+
+        // Then
+        assertThat(first.items()).extracting(Warehouse::name).containsExactly("Alpha", "Bravo");
+        assertThat(second.items()).extracting(Warehouse::name).containsExactly("Charlie", "Delta");
+    }
+
+    @Test
+    void shouldRejectCursor_whenReplayedAgainstDifferentQuery() {
+        // Given
+        final String cursor = index.query(query("NY", null, null, null, WarehouseSort.SQUARE_FOOTAGE_ASC, null, 1)).nextCursor();
+
+        // When & Then
+        assertThat(index.query(query(" ny ", null, null, null, WarehouseSort.SQUARE_FOOTAGE_ASC, cursor, 5)).items())
+                .extracting(Warehouse::name).containsExactly("Bravo", "Alpha");
+        assertThatThrownBy(() -> index.query(query("NJ", null, null, null, WarehouseSort.SQUARE_FOOTAGE_ASC, cursor, 1)))
+                .isInstanceOf(InvalidWarehouseQueryException.class);
+        assertThatThrownBy(() -> index.query(query("NY", null, null, null, WarehouseSort.LOADING_DOCKS_ASC, cursor, 1)))
+                .isInstanceOf(InvalidWarehouseQueryException.class);
+        assertThatThrownBy(() -> index.query(query("NY", null, 1, null, WarehouseSort.SQUARE_FOOTAGE_ASC, cursor, 1)))
+                .isInstanceOf(InvalidWarehouseQueryException.class);
+    }
+
+    @Test
+    void shouldMatchFreshBuild_whenDerivedBySavesAndRemovals() {
+        // Given
+        final Warehouse bravoMoved = new Warehouse("Bravo", "2 Second St", "Newark", "NJ", "07103", "(716) 555-0002", 80000, 50);
+        final Warehouse foxtrot = new Warehouse("Foxtrot", "6 Sixth St", "albany", "ny", "12207", "(518) 555-0006", 250000, 12);
+
+        // When
+        final WarehouseIndex derived = index.withSaved(List.of(bravoMoved, foxtrot)).withRemoved("Charlie");
+
+        // Then
+        final WarehouseIndex rebuilt = WarehouseIndex.build(List.of(
+                index.findByName("Alpha").orElseThrow(), bravoMoved, index.findByName("Delta").orElseThrow(),
+                index.findByName("Echo").orElseThrow(), foxtrot));
+        assertThat(derived.rows()).isEqualTo(rebuilt.rows());
+        assertThat(derived.findByName("Charlie")).isEmpty();
+        for (final WarehouseSort sort : WarehouseSort.values()) {
+            for (final String state : new String[] {null, "NY", "NJ"}) {
+                final WarehouseQuery query = query(state, null, null, null, sort, null, 10);
+                assertThat(derived.query(query)).isEqualTo(rebuilt.query(query));
+            }
+            final WarehouseQuery byCity = query(null, "Albany", null, null, sort, null, 10);
+            assertThat(derived.query(byCity).items()).extracting(Warehouse::name).containsExactlyInAnyOrder("Alpha", "Delta", "Foxtrot");
+        }
+    }
+
+    @Test
+    void shouldThrowInvalidQuery_whenCursorIsMalformed() {
+        // When & Then
+        assertThatThrownBy(() -> index.query(query(null, null, null, null, WarehouseSort.CATALOG, "not-a-cursor", 2)))
+                .isInstanceOf(InvalidWarehouseQueryException.class);
+    }
+
+    private static WarehouseQuery query(
+            final String state,
+            final String city,
+            final Integer minSquareFootage,
+            final Integer minLoadingDocks,
+            final WarehouseSort sort,
+            final String cursor,
+            final int limit) {
+        return new WarehouseQuery(state, city, null, minSquareFootage, minLoadingDocks, sort, cursor, limit);
+    }
+}
@@ -0,0 +1,114 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.training.homework.whoms.config.BulkIngestionProperties;
+import com.training.homework.whoms.dto.BulkIngestionReport;
+import com.training.homework.whoms.dto.BulkIngestionReport.RowError;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Unit tests for WarehouseIngestionService.
+ */
+class WarehouseIngestionServiceTest {
+
+    private final WarehouseDtoDataImpl warehouseDtoData = new WarehouseDtoDataImpl();
+    private final WarehouseIngestionService ingestionService = new WarehouseIngestionService(
+            warehouseDtoData,
+            Jackson2ObjectMapperBuilder.json().build(),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            new BulkIngestionProperties(2, 2));
+
+    @Test
+    void shouldSaveValidRowsAndReportInvalidOnes_whenJsonArrayPosted() throws IOException {
+        // Given
+        final String payload = """
+                [
+                  {"name": "Reno Fulfillment Center", "city": "Reno", "state": "NV", "squareFootage": 400000, "loadingDocks": 30},
+                  {"name": "", "squareFootage": 1000, "loadingDocks": 1},
+                  {"name": "Memphis Cross Dock", "city": "Memphis", "state": "TN", "squareFootage": 250000, "loadingDocks": 48},
+                  {"name": "Dallas Freight Terminal", "squareFootage": "large"},
+                  {"name": "Ontario Inland Port", "city": "Ontario", "state": "CA", "squareFootage": 900000, "loadingDocks": 80}
+                ]
+                """;
+
+        // When
+        final BulkIngestionReport report = ingest(payload);
+
+        // Then
+        assertThat(report.received()).isEqualTo(5);
+        assertThat(report.saved()).isEqualTo(3);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.complete()).isTrue();
+        assertThat(report.errors()).extracting(RowError::row).containsExactly(2, 4);
+        assertThat(report.errors().get(0).messages()).containsExactly("name must not be blank");
+        assertThat(report.errors().get(1).name()).isEqualTo("Dallas Freight Terminal");
+        assertThat(warehouseDtoData.findWarehouse("Ontario Inland Port")).isPresent();
+        assertThat(warehouseDtoData.getWarehouseCount()).isEqualTo(WarehouseSeedData.WAREHOUSES.size() + 3);
+    }
+
+    @Test
+    void shouldSaveEveryRow_whenNdjsonPosted() throws IOException {
+        // Given
+        final String payload = """
+                {"name": "Reno Fulfillment Center", "squareFootage": 400000, "loadingDocks": 30}
+                {"name": "Memphis Cross Dock", "squareFootage": 250000, "loadingDocks": 48}
+                {"name": "Ontario Inland Port", "squareFootage": 900000, "loadingDocks": 80}
+                """;
+
+        // When
+        final BulkIngestionReport report = ingest(payload);
+
+        // Then
+        assertThat(report.saved()).isEqualTo(3);
+        assertThat(report.errors()).isEmpty();
+        assertThat(warehouseDtoData.findWarehouse("Memphis Cross Dock")).isPresent();
+    }
+
+    @Test
+    void shouldStopAndKeepEarlierRows_whenPayloadIsMalformed() throws IOException {
+        // Given
+        final String payload = """
+                {"name": "Reno Fulfillment Center", "squareFootage": 400000, "loadingDocks": 30}
+                {"name": "Memphis Cross Dock", "squareFootage": 250000,
+                """;
+
+        // When
+        final BulkIngestionReport report = ingest(payload);
+
+        // Then
+        assertThat(report.complete()).isFalse();
+        assertThat(report.saved()).isEqualTo(1);
+        assertThat(report.errors()).extracting(RowError::row).containsExactly(2);
+        assertThat(warehouseDtoData.findWarehouse("Reno Fulfillment Center")).isPresent();
+    }
+
+    @Test
+    void shouldCapReportedErrors_whenManyRowsAreInvalid() throws IOException {
+        // Given
+        final String payload = """
+                {"name": "", "squareFootage": 1}
+                {"name": "Negative Docks", "loadingDocks": -1}
+                "not an object"
+                {"squareFootage": 5}
+                """;
+
+        // When
+        final BulkIngestionReport report = ingest(payload);
+
+        // Then
+        assertThat(report.rejected()).isEqualTo(4);
+        assertThat(report.errors()).hasSize(2);
+        assertThat(report.errorsTruncated()).isTrue();
+        assertThat(report.saved()).isZero();
+    }
+
+    private BulkIngestionReport ingest(final String payload) throws IOException {
+        return ingestionService.ingest(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
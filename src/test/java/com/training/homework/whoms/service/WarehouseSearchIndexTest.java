@@ -0,0 +1,97 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehouseSearchHit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for WarehouseSearchIndex.
+ */
+class WarehouseSearchIndexTest {
+
+    private static final int MAX_EXPANSIONS = 50;
+
+    private final WarehouseSearchIndex index = new WarehouseSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        WarehouseSeedData.WAREHOUSES.forEach(index::put);
+    }
+
+    @Test
+    void shouldMatchWordsStartingWithLastQueryWord_whenQueryIsIncomplete() {
+        // When
+        final List<WarehouseSearchHit> hits = index.search("Charl", 10, MAX_EXPANSIONS);
+
+        // Then
+        assertThat(names(hits)).containsExactly("Charlotte Fulfillment Center");
+    }
+
+    @Test
+    void shouldRequireEveryWord_whenQueryHasSeveralWords() {
+        // When & Then
+        assertThat(names(index.search("Port Access", 10, MAX_EXPANSIONS))).containsExactly("Jacksonville Coastal Warehouse");
+        assertThat(index.search("Charlotte Houston", 10, MAX_EXPANSIONS)).isEmpty();
+    }
+
+    @Test
+    void shouldRankNameMatchesAboveAddressMatches_whenWordAppearsInBoth() {
+        // When
+        final List<WarehouseSearchHit> hits = index.search("warehouse", 10, MAX_EXPANSIONS);
+
+        // Then
+        assertThat(names(hits)).containsExactly(
+                "Albany Regional Warehouse", "Jacksonville Coastal Warehouse", "Philadelphia Storage Facility");
+        assertThat(hits.get(1).score()).isGreaterThan(hits.get(2).score());
+    }
+
+    @Test
+    void shouldMatchWordsWithinEditDistance_whenQueryIsMisspelled() {
+        // When & Then
+        assertThat(names(index.search("Huston", 10, MAX_EXPANSIONS))).containsExactly("Houston Energy District Depot");
+        assertThat(names(index.search("Jaksonvile coastal", 10, MAX_EXPANSIONS))).containsExactly("Jacksonville Coastal Warehouse");
+        assertThat(index.search("Hxstxn", 10, MAX_EXPANSIONS)).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreCaseAndAccents_whenSplittingText() {
+        // When & Then
+        assertThat(WarehouseSearchIndex.terms("Montr\u00e9al-Nord, 12 RUE Saint-Denis"))
+                .containsExactly("montreal", "nord", "12", "rue", "saint", "denis");
+    }
+
+    @Test
+    void shouldReflectUpdatesAndRemovals_whenWarehousesChange() {
+        // When
+        index.put(new Warehouse("Richmond Distribution Point", "1 Harbor Road", "Norfolk", "VA", "23510", null, 175000, 14));
+        index.remove("Newark Logistics Hub");
+
+        // Then
+        assertThat(names(index.search("norfolk harbor", 10, MAX_EXPANSIONS))).containsExactly("Richmond Distribution Point");
+        assertThat(index.search("Supply Chain", 10, MAX_EXPANSIONS)).isEmpty();
+        assertThat(index.search("Newark", 10, MAX_EXPANSIONS)).isEmpty();
+        assertThat(index.size()).isEqualTo(WarehouseSeedData.WAREHOUSES.size() - 1);
+    }
+
+    @Test
+    void shouldCompact_whenDeletedIdsOutnumberLiveWarehouses() {
+        // When
+        for (int i = 0; i < 2_000; i++) {
+            index.put(new Warehouse("Newark Logistics Hub", i + " Freight Avenue", "Newark", "NJ", "07102", null, 250000, 24));
+        }
+
+        // Then
+        assertThat(index.deleted()).isLessThan(1_024);
+        assertThat(index.size()).isEqualTo(WarehouseSeedData.WAREHOUSES.size());
+        assertThat(index.search("1999 Freight", 10, MAX_EXPANSIONS)).hasSize(1);
+        assertThat(index.search("1998 Freight", 10, MAX_EXPANSIONS)).isEmpty();
+    }
+
+    private static List<String> names(final List<WarehouseSearchHit> hits) {
+        return hits.stream().map(hit -> hit.warehouse().name()).toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.training.homework.whoms.config.SearchProperties;
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehouseSearchHit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for WarehouseSearchService.
+ */
+class WarehouseSearchServiceTest {
+
+    private final WarehouseDtoDataImpl store = new WarehouseDtoDataImpl();
+    private final List<Object> published = new ArrayList<>();
+    private final WarehouseDtoData warehouseDtoData = new EventPublishingWarehouseDtoData(store, published::add);
+    private final WarehouseSearchService searchService = new WarehouseSearchService(warehouseDtoData, new SearchProperties(0, 0));
+
+    @Test
+    void shouldFindSavedAndDropRemovedWarehouses_whenChangesAreAppliedIncrementally() {
+        // Given
+        assertThat(searchService.search("Boise", 10)).isEmpty();
+        warehouseDtoData.saveAll(List.of(new Warehouse("Boise Overflow", "77 Airport Way", "Boise", "ID", "83705", null, 12000, 3)));
+        warehouseDtoData.removeWarehouse("Newark Logistics Hub");
+
+        // When
+        deliverPublishedEvents();
+
+        // Then
+        assertThat(names(searchService.search("Boise Airp", 10))).containsExactly("Boise Overflow");
+        assertThat(searchService.search("Newark", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldRebuildIndex_whenEventDoesNotFollowOnFromCurrentVersion() {
+        // Given
+        searchService.search("Charlotte", 10);
+        store.saveAll(List.of(new Warehouse("Missed Warehouse", null, "Boise", "ID", "83705", null, 12000, 3)));
+        warehouseDtoData.saveAll(List.of(new Warehouse("Seen Warehouse", null, "Boise", "ID", "83705", null, 8000, 1)));
+
+        // When
+        deliverPublishedEvents();
+
+        // Then
+        assertThat(names(searchService.search("Boise", 10))).containsExactly("Missed Warehouse", "Seen Warehouse");
+    }
+
+    @Test
+    void shouldRejectRequest_whenQueryOrLimitIsInvalid() {
+        // When & Then
+        assertThatThrownBy(() -> searchService.search(" ", 10))
+                .isInstanceOf(InvalidWarehouseQueryException.class);
+        assertThatThrownBy(() -> searchService.search("x".repeat(WarehouseSearchService.MAX_QUERY_LENGTH + 1), 10))
+                .isInstanceOf(InvalidWarehouseQueryException.class);
+        assertThatThrownBy(() -> searchService.search("Charlotte", 101))
+                .isInstanceOf(InvalidWarehouseQueryException.class);
+    }
+
+    private void deliverPublishedEvents() {
+        published.forEach(event -> searchService.onCatalogChanged((WarehouseCatalogChangedEvent) event));
+        published.clear();
+    }
+
+    private static List<String> names(final List<WarehouseSearchHit> hits) {
+        return hits.stream().map(hit -> hit.warehouse().name()).toList();
+    }
+}
@@ -0,0 +1,52 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.training.homework.whoms.config.WireFormat;
+import com.training.homework.whoms.dto.Warehouse;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Unit tests for WarehouseSnapshotService.
+ */
+class WarehouseSnapshotServiceTest {
+
+    private final WarehouseDtoDataImpl store = new WarehouseDtoDataImpl();
+    private final WarehouseSnapshotService snapshotService =
+            new WarehouseSnapshotService(store, Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    void shouldEncodeEachRepresentationOnce_whenCatalogIsUnchanged() {
+        // Given
+        final WarehouseCatalogSnapshot snapshot = snapshotService.getSnapshot();
+
+        // When
+        final WarehouseCatalogSnapshot.Representation first = snapshot.representation(WireFormat.CBOR, false);
+        final WarehouseCatalogSnapshot.Representation second =
+                snapshotService.getSnapshot().representation(WireFormat.CBOR, false);
+
+        // Then
+        assertThat(snapshotService.getSnapshot()).isSameAs(snapshot);
+        assertThat(second).isSameAs(first);
+        assertThat(snapshot.representation(WireFormat.JSON, true).etag())
+                .isNotEqualTo(snapshot.representation(WireFormat.JSON, false).etag());
+    }
+
+    @Test
+    void shouldEncodeNewVersion_whenCatalogChanges() {
+        // Given
+        final WarehouseCatalogSnapshot before = snapshotService.getSnapshot();
+        final String etag = before.representation(WireFormat.JSON, false).etag();
+
+        // When
+        store.saveAll(List.of(new Warehouse("Boise Overflow", null, "Boise", "ID", "83705", null, 12000, 3)));
+        final WarehouseCatalogSnapshot after = snapshotService.getSnapshot();
+
+        // Then
+        assertThat(after.catalogVersion()).isEqualTo(store.getCatalogVersion());
+        assertThat(after.size()).isEqualTo(before.size() + 1);
+        assertThat(after.representation(WireFormat.JSON, false).etag()).isNotEqualTo(etag);
+    }
+}
@@ -0,0 +1,176 @@
+package com.training.homework.whoms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.training.homework.whoms.dto.Warehouse;
+import com.training.homework.whoms.dto.WarehouseStats;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for WarehouseStatsService.
+ */
+class WarehouseStatsServiceTest {
+
+    private final WarehouseDtoDataImpl store = new WarehouseDtoDataImpl();
+    private final List<Object> published = new ArrayList<>();
+    private final WarehouseDtoData warehouseDtoData = new EventPublishingWarehouseDtoData(store, published::add);
+    private final WarehouseStatsService statsService = new WarehouseStatsService(warehouseDtoData);
+
+    @Test
+    void shouldMatchFreshTotals_whenSavesAreAppliedIncrementally() {
+        // Given
+        statsService.getStats("state", 3);
+        warehouseDtoData.saveAll(List.of(
+                new Warehouse("Newark Logistics Hub", null, "Albany", "NY", "12205", null, 4000000, 60),
+                new Warehouse("Boise Overflow", null, "Boise", "ID", "83705", null, 12000, 3)));
+
+        // When
+        deliverPublishedEvents();
+        final WarehouseStats incremental = statsService.getStats("state", 3);
+
+        // Then
+        final WarehouseStats rebuilt = new WarehouseStatsService(warehouseDtoData).getStats("state", 3);
+        assertThat(incremental.catalogVersion()).isEqualTo(store.getCatalogVersion());
+        assertThat(incremental).isEqualTo(rebuilt);
+        assertThat(incremental.groups()).extracting(WarehouseStats.Group::key).doesNotContain("NJ");
+        assertThat(incremental.largest().get(0).name()).isEqualTo("Newark Logistics Hub");
+    }
+
+    @Test
+    void shouldMoveReservedCapacity_whenReservedWarehouseChangesState() {
+        // Given
+        statsService.getStats("state", 0);
+        statsService.onReservationChanged(new CapacityReservationChangedEvent("Newark Logistics Hub", 5000, 2));
+        assertThat(group(statsService.getStats("state", 0), "NJ").reservedSquareFootage()).isEqualTo(5000);
+
+        // When
+        warehouseDtoData.saveAll(List.of(new Warehouse("Newark Logistics Hub", null, "Albany", "NY", "12205", null, 250000, 24)));
+        deliverPublishedEvents();
+
+        // Then
+        final WarehouseStats stats = statsService.getStats("state", 0);
+        final WarehouseStats.Group newYork = group(stats, "NY");
+        assertThat(newYork.warehouses()).isEqualTo(2);
+        assertThat(newYork.reservedSquareFootage()).isEqualTo(5000);
+        assertThat(newYork.reservedLoadingDocks()).isEqualTo(2);
+        assertThat(newYork.loadingDocks().min()).isEqualTo(24);
+        assertThat(stats.groups()).extracting(WarehouseStats.Group::key).doesNotContain("NJ");
+    }
+
+    @Test
+    void shouldReleaseReservedCapacity_whenReleaseEventArrives() {
+        // Given
+        statsService.getStats("city", 0);
+        statsService.onReservationChanged(new CapacityReservationChangedEvent("Newark Logistics Hub", 5000, 2));
+
+        // When
+        statsService.onReservationChanged(new CapacityReservationChangedEvent("Newark Logistics Hub", -5000, -2));
+
+        // Then
+        final WarehouseStats.Group newark = group(statsService.getStats("city", 0), "Newark");
+        assertThat(newark.reservedSquareFootage()).isZero();
+        assertThat(newark.reservedLoadingDocks()).isZero();
+    }
+
+    @Test
+    void shouldTakeWarehouseOutOfTotals_whenRemoved() {
+        // Given
+        statsService.getStats("state", 10);
+
+        // When
+        warehouseDtoData.removeWarehouse("Newark Logistics Hub");
+        deliverPublishedEvents();
+
+        // Then
+        final WarehouseStats stats = statsService.getStats("state", 10);
+        assertThat(stats.catalogVersion()).isEqualTo(store.getCatalogVersion());
+        assertThat(stats.warehouses()).isEqualTo(WarehouseSeedData.WAREHOUSES.size() - 1);
+        assertThat(stats.groups()).extracting(WarehouseStats.Group::key).doesNotContain("NJ");
+        assertThat(stats.largest()).extracting(Warehouse::name).doesNotContain("Newark Logistics Hub");
+    }
+
+    @Test
+    void shouldRebuildTotals_whenEventDoesNotFollowOnFromCurrentVersion() {
+        // Given
+        statsService.getStats("state", 0);
+        store.saveAll(List.of(new Warehouse("Missed Warehouse", null, "Boise", "ID", "83705", null, 12000, 3)));
+        warehouseDtoData.saveAll(List.of(new Warehouse("Seen Warehouse", null, "Boise", "ID", "83705", null, 8000, 1)));
+
+        // When
+        deliverPublishedEvents();
+        final WarehouseStats stats = statsService.getStats("state", 0);
+
+        // Then
+        assertThat(stats.warehouses()).isEqualTo(WarehouseSeedData.WAREHOUSES.size() + 2);
+        assertThat(group(stats, "ID").warehouses()).isEqualTo(2);
+        assertThat(group(stats, "ID").squareFootage().sum()).isEqualTo(20000);
+    }
+
+    @Test
+    void shouldGroupCitiesWithinStateIgnoringCase_whenGroupedByCity() {
+        // Given
+        warehouseDtoData.saveAll(List.of(
+                new Warehouse("Springfield North", null, "Springfield", "IL", "62701", null, 10000, 2),
+                new Warehouse("Springfield South", null, "springfield ", "il", "62703", null, 20000, 4),
+                new Warehouse("Springfield West", null, "Springfield", "MO", "65801", null, 30000, 6)));
+
+        // When
+        final WarehouseStats stats = statsService.getStats("city", 0);
+
+        // Then
+        final List<WarehouseStats.Group> springfields = stats.groups().stream()
+                .filter(group -> "Springfield".equals(group.key()))
+                .toList();
+        assertThat(springfields).extracting(WarehouseStats.Group::state).containsExactly("IL", "MO");
+        assertThat(springfields.get(0).warehouses()).isEqualTo(2);
+        assertThat(springfields.get(0).squareFootage().sum()).isEqualTo(30000);
+        assertThat(springfields.get(1).warehouses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMatchTotalsKeptFromEvents_whenStoreTotalsItsOwnColumns() {
+        // Given
+        final WarehouseDtoData columnar = new EventPublishingWarehouseDtoData(new ColumnarWarehouseDtoData(), event -> {
+        });
+        final WarehouseStatsService columnarStats = new WarehouseStatsService(columnar);
+        statsService.getStats("state", 0);
+        for (final WarehouseDtoData target : List.of(warehouseDtoData, columnar)) {
+            target.saveAll(List.of(
+                    new Warehouse("Springfield North", null, "Springfield", "IL", "62701", null, 10000, 2),
+                    new Warehouse("Springfield South", null, "springfield ", "il", "62703", null, 20000, 4),
+                    new Warehouse("Springfield West", null, "Springfield", "MO", "65801", null, 30000, 6),
+                    new Warehouse("Newark Logistics Hub", null, "Albany", "NY", "12205", null, 250000, 24)));
+            target.removeWarehouse(WarehouseSeedData.WAREHOUSES.get(2).name());
+        }
+        deliverPublishedEvents();
+        final CapacityReservationChangedEvent reservation = new CapacityReservationChangedEvent("Springfield South", 5000, 2);
+        statsService.onReservationChanged(reservation);
+        columnarStats.onReservationChanged(reservation);
+
+        // When & Then
+        for (final String groupBy : List.of("state", "city")) {
+            assertThat(columnarStats.getStats(groupBy, 10)).isEqualTo(statsService.getStats(groupBy, 10));
+        }
+    }
+
+    @Test
+    void shouldRejectRequest_whenGroupByOrTopIsInvalid() {
+        // When & Then
+        assertThatThrownBy(() -> statsService.getStats("postalCode", 10))
+                .isInstanceOf(InvalidWarehouseQueryException.class);
+        assertThatThrownBy(() -> statsService.getStats("state", WarehouseStatsService.MAX_TOP + 1))
+                .isInstanceOf(InvalidWarehouseQueryException.class);
+    }
+
+    private void deliverPublishedEvents() {
+        published.forEach(event -> statsService.onCatalogChanged((WarehouseCatalogChangedEvent) event));
+        published.clear();
+    }
+
+    private static WarehouseStats.Group group(final WarehouseStats stats, final String key) {
+        return stats.groups().stream().filter(group -> key.equals(group.key())).findFirst().orElseThrow();
+    }
+}